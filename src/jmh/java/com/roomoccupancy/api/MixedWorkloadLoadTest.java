@@ -0,0 +1,260 @@
+package com.roomoccupancy.api;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Load test of the optimization endpoint under a mixed workload, over the
+ * network, with the API started in the same JVM. Small guest lists are
+ * requested in a closed loop, while big guest lists keep the processors busy
+ * and slow clients trickle their request bodies, holding request threads. The
+ * tail latencies of the small requests show how much the other two starve
+ * them, in each execution mode.
+ *
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.main=com.roomoccupancy.api.MixedWorkloadLoadTest -Djmh.args="mode=platform offloadThreshold=0"
+ * </pre>
+ *
+ * Options, as {@code key=value}: {@code mode} ({@code platform} or
+ * {@code virtual}), {@code offloadThreshold}, {@code maxThreads} of Tomcat,
+ * {@code smallClients}, {@code bigClients}, {@code slowClients},
+ * {@code smallOffers}, {@code bigOffers}, {@code warmupSeconds} and
+ * {@code seconds}.
+ *
+ * @author luis
+ *
+ */
+public class MixedWorkloadLoadTest {
+
+	private static final String OPTIMIZE_OCCUPANCY_URL = "/v1/rooms/optimizeOccupancy";
+
+	private final Map<String, String> options;
+
+	private final int port;
+
+	private volatile boolean running = true;
+
+	private final AtomicLong bigRequests = new AtomicLong();
+
+	private MixedWorkloadLoadTest(Map<String, String> options, int port) {
+		this.options = options;
+		this.port = port;
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = new HashMap<>();
+		for (String arg : args) {
+			String[] option = arg.split("=", 2);
+			options.put(option[0], option[1]);
+		}
+
+		ConfigurableApplicationContext context = SpringApplication.run(RoomOccupancyApplication.class,
+				"--server.port=0", "--roomoccupancy.web.execution-mode=" + options.getOrDefault("mode", "platform"),
+				"--roomoccupancy.optimization.offload-threshold=" + options.getOrDefault("offloadThreshold", "100000"),
+				"--server.tomcat.max-threads=" + options.getOrDefault("maxThreads", "16"),
+				"--roomoccupancy.cache.maximum-size=0", "--roomoccupancy.coalescing.stripes=0",
+				"--logging.level.root=WARN");
+
+		try {
+			int port = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+			new MixedWorkloadLoadTest(options, port).run();
+		} finally {
+			context.close();
+		}
+
+		// The slow clients may still be waiting for their sockets
+		System.exit(0);
+	}
+
+	private int option(String name, int defaultValue) {
+		return Integer.parseInt(options.getOrDefault(name, String.valueOf(defaultValue)));
+	}
+
+	private void run() throws Exception {
+		int smallClients = option("smallClients", 8);
+		int bigClients = option("bigClients", 4);
+		int slowClients = option("slowClients", 0);
+
+		String smallRequest = createSmallRequest(option("smallOffers", 100));
+		byte[] bigRequest = createBigRequest(option("bigOffers", 1_000_000));
+
+		ExecutorService clients = Executors.newCachedThreadPool();
+		List<Future<long[]>> smallLatencies = new ArrayList<>();
+
+		try {
+			for (int i = 0; i < bigClients; i++) {
+				clients.submit(() -> requestBigOffers(bigRequest));
+			}
+			for (int i = 0; i < slowClients; i++) {
+				clients.submit(this::requestSlowly);
+			}
+
+			long measurementStart = System.nanoTime() + TimeUnit.SECONDS.toNanos(option("warmupSeconds", 5));
+			long measurementEnd = measurementStart + TimeUnit.SECONDS.toNanos(option("seconds", 20));
+
+			for (int i = 0; i < smallClients; i++) {
+				smallLatencies.add(clients.submit(() -> requestSmallOffers(smallRequest, measurementStart,
+						measurementEnd)));
+			}
+
+			long[] latencies = new long[0];
+			for (Future<long[]> clientLatencies : smallLatencies) {
+				long[] client = clientLatencies.get();
+				int length = latencies.length;
+				latencies = Arrays.copyOf(latencies, length + client.length);
+				System.arraycopy(client, 0, latencies, length, client.length);
+			}
+
+			report(latencies);
+		} finally {
+			running = false;
+			clients.shutdown();
+			clients.awaitTermination(1, TimeUnit.MINUTES);
+		}
+	}
+
+	private long[] requestSmallOffers(String request, long measurementStart, long measurementEnd) throws IOException {
+		long[] latencies = new long[1024];
+		int count = 0;
+
+		for (long start = System.nanoTime(); start < measurementEnd; start = System.nanoTime()) {
+			HttpURLConnection connection = open(request);
+			read(connection.getInputStream());
+			long latency = System.nanoTime() - start;
+
+			if (start >= measurementStart) {
+				if (count == latencies.length) {
+					latencies = Arrays.copyOf(latencies, count * 2);
+				}
+				latencies[count++] = latency;
+			}
+		}
+
+		return Arrays.copyOf(latencies, count);
+	}
+
+	private Void requestBigOffers(byte[] request) throws IOException {
+		while (running) {
+			HttpURLConnection connection = open(OPTIMIZE_OCCUPANCY_URL);
+			connection.setRequestMethod("POST");
+			connection.setRequestProperty("Content-Type", "application/json");
+			connection.setFixedLengthStreamingMode(request.length);
+			connection.setDoOutput(true);
+
+			try (OutputStream body = connection.getOutputStream()) {
+				body.write(request);
+			}
+
+			read(connection.getInputStream());
+			bigRequests.incrementAndGet();
+		}
+
+		return null;
+	}
+
+	/**
+	 * Sends one byte of the body at a time, so the request holds the thread
+	 * that reads it for as long as the client wants
+	 */
+	private Void requestSlowly() throws IOException, InterruptedException {
+		byte[] body = "{\"freePremiumRooms\": 2, \"freeEconomyRooms\": 1, \"potentialGuests\": [120, 40, 70, 99]}"
+				.getBytes(StandardCharsets.UTF_8);
+
+		while (running) {
+			try (Socket socket = new Socket("localhost", port)) {
+				OutputStream output = socket.getOutputStream();
+				output.write(("POST " + OPTIMIZE_OCCUPANCY_URL + " HTTP/1.1\r\nHost: localhost\r\n"
+						+ "Content-Type: application/json\r\nConnection: close\r\nContent-Length: " + body.length
+						+ "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+
+				for (byte character : body) {
+					output.write(character);
+					output.flush();
+					TimeUnit.MILLISECONDS.sleep(running ? 100 : 0);
+				}
+
+				read(socket.getInputStream());
+			}
+		}
+
+		return null;
+	}
+
+	private HttpURLConnection open(String path) throws IOException {
+		return (HttpURLConnection) new URL("http://localhost:" + port + path).openConnection();
+	}
+
+	private static void read(InputStream inputStream) throws IOException {
+		try (InputStream input = inputStream) {
+			byte[] buffer = new byte[8192];
+			while (input.read(buffer) >= 0) {
+				// Only the time until the whole response is read matters
+			}
+		}
+	}
+
+	private static String createSmallRequest(int numberOfOffers) {
+		Random random = new Random(2290);
+		StringBuilder request = new StringBuilder(OPTIMIZE_OCCUPANCY_URL)
+				.append("?freePremiumRooms=10&freeEconomyRooms=10&potentialGuests=");
+
+		for (int i = 0; i < numberOfOffers; i++) {
+			request.append(i == 0 ? "" : ",").append(random.nextInt(400));
+		}
+
+		return request.toString();
+	}
+
+	private static byte[] createBigRequest(int numberOfOffers) {
+		Random random = new Random(2290);
+		StringBuilder offers = new StringBuilder("{\"freePremiumRooms\": 1000, \"freeEconomyRooms\": 1000, \"potentialGuests\": [");
+
+		for (int i = 0; i < numberOfOffers; i++) {
+			offers.append(i == 0 ? "" : ",").append(random.nextInt(1_000_000));
+		}
+		offers.append("]}");
+
+		return offers.toString().getBytes(StandardCharsets.US_ASCII);
+	}
+
+	private void report(long[] latencies) {
+		Arrays.sort(latencies);
+
+		System.out.println(String.format(Locale.ROOT,
+				"mode=%s offloadThreshold=%s small requests=%d big requests=%d latency ms: p50=%.2f p90=%.2f p99=%.2f p99.9=%.2f max=%.2f",
+				options.getOrDefault("mode", "platform"), options.getOrDefault("offloadThreshold", "100000"),
+				latencies.length, bigRequests.get(), percentile(latencies, 0.5), percentile(latencies, 0.9),
+				percentile(latencies, 0.99), percentile(latencies, 0.999),
+				latencies.length == 0 ? 0d : latencies[latencies.length - 1] / 1e6));
+	}
+
+	private static double percentile(long[] sortedLatencies, double percentile) {
+		if (sortedLatencies.length == 0) {
+			return 0d;
+		}
+
+		return sortedLatencies[(int) Math.min(sortedLatencies.length - 1,
+				Math.ceil(percentile * sortedLatencies.length) - 1)] / 1e6;
+	}
+
+}
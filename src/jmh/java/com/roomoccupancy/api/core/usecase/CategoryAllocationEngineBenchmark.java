@@ -0,0 +1,110 @@
+package com.roomoccupancy.api.core.usecase;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.roomoccupancy.api.core.entity.RoomCategoryOccupancyEntity;
+import com.roomoccupancy.api.core.metrics.OccupancyPhaseTimings;
+
+/**
+ * The {@link CategoryAllocationEngine} against sorting the offers and
+ * filtering those of each category, over a growing number of categories. The
+ * offers spread evenly from 1 to 1,000,000, and each category has free rooms
+ * for a third of its guests.
+ * 
+ * @author luis
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CategoryAllocationEngineBenchmark {
+
+	private static final int MAX_OFFER = 1_000_000;
+
+	@Param({ "1000000" })
+	int numberOfPotentialGuests;
+
+	@Param({ "2", "4", "8" })
+	int numberOfCategories;
+
+	private GuestOffers guestOffers;
+
+	private int[] minimumNightValues;
+
+	private int[] freeRooms;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(2290);
+
+		guestOffers = new GuestOffers(numberOfPotentialGuests);
+		for (int i = 0; i < numberOfPotentialGuests; i++) {
+			guestOffers.add(1 + random.nextInt(MAX_OFFER));
+		}
+
+		minimumNightValues = new int[numberOfCategories];
+		freeRooms = new int[numberOfCategories];
+		for (int category = 0; category < numberOfCategories; category++) {
+			minimumNightValues[category] = MAX_OFFER / numberOfCategories * (numberOfCategories - category - 1);
+			freeRooms[category] = numberOfPotentialGuests / numberOfCategories / 3;
+		}
+	}
+
+	@Benchmark
+	public RoomCategoryOccupancyEntity[] allocate() {
+		return CategoryAllocationEngine.allocate(minimumNightValues, freeRooms, guestOffers, false,
+				OccupancyPhaseTimings.start());
+	}
+
+	@Benchmark
+	public int[] sortAndFilterEachCategory() {
+		int[] sortedOffers = Arrays.copyOf(guestOffers.array(), guestOffers.size());
+		Arrays.sort(sortedOffers);
+
+		int[] potentialGuests = new int[numberOfCategories];
+		int[][] categoryOffers = new int[numberOfCategories][];
+		for (int category = 0; category < numberOfCategories; category++) {
+			int minimumNightValue = minimumNightValues[category];
+			int upperBound = category == 0 ? Integer.MAX_VALUE : minimumNightValues[category - 1];
+
+			categoryOffers[category] = Arrays.stream(sortedOffers)
+					.filter(offer -> offer >= minimumNightValue && offer < upperBound).toArray();
+			potentialGuests[category] = categoryOffers[category].length;
+		}
+
+		CategoryAllocationEngine.Plan plan = CategoryAllocationEngine.Plan.of(freeRooms, potentialGuests);
+
+		int[] incomes = new int[numberOfCategories];
+		for (int category = 0; category < numberOfCategories; category++) {
+			int to = categoryOffers[category].length;
+
+			for (int segment = plan.firstSegment(category); segment >= 0; segment = plan.nextSegment(segment)) {
+				int numberOfGuests = plan.getSegmentGuests(segment);
+
+				incomes[plan.getSegmentCategory(segment)] += TopOffersSelector.sum(categoryOffers[category],
+						to - numberOfGuests, to);
+				to -= numberOfGuests;
+			}
+		}
+
+		return incomes;
+	}
+
+}
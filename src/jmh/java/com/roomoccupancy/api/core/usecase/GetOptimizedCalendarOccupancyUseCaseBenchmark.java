@@ -0,0 +1,86 @@
+package com.roomoccupancy.api.core.usecase;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.roomoccupancy.api.core.entity.NightInventoryEntity;
+import com.roomoccupancy.api.core.entity.OptimizedCalendarOccupancyEntity;
+import com.roomoccupancy.api.core.entity.StayOfferEntity;
+
+/**
+ * Benchmark of {@link GetOptimizedCalendarOccupancyUseCase} over a year of
+ * nights, with stays of one to fourteen nights
+ * 
+ * @author luis
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class GetOptimizedCalendarOccupancyUseCaseBenchmark {
+
+	private static final LocalDate FIRST_NIGHT = LocalDate.of(2019, 1, 1);
+
+	@Param({ "365" })
+	int numberOfNights;
+
+	@Param({ "10000", "100000" })
+	int numberOfStays;
+
+	private GetOptimizedCalendarOccupancyUseCase calendarUseCase;
+
+	private List<NightInventoryEntity> nights;
+
+	private List<StayOfferEntity> stays;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(2290);
+
+		calendarUseCase = new GetOptimizedCalendarOccupancyUseCase();
+		calendarUseCase.occupancyUseCase = new GetOptimizedRoomOccupancyUseCase();
+		calendarUseCase.forkJoinPool = new ForkJoinPool();
+
+		nights = new ArrayList<>(numberOfNights);
+		for (int night = 0; night < numberOfNights; night++) {
+			nights.add(new NightInventoryEntity(50 + random.nextInt(100), 100 + random.nextInt(200)));
+		}
+
+		stays = new ArrayList<>(numberOfStays);
+		for (int stay = 0; stay < numberOfStays; stay++) {
+			LocalDate checkIn = FIRST_NIGHT.plusDays(random.nextInt(numberOfNights));
+			stays.add(new StayOfferEntity(checkIn, checkIn.plusDays(1 + random.nextInt(14)), 1 + random.nextInt(400)));
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		calendarUseCase.forkJoinPool.shutdown();
+	}
+
+	@Benchmark
+	public OptimizedCalendarOccupancyEntity getOptimizedCalendarOccupancy() {
+		return calendarUseCase.getOptimizedCalendarOccupancy(FIRST_NIGHT, nights, stays);
+	}
+
+}
@@ -0,0 +1,157 @@
+package com.roomoccupancy.api.core.usecase;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.roomoccupancy.api.core.entity.PortfolioHotelResultEntity;
+import com.roomoccupancy.api.entrypoint.v1.entity.OptimizedRoomOccupancyRequest;
+import com.roomoccupancy.api.entrypoint.v1.parser.OptimizedRoomOccupancyRequestParser;
+import com.roomoccupancy.api.entrypoint.v1.parser.PortfolioParser;
+
+/**
+ * A whole portfolio, from its newline delimited JSON bytes to the results of
+ * its hotels, against only the optimizations of the same hotels, already
+ * parsed, one after the other. The portfolio runs on a pool of one worker per
+ * processor, so its time should approach the sequential optimizations divided
+ * by the number of processors, plus the parsing.
+ * 
+ * @author luis
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class GetOptimizedPortfolioOccupancyUseCaseBenchmark {
+
+	@Param({ "1000" })
+	int numberOfHotels;
+
+	@Param({ "100", "10000" })
+	int numberOfPotentialGuests;
+
+	private GetOptimizedPortfolioOccupancyUseCase portfolioUseCase;
+
+	private PortfolioParser portfolioParser;
+
+	private byte[] portfolio;
+
+	private OptimizedRoomOccupancyRequestParser requestParser;
+
+	private byte[][] hotelLines;
+
+	private GuestOffers[] guestOffers;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(2290);
+
+		portfolioUseCase = new GetOptimizedPortfolioOccupancyUseCase();
+		portfolioUseCase.occupancyUseCase = new GetOptimizedRoomOccupancyUseCase();
+		portfolioUseCase.forkJoinPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+		requestParser = new OptimizedRoomOccupancyRequestParser(new ObjectMapper());
+		portfolioParser = new PortfolioParser(requestParser);
+
+		StringBuilder hotels = new StringBuilder();
+		hotelLines = new byte[numberOfHotels][];
+		guestOffers = new GuestOffers[numberOfHotels];
+
+		for (int hotel = 0; hotel < numberOfHotels; hotel++) {
+			int lineStart = hotels.length();
+			guestOffers[hotel] = new GuestOffers(numberOfPotentialGuests);
+			hotels.append("{\"hotelId\":\"hotel-").append(hotel).append("\",\"freePremiumRooms\":")
+					.append(numberOfPotentialGuests / 4).append(",\"freeEconomyRooms\":")
+					.append(numberOfPotentialGuests / 4).append(",\"potentialGuests\":[");
+
+			for (int i = 0; i < numberOfPotentialGuests; i++) {
+				int offer = 1 + random.nextInt(1_000);
+				guestOffers[hotel].add(offer);
+				hotels.append(i == 0 ? "" : ",").append(offer);
+			}
+			hotels.append("]}\n");
+			hotelLines[hotel] = hotels.substring(lineStart).getBytes(StandardCharsets.UTF_8);
+		}
+
+		portfolio = hotels.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	@TearDown
+	public void tearDown() {
+		portfolioUseCase.forkJoinPool.shutdown();
+	}
+
+	@Benchmark
+	public int optimizePortfolio() throws IOException, InterruptedException {
+		PortfolioOptimization optimization = portfolioUseCase.startPortfolioOptimization();
+
+		portfolioParser.parse(new ByteArrayInputStream(portfolio), new PortfolioParser.Listener() {
+
+			@Override
+			public void onHotel(Supplier<PortfolioHotel> hotelReader, int numberOfBytes) {
+				optimization.submit(hotelReader);
+			}
+
+			@Override
+			public void onInvalidHotel(String error) {
+				optimization.reject(error);
+			}
+		});
+
+		int income = 0;
+		for (PortfolioHotelResultEntity result = optimization.take(); result != null; result = optimization.take()) {
+			income += result.getResult().getPremiumOccupancy().getGeneratedIncome();
+		}
+
+		return income;
+	}
+
+	@Benchmark
+	public int parseAndOptimizeEachHotel() {
+		int income = 0;
+		for (byte[] hotelLine : hotelLines) {
+			OptimizedRoomOccupancyRequest request = requestParser.parse(hotelLine, 0, hotelLine.length);
+
+			income += portfolioUseCase.occupancyUseCase.getOptimizedRoomOccupancy(request.getFreePremiumRooms(),
+					request.getFreeEconomyRooms(), request.getPotentialGuests()).getPremiumOccupancy()
+					.getGeneratedIncome();
+		}
+
+		return income;
+	}
+
+	@Benchmark
+	public int optimizeEachHotel() {
+		int income = 0;
+		for (int hotel = 0; hotel < numberOfHotels; hotel++) {
+			income += portfolioUseCase.occupancyUseCase
+					.getOptimizedRoomOccupancy(numberOfPotentialGuests / 4, numberOfPotentialGuests / 4,
+							guestOffers[hotel])
+					.getPremiumOccupancy().getGeneratedIncome();
+		}
+
+		return income;
+	}
+
+}
@@ -0,0 +1,110 @@
+package com.roomoccupancy.api.core.usecase;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.roomoccupancy.api.core.entity.OptimizedRoomOccupancyEntity;
+
+/**
+ * Benchmarks of {@link GetOptimizedRoomOccupancyUseCase} over different guest
+ * list sizes, offer distributions and Premium/Economy room ratios. Run it with
+ * the gc profiler to see the garbage allocated per optimization.
+ * 
+ * @author luis
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class GetOptimizedRoomOccupancyUseCaseBenchmark {
+
+	/**
+	 * How the guests' offers are distributed
+	 */
+	public enum OfferDistribution {
+		/** Offers from 1 to 1,000,000 */
+		WIDE(1, 1_000_000, 0.5),
+		/** Nightly prices, from 1 to 2,000 */
+		NIGHTLY(1, 2_000, 0.5),
+		/** Nine out of ten offers are below the Premium minimum value */
+		MOSTLY_ECONOMY(1, 1_000, 0.9);
+
+		private final int minOffer;
+
+		private final int maxOffer;
+
+		private final double economyShare;
+
+		OfferDistribution(int minOffer, int maxOffer, double economyShare) {
+			this.minOffer = minOffer;
+			this.maxOffer = maxOffer;
+			this.economyShare = economyShare;
+		}
+
+		int nextOffer(Random random) {
+			int threshold = GetOptimizedRoomOccupancyUseCase.PREMIUM_ROOM_MINIMUN_NIGHT_VALUE;
+
+			if (random.nextDouble() < economyShare) {
+				return minOffer + random.nextInt(threshold - minOffer);
+			}
+
+			return threshold + random.nextInt(maxOffer - threshold + 1);
+		}
+	}
+
+	@Param({ "10", "1000", "100000", "10000000" })
+	int numberOfPotentialGuests;
+
+	@Param
+	OfferDistribution offerDistribution;
+
+	/** Share of the free rooms that are Premium */
+	@Param({ "0.2", "0.5", "0.8" })
+	double premiumRoomsRatio;
+
+	private GetOptimizedRoomOccupancyUseCase occupancyUseCase;
+
+	private Integer[] potentialGuests;
+
+	private Integer numberOfFreePremiumRooms;
+
+	private Integer numberOfFreeEconomyRooms;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(2290);
+
+		occupancyUseCase = new GetOptimizedRoomOccupancyUseCase();
+
+		potentialGuests = new Integer[numberOfPotentialGuests];
+		for (int i = 0; i < numberOfPotentialGuests; i++) {
+			potentialGuests[i] = offerDistribution.nextOffer(random);
+		}
+
+		int numberOfFreeRooms = numberOfPotentialGuests / 2;
+		numberOfFreePremiumRooms = (int) (numberOfFreeRooms * premiumRoomsRatio);
+		numberOfFreeEconomyRooms = numberOfFreeRooms - numberOfFreePremiumRooms;
+	}
+
+	@Benchmark
+	public OptimizedRoomOccupancyEntity getOptimizedRoomOccupancy() {
+		return occupancyUseCase.getOptimizedRoomOccupancy(numberOfFreePremiumRooms, numberOfFreeEconomyRooms,
+				potentialGuests);
+	}
+
+}
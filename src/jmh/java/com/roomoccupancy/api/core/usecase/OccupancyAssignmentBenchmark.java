@@ -0,0 +1,162 @@
+package com.roomoccupancy.api.core.usecase;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.roomoccupancy.api.core.metrics.OccupancyPhaseTimings;
+
+/**
+ * The room of each guest written as JSON straight from the
+ * {@link OccupancyAssignment}, against building a list with one object per
+ * guest and serializing it. Run with {@code -prof gc} to compare the memory
+ * allocated by each one.
+ * 
+ * @author luis
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class OccupancyAssignmentBenchmark {
+
+	private static final String[] ROOM_CATEGORIES = { "PREMIUM", "ECONOMY" };
+
+	@Param({ "1000000" })
+	int numberOfPotentialGuests;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private GuestOffers guestOffers;
+
+	private String[] guestIds;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(2290);
+
+		guestOffers = new GuestOffers(numberOfPotentialGuests);
+		guestIds = new String[numberOfPotentialGuests];
+		for (int i = 0; i < numberOfPotentialGuests; i++) {
+			guestOffers.add(1 + random.nextInt(1_000));
+			guestIds[i] = "guest-" + i;
+		}
+	}
+
+	private OccupancyAssignment assign() {
+		return CategoryAllocationEngine.assign(new int[] { 100, 0 },
+				new int[] { numberOfPotentialGuests / 4, numberOfPotentialGuests / 4 }, guestOffers,
+				OccupancyPhaseTimings.start());
+	}
+
+	@Benchmark
+	public long writeFromAssignment() throws IOException {
+		CountingOutputStream outputStream = new CountingOutputStream();
+		OccupancyAssignment assignment = assign();
+
+		try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8)) {
+			generator.writeStartArray();
+			while (assignment.next()) {
+				generator.writeStartObject();
+				generator.writeStringField("guestId", guestIds[assignment.getGuestIndex()]);
+				generator.writeNumberField("offer", assignment.getOffer());
+				generator.writeFieldName("roomCategory");
+				if (assignment.getRoomCategory() == OccupancyAssignment.NO_ROOM) {
+					generator.writeNull();
+				} else {
+					generator.writeString(ROOM_CATEGORIES[assignment.getRoomCategory()]);
+				}
+				generator.writeEndObject();
+			}
+			generator.writeEndArray();
+		}
+
+		return outputStream.numberOfBytes;
+	}
+
+	@Benchmark
+	public long writeListOfGuests() throws IOException {
+		CountingOutputStream outputStream = new CountingOutputStream();
+		OccupancyAssignment assignment = assign();
+
+		List<GuestAssignment> guestAssignments = new ArrayList<>();
+		while (assignment.next()) {
+			guestAssignments.add(new GuestAssignment(guestIds[assignment.getGuestIndex()], assignment.getOffer(),
+					assignment.getRoomCategory() == OccupancyAssignment.NO_ROOM ? null
+							: ROOM_CATEGORIES[assignment.getRoomCategory()]));
+		}
+
+		objectMapper.writeValue(outputStream, guestAssignments);
+
+		return outputStream.numberOfBytes;
+	}
+
+	public static class GuestAssignment {
+
+		private final String guestId;
+
+		private final Integer offer;
+
+		private final String roomCategory;
+
+		GuestAssignment(String guestId, Integer offer, String roomCategory) {
+			this.guestId = guestId;
+			this.offer = offer;
+			this.roomCategory = roomCategory;
+		}
+
+		public String getGuestId() {
+			return guestId;
+		}
+
+		public Integer getOffer() {
+			return offer;
+		}
+
+		public String getRoomCategory() {
+			return roomCategory;
+		}
+
+	}
+
+	/**
+	 * Discards the response, as a client reading it as fast as it is written
+	 */
+	private static final class CountingOutputStream extends OutputStream {
+
+		private long numberOfBytes;
+
+		@Override
+		public void write(int b) {
+			numberOfBytes++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			numberOfBytes += len;
+		}
+
+	}
+
+}
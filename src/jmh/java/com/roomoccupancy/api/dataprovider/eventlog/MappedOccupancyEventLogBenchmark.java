@@ -0,0 +1,168 @@
+package com.roomoccupancy.api.dataprovider.eventlog;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.roomoccupancy.api.core.entity.HotelInventoryEntity;
+import com.roomoccupancy.api.core.entity.HotelInventoryEventEntity;
+import com.roomoccupancy.api.core.entity.OptimizedRoomOccupancyEntity;
+import com.roomoccupancy.api.core.entity.RoomCategoryOccupancyEntity;
+import com.roomoccupancy.api.core.gateway.OccupancyEventGateway.RecoverableState;
+import com.roomoccupancy.api.core.usecase.OptimizedRoomOccupancyKey;
+
+/**
+ * Latency of the appends to the event log, with the group commit in the
+ * background or awaited by each append, and the time to recover the log
+ * without a snapshot
+ * 
+ * @author luis
+ *
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappedOccupancyEventLogBenchmark {
+
+	private static final OptimizedRoomOccupancyKey KEY = OptimizedRoomOccupancyKey.of(2, 1, 100, 4, 11L, 12L);
+
+	private static final OptimizedRoomOccupancyEntity OPTIMIZED_OCCUPANCY = new OptimizedRoomOccupancyEntity(
+			new RoomCategoryOccupancyEntity(2, 219), new RoomCategoryOccupancyEntity(1, 70));
+
+	@State(Scope.Benchmark)
+	public static class AppendState {
+
+		@Param({ "false", "true" })
+		boolean sync;
+
+		MappedOccupancyEventLog eventLog;
+
+		private Path directory;
+
+		@Setup(Level.Iteration)
+		public void open() throws IOException {
+			directory = Files.createTempDirectory("event-log-benchmark");
+			eventLog = new MappedOccupancyEventLog(directory.toString(), MappedOccupancyEventLog.DEFAULT_SEGMENT_SIZE,
+					10, 3600, sync, 0);
+			eventLog.recover(RecoverableState.NONE);
+		}
+
+		@TearDown(Level.Iteration)
+		public void close() throws IOException {
+			eventLog.close();
+			delete(directory);
+		}
+
+	}
+
+	@State(Scope.Benchmark)
+	public static class RecoveryState {
+
+		@Param({ "2000000" })
+		int numberOfEvents;
+
+		private Path directory;
+
+		@Setup(Level.Trial)
+		public void append() throws IOException {
+			directory = Files.createTempDirectory("event-log-benchmark");
+
+			MappedOccupancyEventLog eventLog = open();
+			eventLog.recover(RecoverableState.NONE);
+			for (int i = 0; i < numberOfEvents; i++) {
+				if (i % 2 == 0) {
+					eventLog.appendOptimization(KEY, OPTIMIZED_OCCUPANCY);
+				} else {
+					eventLog.appendInventory(new HotelInventoryEventEntity((long) i, false,
+							new HotelInventoryEntity("hotel-" + i % 1000, i % 100, i % 50, 100)));
+				}
+			}
+			eventLog.stopCommitter();
+		}
+
+		MappedOccupancyEventLog open() {
+			return new MappedOccupancyEventLog(directory.toString(), MappedOccupancyEventLog.DEFAULT_SEGMENT_SIZE, 10,
+					3600, false, 0);
+		}
+
+		@TearDown(Level.Trial)
+		public void delete() throws IOException {
+			MappedOccupancyEventLogBenchmark.delete(directory);
+		}
+
+	}
+
+	@Benchmark
+	@Threads(4)
+	public void appendInventory(AppendState state) {
+		state.eventLog.appendInventory(new HotelInventoryEventEntity(1L, false,
+				new HotelInventoryEntity("hotel-1", 2, 1, 100)));
+	}
+
+	@Benchmark
+	@Threads(4)
+	public void appendOptimization(AppendState state) {
+		state.eventLog.appendOptimization(KEY, OPTIMIZED_OCCUPANCY);
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Warmup(iterations = 1)
+	@Measurement(iterations = 5)
+	public void recover(RecoveryState state, Blackhole blackhole) throws IOException {
+		MappedOccupancyEventLog eventLog = state.open();
+
+		eventLog.recover(new RecoverableState() {
+
+			@Override
+			public void onOptimization(OptimizedRoomOccupancyKey key,
+					OptimizedRoomOccupancyEntity optimizedOccupancy) {
+				blackhole.consume(optimizedOccupancy);
+			}
+
+			@Override
+			public void onInventory(HotelInventoryEventEntity inventoryEvent) {
+				blackhole.consume(inventoryEvent);
+			}
+
+			@Override
+			public Collection<HotelInventoryEventEntity> getInventories() {
+				return Collections.emptyList();
+			}
+
+		});
+
+		eventLog.stopCommitter();
+	}
+
+	private static void delete(Path directory) throws IOException {
+		try (Stream<Path> files = Files.walk(directory)) {
+			files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+		}
+	}
+
+}
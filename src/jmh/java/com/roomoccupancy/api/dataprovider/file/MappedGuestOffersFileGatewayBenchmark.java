@@ -0,0 +1,108 @@
+package com.roomoccupancy.api.dataprovider.file;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.roomoccupancy.api.core.entity.OffersFileFormat;
+import com.roomoccupancy.api.core.usecase.StreamingOccupancyOptimizer;
+
+/**
+ * Throughput of the offers files ingestion - mapping, parsing and streaming
+ * optimization - for each file format. The {@code megabytes} counter divided
+ * by the time gives the parse throughput.
+ * 
+ * @author luis
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappedGuestOffersFileGatewayBenchmark {
+
+	@Param({ "10000000" })
+	int numberOfPotentialGuests;
+
+	@Param
+	OffersFileFormat format;
+
+	private MappedGuestOffersFileGateway gateway;
+
+	private Path offersFile;
+
+	/**
+	 * Size of the file read by each operation
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class ReadSize {
+
+		public double megabytes;
+
+	}
+
+	@Setup
+	public void setUp() throws IOException {
+		Random random = new Random(2290);
+		Path offersDirectory = Files.createTempDirectory("roomoccupancy-benchmark");
+
+		gateway = new MappedGuestOffersFileGateway(offersDirectory, MappedGuestOffersFileGateway.DEFAULT_REGION_SIZE);
+		offersFile = offersDirectory.resolve("offers");
+
+		try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(offersFile), 1 << 16)) {
+			ByteBuffer binaryOffer = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+			for (int i = 0; i < numberOfPotentialGuests; i++) {
+				int offer = 1 + random.nextInt(2_000);
+
+				if (format == OffersFileFormat.CSV) {
+					output.write((offer + "\n").getBytes(StandardCharsets.US_ASCII));
+				} else {
+					binaryOffer.clear();
+					output.write(binaryOffer.putInt(offer).array());
+				}
+			}
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(offersFile);
+		Files.deleteIfExists(offersFile.getParent());
+	}
+
+	@Benchmark
+	public StreamingOccupancyOptimizer readOffers(ReadSize readSize) throws IOException {
+		StreamingOccupancyOptimizer optimizer = StreamingOccupancyOptimizer.of(1_000, 1_000);
+
+		readSize.megabytes += gateway.readOffers(offersFile, format, optimizer::addAll) / (1024d * 1024d);
+
+		return optimizer;
+	}
+
+}
@@ -0,0 +1,108 @@
+package com.roomoccupancy.api.entrypoint.configuration.converter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.roomoccupancy.api.core.entity.OptimizedRoomOccupancyEntity;
+import com.roomoccupancy.api.core.entity.RoomCategoryOccupancyEntity;
+import com.roomoccupancy.api.entrypoint.v1.entity.GetOptimizedRoomOccupancyResponse;
+import com.roomoccupancy.api.entrypoint.v1.entity.OptimizedRoomOccupancyRequest;
+import com.roomoccupancy.api.entrypoint.v1.parser.OptimizedRoomOccupancyRequestParser;
+
+/**
+ * Decoding of the requests and encoding of the responses, in JSON and in the
+ * {@link OccupancyBinaryCodec} format. The sizes of both bodies are printed at
+ * the setup of each guest list.
+ * 
+ * @author luis
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OccupancyWireFormatBenchmark {
+
+	@Param({ "1000", "100000", "1000000" })
+	int numberOfPotentialGuests;
+
+	private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+			.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+	private final OptimizedRoomOccupancyRequestParser requestParser = new OptimizedRoomOccupancyRequestParser(
+			objectMapper);
+
+	private byte[] jsonRequest;
+
+	private byte[] binaryRequest;
+
+	private final GetOptimizedRoomOccupancyResponse response = GetOptimizedRoomOccupancyResponse
+			.of(new OptimizedRoomOccupancyEntity(new RoomCategoryOccupancyEntity(250_000, 187_654_321),
+					new RoomCategoryOccupancyEntity(250_000, 62_345_678)));
+
+	@Setup
+	public void setUp() throws IOException {
+		Random random = new Random(2290);
+
+		int[] offers = new int[numberOfPotentialGuests];
+		StringBuilder json = new StringBuilder("{\"freePremiumRooms\":1000,\"freeEconomyRooms\":1000,\"potentialGuests\":[");
+		for (int i = 0; i < numberOfPotentialGuests; i++) {
+			offers[i] = 1 + random.nextInt(1_000_000);
+			json.append(i == 0 ? "" : ",").append(offers[i]);
+		}
+		jsonRequest = json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+
+		ByteArrayOutputStream binary = new ByteArrayOutputStream();
+		OccupancyBinaryCodec.writeRequest(1000, 1000, offers, 0, offers.length, binary);
+		binaryRequest = binary.toByteArray();
+
+		System.out.println(String.format("%nrequest bytes: json=%d binary=%d, response bytes: json=%d binary=%d",
+				jsonRequest.length, binaryRequest.length, objectMapper.writeValueAsBytes(response).length,
+				OccupancyBinaryCodec.RESPONSE_LENGTH));
+	}
+
+	@Benchmark
+	public OptimizedRoomOccupancyRequest decodeJsonRequest() throws IOException {
+		return requestParser.parse(new ByteArrayInputStream(jsonRequest));
+	}
+
+	@Benchmark
+	public OptimizedRoomOccupancyRequest decodeBinaryRequest() throws IOException {
+		return OccupancyBinaryCodec.readRequest(new ByteArrayInputStream(binaryRequest));
+	}
+
+	@Benchmark
+	public byte[] encodeJsonResponse() throws IOException {
+		return objectMapper.writeValueAsBytes(response);
+	}
+
+	@Benchmark
+	public byte[] encodeBinaryResponse() throws IOException {
+		ByteArrayOutputStream body = new ByteArrayOutputStream(OccupancyBinaryCodec.RESPONSE_LENGTH);
+		OccupancyBinaryCodec.writeResponse(response, body);
+
+		return body.toByteArray();
+	}
+
+}
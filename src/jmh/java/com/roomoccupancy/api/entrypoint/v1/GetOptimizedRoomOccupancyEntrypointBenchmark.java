@@ -0,0 +1,77 @@
+package com.roomoccupancy.api.entrypoint.v1;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.roomoccupancy.api.core.usecase.GetOptimizedRoomOccupancyUseCase;
+import com.roomoccupancy.api.entrypoint.configuration.resolver.PotentialGuestsArgumentResolver;
+
+/**
+ * End to end benchmark of the {@link GetOptimizedRoomOccupancyEntrypoint} -
+ * request parameters binding, optimization and JSON serialization of the
+ * response - through a standalone {@link MockMvc}, without the network.
+ * 
+ * @author luis
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GetOptimizedRoomOccupancyEntrypointBenchmark {
+
+	private static final String GET_OPTIMIZED_ROOM_OCCUPANCY_URL = "/v1/rooms/optimizeOccupancy";
+
+	@Param({ "10", "1000", "10000" })
+	int numberOfPotentialGuests;
+
+	private MockMvc mockMvc;
+
+	private MockHttpServletRequestBuilder request;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(2290);
+
+		GetOptimizedRoomOccupancyEntrypoint occupancyEntrypoint = new GetOptimizedRoomOccupancyEntrypoint();
+		occupancyEntrypoint.occupancyUseCase = new GetOptimizedRoomOccupancyUseCase();
+
+		mockMvc = MockMvcBuilders.standaloneSetup(occupancyEntrypoint)
+				.setCustomArgumentResolvers(new PotentialGuestsArgumentResolver()).build();
+
+		String[] potentialGuests = new String[numberOfPotentialGuests];
+		for (int i = 0; i < numberOfPotentialGuests; i++) {
+			potentialGuests[i] = Integer.toString(1 + random.nextInt(1_000));
+		}
+
+		request = get(GET_OPTIMIZED_ROOM_OCCUPANCY_URL)
+				.param("freePremiumRooms", Integer.toString(numberOfPotentialGuests / 4))
+				.param("freeEconomyRooms", Integer.toString(numberOfPotentialGuests / 4))
+				.param("potentialGuests", potentialGuests);
+	}
+
+	@Benchmark
+	public String getOptimizedRoomOccupancy() throws Exception {
+		return mockMvc.perform(request).andReturn().getResponse().getContentAsString();
+	}
+
+}
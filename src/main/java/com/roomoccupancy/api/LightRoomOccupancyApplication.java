@@ -0,0 +1,64 @@
+package com.roomoccupancy.api;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.roomoccupancy.api.core.usecase.GetOptimizedRoomOccupancyUseCase;
+import com.roomoccupancy.api.entrypoint.v1.GetOptimizedRoomOccupancyHttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Launcher that serves only the optimization endpoint on the JDK
+ * {@code HttpServer}, wired by hand, without a Spring context, for cold starts
+ * of autoscaled instances and short-lived containers. The caches, metrics and
+ * the other endpoints are only available with the
+ * {@link RoomOccupancyApplication}.
+ *
+ * <pre>
+ * java -cp roomoccupancy.jar -Dloader.main=com.roomoccupancy.api.LightRoomOccupancyApplication org.springframework.boot.loader.PropertiesLauncher
+ * </pre>
+ *
+ * @author luis
+ *
+ */
+public class LightRoomOccupancyApplication {
+
+	private static final int DEFAULT_PORT = 8080;
+
+	public static void main(String[] args) throws IOException {
+		int port = Integer.getInteger("server.port", DEFAULT_PORT);
+
+		start(port, Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors()));
+	}
+
+	/**
+	 * Starts the server, with the same JSON of Spring Boot's default
+	 * {@link ObjectMapper}
+	 *
+	 * @param port
+	 *            Port to listen on, zero for any free port
+	 * @param executor
+	 *            Executor of the requests
+	 * @return The started server
+	 * @throws IOException
+	 *             if the port could not be bound
+	 */
+	public static HttpServer start(int port, ExecutorService executor) throws IOException {
+		ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+				.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+		HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
+		server.createContext(GetOptimizedRoomOccupancyHttpHandler.PATH,
+				new GetOptimizedRoomOccupancyHttpHandler(new GetOptimizedRoomOccupancyUseCase(), objectMapper));
+		server.setExecutor(executor);
+		server.start();
+
+		return server;
+	}
+
+}
@@ -0,0 +1,55 @@
+package com.roomoccupancy.api.configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Executors used to run many optimizations in parallel
+ * 
+ * @author luis
+ *
+ */
+@Configuration
+public class OptimizationExecutorConfiguration {
+
+	/**
+	 * Bounded work-stealing pool shared by the batch optimizations, so they never
+	 * use more threads than the configured parallelism, nor compete with the
+	 * common pool.
+	 * 
+	 * @param parallelism
+	 *            Number of worker threads. Zero or less means one per available
+	 *            processor.
+	 */
+	@Bean(destroyMethod = "shutdown")
+	public ForkJoinPool optimizationForkJoinPool(
+			@Value("${roomoccupancy.optimization.parallelism:0}") int parallelism) {
+		return new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Bounded pool of the occupancy jobs. The jobs that do not fit in the queue
+	 * are rejected, instead of piling up in memory.
+	 * 
+	 * @param threads
+	 *            Number of jobs running at the same time
+	 * @param queueCapacity
+	 *            Number of jobs waiting for a thread
+	 */
+	@Bean(destroyMethod = "shutdownNow")
+	public ExecutorService occupancyJobExecutor(@Value("${roomoccupancy.jobs.threads:2}") int threads,
+			@Value("${roomoccupancy.jobs.queue-capacity:16}") int queueCapacity) {
+		return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("occupancy-job-"),
+				new ThreadPoolExecutor.AbortPolicy());
+	}
+
+}
@@ -0,0 +1,103 @@
+package com.roomoccupancy.api.core.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.roomoccupancy.api.core.entity.OptimizedRoomOccupancyEntity;
+import com.roomoccupancy.api.core.usecase.OptimizedRoomOccupancyKey;
+
+/**
+ * Coalesces identical optimizations that run at the same time - the first
+ * caller computes the occupancy, and the callers that arrive while it is in
+ * flight wait for its result instead of computing it again. The in-flight
+ * optimizations are spread across independent maps by key, so unrelated
+ * requests never contend with each other.
+ * 
+ * @author luis
+ *
+ */
+@Component
+public class OptimizationRequestCoalescer {
+
+	/**
+	 * Coalescer that always computes the occupancy, for usecases created outside
+	 * the Spring context
+	 */
+	public static final OptimizationRequestCoalescer DISABLED = new OptimizationRequestCoalescer(0);
+
+	private final ConcurrentMap<OptimizedRoomOccupancyKey, CompletableFuture<OptimizedRoomOccupancyEntity>>[] stripes;
+
+	/**
+	 * @param numberOfStripes
+	 *            Number of independent maps of in-flight optimizations. Zero
+	 *            disables the coalescing.
+	 */
+	@SuppressWarnings("unchecked")
+	public OptimizationRequestCoalescer(@Value("${roomoccupancy.coalescing.stripes:16}") int numberOfStripes) {
+		this.stripes = new ConcurrentMap[Math.max(numberOfStripes, 0)];
+
+		for (int i = 0; i < stripes.length; i++) {
+			stripes[i] = new ConcurrentHashMap<>();
+		}
+	}
+
+	/**
+	 * Runs the optimization, unless an identical one is in flight, in which case
+	 * its result is awaited
+	 * 
+	 * @param key
+	 *            Identifies the optimization
+	 * @param optimization
+	 *            Computes the occupancy
+	 * @return The optimized occupancy
+	 */
+	public OptimizedRoomOccupancyEntity execute(OptimizedRoomOccupancyKey key,
+			Supplier<OptimizedRoomOccupancyEntity> optimization) {
+		if (stripes.length == 0) {
+			return optimization.get();
+		}
+
+		ConcurrentMap<OptimizedRoomOccupancyKey, CompletableFuture<OptimizedRoomOccupancyEntity>> stripe = stripes[Math
+				.floorMod(spread(key.hashCode()), stripes.length)];
+
+		CompletableFuture<OptimizedRoomOccupancyEntity> future = new CompletableFuture<>();
+		CompletableFuture<OptimizedRoomOccupancyEntity> inFlightFuture = stripe.putIfAbsent(key, future);
+
+		if (inFlightFuture != null) {
+			return await(inFlightFuture);
+		}
+
+		try {
+			OptimizedRoomOccupancyEntity optimizedOccupancy = optimization.get();
+			future.complete(optimizedOccupancy);
+			return optimizedOccupancy;
+		} catch (RuntimeException | Error ex) {
+			future.completeExceptionally(ex);
+			throw ex;
+		} finally {
+			stripe.remove(key, future);
+		}
+	}
+
+	private OptimizedRoomOccupancyEntity await(CompletableFuture<OptimizedRoomOccupancyEntity> inFlightFuture) {
+		try {
+			return inFlightFuture.join();
+		} catch (CompletionException ex) {
+			if (ex.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) ex.getCause();
+			}
+			throw ex;
+		}
+	}
+
+	private static int spread(int hash) {
+		return hash ^ (hash >>> 16);
+	}
+
+}
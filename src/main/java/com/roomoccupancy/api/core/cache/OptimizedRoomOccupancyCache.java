@@ -0,0 +1,143 @@
+package com.roomoccupancy.api.core.cache;
+
+import java.security.SecureRandom;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.roomoccupancy.api.core.entity.OptimizedRoomOccupancyEntity;
+import com.roomoccupancy.api.core.usecase.GuestOffers;
+import com.roomoccupancy.api.core.usecase.OptimizedRoomOccupancyKey;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded cache of optimized occupancies, so the same guest lists sent again -
+ * in any order - are not optimized again. Eviction follows Caffeine's
+ * Window TinyLFU policy, and the hit and miss statistics are published as
+ * Micrometer metrics.
+ * <p>
+ * The key only holds public fingerprints of the offers, that a guest list can
+ * be crafted to collide with, so each occupancy also keeps a fingerprint of its
+ * offers under a secret key of the cache, compared on every hit. An occupancy
+ * recovered from the event log, without its offers, is adopted by the first
+ * guest list that hits it.
+ * 
+ * @author luis
+ *
+ */
+@Component
+public class OptimizedRoomOccupancyCache {
+
+	/**
+	 * Cache that never holds anything, for usecases created outside the Spring
+	 * context
+	 */
+	public static final OptimizedRoomOccupancyCache DISABLED = new OptimizedRoomOccupancyCache(0L);
+
+	static final String CACHE_NAME = "optimizedRoomOccupancy";
+
+	private final Cache<OptimizedRoomOccupancyKey, CachedOccupancy> cache;
+
+	private final boolean enabled;
+
+	private final long fingerprintKey = new SecureRandom().nextLong();
+
+	/**
+	 * @param maximumSize
+	 *            Maximum number of cached occupancies. Zero disables the cache.
+	 */
+	OptimizedRoomOccupancyCache(long maximumSize) {
+		this.enabled = maximumSize > 0;
+		this.cache = Caffeine.newBuilder().maximumSize(Math.max(maximumSize, 0L)).recordStats().build();
+	}
+
+	@Autowired
+	public OptimizedRoomOccupancyCache(@Value("${roomoccupancy.cache.maximum-size:10000}") long maximumSize,
+			MeterRegistry meterRegistry) {
+		this(maximumSize);
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+	}
+
+	/**
+	 * @return The cached occupancy, without checking its offers, or null if it
+	 *         is not cached
+	 */
+	public OptimizedRoomOccupancyEntity get(OptimizedRoomOccupancyKey key) {
+		CachedOccupancy cachedOccupancy = enabled ? cache.getIfPresent(key) : null;
+
+		return Objects.isNull(cachedOccupancy) ? null : cachedOccupancy.optimizedOccupancy;
+	}
+
+	/**
+	 * @param guestOffers
+	 *            Offers of the key, checked against the ones of the cached
+	 *            occupancy
+	 * @return The cached occupancy, or null if it is not cached, or if it was
+	 *         cached for other offers with the same key
+	 */
+	public OptimizedRoomOccupancyEntity get(OptimizedRoomOccupancyKey key, GuestOffers guestOffers) {
+		CachedOccupancy cachedOccupancy = enabled ? cache.getIfPresent(key) : null;
+		if (Objects.isNull(cachedOccupancy)) {
+			return null;
+		}
+
+		long offersFingerprint = guestOffers.getKeyedFingerprint(fingerprintKey);
+
+		if (!cachedOccupancy.hasOffers) {
+			cache.asMap().replace(key, cachedOccupancy,
+					new CachedOccupancy(cachedOccupancy.optimizedOccupancy, offersFingerprint, true));
+			return cachedOccupancy.optimizedOccupancy;
+		}
+
+		return cachedOccupancy.offersFingerprint == offersFingerprint ? cachedOccupancy.optimizedOccupancy : null;
+	}
+
+	/**
+	 * Caches an occupancy recovered without its offers
+	 */
+	public void put(OptimizedRoomOccupancyKey key, OptimizedRoomOccupancyEntity optimizedOccupancy) {
+		if (enabled) {
+			cache.put(key, new CachedOccupancy(optimizedOccupancy, 0L, false));
+		}
+	}
+
+	public void put(OptimizedRoomOccupancyKey key, GuestOffers guestOffers,
+			OptimizedRoomOccupancyEntity optimizedOccupancy) {
+		if (enabled) {
+			cache.put(key, new CachedOccupancy(optimizedOccupancy, guestOffers.getKeyedFingerprint(fingerprintKey),
+					true));
+		}
+	}
+
+	long hitCount() {
+		return cache.stats().hitCount();
+	}
+
+	long missCount() {
+		return cache.stats().missCount();
+	}
+
+	private static final class CachedOccupancy {
+
+		private final OptimizedRoomOccupancyEntity optimizedOccupancy;
+
+		private final long offersFingerprint;
+
+		private final boolean hasOffers;
+
+		private CachedOccupancy(OptimizedRoomOccupancyEntity optimizedOccupancy, long offersFingerprint,
+				boolean hasOffers) {
+			this.optimizedOccupancy = optimizedOccupancy;
+			this.offersFingerprint = offersFingerprint;
+			this.hasOffers = hasOffers;
+		}
+
+	}
+
+}
@@ -0,0 +1,39 @@
+package com.roomoccupancy.api.core.entity;
+
+/**
+ * Contains informations of how much rooms of a category will be occupied, and
+ * how much money the reservations will yield
+ * 
+ * @author luis
+ *
+ */
+public class CategoryOccupancyEntity {
+
+	private String category;
+
+	private Integer numberOfOccupiedRooms;
+
+	private Integer generatedIncome;
+
+	public CategoryOccupancyEntity() {
+	}
+
+	public CategoryOccupancyEntity(String category, Integer numberOfOccupiedRooms, Integer generatedIncome) {
+		this.category = category;
+		this.numberOfOccupiedRooms = numberOfOccupiedRooms;
+		this.generatedIncome = generatedIncome;
+	}
+
+	public String getCategory() {
+		return category;
+	}
+
+	public Integer getNumberOfOccupiedRooms() {
+		return numberOfOccupiedRooms;
+	}
+
+	public Integer getGeneratedIncome() {
+		return generatedIncome;
+	}
+
+}
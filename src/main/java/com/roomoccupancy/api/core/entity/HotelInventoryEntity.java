@@ -0,0 +1,47 @@
+package com.roomoccupancy.api.core.entity;
+
+/**
+ * Free rooms of each category of a hotel, and the minimum value that a guest
+ * must offer for a night to be a Premium guest there
+ * 
+ * @author luis
+ *
+ */
+public class HotelInventoryEntity {
+
+	private String hotelId;
+
+	private Integer freePremiumRooms;
+
+	private Integer freeEconomyRooms;
+
+	private Integer premiumMinimumNightValue;
+
+	public HotelInventoryEntity() {
+	}
+
+	public HotelInventoryEntity(String hotelId, Integer freePremiumRooms, Integer freeEconomyRooms,
+			Integer premiumMinimumNightValue) {
+		this.hotelId = hotelId;
+		this.freePremiumRooms = freePremiumRooms;
+		this.freeEconomyRooms = freeEconomyRooms;
+		this.premiumMinimumNightValue = premiumMinimumNightValue;
+	}
+
+	public String getHotelId() {
+		return hotelId;
+	}
+
+	public Integer getFreePremiumRooms() {
+		return freePremiumRooms;
+	}
+
+	public Integer getFreeEconomyRooms() {
+		return freeEconomyRooms;
+	}
+
+	public Integer getPremiumMinimumNightValue() {
+		return premiumMinimumNightValue;
+	}
+
+}
@@ -0,0 +1,40 @@
+package com.roomoccupancy.api.core.entity;
+
+/**
+ * State of the inventory of a hotel after one of its changes. The versions of
+ * the changes of a hotel only grow, so replaying its events in any order ends
+ * at its last state.
+ * 
+ * @author luis
+ *
+ */
+public class HotelInventoryEventEntity {
+
+	private Long version;
+
+	private Boolean deleted;
+
+	private HotelInventoryEntity inventory;
+
+	public HotelInventoryEventEntity() {
+	}
+
+	public HotelInventoryEventEntity(Long version, Boolean deleted, HotelInventoryEntity inventory) {
+		this.version = version;
+		this.deleted = deleted;
+		this.inventory = inventory;
+	}
+
+	public Long getVersion() {
+		return version;
+	}
+
+	public Boolean getDeleted() {
+		return deleted;
+	}
+
+	public HotelInventoryEntity getInventory() {
+		return inventory;
+	}
+
+}
@@ -0,0 +1,31 @@
+package com.roomoccupancy.api.core.entity;
+
+/**
+ * Free rooms of each category in one night of an occupancy calendar
+ * 
+ * @author luis
+ *
+ */
+public class NightInventoryEntity {
+
+	private Integer freePremiumRooms;
+
+	private Integer freeEconomyRooms;
+
+	public NightInventoryEntity() {
+	}
+
+	public NightInventoryEntity(Integer freePremiumRooms, Integer freeEconomyRooms) {
+		this.freePremiumRooms = freePremiumRooms;
+		this.freeEconomyRooms = freeEconomyRooms;
+	}
+
+	public Integer getFreePremiumRooms() {
+		return freePremiumRooms;
+	}
+
+	public Integer getFreeEconomyRooms() {
+		return freeEconomyRooms;
+	}
+
+}
@@ -0,0 +1,42 @@
+package com.roomoccupancy.api.core.entity;
+
+import java.time.LocalDate;
+
+/**
+ * Optimized room occupancy of one night of an occupancy calendar, over every
+ * stay that includes the night, whether or not its other nights are accepted
+ * 
+ * @author luis
+ *
+ */
+public class NightOccupancyEntity {
+
+	private LocalDate night;
+
+	private Integer numberOfPotentialGuests;
+
+	private OptimizedRoomOccupancyEntity occupancy;
+
+	public NightOccupancyEntity() {
+	}
+
+	public NightOccupancyEntity(LocalDate night, Integer numberOfPotentialGuests,
+			OptimizedRoomOccupancyEntity occupancy) {
+		this.night = night;
+		this.numberOfPotentialGuests = numberOfPotentialGuests;
+		this.occupancy = occupancy;
+	}
+
+	public LocalDate getNight() {
+		return night;
+	}
+
+	public Integer getNumberOfPotentialGuests() {
+		return numberOfPotentialGuests;
+	}
+
+	public OptimizedRoomOccupancyEntity getOccupancy() {
+		return occupancy;
+	}
+
+}
@@ -0,0 +1,69 @@
+package com.roomoccupancy.api.core.entity;
+
+/**
+ * Contains the state of an occupancy job - its status, how many offers were
+ * read, and its result or error once it is finished, with how fast the offers
+ * file was read
+ * 
+ * @author luis
+ *
+ */
+public class OccupancyJobEntity {
+
+	private String jobId;
+
+	private OccupancyJobStatus status;
+
+	private Long numberOfPotentialGuests;
+
+	private OptimizedRoomOccupancyEntity result;
+
+	private String error;
+
+	private Long numberOfBytesRead;
+
+	private Long bytesReadPerSecond;
+
+	public OccupancyJobEntity() {
+	}
+
+	public OccupancyJobEntity(String jobId, OccupancyJobStatus status, Long numberOfPotentialGuests,
+			OptimizedRoomOccupancyEntity result, String error, Long numberOfBytesRead, Long bytesReadPerSecond) {
+		this.jobId = jobId;
+		this.status = status;
+		this.numberOfPotentialGuests = numberOfPotentialGuests;
+		this.result = result;
+		this.error = error;
+		this.numberOfBytesRead = numberOfBytesRead;
+		this.bytesReadPerSecond = bytesReadPerSecond;
+	}
+
+	public String getJobId() {
+		return jobId;
+	}
+
+	public OccupancyJobStatus getStatus() {
+		return status;
+	}
+
+	public Long getNumberOfPotentialGuests() {
+		return numberOfPotentialGuests;
+	}
+
+	public OptimizedRoomOccupancyEntity getResult() {
+		return result;
+	}
+
+	public String getError() {
+		return error;
+	}
+
+	public Long getNumberOfBytesRead() {
+		return numberOfBytesRead;
+	}
+
+	public Long getBytesReadPerSecond() {
+		return bytesReadPerSecond;
+	}
+
+}
@@ -0,0 +1,26 @@
+package com.roomoccupancy.api.core.entity;
+
+/**
+ * Stages of an occupancy job
+ * 
+ * @author luis
+ *
+ */
+public enum OccupancyJobStatus {
+
+	/** Waiting for a free worker */
+	QUEUED,
+	/** Reading the offers */
+	RUNNING,
+	/** Finished, with a result */
+	DONE,
+	/** Finished, with an error */
+	FAILED,
+	/** Cancelled before finishing */
+	CANCELLED;
+
+	public boolean isFinished() {
+		return this != QUEUED && this != RUNNING;
+	}
+
+}
@@ -0,0 +1,39 @@
+package com.roomoccupancy.api.core.entity;
+
+/**
+ * One what-if scenario of a batch optimization - the free rooms of each
+ * category and the values that the potential guests are willing to pay
+ * 
+ * @author luis
+ *
+ */
+public class OccupancyScenarioEntity {
+
+	private Integer freePremiumRooms;
+
+	private Integer freeEconomyRooms;
+
+	private Integer[] potentialGuests;
+
+	public OccupancyScenarioEntity() {
+	}
+
+	public OccupancyScenarioEntity(Integer freePremiumRooms, Integer freeEconomyRooms, Integer[] potentialGuests) {
+		this.freePremiumRooms = freePremiumRooms;
+		this.freeEconomyRooms = freeEconomyRooms;
+		this.potentialGuests = potentialGuests;
+	}
+
+	public Integer getFreePremiumRooms() {
+		return freePremiumRooms;
+	}
+
+	public Integer getFreeEconomyRooms() {
+		return freeEconomyRooms;
+	}
+
+	public Integer[] getPotentialGuests() {
+		return potentialGuests;
+	}
+
+}
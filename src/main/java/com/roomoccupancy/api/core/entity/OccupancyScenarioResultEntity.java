@@ -0,0 +1,40 @@
+package com.roomoccupancy.api.core.entity;
+
+/**
+ * Outcome of one scenario of a batch optimization - either the optimized
+ * occupancy, or the error that prevented it
+ * 
+ * @author luis
+ *
+ */
+public class OccupancyScenarioResultEntity {
+
+	private OptimizedRoomOccupancyEntity result;
+
+	private String error;
+
+	public OccupancyScenarioResultEntity() {
+	}
+
+	public OccupancyScenarioResultEntity(OptimizedRoomOccupancyEntity result, String error) {
+		this.result = result;
+		this.error = error;
+	}
+
+	public static OccupancyScenarioResultEntity ofResult(OptimizedRoomOccupancyEntity result) {
+		return new OccupancyScenarioResultEntity(result, null);
+	}
+
+	public static OccupancyScenarioResultEntity ofError(String error) {
+		return new OccupancyScenarioResultEntity(null, error);
+	}
+
+	public OptimizedRoomOccupancyEntity getResult() {
+		return result;
+	}
+
+	public String getError() {
+		return error;
+	}
+
+}
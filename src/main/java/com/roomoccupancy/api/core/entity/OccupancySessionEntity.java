@@ -0,0 +1,47 @@
+package com.roomoccupancy.api.core.entity;
+
+/**
+ * Contains informations about an occupancy session - the free rooms of each
+ * category, and how many potential guests' offers it currently holds
+ * 
+ * @author luis
+ *
+ */
+public class OccupancySessionEntity {
+
+	private String sessionId;
+
+	private Integer freePremiumRooms;
+
+	private Integer freeEconomyRooms;
+
+	private Integer numberOfPotentialGuests;
+
+	public OccupancySessionEntity() {
+	}
+
+	public OccupancySessionEntity(String sessionId, Integer freePremiumRooms, Integer freeEconomyRooms,
+			Integer numberOfPotentialGuests) {
+		this.sessionId = sessionId;
+		this.freePremiumRooms = freePremiumRooms;
+		this.freeEconomyRooms = freeEconomyRooms;
+		this.numberOfPotentialGuests = numberOfPotentialGuests;
+	}
+
+	public String getSessionId() {
+		return sessionId;
+	}
+
+	public Integer getFreePremiumRooms() {
+		return freePremiumRooms;
+	}
+
+	public Integer getFreeEconomyRooms() {
+		return freeEconomyRooms;
+	}
+
+	public Integer getNumberOfPotentialGuests() {
+		return numberOfPotentialGuests;
+	}
+
+}
@@ -0,0 +1,26 @@
+package com.roomoccupancy.api.core.entity;
+
+/**
+ * Formats of the guest offers files
+ * 
+ * @author luis
+ *
+ */
+public enum OffersFileFormat {
+
+	/** 32-bit little-endian Integers */
+	BINARY("binary"),
+	/** Integers separated by commas or line breaks, with an optional header line */
+	CSV("csv");
+
+	private final String metricName;
+
+	OffersFileFormat(String metricName) {
+		this.metricName = metricName;
+	}
+
+	public String getMetricName() {
+		return metricName;
+	}
+
+}
@@ -0,0 +1,35 @@
+package com.roomoccupancy.api.core.entity;
+
+import java.util.List;
+
+/**
+ * Contains the optimized room occupancy of every night of an occupancy
+ * calendar, and how much money the whole horizon will generate. Each night is
+ * optimized on its own, so a stay may be accepted on only some of its nights.
+ * 
+ * @author luis
+ *
+ */
+public class OptimizedCalendarOccupancyEntity {
+
+	private List<NightOccupancyEntity> nights;
+
+	private Long generatedIncome;
+
+	public OptimizedCalendarOccupancyEntity() {
+	}
+
+	public OptimizedCalendarOccupancyEntity(List<NightOccupancyEntity> nights, Long generatedIncome) {
+		this.nights = nights;
+		this.generatedIncome = generatedIncome;
+	}
+
+	public List<NightOccupancyEntity> getNights() {
+		return nights;
+	}
+
+	public Long getGeneratedIncome() {
+		return generatedIncome;
+	}
+
+}
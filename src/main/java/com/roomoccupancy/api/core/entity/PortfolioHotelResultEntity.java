@@ -0,0 +1,60 @@
+package com.roomoccupancy.api.core.entity;
+
+/**
+ * Outcome of one hotel of a portfolio optimization - either the optimized
+ * occupancy, or the error that prevented it. The index tells the hotel apart
+ * even when its identifier could not be read.
+ * 
+ * @author luis
+ *
+ */
+public class PortfolioHotelResultEntity {
+
+	private Integer index;
+
+	private String hotelId;
+
+	private OptimizedRoomOccupancyEntity result;
+
+	private String error;
+
+	public PortfolioHotelResultEntity() {
+	}
+
+	public PortfolioHotelResultEntity(Integer index, String hotelId, OptimizedRoomOccupancyEntity result,
+			String error) {
+		this.index = index;
+		this.hotelId = hotelId;
+		this.result = result;
+		this.error = error;
+	}
+
+	public static PortfolioHotelResultEntity ofResult(int index, String hotelId,
+			OptimizedRoomOccupancyEntity result) {
+		return new PortfolioHotelResultEntity(index, hotelId, result, null);
+	}
+
+	public static PortfolioHotelResultEntity ofError(int index, String hotelId, String error) {
+		return new PortfolioHotelResultEntity(index, hotelId, null, error);
+	}
+
+	/**
+	 * @return Position of the hotel in the portfolio, from zero
+	 */
+	public Integer getIndex() {
+		return index;
+	}
+
+	public String getHotelId() {
+		return hotelId;
+	}
+
+	public OptimizedRoomOccupancyEntity getResult() {
+		return result;
+	}
+
+	public String getError() {
+		return error;
+	}
+
+}
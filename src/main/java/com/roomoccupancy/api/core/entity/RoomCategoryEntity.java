@@ -0,0 +1,39 @@
+package com.roomoccupancy.api.core.entity;
+
+/**
+ * A room category of a hotel - its name, the minimum value that a guest must
+ * offer for a night to be a guest of the category, and its free rooms
+ * 
+ * @author luis
+ *
+ */
+public class RoomCategoryEntity {
+
+	private String name;
+
+	private Integer minimumNightValue;
+
+	private Integer freeRooms;
+
+	public RoomCategoryEntity() {
+	}
+
+	public RoomCategoryEntity(String name, Integer minimumNightValue, Integer freeRooms) {
+		this.name = name;
+		this.minimumNightValue = minimumNightValue;
+		this.freeRooms = freeRooms;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Integer getMinimumNightValue() {
+		return minimumNightValue;
+	}
+
+	public Integer getFreeRooms() {
+		return freeRooms;
+	}
+
+}
@@ -0,0 +1,42 @@
+package com.roomoccupancy.api.core.entity;
+
+import java.time.LocalDate;
+
+/**
+ * Offer of a potential guest for a stay - the value that the guest is willing
+ * to pay for each night from the check-in, inclusive, to the check-out,
+ * exclusive
+ * 
+ * @author luis
+ *
+ */
+public class StayOfferEntity {
+
+	private LocalDate checkIn;
+
+	private LocalDate checkOut;
+
+	private Integer nightlyOffer;
+
+	public StayOfferEntity() {
+	}
+
+	public StayOfferEntity(LocalDate checkIn, LocalDate checkOut, Integer nightlyOffer) {
+		this.checkIn = checkIn;
+		this.checkOut = checkOut;
+		this.nightlyOffer = nightlyOffer;
+	}
+
+	public LocalDate getCheckIn() {
+		return checkIn;
+	}
+
+	public LocalDate getCheckOut() {
+		return checkOut;
+	}
+
+	public Integer getNightlyOffer() {
+		return nightlyOffer;
+	}
+
+}
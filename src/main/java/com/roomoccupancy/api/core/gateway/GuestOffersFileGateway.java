@@ -0,0 +1,63 @@
+package com.roomoccupancy.api.core.gateway;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.IntBuffer;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+import com.roomoccupancy.api.core.entity.OffersFileFormat;
+import com.roomoccupancy.api.core.exception.BusinessException;
+
+/**
+ * Access to the files of guest offers, in any of the {@link OffersFileFormat},
+ * that are too big to be read into memory at once
+ * 
+ * @author luis
+ *
+ */
+public interface GuestOffersFileGateway {
+
+	/**
+	 * Stores the offers of the stream in a new file
+	 * 
+	 * @param guestOffers
+	 *            Binary offers
+	 * @return The new file
+	 */
+	Path storeOffers(InputStream guestOffers) throws IOException;
+
+	/**
+	 * Finds an offers file that already exists
+	 * 
+	 * @param fileName
+	 *            Name of the file, relative to the offers directory
+	 * @return The file
+	 * @throws BusinessException
+	 *             if the file does not exist, or is out of the offers directory
+	 */
+	Path findOffersFile(String fileName);
+
+	/**
+	 * Reads the offers of the file, in order, as consecutive batches. The batches
+	 * are only valid during the call of the consumer, as their memory is reused.
+	 * 
+	 * @param offersFile
+	 *            File to read
+	 * @param format
+	 *            Format of the file
+	 * @param offersConsumer
+	 *            Receives each batch of offers
+	 * @return Number of bytes read
+	 * @throws BusinessException
+	 *             if the file does not follow the format
+	 */
+	long readOffers(Path offersFile, OffersFileFormat format, Consumer<IntBuffer> offersConsumer)
+			throws IOException;
+
+	/**
+	 * Deletes an offers file, if it still exists
+	 */
+	void deleteOffers(Path offersFile);
+
+}
@@ -0,0 +1,116 @@
+package com.roomoccupancy.api.core.gateway;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import com.roomoccupancy.api.core.entity.CategoryOccupancyEntity;
+import com.roomoccupancy.api.core.entity.HotelInventoryEventEntity;
+import com.roomoccupancy.api.core.entity.OptimizedRoomOccupancyEntity;
+import com.roomoccupancy.api.core.entity.RoomCategoryEntity;
+import com.roomoccupancy.api.core.usecase.GuestOffers;
+import com.roomoccupancy.api.core.usecase.OptimizedRoomOccupancyKey;
+
+/**
+ * Persistent log of the optimizations and of the changes of the hotel
+ * inventories, so they outlive a restart
+ * 
+ * @author luis
+ *
+ */
+public interface OccupancyEventGateway {
+
+	/**
+	 * Keeps nothing, when the event log is not configured
+	 */
+	OccupancyEventGateway NOOP = new OccupancyEventGateway() {
+
+		@Override
+		public void appendOptimization(OptimizedRoomOccupancyKey key, OptimizedRoomOccupancyEntity optimizedOccupancy) {
+		}
+
+		@Override
+		public void appendCategoryOptimization(List<RoomCategoryEntity> roomCategories, GuestOffers guestOffers,
+				List<CategoryOccupancyEntity> categoryOccupancies) {
+		}
+
+		@Override
+		public void appendInventory(HotelInventoryEventEntity inventoryEvent) {
+		}
+
+		@Override
+		public void recover(RecoverableState state) {
+		}
+
+	};
+
+	/**
+	 * Appends the inputs and the outcome of an optimization
+	 */
+	void appendOptimization(OptimizedRoomOccupancyKey key, OptimizedRoomOccupancyEntity optimizedOccupancy);
+
+	/**
+	 * Appends the inputs and the outcome of an optimization over any number of
+	 * room categories, which the recovery skips, as they are not cached
+	 */
+	void appendCategoryOptimization(List<RoomCategoryEntity> roomCategories, GuestOffers guestOffers,
+			List<CategoryOccupancyEntity> categoryOccupancies);
+
+	/**
+	 * Appends the new state of the inventory of a hotel
+	 */
+	void appendInventory(HotelInventoryEventEntity inventoryEvent);
+
+	/**
+	 * Replays the last snapshot and the events appended after it, and then takes
+	 * the next snapshots from the state
+	 * 
+	 * @param state
+	 *            Receives the replayed events, and gives the inventories to the
+	 *            snapshots
+	 */
+	void recover(RecoverableState state) throws IOException;
+
+	/**
+	 * The state rebuilt from the log
+	 */
+	interface RecoverableState {
+
+		void onOptimization(OptimizedRoomOccupancyKey key, OptimizedRoomOccupancyEntity optimizedOccupancy);
+
+		void onInventory(HotelInventoryEventEntity inventoryEvent);
+
+		/**
+		 * @return The current state of the inventories, including the deleted
+		 *         ones that were not snapshotted yet
+		 */
+		Collection<HotelInventoryEventEntity> getInventories();
+
+		/**
+		 * Called once the inventories are safely in a snapshot
+		 */
+		default void onSnapshot(Collection<HotelInventoryEventEntity> inventories) {
+		}
+
+		RecoverableState NONE = new RecoverableState() {
+
+			@Override
+			public void onOptimization(OptimizedRoomOccupancyKey key,
+					OptimizedRoomOccupancyEntity optimizedOccupancy) {
+			}
+
+			@Override
+			public void onInventory(HotelInventoryEventEntity inventoryEvent) {
+			}
+
+			@Override
+			public Collection<HotelInventoryEventEntity> getInventories() {
+				return Collections.emptyList();
+			}
+
+		};
+
+	}
+
+}
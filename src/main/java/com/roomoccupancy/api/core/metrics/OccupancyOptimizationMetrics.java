@@ -0,0 +1,128 @@
+package com.roomoccupancy.api.core.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import com.roomoccupancy.api.core.entity.OffersFileFormat;
+import com.roomoccupancy.api.core.metrics.OccupancyPhaseTimings.Phase;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+
+/**
+ * Micrometer metrics of the optimizations - how long each phase takes, how
+ * many potential guests are optimized, how many requests are rejected by a
+ * business rule, and how fast the offers files are read. The meters are registered once, so recording them on the
+ * hot path does not allocate.
+ * 
+ * @author luis
+ *
+ */
+@Component
+public class OccupancyOptimizationMetrics {
+
+	/**
+	 * Metrics that are not published anywhere, for usecases created outside the
+	 * Spring context
+	 */
+	public static final OccupancyOptimizationMetrics NOOP = new OccupancyOptimizationMetrics(
+			new CompositeMeterRegistry());
+
+	static final String PHASE_TIMER = "roomoccupancy.optimization.phase";
+
+	static final String GUESTS_SUMMARY = "roomoccupancy.optimization.guests";
+
+	static final String REJECTIONS_COUNTER = "roomoccupancy.optimization.rejections";
+
+	static final String INGESTION_TIMER = "roomoccupancy.ingestion";
+
+	static final String INGESTION_BYTES_SUMMARY = "roomoccupancy.ingestion.bytes";
+
+	private final MeterRegistry meterRegistry;
+
+	private final Timer[] phaseTimers = new Timer[OccupancyPhaseTimings.PHASES.length];
+
+	private final DistributionSummary guestsSummary;
+
+	private final Map<String, Counter> rejectionCounters = new ConcurrentHashMap<>();
+
+	private final Timer[] ingestionTimers = new Timer[OffersFileFormat.values().length];
+
+	private final DistributionSummary[] ingestionBytesSummaries = new DistributionSummary[OffersFileFormat
+			.values().length];
+
+	public OccupancyOptimizationMetrics(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+
+		for (Phase phase : OccupancyPhaseTimings.PHASES) {
+			phaseTimers[phase.ordinal()] = Timer.builder(PHASE_TIMER).description("Time spent on each optimization phase")
+					.tag("phase", phase.getMetricName()).register(meterRegistry);
+		}
+
+		this.guestsSummary = DistributionSummary.builder(GUESTS_SUMMARY)
+				.description("Number of potential guests of each optimization").baseUnit("guests")
+				.register(meterRegistry);
+
+		for (OffersFileFormat format : OffersFileFormat.values()) {
+			ingestionTimers[format.ordinal()] = Timer.builder(INGESTION_TIMER)
+					.description("Time spent reading each offers file").tag("format", format.getMetricName())
+					.register(meterRegistry);
+
+			ingestionBytesSummaries[format.ordinal()] = DistributionSummary.builder(INGESTION_BYTES_SUMMARY)
+					.description("Size of each offers file read").baseUnit("bytes")
+					.tag("format", format.getMetricName()).register(meterRegistry);
+		}
+	}
+
+	/**
+	 * Records the phases of a finished optimization
+	 * 
+	 * @param timings
+	 *            Timings of the optimization phases
+	 * @param numberOfPotentialGuests
+	 *            Number of optimized potential guests
+	 */
+	public void recordOptimization(OccupancyPhaseTimings timings, int numberOfPotentialGuests) {
+		for (Phase phase : OccupancyPhaseTimings.PHASES) {
+			phaseTimers[phase.ordinal()].record(timings.getDurationInNanos(phase), TimeUnit.NANOSECONDS);
+		}
+
+		guestsSummary.record(numberOfPotentialGuests);
+	}
+
+	/**
+	 * Counts an optimization rejected by a business rule
+	 * 
+	 * @param reason
+	 *            The violated rule. Must be one of a few constant messages, as
+	 *            each reason is a different counter.
+	 */
+	public void recordRejection(String reason) {
+		rejectionCounters.computeIfAbsent(reason, r -> Counter.builder(REJECTIONS_COUNTER)
+				.description("Optimizations rejected by a business rule").tag("reason", r).register(meterRegistry))
+				.increment();
+	}
+
+	/**
+	 * Records the reading of an offers file. The throughput is the ratio of the
+	 * bytes summary total to the timer total.
+	 * 
+	 * @param format
+	 *            Format of the file
+	 * @param numberOfBytesRead
+	 *            Size of the file
+	 * @param readTimeInNanos
+	 *            Time spent reading and parsing the file
+	 */
+	public void recordIngestion(OffersFileFormat format, long numberOfBytesRead, long readTimeInNanos) {
+		ingestionTimers[format.ordinal()].record(readTimeInNanos, TimeUnit.NANOSECONDS);
+		ingestionBytesSummaries[format.ordinal()].record(numberOfBytesRead);
+	}
+
+}
@@ -0,0 +1,80 @@
+package com.roomoccupancy.api.core.metrics;
+
+import java.util.Arrays;
+
+/**
+ * How long each phase of the last optimization of the current thread took.
+ * There is a single instance per thread, reused by every optimization, so
+ * timing the phases allocates nothing.
+ * 
+ * @author luis
+ *
+ */
+public final class OccupancyPhaseTimings {
+
+	/**
+	 * Phases of an optimization
+	 */
+	public enum Phase {
+		VALIDATION("validation"), ORDERING("ordering"), PREMIUM_ALLOCATION("premium"), ECONOMY_ALLOCATION("economy");
+
+		private final String metricName;
+
+		Phase(String metricName) {
+			this.metricName = metricName;
+		}
+
+		public String getMetricName() {
+			return metricName;
+		}
+	}
+
+	static final Phase[] PHASES = Phase.values();
+
+	private static final ThreadLocal<OccupancyPhaseTimings> CURRENT = ThreadLocal
+			.withInitial(OccupancyPhaseTimings::new);
+
+	private final long[] durationsInNanos = new long[PHASES.length];
+
+	private long phaseStartInNanos;
+
+	private OccupancyPhaseTimings() {
+	}
+
+	/**
+	 * @return The timings of the last optimization of the current thread
+	 */
+	public static OccupancyPhaseTimings current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * Clears the timings of the current thread and starts timing its first phase
+	 * 
+	 * @return The timings of the current thread
+	 */
+	public static OccupancyPhaseTimings start() {
+		OccupancyPhaseTimings timings = CURRENT.get();
+
+		Arrays.fill(timings.durationsInNanos, 0L);
+		timings.phaseStartInNanos = System.nanoTime();
+
+		return timings;
+	}
+
+	/**
+	 * Adds the time since the end of the previous phase to the phase passed as
+	 * argument
+	 */
+	public void endPhase(Phase phase) {
+		long now = System.nanoTime();
+
+		durationsInNanos[phase.ordinal()] += now - phaseStartInNanos;
+		phaseStartInNanos = now;
+	}
+
+	public long getDurationInNanos(Phase phase) {
+		return durationsInNanos[phase.ordinal()];
+	}
+
+}
@@ -0,0 +1,413 @@
+package com.roomoccupancy.api.core.usecase;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import com.roomoccupancy.api.core.entity.RoomCategoryOccupancyEntity;
+import com.roomoccupancy.api.core.metrics.OccupancyPhaseTimings;
+import com.roomoccupancy.api.core.metrics.OccupancyPhaseTimings.Phase;
+
+/**
+ * Allocates the potential guests to an ordered list of room categories, from
+ * the highest one down, each with the minimum value that a guest must offer
+ * for a night to be a guest of that category. The allocation rules generalize
+ * the ones of the {@link OccupancyAllocationPlan}:
+ * <ul>
+ * <li>Guests are allocated only to rooms of their category, or of a higher
+ * one</li>
+ * <li>The guests left without a room of their category overflow to the free
+ * rooms of the nearest higher category, after its own guests, and on to the
+ * next one while they do not fit</li>
+ * <li>The best guests of a category get the upgrades, highest category
+ * first</li>
+ * <li>Guests below the minimum value of the lowest category get no room</li>
+ * </ul>
+ * The offers are partitioned by category in place, in a single partition
+ * pass, and the best offers of each category are then found by selection, or
+ * by walking an {@link OfferHistogram}, so the allocation costs O(n + k) for n
+ * offers and k categories, instead of a partition, or a sort, per category.
+ *
+ * @author luis
+ *
+ */
+final class CategoryAllocationEngine {
+
+	private CategoryAllocationEngine() {
+	}
+
+	/**
+	 * Allocates the offers, whose order is changed, to the categories. The first
+	 * category is timed as the Premium allocation, and the others as the Economy
+	 * one.
+	 *
+	 * @param minimumNightValues
+	 *            Minimum offer of the guests of each category, strictly
+	 *            decreasing
+	 * @param freeRooms
+	 *            Free rooms of each category
+	 * @param byHistogram
+	 *            Whether the best offers are found by an {@link OfferHistogram}
+	 *            instead of by selection
+	 * @return Occupancy of each category, in the order of the categories
+	 */
+	static RoomCategoryOccupancyEntity[] allocate(int[] minimumNightValues, int[] freeRooms, GuestOffers guestOffers,
+			boolean byHistogram, OccupancyPhaseTimings timings) {
+
+		int numberOfCategories = minimumNightValues.length;
+		int[] occupiedRooms = new int[numberOfCategories];
+		int[] incomes = new int[numberOfCategories];
+
+		if (byHistogram) {
+			allocateByHistogram(minimumNightValues, freeRooms, guestOffers, timings, occupiedRooms, incomes);
+		} else {
+			allocateBySelection(minimumNightValues, freeRooms, guestOffers.array(), guestOffers.size(), timings,
+					occupiedRooms, incomes, null);
+		}
+
+		return toOccupancies(occupiedRooms, incomes);
+	}
+
+	/**
+	 * Allocates the offers to the categories as
+	 * {@link #allocate(int[], int[], GuestOffers, boolean, OccupancyPhaseTimings)}
+	 * does, over a copy of the offers, whose order is kept. Besides the
+	 * occupancy of each category, it keeps the lowest offer of each segment of
+	 * the plan, so the category of each guest can be told afterwards, one guest
+	 * at a time.
+	 */
+	static OccupancyAssignment assign(int[] minimumNightValues, int[] freeRooms, GuestOffers guestOffers,
+			OccupancyPhaseTimings timings) {
+
+		int[] occupiedRooms = new int[minimumNightValues.length];
+		int[] incomes = new int[minimumNightValues.length];
+		SegmentCutoffs cutoffs = new SegmentCutoffs();
+
+		Plan plan = allocateBySelection(minimumNightValues, freeRooms,
+				Arrays.copyOf(guestOffers.array(), guestOffers.size()), guestOffers.size(), timings, occupiedRooms,
+				incomes, cutoffs);
+
+		return new OccupancyAssignment(guestOffers, minimumNightValues, plan, cutoffs.lowestOffers,
+				cutoffs.numberOfLowestOffers, toOccupancies(occupiedRooms, incomes));
+	}
+
+	private static RoomCategoryOccupancyEntity[] toOccupancies(int[] occupiedRooms, int[] incomes) {
+		RoomCategoryOccupancyEntity[] occupancies = new RoomCategoryOccupancyEntity[occupiedRooms.length];
+		for (int category = 0; category < occupancies.length; category++) {
+			occupancies[category] = new RoomCategoryOccupancyEntity(occupiedRooms[category], incomes[category]);
+		}
+
+		return occupancies;
+	}
+
+	/**
+	 * @param cutoffs
+	 *            Receives the lowest offer of each segment, if not null
+	 */
+	private static Plan allocateBySelection(int[] minimumNightValues, int[] freeRooms, int[] offers, int size,
+			OccupancyPhaseTimings timings, int[] occupiedRooms, int[] incomes, SegmentCutoffs cutoffs) {
+
+		int[] categoryStarts = partitionByCategory(offers, size, minimumNightValues);
+
+		int[] potentialGuests = new int[minimumNightValues.length];
+		for (int category = 0; category < potentialGuests.length; category++) {
+			potentialGuests[category] = categoryStarts[category + 1] - categoryStarts[category];
+		}
+
+		Plan plan = Plan.of(freeRooms, potentialGuests);
+
+		if (Objects.nonNull(cutoffs)) {
+			cutoffs.lowestOffers = new int[plan.getNumberOfSegments()];
+			cutoffs.numberOfLowestOffers = new int[plan.getNumberOfSegments()];
+		}
+
+		timings.endPhase(Phase.ORDERING);
+
+		for (int category = 0; category < potentialGuests.length; category++) {
+			int from = categoryStarts[category];
+			int servedTo = from + plan.getServedGuests(category);
+
+			TopOffersSelector.selectLargest(offers, from, categoryStarts[category + 1], servedTo - from);
+
+			for (int segment = plan.firstSegment(category); segment >= 0; segment = plan.nextSegment(segment)) {
+				int numberOfGuests = plan.getSegmentGuests(segment);
+
+				TopOffersSelector.selectLargest(offers, from, servedTo, numberOfGuests);
+
+				occupiedRooms[plan.getSegmentCategory(segment)] += numberOfGuests;
+				incomes[plan.getSegmentCategory(segment)] += TopOffersSelector.sum(offers, from, from + numberOfGuests);
+				if (Objects.nonNull(cutoffs)) {
+					cutoffs.record(segment, offers, from, from + numberOfGuests);
+				}
+				from += numberOfGuests;
+			}
+
+			timings.endPhase(category == 0 ? Phase.PREMIUM_ALLOCATION : Phase.ECONOMY_ALLOCATION);
+		}
+
+		return plan;
+	}
+
+	private static void allocateByHistogram(int[] minimumNightValues, int[] freeRooms, GuestOffers guestOffers,
+			OccupancyPhaseTimings timings, int[] occupiedRooms, int[] incomes) {
+
+		OfferHistogram histogram = OfferHistogram.of(guestOffers);
+
+		Plan plan = Plan.of(freeRooms, histogram.countByCategory(minimumNightValues));
+
+		timings.endPhase(Phase.ORDERING);
+
+		for (int category = 0; category < minimumNightValues.length; category++) {
+			int upperBound = category == 0 ? Integer.MAX_VALUE : minimumNightValues[category - 1];
+			int numberOfSkippedOffers = 0;
+
+			for (int segment = plan.firstSegment(category); segment >= 0; segment = plan.nextSegment(segment)) {
+				int numberOfGuests = plan.getSegmentGuests(segment);
+
+				occupiedRooms[plan.getSegmentCategory(segment)] += numberOfGuests;
+				incomes[plan.getSegmentCategory(segment)] += histogram.sumOfLargestBelow(upperBound,
+						numberOfSkippedOffers, numberOfGuests);
+				numberOfSkippedOffers += numberOfGuests;
+			}
+
+			timings.endPhase(category == 0 ? Phase.PREMIUM_ALLOCATION : Phase.ECONOMY_ALLOCATION);
+		}
+	}
+
+	/**
+	 * Moves the offers of each category together, the highest category first,
+	 * and the offers below every minimum value last. Two groups take a single
+	 * partition pass; more groups are counted in one pass and moved into place
+	 * in another one, cycling each offer to its group.
+	 *
+	 * @return Index of the first offer of each category, followed by the index
+	 *         of the first offer below every minimum value, and by the size
+	 */
+	static int[] partitionByCategory(int[] offers, int size, int[] minimumNightValues) {
+		int numberOfCategories = minimumNightValues.length;
+		int[] categoryStarts = new int[numberOfCategories + 2];
+		categoryStarts[numberOfCategories + 1] = size;
+
+		if (numberOfCategories == 1 || numberOfCategories == 2 && minimumNightValues[1] == 0) {
+			categoryStarts[1] = TopOffersSelector.partitionAtLeast(offers, 0, size, minimumNightValues[0]);
+			if (numberOfCategories == 2) {
+				categoryStarts[2] = size;
+			}
+			return categoryStarts;
+		}
+
+		int[] groupEnds = new int[numberOfCategories + 1];
+		for (int i = 0; i < size; i++) {
+			groupEnds[categoryOf(offers[i], minimumNightValues)]++;
+		}
+
+		for (int group = 0, start = 0; group <= numberOfCategories; group++) {
+			categoryStarts[group] = start;
+			start += groupEnds[group];
+			groupEnds[group] = categoryStarts[group];
+		}
+
+		// groupEnds now holds the next free position of each group
+		for (int group = 0; group <= numberOfCategories; group++) {
+			int groupEnd = categoryStarts[group + 1];
+
+			while (groupEnds[group] < groupEnd) {
+				int offer = offers[groupEnds[group]];
+				int offerGroup = categoryOf(offer, minimumNightValues);
+
+				if (offerGroup == group) {
+					groupEnds[group]++;
+				} else {
+					offers[groupEnds[group]] = offers[groupEnds[offerGroup]];
+					offers[groupEnds[offerGroup]++] = offer;
+				}
+			}
+		}
+
+		return categoryStarts;
+	}
+
+	/**
+	 * @return Index of the highest category whose minimum value the offer
+	 *         reaches, or the number of categories if it reaches none
+	 */
+	static int categoryOf(int offer, int[] minimumNightValues) {
+		int low = 0;
+		int high = minimumNightValues.length;
+
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+
+			if (minimumNightValues[middle] <= offer) {
+				high = middle;
+			} else {
+				low = middle + 1;
+			}
+		}
+
+		return low;
+	}
+
+	/**
+	 * Lowest offer of each segment, and how many offers of the segment have that
+	 * value. Every higher offer of the guests of the segment is in the segment
+	 * too, or in one before it.
+	 */
+	private static final class SegmentCutoffs {
+
+		private int[] lowestOffers;
+
+		private int[] numberOfLowestOffers;
+
+		void record(int segment, int[] offers, int from, int to) {
+			int lowestOffer = Integer.MAX_VALUE;
+			int numberOfOffers = 0;
+
+			for (int i = from; i < to; i++) {
+				if (offers[i] < lowestOffer) {
+					lowestOffer = offers[i];
+					numberOfOffers = 1;
+				} else if (offers[i] == lowestOffer) {
+					numberOfOffers++;
+				}
+			}
+
+			lowestOffers[segment] = lowestOffer;
+			numberOfLowestOffers[segment] = numberOfOffers;
+		}
+
+	}
+
+	/**
+	 * How many guests of each category get a room, and of which category. The
+	 * served guests of a category, from the best offer down, are divided in
+	 * segments - the upgrades, highest category first, and then the guests in
+	 * rooms of their own category.
+	 */
+	static final class Plan {
+
+		private final int[] servedGuests;
+
+		/**
+		 * Segments of the same category are linked, from its first one
+		 */
+		private final int[] firstSegments;
+
+		private final int[] nextSegments;
+
+		private final int[] segmentCategories;
+
+		private final int[] segmentGuests;
+
+		private int numberOfSegments;
+
+		private Plan(int numberOfCategories) {
+			servedGuests = new int[numberOfCategories];
+			firstSegments = new int[numberOfCategories];
+			Arrays.fill(firstSegments, -1);
+
+			// Each category has its own segment, and each upgrade either fills the
+			// free rooms of a category or moves every guest left of another one
+			nextSegments = new int[3 * numberOfCategories];
+			segmentCategories = new int[nextSegments.length];
+			segmentGuests = new int[nextSegments.length];
+		}
+
+		/**
+		 * Walks the categories from the lowest one up, filling the free rooms of
+		 * each one with its own guests, and then with the guests left without a
+		 * room below it, the nearest category first
+		 */
+		static Plan of(int[] freeRooms, int[] potentialGuests) {
+			int numberOfCategories = freeRooms.length;
+			Plan plan = new Plan(numberOfCategories);
+
+			int[] waitingCategories = new int[numberOfCategories];
+			int[] waitingGuests = new int[numberOfCategories];
+			int numberOfWaitingCategories = 0;
+
+			for (int category = numberOfCategories - 1; category >= 0; category--) {
+				int ownGuests = Math.min(freeRooms[category], potentialGuests[category]);
+				int remainingRooms = freeRooms[category] - ownGuests;
+
+				plan.addSegment(category, category, ownGuests);
+
+				while (remainingRooms > 0 && numberOfWaitingCategories > 0) {
+					int waiting = numberOfWaitingCategories - 1;
+					int upgradedGuests = Math.min(remainingRooms, waitingGuests[waiting]);
+
+					plan.addSegment(waitingCategories[waiting], category, upgradedGuests);
+
+					remainingRooms -= upgradedGuests;
+					waitingGuests[waiting] -= upgradedGuests;
+					if (waitingGuests[waiting] == 0) {
+						numberOfWaitingCategories--;
+					}
+				}
+
+				if (potentialGuests[category] > ownGuests) {
+					waitingCategories[numberOfWaitingCategories] = category;
+					waitingGuests[numberOfWaitingCategories++] = potentialGuests[category] - ownGuests;
+				}
+			}
+
+			return plan;
+		}
+
+		/**
+		 * Segments are added from the lowest room category up, so each new
+		 * segment of a category goes before the previous ones, to be walked with
+		 * the highest room category first
+		 */
+		private void addSegment(int guestCategory, int roomCategory, int numberOfGuests) {
+			if (numberOfGuests == 0) {
+				return;
+			}
+
+			segmentCategories[numberOfSegments] = roomCategory;
+			segmentGuests[numberOfSegments] = numberOfGuests;
+			nextSegments[numberOfSegments] = firstSegments[guestCategory];
+			firstSegments[guestCategory] = numberOfSegments++;
+
+			servedGuests[guestCategory] += numberOfGuests;
+		}
+
+		int getNumberOfSegments() {
+			return numberOfSegments;
+		}
+
+		/**
+		 * @return Number of guests of the category that get a room
+		 */
+		int getServedGuests(int category) {
+			return servedGuests[category];
+		}
+
+		/**
+		 * @return First segment of the guests of the category, or -1 if none of
+		 *         them gets a room
+		 */
+		int firstSegment(int category) {
+			return firstSegments[category];
+		}
+
+		/**
+		 * @return Next segment of the same guests, or -1 after the last one
+		 */
+		int nextSegment(int segment) {
+			return nextSegments[segment];
+		}
+
+		/**
+		 * @return Category of the rooms of the segment
+		 */
+		int getSegmentCategory(int segment) {
+			return segmentCategories[segment];
+		}
+
+		int getSegmentGuests(int segment) {
+			return segmentGuests[segment];
+		}
+
+	}
+
+}
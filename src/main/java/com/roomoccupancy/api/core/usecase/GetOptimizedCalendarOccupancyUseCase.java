@@ -0,0 +1,302 @@
+package com.roomoccupancy.api.core.usecase;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import com.roomoccupancy.api.core.entity.NightInventoryEntity;
+import com.roomoccupancy.api.core.entity.NightOccupancyEntity;
+import com.roomoccupancy.api.core.entity.OptimizedCalendarOccupancyEntity;
+import com.roomoccupancy.api.core.entity.OptimizedRoomOccupancyEntity;
+import com.roomoccupancy.api.core.entity.RoomCategoryOccupancyEntity;
+import com.roomoccupancy.api.core.entity.StayOfferEntity;
+import com.roomoccupancy.api.core.exception.BusinessException;
+import com.roomoccupancy.api.core.metrics.OccupancyPhaseTimings;
+
+/**
+ * Optimizes the room occupancy of a calendar of nights, each one with its own
+ * free rooms, for potential guests that offer a nightly value for a stay of
+ * one or more nights.
+ * 
+ * <p>
+ * Every night is an independent instance of the single night optimization:
+ * the potential guests of a night are the stays that include it, and the
+ * Premium and Economy rules are the ones of
+ * {@link GetOptimizedRoomOccupancyUseCase}. So the nights are optimized in
+ * parallel, and a stay may be accommodated in some of its nights only. The
+ * nights are allocated straight by the {@link CategoryAllocationEngine}, as
+ * they are parts of a calendar, neither cached nor logged as optimizations.
+ * 
+ * @author luis
+ *
+ */
+@Service
+public class GetOptimizedCalendarOccupancyUseCase {
+
+	private static final String ERROR_NULL_FIRST_NIGHT = "The first night of the calendar is required.";
+
+	private static final String ERROR_EMPTY_NIGHTS = "The nights of the calendar are required.";
+
+	private static final String ERROR_NULL_NIGHT = "The free rooms of every night are required.";
+
+	private static final String ERROR_NULL_STAYS = "The stays are required.";
+
+	private static final String ERROR_NULL_STAY = "The stay is required.";
+
+	private static final String ERROR_INVALID_STAY_DATES = "The check-in and the check-out of a stay are required, and the check-out must be after the check-in.";
+
+	/**
+	 * Each worker gets a few tasks, so the ones that finish first can steal the
+	 * nights of the busy ones
+	 */
+	private static final int TASKS_PER_WORKER = 4;
+
+	@Autowired
+	GetOptimizedRoomOccupancyUseCase occupancyUseCase;
+
+	@Autowired
+	@Qualifier("optimizationForkJoinPool")
+	ForkJoinPool forkJoinPool;
+
+	/**
+	 * Optimizes the room occupancy of each night of the calendar. The nights of a
+	 * stay out of the calendar are ignored, and a stay may be accepted on only
+	 * some of its nights, as each night is optimized on its own.
+	 * 
+	 * @param firstNight
+	 *            Date of the first night of the calendar
+	 * @param nights
+	 *            Free rooms of each night, starting at the first night
+	 * @param stays
+	 *            Offers of the potential guests
+	 * @return Optimized room occupancy of each night, in the calendar order. The
+	 *         stays are not kept whole across the nights.
+	 * @throws BusinessException
+	 *             if any of the nights or of the stays is invalid
+	 */
+	public OptimizedCalendarOccupancyEntity getOptimizedCalendarOccupancy(LocalDate firstNight,
+			List<NightInventoryEntity> nights, List<StayOfferEntity> stays) {
+
+		validateNights(firstNight, nights);
+
+		if (Objects.isNull(stays)) {
+			throw new BusinessException(ERROR_NULL_STAYS);
+		}
+
+		int numberOfNights = nights.size();
+		CalendarStays calendarStays = CalendarStays.of(firstNight, numberOfNights, stays);
+
+		NightInventoryEntity[] inventories = nights.toArray(new NightInventoryEntity[0]);
+		NightOccupancyEntity[] occupancies = new NightOccupancyEntity[numberOfNights];
+		int nightsPerTask = Math.max(1, numberOfNights / (forkJoinPool.getParallelism() * TASKS_PER_WORKER));
+
+		forkJoinPool.invoke(new OptimizeNightsAction(firstNight, inventories, calendarStays, occupancies,
+				nightsPerTask, 0, numberOfNights));
+
+		long generatedIncome = 0;
+		for (NightOccupancyEntity occupancy : occupancies) {
+			generatedIncome += occupancy.getOccupancy().getPremiumOccupancy().getGeneratedIncome()
+					+ occupancy.getOccupancy().getEconomyOccupancy().getGeneratedIncome();
+		}
+
+		return new OptimizedCalendarOccupancyEntity(Arrays.asList(occupancies), generatedIncome);
+	}
+
+	private static void validateNights(LocalDate firstNight, List<NightInventoryEntity> nights) {
+		if (Objects.isNull(firstNight)) {
+			throw new BusinessException(ERROR_NULL_FIRST_NIGHT);
+		}
+
+		if (Objects.isNull(nights) || nights.isEmpty()) {
+			throw new BusinessException(ERROR_EMPTY_NIGHTS);
+		}
+
+		for (NightInventoryEntity night : nights) {
+			if (Objects.isNull(night)) {
+				throw new BusinessException(ERROR_NULL_NIGHT);
+			}
+
+			GetOptimizedRoomOccupancyUseCase.validateFreeRoomsParameters(night.getFreePremiumRooms(),
+					night.getFreeEconomyRooms());
+		}
+	}
+
+	/**
+	 * Validated stays, as the interval of calendar nights that each one covers,
+	 * kept in primitive arrays so the night tasks can scan them quickly
+	 */
+	private static final class CalendarStays {
+
+		private final int[] firstNights;
+
+		private final int[] endNights;
+
+		private final int[] nightlyOffers;
+
+		/**
+		 * Number of stays that include each night
+		 */
+		private final int[] guestsPerNight;
+
+		private CalendarStays(int[] firstNights, int[] endNights, int[] nightlyOffers, int[] guestsPerNight) {
+			this.firstNights = firstNights;
+			this.endNights = endNights;
+			this.nightlyOffers = nightlyOffers;
+			this.guestsPerNight = guestsPerNight;
+		}
+
+		static CalendarStays of(LocalDate firstNight, int numberOfNights, List<StayOfferEntity> stays) {
+			int numberOfStays = stays.size();
+			int[] firstNights = new int[numberOfStays];
+			int[] endNights = new int[numberOfStays];
+			int[] nightlyOffers = new int[numberOfStays];
+
+			// Difference array - each stay adds one guest from its first night to its end
+			int[] guestsPerNight = new int[numberOfNights + 1];
+
+			int index = 0;
+			for (StayOfferEntity stay : stays) {
+				validateStay(stay);
+
+				int stayFirstNight = toCalendarNight(firstNight, stay.getCheckIn(), numberOfNights);
+				int stayEndNight = toCalendarNight(firstNight, stay.getCheckOut(), numberOfNights);
+
+				firstNights[index] = stayFirstNight;
+				endNights[index] = stayEndNight;
+				nightlyOffers[index] = stay.getNightlyOffer();
+				index++;
+
+				guestsPerNight[stayFirstNight]++;
+				guestsPerNight[stayEndNight]--;
+			}
+
+			for (int night = 1; night < numberOfNights; night++) {
+				guestsPerNight[night] += guestsPerNight[night - 1];
+			}
+
+			return new CalendarStays(firstNights, endNights, nightlyOffers, guestsPerNight);
+		}
+
+		private static void validateStay(StayOfferEntity stay) {
+			if (Objects.isNull(stay)) {
+				throw new BusinessException(ERROR_NULL_STAY);
+			}
+
+			if (Objects.isNull(stay.getCheckIn()) || Objects.isNull(stay.getCheckOut())
+					|| !stay.getCheckOut().isAfter(stay.getCheckIn())) {
+				throw new BusinessException(ERROR_INVALID_STAY_DATES);
+			}
+
+			if (Objects.isNull(stay.getNightlyOffer()) || stay.getNightlyOffer() < 0) {
+				throw new BusinessException(GuestOffers.ERROR_NULL_OR_NEGATIVE_GUEST_OFFER);
+			}
+		}
+
+		/**
+		 * @return Index of the date in the calendar, clamped to the calendar bounds
+		 */
+		private static int toCalendarNight(LocalDate firstNight, LocalDate date, int numberOfNights) {
+			long night = ChronoUnit.DAYS.between(firstNight, date);
+
+			return (int) Math.max(0, Math.min(night, numberOfNights));
+		}
+
+		/**
+		 * Reads the offers of the stays that include each night of the interval
+		 */
+		GuestOffers[] getGuestOffers(int fromNight, int toNight) {
+			GuestOffers[] guestOffers = new GuestOffers[toNight - fromNight];
+
+			for (int night = fromNight; night < toNight; night++) {
+				guestOffers[night - fromNight] = new GuestOffers(guestsPerNight[night]);
+			}
+
+			for (int stay = 0; stay < nightlyOffers.length; stay++) {
+				int from = Math.max(firstNights[stay], fromNight);
+				int to = Math.min(endNights[stay], toNight);
+
+				for (int night = from; night < to; night++) {
+					guestOffers[night - fromNight].add(nightlyOffers[stay]);
+				}
+			}
+
+			return guestOffers;
+		}
+
+	}
+
+	/**
+	 * Splits the calendar in halves until each task has a few nights. Each task
+	 * reads the offers of its own nights, so the reading is parallel as well.
+	 */
+	private class OptimizeNightsAction extends RecursiveAction {
+
+		private static final long serialVersionUID = -1879310466238125744L;
+
+		private final LocalDate firstNight;
+
+		private final NightInventoryEntity[] inventories;
+
+		private final CalendarStays stays;
+
+		private final NightOccupancyEntity[] occupancies;
+
+		private final int nightsPerTask;
+
+		private final int from;
+
+		private final int to;
+
+		OptimizeNightsAction(LocalDate firstNight, NightInventoryEntity[] inventories, CalendarStays stays,
+				NightOccupancyEntity[] occupancies, int nightsPerTask, int from, int to) {
+			this.firstNight = firstNight;
+			this.inventories = inventories;
+			this.stays = stays;
+			this.occupancies = occupancies;
+			this.nightsPerTask = nightsPerTask;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= nightsPerTask) {
+				optimizeNights();
+				return;
+			}
+
+			int middle = (from + to) >>> 1;
+
+			invokeAll(new OptimizeNightsAction(firstNight, inventories, stays, occupancies, nightsPerTask, from, middle),
+					new OptimizeNightsAction(firstNight, inventories, stays, occupancies, nightsPerTask, middle, to));
+		}
+
+		private void optimizeNights() {
+			GuestOffers[] guestOffers = stays.getGuestOffers(from, to);
+			int[] minimumNightValues = { GetOptimizedRoomOccupancyUseCase.PREMIUM_ROOM_MINIMUN_NIGHT_VALUE, 0 };
+
+			for (int night = from; night < to; night++) {
+				GuestOffers nightGuestOffers = guestOffers[night - from];
+				int numberOfPotentialGuests = nightGuestOffers.size();
+				int[] freeRooms = { inventories[night].getFreePremiumRooms(), inventories[night].getFreeEconomyRooms() };
+
+				RoomCategoryOccupancyEntity[] occupancy = CategoryAllocationEngine.allocate(minimumNightValues,
+						freeRooms, nightGuestOffers, occupancyUseCase.isHistogramAllocationWorthIt(nightGuestOffers),
+						OccupancyPhaseTimings.current());
+
+				occupancies[night] = new NightOccupancyEntity(firstNight.plusDays(night), numberOfPotentialGuests,
+						new OptimizedRoomOccupancyEntity(occupancy[0], occupancy[1]));
+			}
+		}
+
+	}
+
+}
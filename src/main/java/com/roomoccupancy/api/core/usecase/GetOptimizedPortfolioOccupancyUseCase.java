@@ -0,0 +1,60 @@
+package com.roomoccupancy.api.core.usecase;
+
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import com.roomoccupancy.api.core.entity.OptimizedRoomOccupancyEntity;
+import com.roomoccupancy.api.core.exception.BusinessException;
+
+/**
+ * Optimizes the room occupancy of a whole portfolio of hotels, spreading the
+ * hotels over the work-stealing pool of the batch optimizations
+ * 
+ * @author luis
+ *
+ */
+@Service
+public class GetOptimizedPortfolioOccupancyUseCase {
+
+	@Autowired
+	GetOptimizedRoomOccupancyUseCase occupancyUseCase;
+
+	@Autowired
+	HotelInventoryUseCase inventoryUseCase;
+
+	@Autowired
+	@Qualifier("optimizationForkJoinPool")
+	ForkJoinPool forkJoinPool;
+
+	/**
+	 * Starts a portfolio optimization, to which the hotels are submitted as they
+	 * arrive
+	 */
+	public PortfolioOptimization startPortfolioOptimization() {
+		return new PortfolioOptimization(this::getOptimizedRoomOccupancy, forkJoinPool);
+	}
+
+	/**
+	 * A hotel without free rooms, but with an identifier, is optimized on its
+	 * inventory, as in {@link HotelInventoryUseCase#getOptimizedRoomOccupancy(String, GuestOffers)}.
+	 * Any other hotel is optimized as in
+	 * {@link GetOptimizedRoomOccupancyUseCase#getOptimizedRoomOccupancy(Integer, Integer, GuestOffers)}.
+	 * 
+	 * @throws BusinessException
+	 *             if the hotel is not valid
+	 */
+	OptimizedRoomOccupancyEntity getOptimizedRoomOccupancy(PortfolioHotel hotel) {
+		if (Objects.isNull(hotel.getFreePremiumRooms()) && Objects.isNull(hotel.getFreeEconomyRooms())
+				&& Objects.nonNull(hotel.getHotelId())) {
+			return inventoryUseCase.getOptimizedRoomOccupancy(hotel.getHotelId(), hotel.getPotentialGuests());
+		}
+
+		return occupancyUseCase.getOptimizedRoomOccupancy(hotel.getFreePremiumRooms(), hotel.getFreeEconomyRooms(),
+				hotel.getPotentialGuests());
+	}
+
+}
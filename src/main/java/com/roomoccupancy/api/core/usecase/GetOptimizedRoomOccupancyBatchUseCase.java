@@ -0,0 +1,116 @@
+package com.roomoccupancy.api.core.usecase;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import com.roomoccupancy.api.core.entity.OccupancyScenarioEntity;
+import com.roomoccupancy.api.core.entity.OccupancyScenarioResultEntity;
+import com.roomoccupancy.api.core.exception.BusinessException;
+
+/**
+ * Optimizes the room occupancy of many what-if scenarios at once, in parallel
+ * 
+ * @author luis
+ *
+ */
+@Service
+public class GetOptimizedRoomOccupancyBatchUseCase {
+
+	private static final String ERROR_NULL_SCENARIOS = "The scenarios are required.";
+
+	private static final String ERROR_NULL_SCENARIO = "The scenario is required.";
+
+	@Autowired
+	GetOptimizedRoomOccupancyUseCase occupancyUseCase;
+
+	@Autowired
+	@Qualifier("optimizationForkJoinPool")
+	ForkJoinPool forkJoinPool;
+
+	/**
+	 * Optimizes the room occupancy of each scenario, with the same rules of
+	 * {@link GetOptimizedRoomOccupancyUseCase#getOptimizedRoomOccupancy(Integer, Integer, Integer[])}.
+	 * A scenario that violates a business rule does not fail the others, its
+	 * error is reported in its own result.
+	 * 
+	 * @param scenarios
+	 *            Scenarios to optimize
+	 * @return One result per scenario, in the same order of the scenarios
+	 * @throws BusinessException
+	 *             if the scenarios list is null
+	 */
+	public List<OccupancyScenarioResultEntity> getOptimizedRoomOccupancies(List<OccupancyScenarioEntity> scenarios) {
+		if (Objects.isNull(scenarios)) {
+			throw new BusinessException(ERROR_NULL_SCENARIOS);
+		}
+
+		OccupancyScenarioEntity[] scenariosArray = scenarios.toArray(new OccupancyScenarioEntity[0]);
+		OccupancyScenarioResultEntity[] results = new OccupancyScenarioResultEntity[scenariosArray.length];
+
+		forkJoinPool.invoke(new OptimizeScenariosAction(scenariosArray, results, 0, scenariosArray.length));
+
+		return Arrays.asList(results);
+	}
+
+	private OccupancyScenarioResultEntity getOptimizedRoomOccupancy(OccupancyScenarioEntity scenario) {
+		try {
+			if (Objects.isNull(scenario)) {
+				throw new BusinessException(ERROR_NULL_SCENARIO);
+			}
+
+			return OccupancyScenarioResultEntity.ofResult(occupancyUseCase.getOptimizedRoomOccupancy(
+					scenario.getFreePremiumRooms(), scenario.getFreeEconomyRooms(), scenario.getPotentialGuests()));
+		} catch (BusinessException ex) {
+			return OccupancyScenarioResultEntity.ofError(ex.getMessage());
+		}
+	}
+
+	/**
+	 * Splits the scenarios in halves until each task has a single scenario, so
+	 * idle workers can steal the pending halves of the busy ones
+	 */
+	private class OptimizeScenariosAction extends RecursiveAction {
+
+		private static final long serialVersionUID = 6227917454208095331L;
+
+		private final OccupancyScenarioEntity[] scenarios;
+
+		private final OccupancyScenarioResultEntity[] results;
+
+		private final int from;
+
+		private final int to;
+
+		OptimizeScenariosAction(OccupancyScenarioEntity[] scenarios, OccupancyScenarioResultEntity[] results,
+				int from, int to) {
+			this.scenarios = scenarios;
+			this.results = results;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= 1) {
+				if (from < to) {
+					results[from] = getOptimizedRoomOccupancy(scenarios[from]);
+				}
+				return;
+			}
+
+			int middle = (from + to) >>> 1;
+
+			invokeAll(new OptimizeScenariosAction(scenarios, results, from, middle),
+					new OptimizeScenariosAction(scenarios, results, middle, to));
+		}
+
+	}
+
+}
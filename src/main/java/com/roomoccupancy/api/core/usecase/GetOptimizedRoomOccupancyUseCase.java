@@ -1,15 +1,28 @@
 package com.roomoccupancy.api.core.usecase;
 
-import java.util.Arrays;
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Supplier;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.roomoccupancy.api.core.cache.OptimizationRequestCoalescer;
+import com.roomoccupancy.api.core.cache.OptimizedRoomOccupancyCache;
+import com.roomoccupancy.api.core.entity.CategoryOccupancyEntity;
 import com.roomoccupancy.api.core.entity.OptimizedRoomOccupancyEntity;
+import com.roomoccupancy.api.core.entity.RoomCategoryEntity;
 import com.roomoccupancy.api.core.entity.RoomCategoryOccupancyEntity;
 import com.roomoccupancy.api.core.exception.BusinessException;
+import com.roomoccupancy.api.core.gateway.OccupancyEventGateway;
+import com.roomoccupancy.api.core.metrics.OccupancyOptimizationMetrics;
+import com.roomoccupancy.api.core.metrics.OccupancyPhaseTimings;
+import com.roomoccupancy.api.core.metrics.OccupancyPhaseTimings.Phase;
 
 /**
  * Contains the business logic to make the best division of the rooms between
@@ -21,10 +34,14 @@ import com.roomoccupancy.api.core.exception.BusinessException;
 @Service
 public class GetOptimizedRoomOccupancyUseCase {
 
-	private static final Integer PREMIUM_ROOM_MINIMUN_NIGHT_VALUE = 100;
+	static final int PREMIUM_ROOM_MINIMUN_NIGHT_VALUE = 100;
 
 	private static final Integer ZERO = 0;
 
+	private static final int DEFAULT_HISTOGRAM_MAX_OFFER = 2048;
+
+	private static final int DEFAULT_OFFLOAD_THRESHOLD = 100_000;
+
 	private static final String ERROR_NULL_POTENTIAL_GUESTS_ARRAY = "The potential guests array is required.";
 
 	private static final String ERROR_NULL_FREE_ECONOMIC_ROOMS = "The number of free Economic rooms is required.";
@@ -35,7 +52,59 @@ public class GetOptimizedRoomOccupancyUseCase {
 
 	private static final String ERROR_NEGATIVE_FREE_PREMIUM_ROOMS = "The number of free Premium rooms must be zero or greater.";
 
-	private static final String ERROR_NULL_OR_NEGATIVE_GUEST_OFFER = "The value that a guest is willing to pay must be a valid positive Integer";
+	private static final String ERROR_NULL_PREMIUM_MINIMUM_NIGHT_VALUE = "The Premium minimum night value is required.";
+
+	private static final String ERROR_NEGATIVE_PREMIUM_MINIMUM_NIGHT_VALUE = "The Premium minimum night value must be zero or greater.";
+
+	static final int MAXIMUM_NUMBER_OF_ROOM_CATEGORIES = 32;
+
+	private static final String ERROR_NULL_ROOM_CATEGORIES = "The room categories are required.";
+
+	private static final String ERROR_TOO_MANY_ROOM_CATEGORIES = "There must be %d room categories or less.";
+
+	private static final String ERROR_NULL_ROOM_CATEGORY_NAME = "The name of a room category is required.";
+
+	private static final String ERROR_NULL_ROOM_CATEGORY_FREE_ROOMS = "The number of free rooms of a category is required.";
+
+	private static final String ERROR_NEGATIVE_ROOM_CATEGORY_FREE_ROOMS = "The number of free rooms of a category must be zero or greater.";
+
+	private static final String ERROR_NULL_ROOM_CATEGORY_MINIMUM_NIGHT_VALUE = "The minimum night value of a category is required.";
+
+	private static final String ERROR_NEGATIVE_ROOM_CATEGORY_MINIMUM_NIGHT_VALUE = "The minimum night value of a category must be zero or greater.";
+
+	private static final String ERROR_UNORDERED_ROOM_CATEGORIES = "The room categories must be ordered by decreasing minimum night value.";
+
+	/**
+	 * Offers below this bound are allocated by counting them in a histogram,
+	 * instead of selecting them
+	 */
+	@Value("${roomoccupancy.optimization.histogram-max-offer:" + DEFAULT_HISTOGRAM_MAX_OFFER + "}")
+	int histogramMaxOffer = DEFAULT_HISTOGRAM_MAX_OFFER;
+
+	/**
+	 * Optimizations of at least this many offers run on the bounded
+	 * optimization pool, so the big ones never take more processors than the
+	 * pool has, whatever the number of request threads. Zero runs every
+	 * optimization on the calling thread.
+	 */
+	@Value("${roomoccupancy.optimization.offload-threshold:" + DEFAULT_OFFLOAD_THRESHOLD + "}")
+	int offloadThreshold = DEFAULT_OFFLOAD_THRESHOLD;
+
+	@Autowired(required = false)
+	@Qualifier("optimizationForkJoinPool")
+	ForkJoinPool offloadPool;
+
+	@Autowired(required = false)
+	OccupancyOptimizationMetrics optimizationMetrics = OccupancyOptimizationMetrics.NOOP;
+
+	@Autowired(required = false)
+	OptimizedRoomOccupancyCache occupancyCache = OptimizedRoomOccupancyCache.DISABLED;
+
+	@Autowired(required = false)
+	OptimizationRequestCoalescer requestCoalescer = OptimizationRequestCoalescer.DISABLED;
+
+	@Autowired(required = false)
+	OccupancyEventGateway eventGateway = OccupancyEventGateway.NOOP;
 
 	/**
 	 * Method that optimizes the division of potential guests on the free rooms
@@ -56,107 +125,378 @@ public class GetOptimizedRoomOccupancyUseCase {
 	public OptimizedRoomOccupancyEntity getOptimizedRoomOccupancy(Integer numberOfFreePremiumRooms,
 			Integer numberOfFreeEconomyRooms, Integer[] potencialGuests) {
 
-		validateFreeRoomsParameters(numberOfFreePremiumRooms, numberOfFreeEconomyRooms);
+		OccupancyPhaseTimings timings = OccupancyPhaseTimings.start();
 
-		List<Integer> orderedPotencialGuests = validatePotentialGuestsAndGetAsOrderedList(potencialGuests);
+		GuestOffers guestOffers;
+		try {
+			validateFreeRoomsParameters(numberOfFreePremiumRooms, numberOfFreeEconomyRooms);
 
-		Integer numberOfPotentialEconomyGuests = ((Long) orderedPotencialGuests.stream()
-				.filter(this::isPotentialGuestForEconomyRoom).count()).intValue();
+			guestOffers = validatePotentialGuests(potencialGuests);
+		} catch (BusinessException ex) {
+			optimizationMetrics.recordRejection(ex.getMessage());
+			throw ex;
+		}
 
-		Integer numberOfAllocatedEconomyGuests = Math.min(numberOfFreeEconomyRooms, numberOfPotentialEconomyGuests);
+		return getOptimizedRoomOccupancy(numberOfFreePremiumRooms.intValue(), numberOfFreeEconomyRooms.intValue(),
+				PREMIUM_ROOM_MINIMUN_NIGHT_VALUE, guestOffers, timings);
+	}
 
-		Integer numberOfPotentialPremiumGuests = potencialGuests.length - numberOfPotentialEconomyGuests;
+	/**
+	 * Same as {@link #getOptimizedRoomOccupancy(Integer, Integer, Integer[])}, for
+	 * offers that were already read into a {@link GuestOffers}, as the streaming
+	 * request parsers do. The order of the offers is changed by the optimization.
+	 * 
+	 * @param numberOfFreePremiumRooms
+	 *            Free Premium Rooms
+	 * @param numberOfFreeEconomyRooms
+	 *            Free Economy Rooms
+	 * @param guestOffers
+	 *            Prices that potential guests are willing to pay for a night
+	 * @return Number of economy and premium rooms that will be occupied, and the
+	 *         amount of money that it will generate
+	 * @throws BusinessException
+	 */
+	public OptimizedRoomOccupancyEntity getOptimizedRoomOccupancy(Integer numberOfFreePremiumRooms,
+			Integer numberOfFreeEconomyRooms, GuestOffers guestOffers) {
 
-		Integer numberOfPotentialEconomyGuestsWithoutRoom = numberOfPotentialEconomyGuests
-				- numberOfAllocatedEconomyGuests;
+		return getOptimizedRoomOccupancy(numberOfFreePremiumRooms, numberOfFreeEconomyRooms,
+				PREMIUM_ROOM_MINIMUN_NIGHT_VALUE, guestOffers);
+	}
 
-		Integer numberOfAllocatedPremiumGuests = getNumberOfAllocatedPremiumGuests(numberOfFreePremiumRooms,
-				numberOfPotentialPremiumGuests, numberOfPotentialEconomyGuestsWithoutRoom);
+	/**
+	 * Same as
+	 * {@link #getOptimizedRoomOccupancy(Integer, Integer, GuestOffers)}, with the
+	 * minimum value of a Premium guest of a hotel instead of the default one
+	 * 
+	 * @param numberOfFreePremiumRooms
+	 *            Free Premium Rooms
+	 * @param numberOfFreeEconomyRooms
+	 *            Free Economy Rooms
+	 * @param premiumRoomMinimumNightValue
+	 *            Offers of this value or more are of Premium guests
+	 * @param guestOffers
+	 *            Prices that potential guests are willing to pay for a night
+	 * @return Number of economy and premium rooms that will be occupied, and the
+	 *         amount of money that it will generate
+	 * @throws BusinessException
+	 */
+	public OptimizedRoomOccupancyEntity getOptimizedRoomOccupancy(Integer numberOfFreePremiumRooms,
+			Integer numberOfFreeEconomyRooms, Integer premiumRoomMinimumNightValue, GuestOffers guestOffers) {
 
-		RoomCategoryOccupancyEntity premiumRoomsOccupancy = getRoomOccupancyForPremiumGuests(orderedPotencialGuests,
-				numberOfAllocatedPremiumGuests.intValue());
+		OccupancyPhaseTimings timings = OccupancyPhaseTimings.start();
 
-		Integer numberOfGuestsDisallowedForEconomyRooms = Math.max(numberOfAllocatedPremiumGuests,
-				numberOfPotentialPremiumGuests);
+		try {
+			validateFreeRoomsParameters(numberOfFreePremiumRooms, numberOfFreeEconomyRooms);
+			validatePremiumRoomMinimumNightValue(premiumRoomMinimumNightValue);
 
-		RoomCategoryOccupancyEntity economyRoomsOccupancy = getRoomOccupancyForEconomyGuests(orderedPotencialGuests,
-				numberOfAllocatedEconomyGuests, numberOfGuestsDisallowedForEconomyRooms);
+			if (Objects.isNull(guestOffers)) {
+				throw new BusinessException(ERROR_NULL_POTENTIAL_GUESTS_ARRAY);
+			}
+		} catch (BusinessException ex) {
+			optimizationMetrics.recordRejection(ex.getMessage());
+			throw ex;
+		}
 
-		return new OptimizedRoomOccupancyEntity(premiumRoomsOccupancy, economyRoomsOccupancy);
+		return getOptimizedRoomOccupancy(numberOfFreePremiumRooms.intValue(), numberOfFreeEconomyRooms.intValue(),
+				premiumRoomMinimumNightValue.intValue(), guestOffers, timings);
 	}
 
 	/**
-	 * Validate if the free rooms parameters are not null nor negative
+	 * Optimizes the division of potential guests on the free rooms of any number
+	 * of categories, the two-tier optimization being the one of a Premium and an
+	 * Economy category. Guests get rooms of their category, or overflow to the
+	 * nearest higher category with free rooms. These optimizations are neither
+	 * cached nor coalesced.
 	 * 
-	 * @param numberOfFreePremiumRooms
-	 * @param numberOfFreeEconomyRooms
+	 * @param roomCategories
+	 *            Room categories, ordered by strictly decreasing minimum night
+	 *            value. Guests below the minimum value of the last one get no
+	 *            room.
+	 * @param potencialGuests
+	 *            Array of prices that potential guests are willing to pay for a
+	 *            night
+	 * @return Number of rooms of each category that will be occupied, and the
+	 *         amount of money that it will generate, in the order of the
+	 *         categories
+	 * @throws BusinessException
 	 */
-	private void validateFreeRoomsParameters(Integer numberOfFreePremiumRooms, Integer numberOfFreeEconomyRooms) {
-		if (Objects.isNull(numberOfFreeEconomyRooms)) {
-			throw new BusinessException(ERROR_NULL_FREE_ECONOMIC_ROOMS);
-		} else if (numberOfFreeEconomyRooms < ZERO) {
-			throw new BusinessException(ERROR_NEGATIVE_FREE_ECONOMIC_ROOMS);
+	public List<CategoryOccupancyEntity> getOptimizedCategoryOccupancy(List<RoomCategoryEntity> roomCategories,
+			Integer[] potencialGuests) {
+
+		OccupancyPhaseTimings timings = OccupancyPhaseTimings.start();
+
+		GuestOffers guestOffers;
+		try {
+			validateRoomCategories(roomCategories);
+
+			guestOffers = validatePotentialGuests(potencialGuests);
+		} catch (BusinessException ex) {
+			optimizationMetrics.recordRejection(ex.getMessage());
+			throw ex;
 		}
 
-		if (Objects.isNull(numberOfFreePremiumRooms)) {
-			throw new BusinessException(ERROR_NULL_FREE_PREMIUM_ROOMS);
-		} else if (numberOfFreePremiumRooms < ZERO) {
-			throw new BusinessException(ERROR_NEGATIVE_FREE_PREMIUM_ROOMS);
+		return getOptimizedCategoryOccupancy(roomCategories, guestOffers, timings);
+	}
+
+	/**
+	 * Same as {@link #getOptimizedCategoryOccupancy(List, Integer[])}, for offers
+	 * that were already read into a {@link GuestOffers}, as the streaming request
+	 * parsers do. The order of the offers is changed by the optimization.
+	 * 
+	 * @param roomCategories
+	 *            Room categories, ordered by strictly decreasing minimum night
+	 *            value. Guests below the minimum value of the last one get no
+	 *            room.
+	 * @param guestOffers
+	 *            Prices that potential guests are willing to pay for a night
+	 * @return Number of rooms of each category that will be occupied, and the
+	 *         amount of money that it will generate, in the order of the
+	 *         categories
+	 * @throws BusinessException
+	 */
+	public List<CategoryOccupancyEntity> getOptimizedCategoryOccupancy(List<RoomCategoryEntity> roomCategories,
+			GuestOffers guestOffers) {
+
+		OccupancyPhaseTimings timings = OccupancyPhaseTimings.start();
+
+		try {
+			validateRoomCategories(roomCategories);
+
+			if (Objects.isNull(guestOffers)) {
+				throw new BusinessException(ERROR_NULL_POTENTIAL_GUESTS_ARRAY);
+			}
+		} catch (BusinessException ex) {
+			optimizationMetrics.recordRejection(ex.getMessage());
+			throw ex;
 		}
+
+		return getOptimizedCategoryOccupancy(roomCategories, guestOffers, timings);
 	}
 
-	private List<Integer> validatePotentialGuestsAndGetAsOrderedList(Integer[] potencialGuests) {
-		if (Objects.isNull(potencialGuests)) {
-			throw new BusinessException(ERROR_NULL_POTENTIAL_GUESTS_ARRAY);
+	private List<CategoryOccupancyEntity> getOptimizedCategoryOccupancy(List<RoomCategoryEntity> roomCategories,
+			GuestOffers guestOffers, OccupancyPhaseTimings timings) {
+
+		timings.endPhase(Phase.VALIDATION);
+
+		int[] minimumNightValues = new int[roomCategories.size()];
+		int[] freeRooms = new int[roomCategories.size()];
+		for (int category = 0; category < minimumNightValues.length; category++) {
+			minimumNightValues[category] = roomCategories.get(category).getMinimumNightValue();
+			freeRooms[category] = roomCategories.get(category).getFreeRooms();
 		}
 
-		List<Integer> potencialGuestsList = Arrays.asList(potencialGuests);
+		RoomCategoryOccupancyEntity[] occupancies = offloadIfCpuHeavy(guestOffers,
+				() -> CategoryAllocationEngine.allocate(minimumNightValues, freeRooms, guestOffers,
+						isHistogramAllocationWorthIt(guestOffers), timings));
+
+		optimizationMetrics.recordOptimization(timings, guestOffers.size());
 
-		if (potencialGuestsList.stream().anyMatch(g -> (Objects.isNull(g) || ZERO.compareTo(g) > ZERO))) {
-			throw new BusinessException(ERROR_NULL_OR_NEGATIVE_GUEST_OFFER);
+		List<CategoryOccupancyEntity> categoryOccupancies = new ArrayList<>(occupancies.length);
+		for (int category = 0; category < occupancies.length; category++) {
+			categoryOccupancies.add(new CategoryOccupancyEntity(roomCategories.get(category).getName(),
+					occupancies[category].getNumberOfOccupiedRooms(), occupancies[category].getGeneratedIncome()));
 		}
 
-		potencialGuestsList.sort(Collections.reverseOrder());
+		eventGateway.appendCategoryOptimization(roomCategories, guestOffers, categoryOccupancies);
 
-		return potencialGuestsList;
+		return categoryOccupancies;
 	}
 
-	private boolean isPotentialGuestForEconomyRoom(Integer guestOffer) {
-		return PREMIUM_ROOM_MINIMUN_NIGHT_VALUE.compareTo(guestOffer) > 0;
+	/**
+	 * Optimizes the offers as
+	 * {@link #getOptimizedRoomOccupancy(Integer, Integer, GuestOffers)} does, and
+	 * tells the category of the room of each guest. The order of the offers is
+	 * kept. These optimizations are neither cached nor coalesced.
+	 * 
+	 * @param numberOfFreePremiumRooms
+	 *            Free Premium Rooms
+	 * @param numberOfFreeEconomyRooms
+	 *            Free Economy Rooms
+	 * @param guestOffers
+	 *            Prices that potential guests are willing to pay for a night
+	 * @return Room category of each guest, in the order of the offers - 0 for
+	 *         Premium and 1 for Economy - and the occupancy of each category
+	 * @throws BusinessException
+	 */
+	public OccupancyAssignment getOccupancyAssignment(Integer numberOfFreePremiumRooms,
+			Integer numberOfFreeEconomyRooms, GuestOffers guestOffers) {
+
+		OccupancyPhaseTimings timings = OccupancyPhaseTimings.start();
+
+		try {
+			validateFreeRoomsParameters(numberOfFreePremiumRooms, numberOfFreeEconomyRooms);
+
+			if (Objects.isNull(guestOffers)) {
+				throw new BusinessException(ERROR_NULL_POTENTIAL_GUESTS_ARRAY);
+			}
+		} catch (BusinessException ex) {
+			optimizationMetrics.recordRejection(ex.getMessage());
+			throw ex;
+		}
+
+		timings.endPhase(Phase.VALIDATION);
+
+		OccupancyAssignment assignment = offloadIfCpuHeavy(guestOffers,
+				() -> CategoryAllocationEngine.assign(new int[] { PREMIUM_ROOM_MINIMUN_NIGHT_VALUE, 0 },
+						new int[] { numberOfFreePremiumRooms, numberOfFreeEconomyRooms }, guestOffers, timings));
+
+		optimizationMetrics.recordOptimization(timings, guestOffers.size());
+
+		if (eventGateway != OccupancyEventGateway.NOOP) {
+			eventGateway.appendOptimization(
+					OptimizedRoomOccupancyKey.of(numberOfFreePremiumRooms, numberOfFreeEconomyRooms, guestOffers),
+					new OptimizedRoomOccupancyEntity(assignment.getOccupancies()[0], assignment.getOccupancies()[1]));
+		}
+
+		return assignment;
+	}
+
+	private OptimizedRoomOccupancyEntity getOptimizedRoomOccupancy(int numberOfFreePremiumRooms,
+			int numberOfFreeEconomyRooms, int premiumRoomMinimumNightValue, GuestOffers guestOffers,
+			OccupancyPhaseTimings timings) {
+
+		timings.endPhase(Phase.VALIDATION);
+
+		OptimizedRoomOccupancyKey key = OptimizedRoomOccupancyKey.of(numberOfFreePremiumRooms,
+				numberOfFreeEconomyRooms, premiumRoomMinimumNightValue, guestOffers);
+
+		OptimizedRoomOccupancyEntity optimizedOccupancy = occupancyCache.get(key, guestOffers);
+		if (Objects.isNull(optimizedOccupancy)) {
+			optimizedOccupancy = requestCoalescer.execute(key,
+					() -> offloadIfCpuHeavy(guestOffers, () -> optimizeAndCacheRoomOccupancy(key,
+							numberOfFreePremiumRooms, numberOfFreeEconomyRooms, premiumRoomMinimumNightValue,
+							guestOffers, timings)));
+		}
+
+		return optimizedOccupancy;
+	}
+
+	/**
+	 * The calling thread waits for the offloaded optimization, which is cheap
+	 * for a virtual thread. Optimizations that already run on a pool, as the
+	 * batch ones, are never offloaded again.
+	 */
+	private <T> T offloadIfCpuHeavy(GuestOffers guestOffers, Supplier<T> optimization) {
+
+		if (Objects.isNull(offloadPool) || offloadThreshold <= 0 || guestOffers.size() < offloadThreshold
+				|| ForkJoinTask.inForkJoinPool()) {
+			return optimization.get();
+		}
+
+		return offloadPool.submit(optimization::get).join();
 	}
 
-	private RoomCategoryOccupancyEntity getRoomOccupancyForPremiumGuests(List<Integer> orderedPotencialGuests,
-			Integer numberOfPremiumGuests) {
-		List<Integer> premiumRoomsGuests = orderedPotencialGuests.subList(0, numberOfPremiumGuests);
+	private OptimizedRoomOccupancyEntity optimizeAndCacheRoomOccupancy(OptimizedRoomOccupancyKey key,
+			int numberOfFreePremiumRooms, int numberOfFreeEconomyRooms, int premiumRoomMinimumNightValue,
+			GuestOffers guestOffers, OccupancyPhaseTimings timings) {
+
+		RoomCategoryOccupancyEntity[] occupancies = CategoryAllocationEngine.allocate(
+				new int[] { premiumRoomMinimumNightValue, 0 },
+				new int[] { numberOfFreePremiumRooms, numberOfFreeEconomyRooms }, guestOffers,
+				isHistogramAllocationWorthIt(guestOffers), timings);
+
+		OptimizedRoomOccupancyEntity optimizedOccupancy = new OptimizedRoomOccupancyEntity(occupancies[0],
+				occupancies[1]);
+
+		occupancyCache.put(key, guestOffers, optimizedOccupancy);
+		optimizationMetrics.recordOptimization(timings, guestOffers.size());
 
-		return getRoomCategoryOccupancyFromGuests(premiumRoomsGuests);
+		// Only the computed optimizations are logged, as they are all the
+		// recovery needs to rebuild the cache, so a cached or coalesced request
+		// never pays for an append
+		eventGateway.appendOptimization(key, optimizedOccupancy);
+
+		return optimizedOccupancy;
 	}
 
-	private RoomCategoryOccupancyEntity getRoomOccupancyForEconomyGuests(List<Integer> orderedPotencialGuests,
-			Integer numberOfAllocatedEconomyGuests, Integer numberOfGuestsDisallowedForEconomyRooms) {
+	/**
+	 * The histogram walk costs O(n + range), so it is used only when the offers
+	 * are below the configured bound, and there are at least as many offers as
+	 * possible values
+	 */
+	boolean isHistogramAllocationWorthIt(GuestOffers guestOffers) {
+		return guestOffers.getMaxOffer() < histogramMaxOffer && guestOffers.getMaxOffer() <= guestOffers.size();
+	}
 
-		List<Integer> economyRoomsGuests = orderedPotencialGuests.subList(numberOfGuestsDisallowedForEconomyRooms,
-				numberOfGuestsDisallowedForEconomyRooms + numberOfAllocatedEconomyGuests);
+	/**
+	 * Validate if the free rooms parameters are not null nor negative
+	 * 
+	 * @param numberOfFreePremiumRooms
+	 * @param numberOfFreeEconomyRooms
+	 */
+	static void validateFreeRoomsParameters(Integer numberOfFreePremiumRooms, Integer numberOfFreeEconomyRooms) {
+		if (Objects.isNull(numberOfFreeEconomyRooms)) {
+			throw new BusinessException(ERROR_NULL_FREE_ECONOMIC_ROOMS);
+		} else if (numberOfFreeEconomyRooms < ZERO) {
+			throw new BusinessException(ERROR_NEGATIVE_FREE_ECONOMIC_ROOMS);
+		}
 
-		return getRoomCategoryOccupancyFromGuests(economyRoomsGuests);
+		if (Objects.isNull(numberOfFreePremiumRooms)) {
+			throw new BusinessException(ERROR_NULL_FREE_PREMIUM_ROOMS);
+		} else if (numberOfFreePremiumRooms < ZERO) {
+			throw new BusinessException(ERROR_NEGATIVE_FREE_PREMIUM_ROOMS);
+		}
 	}
 
-	private RoomCategoryOccupancyEntity getRoomCategoryOccupancyFromGuests(List<Integer> guests) {
-		return new RoomCategoryOccupancyEntity(guests.size(), guests.stream().mapToInt(Integer::intValue).sum());
+	/**
+	 * Validate if the Premium minimum night value is not null nor negative
+	 * 
+	 * @param premiumRoomMinimumNightValue
+	 */
+	static void validatePremiumRoomMinimumNightValue(Integer premiumRoomMinimumNightValue) {
+		if (Objects.isNull(premiumRoomMinimumNightValue)) {
+			throw new BusinessException(ERROR_NULL_PREMIUM_MINIMUM_NIGHT_VALUE);
+		} else if (premiumRoomMinimumNightValue < ZERO) {
+			throw new BusinessException(ERROR_NEGATIVE_PREMIUM_MINIMUM_NIGHT_VALUE);
+		}
 	}
 
-	private Integer getNumberOfAllocatedPremiumGuests(Integer numberOfFreePremiumRooms,
-			Integer numberOfPotentialPremiumGuests, Integer numberOfPotentialEconomyGuestsWithoutRoom) {
-		Integer numberOfAllocatedPremiumGuests = Math.min(numberOfFreePremiumRooms, numberOfPotentialPremiumGuests);
+	/**
+	 * Validate if the room categories are present, complete, not negative, and
+	 * ordered by strictly decreasing minimum night value
+	 * 
+	 * @param roomCategories
+	 */
+	static void validateRoomCategories(List<RoomCategoryEntity> roomCategories) {
+		if (Objects.isNull(roomCategories) || roomCategories.isEmpty()) {
+			throw new BusinessException(ERROR_NULL_ROOM_CATEGORIES);
+		} else if (roomCategories.size() > MAXIMUM_NUMBER_OF_ROOM_CATEGORIES) {
+			throw new BusinessException(String.format(ERROR_TOO_MANY_ROOM_CATEGORIES, MAXIMUM_NUMBER_OF_ROOM_CATEGORIES));
+		}
 
-		Integer numberOfPremiumRoomsAvailableForEconomyGuests = numberOfFreePremiumRooms - numberOfAllocatedPremiumGuests;
+		Integer previousMinimumNightValue = null;
+		for (RoomCategoryEntity roomCategory : roomCategories) {
+			if (Objects.isNull(roomCategory) || Objects.isNull(roomCategory.getName())
+					|| roomCategory.getName().trim().isEmpty()) {
+				throw new BusinessException(ERROR_NULL_ROOM_CATEGORY_NAME);
+			}
+
+			if (Objects.isNull(roomCategory.getFreeRooms())) {
+				throw new BusinessException(ERROR_NULL_ROOM_CATEGORY_FREE_ROOMS);
+			} else if (roomCategory.getFreeRooms() < ZERO) {
+				throw new BusinessException(ERROR_NEGATIVE_ROOM_CATEGORY_FREE_ROOMS);
+			}
+
+			if (Objects.isNull(roomCategory.getMinimumNightValue())) {
+				throw new BusinessException(ERROR_NULL_ROOM_CATEGORY_MINIMUM_NIGHT_VALUE);
+			} else if (roomCategory.getMinimumNightValue() < ZERO) {
+				throw new BusinessException(ERROR_NEGATIVE_ROOM_CATEGORY_MINIMUM_NIGHT_VALUE);
+			}
+
+			if (Objects.nonNull(previousMinimumNightValue)
+					&& roomCategory.getMinimumNightValue() >= previousMinimumNightValue) {
+				throw new BusinessException(ERROR_UNORDERED_ROOM_CATEGORIES);
+			}
+			previousMinimumNightValue = roomCategory.getMinimumNightValue();
+		}
+	}
 
-		if ((numberOfPotentialEconomyGuestsWithoutRoom > 0) && (numberOfPremiumRoomsAvailableForEconomyGuests > 0)) {
-			numberOfAllocatedPremiumGuests += Math.min(numberOfPotentialEconomyGuestsWithoutRoom,
-					numberOfPremiumRoomsAvailableForEconomyGuests);
+	private GuestOffers validatePotentialGuests(Integer[] potencialGuests) {
+		if (Objects.isNull(potencialGuests)) {
+			throw new BusinessException(ERROR_NULL_POTENTIAL_GUESTS_ARRAY);
 		}
 
-		return numberOfAllocatedPremiumGuests;
+		return GuestOffers.of(potencialGuests);
 	}
 
 }
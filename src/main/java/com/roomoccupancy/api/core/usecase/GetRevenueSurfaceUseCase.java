@@ -0,0 +1,60 @@
+package com.roomoccupancy.api.core.usecase;
+
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.roomoccupancy.api.core.exception.BusinessException;
+
+/**
+ * Builds the {@link RevenueSurface} of a guest list, so the income of many
+ * numbers of free rooms can be read without optimizing each one again
+ * 
+ * @author luis
+ *
+ */
+@Service
+public class GetRevenueSurfaceUseCase {
+
+	private static final String ERROR_NULL_POTENTIAL_GUESTS_ARRAY = "The potential guests array is required.";
+
+	private static final String ERROR_TOO_MANY_POINTS = "The revenue surface must have at most %d points.";
+
+	static final long DEFAULT_MAX_SURFACE_POINTS = 4_000_000L;
+
+	@Value("${roomoccupancy.revenue-surface.max-points:4000000}")
+	long maxSurfacePoints = DEFAULT_MAX_SURFACE_POINTS;
+
+	/**
+	 * Builds the revenue surface of the offers, for up to the maximum number of
+	 * free rooms of each category
+	 * 
+	 * @param maxFreePremiumRooms
+	 *            Maximum number of free Premium Rooms of the surface
+	 * @param maxFreeEconomyRooms
+	 *            Maximum number of free Economy Rooms of the surface
+	 * @param guestOffers
+	 *            Prices that potential guests are willing to pay for a night
+	 * @return Revenue surface of the offers
+	 * @throws BusinessException
+	 *             if the maximum numbers of rooms are null or negative, the
+	 *             surface is too big, or the offers are null
+	 */
+	public RevenueSurface getRevenueSurface(Integer maxFreePremiumRooms, Integer maxFreeEconomyRooms,
+			GuestOffers guestOffers) {
+
+		GetOptimizedRoomOccupancyUseCase.validateFreeRoomsParameters(maxFreePremiumRooms, maxFreeEconomyRooms);
+
+		if ((maxFreePremiumRooms + 1L) * (maxFreeEconomyRooms + 1L) > maxSurfacePoints) {
+			throw new BusinessException(String.format(ERROR_TOO_MANY_POINTS, maxSurfacePoints));
+		}
+
+		if (Objects.isNull(guestOffers)) {
+			throw new BusinessException(ERROR_NULL_POTENTIAL_GUESTS_ARRAY);
+		}
+
+		return RevenueSurface.of(guestOffers);
+	}
+
+}
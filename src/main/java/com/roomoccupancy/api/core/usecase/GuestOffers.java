@@ -0,0 +1,177 @@
+package com.roomoccupancy.api.core.usecase;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import com.roomoccupancy.api.core.exception.BusinessException;
+
+/**
+ * Growable primitive container of the values that potential guests are willing
+ * to pay for a night. The offers are validated as they are added, so the
+ * allocation logic can work directly over the backing {@code int[]}, without
+ * boxing.
+ * 
+ * @author luis
+ *
+ */
+public final class GuestOffers {
+
+	public static final String ERROR_NULL_OR_NEGATIVE_GUEST_OFFER = "The value that a guest is willing to pay must be a valid positive Integer";
+
+	private static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+	private static final long FINGERPRINT_SEED = 0x9E3779B97F4A7C15L;
+
+	private static final long SECOND_FINGERPRINT_SEED = 0xC2B2AE3D27D4EB4FL;
+
+	private int[] offers;
+
+	private int size;
+
+	private int maxOffer;
+
+	private long fingerprint;
+
+	private long secondFingerprint;
+
+	public GuestOffers() {
+		this(DEFAULT_INITIAL_CAPACITY);
+	}
+
+	public GuestOffers(int initialCapacity) {
+		this.offers = new int[Math.max(initialCapacity, 1)];
+	}
+
+	/**
+	 * Creates a new instance with the offers of the array passed as argument
+	 * 
+	 * @param potencialGuests
+	 *            Array of prices that potential guests are willing to pay for a
+	 *            night
+	 * @return New instance of GuestOffers
+	 * @throws BusinessException
+	 *             if any of the offers is null or negative
+	 */
+	public static GuestOffers of(Integer[] potencialGuests) {
+		GuestOffers guestOffers = new GuestOffers(potencialGuests.length);
+
+		for (Integer guestOffer : potencialGuests) {
+			if (Objects.isNull(guestOffer)) {
+				throw new BusinessException(ERROR_NULL_OR_NEGATIVE_GUEST_OFFER);
+			}
+			guestOffers.add(guestOffer);
+		}
+
+		return guestOffers;
+	}
+
+	/**
+	 * Adds the offer of a potential guest
+	 * 
+	 * @param guestOffer
+	 *            Value that the guest is willing to pay for a night
+	 * @throws BusinessException
+	 *             if the offer is negative
+	 */
+	public void add(int guestOffer) {
+		if (guestOffer < 0) {
+			throw new BusinessException(ERROR_NULL_OR_NEGATIVE_GUEST_OFFER);
+		}
+
+		if (size == offers.length) {
+			offers = Arrays.copyOf(offers, offers.length << 1);
+		}
+
+		offers[size++] = guestOffer;
+		maxOffer = Math.max(maxOffer, guestOffer);
+		fingerprint += mix(guestOffer, FINGERPRINT_SEED);
+		secondFingerprint += mix(guestOffer, SECOND_FINGERPRINT_SEED);
+	}
+
+	/**
+	 * SplitMix64 finalizer over the seeded offer
+	 */
+	private static long mix(int guestOffer, long seed) {
+		long hash = (guestOffer + 1L) * seed;
+		hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+		hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+		return hash ^ (hash >>> 31);
+	}
+
+	/**
+	 * @return The backing array. Only the first {@link #size()} positions are
+	 *         offers, and their order may be changed by the allocation logic.
+	 */
+	int[] array() {
+		return offers;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Removes all the offers, keeping the backing array to be reused
+	 */
+	public void clear() {
+		size = 0;
+		maxOffer = 0;
+		fingerprint = 0L;
+		secondFingerprint = 0L;
+	}
+
+	/**
+	 * @return Number of offers the backing array holds without growing
+	 */
+	public int capacity() {
+		return offers.length;
+	}
+
+	/**
+	 * Fingerprint of the offers, as a multiset. It is the sum of a hash of each
+	 * offer, so it does not depend on the order in which the offers were added.
+	 * Combined with {@link #getSecondFingerprint()} and {@link #size()}, equal
+	 * fingerprints mean equal offers, with a negligible chance of an accidental
+	 * collision. The guest lists crafted to collide are told apart by
+	 * {@link #getKeyedFingerprint(long)}.
+	 */
+	public long getFingerprint() {
+		return fingerprint;
+	}
+
+	/**
+	 * @return Fingerprint of the offers, with a different hash of
+	 *         {@link #getFingerprint()}
+	 */
+	public long getSecondFingerprint() {
+		return secondFingerprint;
+	}
+
+	/**
+	 * Fingerprint of the offers, as a multiset, under a secret key. It is
+	 * computed on demand, with a pass over the offers, so the guest lists that
+	 * do not know the key cannot be crafted to collide, as the sums of public
+	 * hashes of {@link #getFingerprint()} can.
+	 * 
+	 * @param key
+	 *            Secret seed of the hash
+	 */
+	public long getKeyedFingerprint(long key) {
+		long keyedFingerprint = 0L;
+		long seed = key | 1L;
+
+		for (int i = 0; i < size; i++) {
+			keyedFingerprint += mix(offers[i], seed);
+		}
+
+		return keyedFingerprint;
+	}
+
+	/**
+	 * @return The highest offer, or zero if there are no offers
+	 */
+	public int getMaxOffer() {
+		return maxOffer;
+	}
+
+}
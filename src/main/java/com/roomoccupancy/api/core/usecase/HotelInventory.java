@@ -0,0 +1,169 @@
+package com.roomoccupancy.api.core.usecase;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.roomoccupancy.api.core.entity.HotelInventoryEntity;
+import com.roomoccupancy.api.core.entity.HotelInventoryEventEntity;
+import com.roomoccupancy.api.core.exception.BusinessException;
+
+/**
+ * Free rooms of a hotel, updated without locks. Each change swaps an immutable
+ * {@link State} by compare-and-set, so a booking of rooms of both categories
+ * is applied, or refused, as a whole, and a reader never sees half of it. Each
+ * state has the version of the state it replaces plus one, so the event log
+ * can be replayed to the last state whatever the order its events were
+ * appended in, without a counter shared by every hotel.
+ * 
+ * @author luis
+ *
+ */
+final class HotelInventory {
+
+	static final String ERROR_HOTEL_NOT_FOUND = "The inventory of the hotel was not found.";
+
+	private static final String ERROR_NOT_ENOUGH_FREE_ROOMS = "The hotel does not have enough free rooms for the booking.";
+
+	private static final String ERROR_TOO_MANY_FREE_ROOMS = "The number of free rooms of the hotel is too big.";
+
+	private final String hotelId;
+
+	private final AtomicReference<State> state;
+
+	HotelInventory(String hotelId, State state) {
+		this.hotelId = hotelId;
+		this.state = new AtomicReference<>(state);
+	}
+
+	/**
+	 * Replaces the free rooms and the Premium minimum night value, as a new
+	 * inventory count does
+	 * 
+	 * @return The new state, null if the inventory was deleted in the meantime
+	 */
+	State reset(int numberOfFreePremiumRooms, int numberOfFreeEconomyRooms, int premiumMinimumNightValue) {
+		State current;
+		State updated;
+
+		do {
+			current = state.get();
+			if (current.deleted) {
+				return null;
+			}
+
+			updated = new State(numberOfFreePremiumRooms, numberOfFreeEconomyRooms, premiumMinimumNightValue,
+					current.version + 1, false);
+		} while (!state.compareAndSet(current, updated));
+
+		return updated;
+	}
+
+	/**
+	 * Adds the rooms to the free ones, negative numbers of rooms being booked
+	 * 
+	 * @throws BusinessException
+	 *             if the inventory was deleted, or a category would have less
+	 *             than zero, or more than {@link Integer#MAX_VALUE}, free rooms.
+	 *             The inventory is left unchanged.
+	 */
+	State addFreeRooms(int premiumRooms, int economyRooms) {
+		State current;
+		State updated;
+
+		do {
+			current = state.get();
+			if (current.deleted) {
+				throw new BusinessException(ERROR_HOTEL_NOT_FOUND);
+			}
+
+			long premium = (long) current.freePremiumRooms + premiumRooms;
+			long economy = (long) current.freeEconomyRooms + economyRooms;
+
+			if (premium < 0 || economy < 0) {
+				throw new BusinessException(ERROR_NOT_ENOUGH_FREE_ROOMS);
+			} else if (premium > Integer.MAX_VALUE || economy > Integer.MAX_VALUE) {
+				throw new BusinessException(ERROR_TOO_MANY_FREE_ROOMS);
+			}
+
+			updated = new State((int) premium, (int) economy, current.premiumMinimumNightValue, current.version + 1,
+					false);
+		} while (!state.compareAndSet(current, updated));
+
+		return updated;
+	}
+
+	/**
+	 * Marks the inventory as deleted, which no change follows
+	 * 
+	 * @return The deleted state, null if it was already deleted
+	 */
+	State delete() {
+		State current;
+		State updated;
+
+		do {
+			current = state.get();
+			if (current.deleted) {
+				return null;
+			}
+
+			updated = new State(current.freePremiumRooms, current.freeEconomyRooms, current.premiumMinimumNightValue,
+					current.version + 1, true);
+		} while (!state.compareAndSet(current, updated));
+
+		return updated;
+	}
+
+	State getState() {
+		return state.get();
+	}
+
+	HotelInventoryEntity toEntity(State state) {
+		return new HotelInventoryEntity(hotelId, state.freePremiumRooms, state.freeEconomyRooms,
+				state.premiumMinimumNightValue);
+	}
+
+	HotelInventoryEventEntity toEvent(State state) {
+		return new HotelInventoryEventEntity(state.version, state.deleted, toEntity(state));
+	}
+
+	static final class State {
+
+		private final int freePremiumRooms;
+
+		private final int freeEconomyRooms;
+
+		private final int premiumMinimumNightValue;
+
+		private final long version;
+
+		private final boolean deleted;
+
+		State(int freePremiumRooms, int freeEconomyRooms, int premiumMinimumNightValue, long version,
+				boolean deleted) {
+			this.freePremiumRooms = freePremiumRooms;
+			this.freeEconomyRooms = freeEconomyRooms;
+			this.premiumMinimumNightValue = premiumMinimumNightValue;
+			this.version = version;
+			this.deleted = deleted;
+		}
+
+		static State of(HotelInventoryEventEntity inventoryEvent) {
+			HotelInventoryEntity inventory = inventoryEvent.getInventory();
+
+			return new State(inventory.getFreePremiumRooms(), inventory.getFreeEconomyRooms(),
+					inventory.getPremiumMinimumNightValue(), inventoryEvent.getVersion(),
+					Objects.equals(Boolean.TRUE, inventoryEvent.getDeleted()));
+		}
+
+		long getVersion() {
+			return version;
+		}
+
+		boolean isDeleted() {
+			return deleted;
+		}
+
+	}
+
+}
@@ -0,0 +1,251 @@
+package com.roomoccupancy.api.core.usecase;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.roomoccupancy.api.core.entity.HotelInventoryEntity;
+import com.roomoccupancy.api.core.entity.HotelInventoryEventEntity;
+import com.roomoccupancy.api.core.entity.OptimizedRoomOccupancyEntity;
+import com.roomoccupancy.api.core.exception.BusinessException;
+import com.roomoccupancy.api.core.gateway.OccupancyEventGateway;
+import com.roomoccupancy.api.core.usecase.HotelInventory.State;
+
+/**
+ * In-process registry of the inventory of each hotel, so the optimization of a
+ * hotel needs only its offers. The hotels are kept in a
+ * {@link ConcurrentHashMap}, whose reads take no lock and whose writes lock a
+ * single bin, and the free rooms of each hotel are updated by compare-and-set,
+ * so booking events of different hotels, or of the same one, never wait on a
+ * global lock, nor share a counter. Every change is appended to the
+ * {@link OccupancyEventGateway}.
+ * 
+ * @author luis
+ *
+ */
+@Service
+public class HotelInventoryUseCase {
+
+	private static final String ERROR_NULL_HOTEL_ID = "The hotel identifier is required.";
+
+	private static final String ERROR_HOTEL_ID_TOO_LONG = "The hotel identifier must have %d characters or less.";
+
+	static final int HOTEL_ID_MAXIMUM_LENGTH = 256;
+
+	private static final String ERROR_NEGATIVE_BOOKED_ROOMS = "The number of rooms of a booking must be zero or greater.";
+
+	private final ConcurrentMap<String, HotelInventory> inventories = new ConcurrentHashMap<>();
+
+	/**
+	 * Bits of the version that count the changes of a hotel. The higher ones are
+	 * its generation.
+	 */
+	static final int VERSION_CHANGE_BITS = 32;
+
+	/**
+	 * Generations of the hotels. Only the creation of a hotel takes one, so a
+	 * hotel deleted and created again starts above every version of its
+	 * deletion tombstone, even once the tombstone is forgotten, while its
+	 * changes only increment its own version.
+	 */
+	private final AtomicLong generations = new AtomicLong(1);
+
+	@Autowired
+	GetOptimizedRoomOccupancyUseCase occupancyUseCase;
+
+	@Autowired(required = false)
+	OccupancyEventGateway eventGateway = OccupancyEventGateway.NOOP;
+
+	/**
+	 * Creates or replaces the inventory of the hotel
+	 * 
+	 * @param premiumMinimumNightValue
+	 *            Minimum offer of a Premium guest of the hotel, the default one
+	 *            if null
+	 * @throws BusinessException
+	 *             if the hotel identifier is longer than
+	 *             {@value #HOTEL_ID_MAXIMUM_LENGTH} characters, or a number of
+	 *             rooms, or the Premium minimum night value, is negative
+	 */
+	public HotelInventoryEntity putInventory(String hotelId, Integer numberOfFreePremiumRooms,
+			Integer numberOfFreeEconomyRooms, Integer premiumMinimumNightValue) {
+
+		validateHotelId(hotelId);
+		GetOptimizedRoomOccupancyUseCase.validateFreeRoomsParameters(numberOfFreePremiumRooms,
+				numberOfFreeEconomyRooms);
+
+		int premiumThreshold = Objects.isNull(premiumMinimumNightValue)
+				? GetOptimizedRoomOccupancyUseCase.PREMIUM_ROOM_MINIMUN_NIGHT_VALUE
+				: premiumMinimumNightValue;
+		GetOptimizedRoomOccupancyUseCase.validatePremiumRoomMinimumNightValue(premiumThreshold);
+
+		State[] state = new State[1];
+		HotelInventory inventory = inventories.compute(hotelId, (id, current) -> {
+			state[0] = Objects.isNull(current) ? null
+					: current.reset(numberOfFreePremiumRooms, numberOfFreeEconomyRooms, premiumThreshold);
+
+			if (Objects.nonNull(state[0])) {
+				return current;
+			}
+
+			state[0] = new State(numberOfFreePremiumRooms, numberOfFreeEconomyRooms, premiumThreshold,
+					generations.getAndIncrement() << VERSION_CHANGE_BITS, false);
+			return new HotelInventory(id, state[0]);
+		});
+
+		return append(inventory, state[0]);
+	}
+
+	public HotelInventoryEntity getInventory(String hotelId) {
+		HotelInventory inventory = findInventory(hotelId);
+		State state = inventory.getState();
+
+		if (state.isDeleted()) {
+			throw new BusinessException(HotelInventory.ERROR_HOTEL_NOT_FOUND);
+		}
+
+		return inventory.toEntity(state);
+	}
+
+	/**
+	 * Deletes the inventory of the hotel. While the event log is kept, the
+	 * deleted inventory stays until the next snapshot, so an older change
+	 * appended after the deletion cannot bring it back on recovery.
+	 */
+	public void deleteInventory(String hotelId) {
+		HotelInventory inventory = findInventory(hotelId);
+		State state = inventory.delete();
+
+		if (Objects.isNull(state)) {
+			throw new BusinessException(HotelInventory.ERROR_HOTEL_NOT_FOUND);
+		}
+
+		append(inventory, state);
+
+		if (eventGateway == OccupancyEventGateway.NOOP) {
+			inventories.remove(hotelId, inventory);
+		}
+	}
+
+	/**
+	 * Takes the booked rooms out of the free ones
+	 * 
+	 * @throws BusinessException
+	 *             if the hotel has no inventory, a number of rooms is negative,
+	 *             or there are not enough free rooms, in which case nothing is
+	 *             booked
+	 */
+	public HotelInventoryEntity bookRooms(String hotelId, int premiumRooms, int economyRooms) {
+		validateBookedRooms(premiumRooms, economyRooms);
+
+		HotelInventory inventory = findInventory(hotelId);
+
+		return append(inventory, inventory.addFreeRooms(-premiumRooms, -economyRooms));
+	}
+
+	/**
+	 * Gives the rooms of a cancelled booking back to the free ones
+	 * 
+	 * @throws BusinessException
+	 *             if the hotel has no inventory, or a number of rooms is negative
+	 */
+	public HotelInventoryEntity releaseRooms(String hotelId, int premiumRooms, int economyRooms) {
+		validateBookedRooms(premiumRooms, economyRooms);
+
+		HotelInventory inventory = findInventory(hotelId);
+
+		return append(inventory, inventory.addFreeRooms(premiumRooms, economyRooms));
+	}
+
+	/**
+	 * Optimizes the offers on the current free rooms of the hotel, with its
+	 * Premium minimum night value
+	 * 
+	 * @throws BusinessException
+	 *             if the hotel has no inventory, or the offers are not valid
+	 */
+	public OptimizedRoomOccupancyEntity getOptimizedRoomOccupancy(String hotelId, GuestOffers guestOffers) {
+		HotelInventoryEntity inventory = getInventory(hotelId);
+
+		return occupancyUseCase.getOptimizedRoomOccupancy(inventory.getFreePremiumRooms(),
+				inventory.getFreeEconomyRooms(), inventory.getPremiumMinimumNightValue(), guestOffers);
+	}
+
+	/**
+	 * Applies a replayed change, unless the hotel already has a newer one
+	 */
+	void restoreInventory(HotelInventoryEventEntity inventoryEvent) {
+		State state = State.of(inventoryEvent);
+
+		inventories.merge(inventoryEvent.getInventory().getHotelId(),
+				new HotelInventory(inventoryEvent.getInventory().getHotelId(), state),
+				(current, replayed) -> current.getState().getVersion() < state.getVersion() ? replayed : current);
+
+		generations.accumulateAndGet((state.getVersion() >>> VERSION_CHANGE_BITS) + 1, Math::max);
+	}
+
+	/**
+	 * @return The last change of each hotel, deleted ones included
+	 */
+	Collection<HotelInventoryEventEntity> getInventoryEvents() {
+		List<HotelInventoryEventEntity> inventoryEvents = new ArrayList<>(inventories.size());
+
+		inventories.values().forEach(inventory -> inventoryEvents.add(inventory.toEvent(inventory.getState())));
+
+		return inventoryEvents;
+	}
+
+	/**
+	 * Forgets the deleted inventories, which no replay can bring back anymore
+	 */
+	void removeDeletedInventories(Collection<HotelInventoryEventEntity> inventoryEvents) {
+		for (HotelInventoryEventEntity inventoryEvent : inventoryEvents) {
+			if (Objects.equals(Boolean.TRUE, inventoryEvent.getDeleted())) {
+				inventories.computeIfPresent(inventoryEvent.getInventory().getHotelId(),
+						(hotelId, inventory) -> inventory.getState().isDeleted()
+								&& inventory.getState().getVersion() == inventoryEvent.getVersion() ? null
+										: inventory);
+			}
+		}
+	}
+
+	private HotelInventoryEntity append(HotelInventory inventory, State state) {
+		eventGateway.appendInventory(inventory.toEvent(state));
+
+		return inventory.toEntity(state);
+	}
+
+	private HotelInventory findInventory(String hotelId) {
+		HotelInventory inventory = Objects.isNull(hotelId) ? null : inventories.get(hotelId);
+
+		if (Objects.isNull(inventory)) {
+			throw new BusinessException(HotelInventory.ERROR_HOTEL_NOT_FOUND);
+		}
+
+		return inventory;
+	}
+
+	private static void validateHotelId(String hotelId) {
+		if (Objects.isNull(hotelId) || hotelId.trim().isEmpty()) {
+			throw new BusinessException(ERROR_NULL_HOTEL_ID);
+		}
+
+		if (hotelId.length() > HOTEL_ID_MAXIMUM_LENGTH) {
+			throw new BusinessException(String.format(ERROR_HOTEL_ID_TOO_LONG, HOTEL_ID_MAXIMUM_LENGTH));
+		}
+	}
+
+	private static void validateBookedRooms(int premiumRooms, int economyRooms) {
+		if (premiumRooms < 0 || economyRooms < 0) {
+			throw new BusinessException(ERROR_NEGATIVE_BOOKED_ROOMS);
+		}
+	}
+
+}
@@ -0,0 +1,72 @@
+package com.roomoccupancy.api.core.usecase;
+
+/**
+ * How many potential guests of each category get a room, following the
+ * allocation rules:
+ * <ul>
+ * <li>Guests that offer the Premium minimum value or more are allocated only to
+ * Premium rooms</li>
+ * <li>The remaining guests may get Premium rooms only when all the Economy
+ * rooms are allocated and there are free Premium rooms left</li>
+ * </ul>
+ * The guests of each category are always taken from the highest offer down.
+ * 
+ * @author luis
+ *
+ */
+final class OccupancyAllocationPlan {
+
+	private final int premiumGuests;
+
+	private final int upgradedEconomyGuests;
+
+	private final int economyGuests;
+
+	private OccupancyAllocationPlan(int premiumGuests, int upgradedEconomyGuests, int economyGuests) {
+		this.premiumGuests = premiumGuests;
+		this.upgradedEconomyGuests = upgradedEconomyGuests;
+		this.economyGuests = economyGuests;
+	}
+
+	static OccupancyAllocationPlan of(int numberOfFreePremiumRooms, int numberOfFreeEconomyRooms,
+			int numberOfPotentialPremiumGuests, int numberOfPotentialEconomyGuests) {
+
+		int numberOfAllocatedEconomyGuests = Math.min(numberOfFreeEconomyRooms, numberOfPotentialEconomyGuests);
+
+		int numberOfAllocatedPremiumGuests = Math.min(numberOfFreePremiumRooms, numberOfPotentialPremiumGuests);
+
+		int numberOfUpgradedEconomyGuests = Math.min(numberOfPotentialEconomyGuests - numberOfAllocatedEconomyGuests,
+				numberOfFreePremiumRooms - numberOfAllocatedPremiumGuests);
+
+		return new OccupancyAllocationPlan(numberOfAllocatedPremiumGuests, numberOfUpgradedEconomyGuests,
+				numberOfAllocatedEconomyGuests);
+	}
+
+	/**
+	 * @return Number of guests offering the Premium minimum value or more that
+	 *         get a Premium room
+	 */
+	int getPremiumGuests() {
+		return premiumGuests;
+	}
+
+	/**
+	 * @return Number of best Economy guests that get a Premium room
+	 */
+	int getUpgradedEconomyGuests() {
+		return upgradedEconomyGuests;
+	}
+
+	/**
+	 * @return Number of Economy guests, after the upgraded ones, that get an
+	 *         Economy room
+	 */
+	int getEconomyGuests() {
+		return economyGuests;
+	}
+
+	int getOccupiedPremiumRooms() {
+		return premiumGuests + upgradedEconomyGuests;
+	}
+
+}
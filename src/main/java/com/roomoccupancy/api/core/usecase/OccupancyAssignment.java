@@ -0,0 +1,128 @@
+package com.roomoccupancy.api.core.usecase;
+
+import com.roomoccupancy.api.core.entity.RoomCategoryOccupancyEntity;
+
+/**
+ * Category of the room of each potential guest, told one guest at a time, in
+ * the order of the offers, so the assignment of millions of guests is never
+ * held in memory. Each guest is matched against the lowest offer of each
+ * segment of the plan of its category; guests offering the lowest value of a
+ * segment get its rooms in the order of the offers, until the segment is
+ * full.
+ * 
+ * <pre>
+ * while (assignment.next()) {
+ * 	write(assignment.getGuestIndex(), assignment.getRoomCategory());
+ * }
+ * </pre>
+ * 
+ * @author luis
+ *
+ */
+public final class OccupancyAssignment {
+
+	/**
+	 * Room category of a guest that gets no room
+	 */
+	public static final int NO_ROOM = -1;
+
+	private final GuestOffers guestOffers;
+
+	private final int[] minimumNightValues;
+
+	private final CategoryAllocationEngine.Plan plan;
+
+	private final int[] lowestOffers;
+
+	/**
+	 * Guests offering the lowest value of each segment that still fit in it
+	 */
+	private final int[] remainingLowestOffers;
+
+	private final RoomCategoryOccupancyEntity[] occupancies;
+
+	private int guestIndex = -1;
+
+	private int roomCategory = NO_ROOM;
+
+	OccupancyAssignment(GuestOffers guestOffers, int[] minimumNightValues, CategoryAllocationEngine.Plan plan,
+			int[] lowestOffers, int[] numberOfLowestOffers, RoomCategoryOccupancyEntity[] occupancies) {
+		this.guestOffers = guestOffers;
+		this.minimumNightValues = minimumNightValues;
+		this.plan = plan;
+		this.lowestOffers = lowestOffers;
+		this.remainingLowestOffers = numberOfLowestOffers;
+		this.occupancies = occupancies;
+	}
+
+	/**
+	 * @return Number of rooms of each category that will be occupied, and the
+	 *         amount of money that it will generate, in the order of the
+	 *         categories
+	 */
+	public RoomCategoryOccupancyEntity[] getOccupancies() {
+		return occupancies;
+	}
+
+	public int getNumberOfPotentialGuests() {
+		return guestOffers.size();
+	}
+
+	/**
+	 * Moves to the next guest
+	 * 
+	 * @return false after the last guest
+	 */
+	public boolean next() {
+		if (guestIndex + 1 >= guestOffers.size()) {
+			return false;
+		}
+
+		guestIndex++;
+		roomCategory = assign(guestOffers.array()[guestIndex]);
+
+		return true;
+	}
+
+	private int assign(int offer) {
+		int guestCategory = CategoryAllocationEngine.categoryOf(offer, minimumNightValues);
+
+		if (guestCategory == minimumNightValues.length) {
+			return NO_ROOM;
+		}
+
+		for (int segment = plan.firstSegment(guestCategory); segment >= 0; segment = plan.nextSegment(segment)) {
+			if (offer > lowestOffers[segment]) {
+				return plan.getSegmentCategory(segment);
+			} else if (offer == lowestOffers[segment] && remainingLowestOffers[segment] > 0) {
+				remainingLowestOffers[segment]--;
+				return plan.getSegmentCategory(segment);
+			}
+		}
+
+		return NO_ROOM;
+	}
+
+	/**
+	 * @return Position of the current guest among the offers
+	 */
+	public int getGuestIndex() {
+		return guestIndex;
+	}
+
+	/**
+	 * @return Value that the current guest is willing to pay for a night
+	 */
+	public int getOffer() {
+		return guestOffers.array()[guestIndex];
+	}
+
+	/**
+	 * @return Index of the category of the room of the current guest, or
+	 *         {@link #NO_ROOM}
+	 */
+	public int getRoomCategory() {
+		return roomCategory;
+	}
+
+}
@@ -0,0 +1,152 @@
+package com.roomoccupancy.api.core.usecase;
+
+import com.roomoccupancy.api.core.entity.OptimizedRoomOccupancyEntity;
+import com.roomoccupancy.api.core.entity.RoomCategoryOccupancyEntity;
+import com.roomoccupancy.api.core.exception.BusinessException;
+
+/**
+ * Keeps the optimized room occupancy of an endless feed of offers up to date,
+ * with memory proportional to the number of rooms, not of guests. Only the
+ * offers that have a room are kept: the best Premium offers, one per Premium
+ * room, in a bounded heap, and the best Economy offers, one per Economy room
+ * and per Premium room still free after the Premium guests, in an
+ * {@link OfferOrderStatisticTree}. A Premium guest taking a free Premium room
+ * evicts the worst Economy guest, if the Economy guests were already filling
+ * it. The best Economy offers kept beyond the Economy rooms are the upgraded
+ * guests, so each snapshot costs O(log rooms).
+ *
+ * <p>
+ * Not thread safe.
+ *
+ * @author luis
+ *
+ */
+public final class OccupancyFeedAllocator {
+
+	private static final String ERROR_INCOME_TOO_BIG = "The income of the occupancy feed must fit in an Integer.";
+
+	private final int numberOfFreePremiumRooms;
+
+	private final int numberOfFreeEconomyRooms;
+
+	private final TopOffersHeap premiumOffers;
+
+	private final OfferOrderStatisticTree economyOffers = new OfferOrderStatisticTree();
+
+	private long numberOfPotentialGuests;
+
+	private OccupancyFeedAllocator(int numberOfFreePremiumRooms, int numberOfFreeEconomyRooms) {
+		this.numberOfFreePremiumRooms = numberOfFreePremiumRooms;
+		this.numberOfFreeEconomyRooms = numberOfFreeEconomyRooms;
+		this.premiumOffers = new TopOffersHeap(numberOfFreePremiumRooms);
+	}
+
+	/**
+	 * Creates an allocator without offers
+	 *
+	 * @param numberOfFreePremiumRooms
+	 *            Free Premium Rooms
+	 * @param numberOfFreeEconomyRooms
+	 *            Free Economy Rooms
+	 * @return New instance of OccupancyFeedAllocator
+	 * @throws BusinessException
+	 *             if the free rooms are null or negative
+	 */
+	public static OccupancyFeedAllocator of(Integer numberOfFreePremiumRooms, Integer numberOfFreeEconomyRooms) {
+		GetOptimizedRoomOccupancyUseCase.validateFreeRoomsParameters(numberOfFreePremiumRooms,
+				numberOfFreeEconomyRooms);
+
+		return new OccupancyFeedAllocator(numberOfFreePremiumRooms, numberOfFreeEconomyRooms);
+	}
+
+	/**
+	 * Adds the offer of a potential guest
+	 *
+	 * @return true if the optimized occupancy changed
+	 * @throws BusinessException
+	 *             if the offer is negative
+	 */
+	public boolean add(int guestOffer) {
+		if (guestOffer < 0) {
+			throw new BusinessException(GuestOffers.ERROR_NULL_OR_NEGATIVE_GUEST_OFFER);
+		}
+
+		numberOfPotentialGuests++;
+
+		if (guestOffer >= GetOptimizedRoomOccupancyUseCase.PREMIUM_ROOM_MINIMUN_NIGHT_VALUE) {
+			return addPremiumOffer(guestOffer);
+		}
+
+		return addEconomyOffer(guestOffer);
+	}
+
+	private boolean addPremiumOffer(int guestOffer) {
+		boolean tookFreeRoom = premiumOffers.size() < numberOfFreePremiumRooms;
+
+		if (!premiumOffers.add(guestOffer)) {
+			return false;
+		}
+
+		if (tookFreeRoom && economyOffers.size() > getEconomyCapacity()) {
+			economyOffers.remove(economyOffers.min());
+		}
+
+		return true;
+	}
+
+	private boolean addEconomyOffer(int guestOffer) {
+		if (economyOffers.size() < getEconomyCapacity()) {
+			economyOffers.add(guestOffer);
+			return true;
+		}
+
+		if (economyOffers.size() == 0 || guestOffer <= economyOffers.min()) {
+			return false;
+		}
+
+		economyOffers.remove(economyOffers.min());
+		economyOffers.add(guestOffer);
+		return true;
+	}
+
+	/**
+	 * Economy guests get the Economy rooms, and the Premium rooms left free by
+	 * the Premium guests
+	 */
+	private long getEconomyCapacity() {
+		return (long) numberOfFreeEconomyRooms + numberOfFreePremiumRooms - premiumOffers.size();
+	}
+
+	public long getNumberOfPotentialGuests() {
+		return numberOfPotentialGuests;
+	}
+
+	/**
+	 * @return Optimized occupancy of the offers added so far
+	 * @throws BusinessException
+	 *             if an income does not fit in an Integer
+	 */
+	public OptimizedRoomOccupancyEntity getOptimizedRoomOccupancy() {
+		int numberOfEconomyGuestsWithRoom = economyOffers.size();
+		int numberOfUpgradedEconomyGuests = Math.max(0, numberOfEconomyGuestsWithRoom - numberOfFreeEconomyRooms);
+
+		long upgradedEconomyGuestsIncome = economyOffers.sumOfLargest(numberOfUpgradedEconomyGuests);
+		long economyGuestsIncome = economyOffers.sumOfLargest(numberOfEconomyGuestsWithRoom)
+				- upgradedEconomyGuestsIncome;
+
+		return new OptimizedRoomOccupancyEntity(
+				new RoomCategoryOccupancyEntity(premiumOffers.size() + numberOfUpgradedEconomyGuests,
+						toIncome(premiumOffers.sum() + upgradedEconomyGuestsIncome)),
+				new RoomCategoryOccupancyEntity(numberOfEconomyGuestsWithRoom - numberOfUpgradedEconomyGuests,
+						toIncome(economyGuestsIncome)));
+	}
+
+	private static int toIncome(long income) {
+		try {
+			return Math.toIntExact(income);
+		} catch (ArithmeticException ex) {
+			throw new BusinessException(ERROR_INCOME_TOO_BIG);
+		}
+	}
+
+}
@@ -0,0 +1,134 @@
+package com.roomoccupancy.api.core.usecase;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.roomoccupancy.api.core.entity.OccupancyJobEntity;
+import com.roomoccupancy.api.core.entity.OccupancyJobStatus;
+import com.roomoccupancy.api.core.entity.OptimizedRoomOccupancyEntity;
+
+/**
+ * State of an occupancy job, shared by its worker and the requests that poll
+ * or cancel it. The status only moves forward, so a cancelled job is never
+ * reported as done by a worker that finishes afterwards. The time the job
+ * reached its final status tells when it can be forgotten.
+ * 
+ * @author luis
+ *
+ */
+final class OccupancyJob {
+
+	private final String jobId;
+
+	private final AtomicReference<OccupancyJobStatus> status = new AtomicReference<>(OccupancyJobStatus.QUEUED);
+
+	private volatile StreamingOccupancyOptimizer optimizer;
+
+	private volatile OptimizedRoomOccupancyEntity result;
+
+	private volatile String error;
+
+	private volatile Future<?> future;
+
+	private volatile Long numberOfBytesRead;
+
+	private volatile Long bytesReadPerSecond;
+
+	private volatile long finishedAtMillis = -1L;
+
+	OccupancyJob(String jobId) {
+		this.jobId = jobId;
+	}
+
+	String getJobId() {
+		return jobId;
+	}
+
+	void setFuture(Future<?> future) {
+		this.future = future;
+	}
+
+	/**
+	 * @return true if the job was still queued, and now is running
+	 */
+	boolean start(StreamingOccupancyOptimizer optimizer) {
+		this.optimizer = optimizer;
+
+		return status.compareAndSet(OccupancyJobStatus.QUEUED, OccupancyJobStatus.RUNNING);
+	}
+
+	/**
+	 * Keeps how many bytes of the offers file were read, and how fast
+	 */
+	void setReadThroughput(long numberOfBytesRead, long readTimeInNanos) {
+		this.numberOfBytesRead = numberOfBytesRead;
+		this.bytesReadPerSecond = readTimeInNanos > 0
+				? (long) (numberOfBytesRead * (double) TimeUnit.SECONDS.toNanos(1) / readTimeInNanos)
+				: null;
+	}
+
+	void finish(OptimizedRoomOccupancyEntity result, long nowMillis) {
+		this.result = result;
+		if (status.compareAndSet(OccupancyJobStatus.RUNNING, OccupancyJobStatus.DONE)) {
+			finishedAtMillis = nowMillis;
+		}
+	}
+
+	void fail(String error, long nowMillis) {
+		this.error = error;
+		if (status.compareAndSet(OccupancyJobStatus.RUNNING, OccupancyJobStatus.FAILED)) {
+			finishedAtMillis = nowMillis;
+		}
+	}
+
+	/**
+	 * Cancels the job, interrupting its worker if it is running. A queued job is
+	 * left in the queue, so its worker still runs the cleanup of the job.
+	 * 
+	 * @return the status of the job before the cancellation
+	 */
+	OccupancyJobStatus cancel(long nowMillis) {
+		OccupancyJobStatus previousStatus = status.get();
+
+		while (!previousStatus.isFinished()
+				&& !status.compareAndSet(previousStatus, OccupancyJobStatus.CANCELLED)) {
+			previousStatus = status.get();
+		}
+
+		if (!previousStatus.isFinished()) {
+			finishedAtMillis = nowMillis;
+		}
+
+		if (previousStatus == OccupancyJobStatus.RUNNING && future != null) {
+			future.cancel(true);
+		}
+
+		return previousStatus;
+	}
+
+	boolean isCancelled() {
+		return status.get() == OccupancyJobStatus.CANCELLED;
+	}
+
+	/**
+	 * @return true if the job is done, failed or cancelled for at least the
+	 *         retention
+	 */
+	boolean isExpired(long nowMillis, long retentionMillis) {
+		long finishedAt = finishedAtMillis;
+
+		return finishedAt >= 0 && nowMillis - finishedAt >= retentionMillis;
+	}
+
+	OccupancyJobEntity toEntity() {
+		OccupancyJobStatus currentStatus = status.get();
+		StreamingOccupancyOptimizer currentOptimizer = optimizer;
+
+		return new OccupancyJobEntity(jobId, currentStatus,
+				currentOptimizer == null ? 0L : currentOptimizer.getNumberOfPotentialGuests(),
+				currentStatus == OccupancyJobStatus.DONE ? result : null,
+				currentStatus == OccupancyJobStatus.FAILED ? error : null, numberOfBytesRead, bytesReadPerSecond);
+	}
+
+}
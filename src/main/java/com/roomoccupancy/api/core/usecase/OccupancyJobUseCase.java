@@ -0,0 +1,228 @@
+package com.roomoccupancy.api.core.usecase;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.roomoccupancy.api.core.entity.OccupancyJobEntity;
+import com.roomoccupancy.api.core.entity.OffersFileFormat;
+import com.roomoccupancy.api.core.exception.BusinessException;
+import com.roomoccupancy.api.core.gateway.GuestOffersFileGateway;
+import com.roomoccupancy.api.core.metrics.OccupancyOptimizationMetrics;
+
+/**
+ * Optimizes the room occupancy of offers files too big for a single request,
+ * in background jobs, reporting how fast each file is read. The offers are streamed through a
+ * {@link StreamingOccupancyOptimizer}, so a job keeps in memory only the offers
+ * that can still get a room. The done, failed and cancelled jobs are forgotten
+ * after {@code roomoccupancy.jobs.retention-seconds}.
+ * 
+ * @author luis
+ *
+ */
+@Service
+public class OccupancyJobUseCase {
+
+	private static final String ERROR_JOB_NOT_FOUND = "The occupancy job was not found.";
+
+	private static final String ERROR_TOO_MANY_JOBS = "There are too many occupancy jobs waiting, try again later.";
+
+	private static final String ERROR_UNREADABLE_OFFERS_FILE = "The offers file could not be read.";
+
+	static final long DEFAULT_RETENTION_SECONDS = 3600L;
+
+	private final Map<String, OccupancyJob> jobs = new ConcurrentHashMap<>();
+
+	@Value("${roomoccupancy.jobs.retention-seconds:" + DEFAULT_RETENTION_SECONDS + "}")
+	long retentionSeconds = DEFAULT_RETENTION_SECONDS;
+
+	Clock clock = Clock.systemUTC();
+
+	@Autowired
+	GuestOffersFileGateway offersFileGateway;
+
+	@Autowired(required = false)
+	OccupancyOptimizationMetrics optimizationMetrics = OccupancyOptimizationMetrics.NOOP;
+
+	@Autowired
+	@Qualifier("occupancyJobExecutor")
+	ExecutorService jobExecutor;
+
+	/**
+	 * Stores the offers of the stream, and submits a job to optimize them. The
+	 * stored offers are deleted when the job finishes.
+	 * 
+	 * @param numberOfFreePremiumRooms
+	 *            Free Premium Rooms
+	 * @param numberOfFreeEconomyRooms
+	 *            Free Economy Rooms
+	 * @param guestOffers
+	 *            File of offers
+	 * @param format
+	 *            Format of the file. Binary when null.
+	 * @return The new job
+	 * @throws BusinessException
+	 *             if the free rooms are invalid, or there are too many jobs
+	 *             waiting
+	 */
+	public OccupancyJobEntity submitJob(Integer numberOfFreePremiumRooms, Integer numberOfFreeEconomyRooms,
+			InputStream guestOffers, OffersFileFormat format) throws IOException {
+
+		GetOptimizedRoomOccupancyUseCase.validateFreeRoomsParameters(numberOfFreePremiumRooms,
+				numberOfFreeEconomyRooms);
+
+		Path offersFile = offersFileGateway.storeOffers(guestOffers);
+
+		try {
+			return submitJob(numberOfFreePremiumRooms, numberOfFreeEconomyRooms, offersFile, format, true);
+		} catch (BusinessException ex) {
+			offersFileGateway.deleteOffers(offersFile);
+			throw ex;
+		}
+	}
+
+	/**
+	 * Submits a job to optimize the offers of a file that already exists. The
+	 * file is kept when the job finishes.
+	 * 
+	 * @param numberOfFreePremiumRooms
+	 *            Free Premium Rooms
+	 * @param numberOfFreeEconomyRooms
+	 *            Free Economy Rooms
+	 * @param offersFileName
+	 *            Name of the offers file, relative to the offers directory
+	 * @param format
+	 *            Format of the file. Binary when null.
+	 * @return The new job
+	 * @throws BusinessException
+	 *             if the free rooms are invalid, the file does not exist, or
+	 *             there are too many jobs waiting
+	 */
+	public OccupancyJobEntity submitJob(Integer numberOfFreePremiumRooms, Integer numberOfFreeEconomyRooms,
+			String offersFileName, OffersFileFormat format) {
+
+		GetOptimizedRoomOccupancyUseCase.validateFreeRoomsParameters(numberOfFreePremiumRooms,
+				numberOfFreeEconomyRooms);
+
+		return submitJob(numberOfFreePremiumRooms, numberOfFreeEconomyRooms,
+				offersFileGateway.findOffersFile(offersFileName), format, false);
+	}
+
+	public OccupancyJobEntity getJob(String jobId) {
+		return findJob(jobId).toEntity();
+	}
+
+	/**
+	 * Cancels the job, if it is not finished, and forgets it
+	 * 
+	 * @throws BusinessException
+	 *             if the job does not exist
+	 */
+	public void deleteJob(String jobId) {
+		OccupancyJob job = findJob(jobId);
+
+		job.cancel(clock.millis());
+		jobs.remove(jobId, job);
+	}
+
+	private OccupancyJobEntity submitJob(int numberOfFreePremiumRooms, int numberOfFreeEconomyRooms,
+			Path offersFile, OffersFileFormat format, boolean deleteWhenFinished) {
+
+		removeExpiredJobs();
+
+		OccupancyJob job = new OccupancyJob(UUID.randomUUID().toString());
+		OffersFileFormat offersFileFormat = Objects.isNull(format) ? OffersFileFormat.BINARY : format;
+
+		try {
+			job.setFuture(jobExecutor.submit(() -> runJob(job, numberOfFreePremiumRooms, numberOfFreeEconomyRooms,
+					offersFile, offersFileFormat, deleteWhenFinished)));
+		} catch (RejectedExecutionException ex) {
+			throw new BusinessException(ERROR_TOO_MANY_JOBS);
+		}
+
+		jobs.put(job.getJobId(), job);
+
+		return job.toEntity();
+	}
+
+	private void runJob(OccupancyJob job, int numberOfFreePremiumRooms, int numberOfFreeEconomyRooms,
+			Path offersFile, OffersFileFormat format, boolean deleteWhenFinished) {
+
+		try {
+			StreamingOccupancyOptimizer optimizer = StreamingOccupancyOptimizer.of(numberOfFreePremiumRooms,
+					numberOfFreeEconomyRooms);
+
+			if (!job.start(optimizer)) {
+				return;
+			}
+
+			long readStart = System.nanoTime();
+
+			long numberOfBytesRead = offersFileGateway.readOffers(offersFile, format, guestOffers -> {
+				if (Thread.currentThread().isInterrupted() || job.isCancelled()) {
+					throw new CancellationException();
+				}
+				optimizer.addAll(guestOffers);
+			});
+
+			long readTimeInNanos = System.nanoTime() - readStart;
+			job.setReadThroughput(numberOfBytesRead, readTimeInNanos);
+			optimizationMetrics.recordIngestion(format, numberOfBytesRead, readTimeInNanos);
+
+			job.finish(optimizer.getOptimizedRoomOccupancy(), clock.millis());
+		} catch (CancellationException ex) {
+			// The job status was already changed by the cancellation
+		} catch (BusinessException ex) {
+			job.fail(ex.getMessage(), clock.millis());
+		} catch (IOException | RuntimeException ex) {
+			job.fail(ERROR_UNREADABLE_OFFERS_FILE, clock.millis());
+		} finally {
+			if (deleteWhenFinished) {
+				offersFileGateway.deleteOffers(offersFile);
+			}
+		}
+	}
+
+	/**
+	 * Finds the job. A job finished for longer than the retention is removed, as
+	 * if it were deleted.
+	 */
+	private OccupancyJob findJob(String jobId) {
+		OccupancyJob job = Objects.isNull(jobId) ? null : jobs.get(jobId);
+
+		if (Objects.nonNull(job) && job.isExpired(clock.millis(), retentionSeconds * 1000L)) {
+			jobs.remove(jobId, job);
+			job = null;
+		}
+
+		if (Objects.isNull(job)) {
+			throw new BusinessException(ERROR_JOB_NOT_FOUND);
+		}
+
+		return job;
+	}
+
+	/**
+	 * The jobs are few and long, so each submission sweeps all of them
+	 */
+	private void removeExpiredJobs() {
+		long now = clock.millis();
+		long retentionMillis = retentionSeconds * 1000L;
+
+		jobs.values().removeIf(job -> job.isExpired(now, retentionMillis));
+	}
+
+}
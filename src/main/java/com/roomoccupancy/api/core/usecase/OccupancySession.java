@@ -0,0 +1,101 @@
+package com.roomoccupancy.api.core.usecase;
+
+import com.roomoccupancy.api.core.entity.OccupancySessionEntity;
+import com.roomoccupancy.api.core.entity.OptimizedRoomOccupancyEntity;
+import com.roomoccupancy.api.core.entity.RoomCategoryOccupancyEntity;
+import com.roomoccupancy.api.core.exception.BusinessException;
+
+/**
+ * Free rooms and potential guests' offers that change over time. The offers
+ * are kept in an {@link OfferOrderStatisticTree}, so adding or removing one
+ * offer, and getting the optimized occupancy, cost O(log n) each.
+ * 
+ * @author luis
+ *
+ */
+final class OccupancySession {
+
+	private static final String ERROR_INCOME_TOO_BIG = "The income of the occupancy session must fit in an Integer.";
+
+	private final String sessionId;
+
+	private final int numberOfFreePremiumRooms;
+
+	private final int numberOfFreeEconomyRooms;
+
+	private final int premiumRoomMinimumNightValue;
+
+	private final OfferOrderStatisticTree offers = new OfferOrderStatisticTree();
+
+	private volatile long lastAccessMillis;
+
+	OccupancySession(String sessionId, int numberOfFreePremiumRooms, int numberOfFreeEconomyRooms,
+			int premiumRoomMinimumNightValue, long lastAccessMillis) {
+		this.sessionId = sessionId;
+		this.numberOfFreePremiumRooms = numberOfFreePremiumRooms;
+		this.numberOfFreeEconomyRooms = numberOfFreeEconomyRooms;
+		this.premiumRoomMinimumNightValue = premiumRoomMinimumNightValue;
+		this.lastAccessMillis = lastAccessMillis;
+	}
+
+	long getLastAccessMillis() {
+		return lastAccessMillis;
+	}
+
+	void touch(long accessMillis) {
+		lastAccessMillis = accessMillis;
+	}
+
+	synchronized void addOffer(int guestOffer) {
+		offers.add(guestOffer);
+	}
+
+	synchronized boolean removeOffer(int guestOffer) {
+		return offers.remove(guestOffer);
+	}
+
+	synchronized OccupancySessionEntity toEntity() {
+		return new OccupancySessionEntity(sessionId, numberOfFreePremiumRooms, numberOfFreeEconomyRooms,
+				offers.size());
+	}
+
+	/**
+	 * The Premium guests are the best offers of the tree, and the Economy guests
+	 * the best ones after all the Premium guests, so each category income is a
+	 * difference between two sums of best offers.
+	 * 
+	 * @throws BusinessException
+	 *             if the income of a category does not fit in an Integer
+	 */
+	synchronized OptimizedRoomOccupancyEntity getOptimizedRoomOccupancy() {
+		int numberOfPotentialPremiumGuests = offers.countAtLeast(premiumRoomMinimumNightValue);
+
+		OccupancyAllocationPlan allocationPlan = OccupancyAllocationPlan.of(numberOfFreePremiumRooms,
+				numberOfFreeEconomyRooms, numberOfPotentialPremiumGuests,
+				offers.size() - numberOfPotentialPremiumGuests);
+
+		long incomeOfPotentialPremiumGuests = offers.sumOfLargest(numberOfPotentialPremiumGuests);
+
+		int lastUpgradedEconomyGuest = numberOfPotentialPremiumGuests + allocationPlan.getUpgradedEconomyGuests();
+		long incomeUntilLastUpgradedEconomyGuest = offers.sumOfLargest(lastUpgradedEconomyGuest);
+
+		long premiumIncome = offers.sumOfLargest(allocationPlan.getPremiumGuests())
+				+ (incomeUntilLastUpgradedEconomyGuest - incomeOfPotentialPremiumGuests);
+
+		long economyIncome = offers.sumOfLargest(lastUpgradedEconomyGuest + allocationPlan.getEconomyGuests())
+				- incomeUntilLastUpgradedEconomyGuest;
+
+		return new OptimizedRoomOccupancyEntity(
+				new RoomCategoryOccupancyEntity(allocationPlan.getOccupiedPremiumRooms(), toIncome(premiumIncome)),
+				new RoomCategoryOccupancyEntity(allocationPlan.getEconomyGuests(), toIncome(economyIncome)));
+	}
+
+	private static int toIncome(long income) {
+		try {
+			return Math.toIntExact(income);
+		} catch (ArithmeticException ex) {
+			throw new BusinessException(ERROR_INCOME_TOO_BIG);
+		}
+	}
+
+}
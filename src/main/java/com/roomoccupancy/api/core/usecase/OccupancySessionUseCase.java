@@ -0,0 +1,175 @@
+package com.roomoccupancy.api.core.usecase;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.roomoccupancy.api.core.entity.OccupancySessionEntity;
+import com.roomoccupancy.api.core.entity.OptimizedRoomOccupancyEntity;
+import com.roomoccupancy.api.core.exception.BusinessException;
+
+/**
+ * Contains the business logic of the occupancy sessions, where the potential
+ * guests' offers are added and removed one by one, and the optimized occupancy
+ * is kept up to date without sorting all the offers again. A session not used
+ * for {@code roomoccupancy.session.idle-timeout-seconds} expires, and at most
+ * {@code roomoccupancy.session.max-sessions} are open at the same time.
+ * 
+ * @author luis
+ *
+ */
+@Service
+public class OccupancySessionUseCase {
+
+	private static final String ERROR_SESSION_NOT_FOUND = "The occupancy session was not found.";
+
+	private static final String ERROR_OFFER_NOT_IN_SESSION = "The offer is not part of the occupancy session.";
+
+	private static final String ERROR_TOO_MANY_SESSIONS = "There are too many open occupancy sessions.";
+
+	static final long DEFAULT_IDLE_TIMEOUT_SECONDS = 1800L;
+
+	static final int DEFAULT_MAX_SESSIONS = 10000;
+
+	private final Map<String, OccupancySession> sessions = new ConcurrentHashMap<>();
+
+	@Value("${roomoccupancy.session.idle-timeout-seconds:" + DEFAULT_IDLE_TIMEOUT_SECONDS + "}")
+	long idleTimeoutSeconds = DEFAULT_IDLE_TIMEOUT_SECONDS;
+
+	@Value("${roomoccupancy.session.max-sessions:" + DEFAULT_MAX_SESSIONS + "}")
+	int maxSessions = DEFAULT_MAX_SESSIONS;
+
+	Clock clock = Clock.systemUTC();
+
+	/**
+	 * Creates a session without potential guests
+	 * 
+	 * @param numberOfFreePremiumRooms
+	 *            Free Premium Rooms
+	 * @param numberOfFreeEconomyRooms
+	 *            Free Economy Rooms
+	 * @return The new session
+	 * @throws BusinessException
+	 *             if the free rooms are not valid, or the maximum number of
+	 *             sessions is open, even after the expired ones are removed
+	 */
+	public OccupancySessionEntity createSession(Integer numberOfFreePremiumRooms, Integer numberOfFreeEconomyRooms) {
+		GetOptimizedRoomOccupancyUseCase.validateFreeRoomsParameters(numberOfFreePremiumRooms,
+				numberOfFreeEconomyRooms);
+
+		OccupancySession session = new OccupancySession(UUID.randomUUID().toString(), numberOfFreePremiumRooms,
+				numberOfFreeEconomyRooms, GetOptimizedRoomOccupancyUseCase.PREMIUM_ROOM_MINIMUN_NIGHT_VALUE,
+				clock.millis());
+
+		OccupancySessionEntity sessionEntity = session.toEntity();
+
+		// The other changes only remove sessions, so the bound holds when the
+		// creations are serialized
+		synchronized (sessions) {
+			if (sessions.size() >= maxSessions) {
+				removeExpiredSessions();
+			}
+			if (sessions.size() >= maxSessions) {
+				throw new BusinessException(ERROR_TOO_MANY_SESSIONS);
+			}
+
+			sessions.put(sessionEntity.getSessionId(), session);
+		}
+
+		return sessionEntity;
+	}
+
+	public OccupancySessionEntity getSession(String sessionId) {
+		return findSession(sessionId).toEntity();
+	}
+
+	public void deleteSession(String sessionId) {
+		if (Objects.isNull(sessionId) || Objects.isNull(sessions.remove(sessionId))) {
+			throw new BusinessException(ERROR_SESSION_NOT_FOUND);
+		}
+	}
+
+	/**
+	 * Adds the offer of a potential guest to the session
+	 * 
+	 * @throws BusinessException
+	 *             if the session does not exist, or the offer is null or negative
+	 */
+	public OccupancySessionEntity addPotentialGuest(String sessionId, Integer guestOffer) {
+		OccupancySession session = findSession(sessionId);
+
+		if (Objects.isNull(guestOffer) || guestOffer < 0) {
+			throw new BusinessException(GuestOffers.ERROR_NULL_OR_NEGATIVE_GUEST_OFFER);
+		}
+
+		session.addOffer(guestOffer);
+
+		return session.toEntity();
+	}
+
+	/**
+	 * Removes one offer of a potential guest from the session
+	 * 
+	 * @throws BusinessException
+	 *             if the session does not exist, or the offer is not part of it
+	 */
+	public OccupancySessionEntity removePotentialGuest(String sessionId, Integer guestOffer) {
+		OccupancySession session = findSession(sessionId);
+
+		if (Objects.isNull(guestOffer) || !session.removeOffer(guestOffer)) {
+			throw new BusinessException(ERROR_OFFER_NOT_IN_SESSION);
+		}
+
+		return session.toEntity();
+	}
+
+	/**
+	 * Gets the optimized occupancy of the current offers of the session, with the
+	 * same rules of
+	 * {@link GetOptimizedRoomOccupancyUseCase#getOptimizedRoomOccupancy(Integer, Integer, Integer[])}
+	 * 
+	 * @throws BusinessException
+	 *             if the session does not exist
+	 */
+	public OptimizedRoomOccupancyEntity getOptimizedRoomOccupancy(String sessionId) {
+		return findSession(sessionId).getOptimizedRoomOccupancy();
+	}
+
+	/**
+	 * Finds the session, and keeps it from expiring. An expired session is
+	 * removed, as if it were deleted.
+	 */
+	private OccupancySession findSession(String sessionId) {
+		OccupancySession session = Objects.isNull(sessionId) ? null : sessions.get(sessionId);
+		long now = clock.millis();
+
+		if (Objects.nonNull(session) && isExpired(session, now)) {
+			sessions.remove(sessionId, session);
+			session = null;
+		}
+
+		if (Objects.isNull(session)) {
+			throw new BusinessException(ERROR_SESSION_NOT_FOUND);
+		}
+
+		session.touch(now);
+
+		return session;
+	}
+
+	private void removeExpiredSessions() {
+		long now = clock.millis();
+
+		sessions.values().removeIf(session -> isExpired(session, now));
+	}
+
+	private boolean isExpired(OccupancySession session, long now) {
+		return now - session.getLastAccessMillis() >= idleTimeoutSeconds * 1000L;
+	}
+
+}
@@ -0,0 +1,62 @@
+package com.roomoccupancy.api.core.usecase;
+
+import java.io.IOException;
+import java.util.Collection;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.roomoccupancy.api.core.cache.OptimizedRoomOccupancyCache;
+import com.roomoccupancy.api.core.entity.HotelInventoryEventEntity;
+import com.roomoccupancy.api.core.entity.OptimizedRoomOccupancyEntity;
+import com.roomoccupancy.api.core.gateway.OccupancyEventGateway;
+import com.roomoccupancy.api.core.gateway.OccupancyEventGateway.RecoverableState;
+
+/**
+ * Rebuilds, at startup, the state kept by the {@link OccupancyEventGateway}:
+ * the hotel inventories, and the cache of the optimizations appended after the
+ * last snapshot
+ * 
+ * @author luis
+ *
+ */
+@Service
+public class OccupancyStateRecoveryUseCase implements RecoverableState {
+
+	@Autowired
+	HotelInventoryUseCase inventoryUseCase;
+
+	@Autowired(required = false)
+	OptimizedRoomOccupancyCache occupancyCache = OptimizedRoomOccupancyCache.DISABLED;
+
+	@Autowired(required = false)
+	OccupancyEventGateway eventGateway = OccupancyEventGateway.NOOP;
+
+	@PostConstruct
+	public void recover() throws IOException {
+		eventGateway.recover(this);
+	}
+
+	@Override
+	public void onOptimization(OptimizedRoomOccupancyKey key, OptimizedRoomOccupancyEntity optimizedOccupancy) {
+		occupancyCache.put(key, optimizedOccupancy);
+	}
+
+	@Override
+	public void onInventory(HotelInventoryEventEntity inventoryEvent) {
+		inventoryUseCase.restoreInventory(inventoryEvent);
+	}
+
+	@Override
+	public Collection<HotelInventoryEventEntity> getInventories() {
+		return inventoryUseCase.getInventoryEvents();
+	}
+
+	@Override
+	public void onSnapshot(Collection<HotelInventoryEventEntity> inventories) {
+		inventoryUseCase.removeDeletedInventories(inventories);
+	}
+
+}
@@ -0,0 +1,82 @@
+package com.roomoccupancy.api.core.usecase;
+
+/**
+ * Number of offers of each value, from zero up to the highest offer. Built in
+ * a single pass, it lets the allocation logic find the best offers by walking
+ * the values from the top, in O(n + range) and without comparisons.
+ * 
+ * @author luis
+ *
+ */
+final class OfferHistogram {
+
+	private final int[] counts;
+
+	private OfferHistogram(int[] counts) {
+		this.counts = counts;
+	}
+
+	static OfferHistogram of(GuestOffers guestOffers) {
+		int[] offers = guestOffers.array();
+		int[] counts = new int[guestOffers.getMaxOffer() + 1];
+
+		for (int i = 0, size = guestOffers.size(); i < size; i++) {
+			counts[offers[i]]++;
+		}
+
+		return new OfferHistogram(counts);
+	}
+
+	/**
+	 * Counts the offers of each category in a single walk from the highest
+	 * offer down
+	 * 
+	 * @param minimumNightValues
+	 *            Minimum offer of each category, strictly decreasing
+	 * @return Number of offers of each category, from its minimum value up to
+	 *         the minimum value of the previous one
+	 */
+	int[] countByCategory(int[] minimumNightValues) {
+		int[] categoryCounts = new int[minimumNightValues.length];
+		int category = 0;
+
+		for (int offer = counts.length - 1; offer >= 0; offer--) {
+			while (category < minimumNightValues.length && offer < minimumNightValues[category]) {
+				category++;
+			}
+
+			if (category == minimumNightValues.length) {
+				break;
+			}
+
+			categoryCounts[category] += counts[offer];
+		}
+
+		return categoryCounts;
+	}
+
+	/**
+	 * Walks the offers lower than {@code upperBound} from the highest one down,
+	 * skipping the first {@code numberOfSkippedOffers}
+	 * 
+	 * @return How much the next {@code numberOfOffers} offers yield
+	 */
+	int sumOfLargestBelow(int upperBound, int numberOfSkippedOffers, int numberOfOffers) {
+		int sum = 0;
+
+		for (int offer = Math.min(upperBound, counts.length) - 1; offer >= 0 && numberOfOffers > 0; offer--) {
+			int available = counts[offer];
+
+			int skipped = Math.min(available, numberOfSkippedOffers);
+			numberOfSkippedOffers -= skipped;
+			available -= skipped;
+
+			int taken = Math.min(available, numberOfOffers);
+			numberOfOffers -= taken;
+			sum += taken * offer;
+		}
+
+		return sum;
+	}
+
+}
@@ -0,0 +1,219 @@
+package com.roomoccupancy.api.core.usecase;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Multiset of offers kept as a treap ordered by value, where every node also
+ * knows how many offers and how much money its subtree holds. It answers how
+ * many offers reach a value, and how much the best {@code k} offers yield, in
+ * O(log n), with O(log n) additions and removals.
+ * 
+ * <p>
+ * Not thread safe.
+ * 
+ * @author luis
+ *
+ */
+final class OfferOrderStatisticTree {
+
+	private Node root;
+
+	void add(int offer) {
+		root = add(root, offer);
+	}
+
+	/**
+	 * @return true if the offer was part of the tree
+	 */
+	boolean remove(int offer) {
+		if (countOf(root, offer) == 0) {
+			return false;
+		}
+
+		root = remove(root, offer);
+		return true;
+	}
+
+	/**
+	 * @return Number of offers in the tree
+	 */
+	int size() {
+		return size(root);
+	}
+
+	/**
+	 * @return Number of offers greater or equal to the value
+	 */
+	int countAtLeast(int value) {
+		int count = 0;
+		Node node = root;
+
+		while (node != null) {
+			if (node.offer >= value) {
+				count += node.count + size(node.right);
+				node = node.left;
+			} else {
+				node = node.right;
+			}
+		}
+
+		return count;
+	}
+
+	/**
+	 * @return How much the {@code k} best offers yield. All the offers, if there
+	 *         are less than {@code k}.
+	 */
+	long sumOfLargest(int k) {
+		long sum = 0;
+		Node node = root;
+
+		while (node != null && k > 0) {
+			if (k <= size(node.right)) {
+				node = node.right;
+				continue;
+			}
+
+			sum += sum(node.right);
+			k -= size(node.right);
+
+			int taken = Math.min(k, node.count);
+			sum += (long) taken * node.offer;
+			k -= taken;
+
+			node = node.left;
+		}
+
+		return sum;
+	}
+
+	/**
+	 * @return The lowest offer of the tree
+	 * @throws IllegalStateException
+	 *             if the tree is empty
+	 */
+	int min() {
+		if (root == null) {
+			throw new IllegalStateException("The tree is empty");
+		}
+
+		Node node = root;
+		while (node.left != null) {
+			node = node.left;
+		}
+
+		return node.offer;
+	}
+
+	private static int countOf(Node node, int offer) {
+		while (node != null) {
+			if (offer == node.offer) {
+				return node.count;
+			}
+			node = offer < node.offer ? node.left : node.right;
+		}
+
+		return 0;
+	}
+
+	private static Node add(Node node, int offer) {
+		if (node == null) {
+			return new Node(offer).update();
+		}
+
+		if (offer == node.offer) {
+			node.count++;
+		} else if (offer < node.offer) {
+			node.left = add(node.left, offer);
+			if (node.left.priority > node.priority) {
+				node = rotateRight(node);
+			}
+		} else {
+			node.right = add(node.right, offer);
+			if (node.right.priority > node.priority) {
+				node = rotateLeft(node);
+			}
+		}
+
+		return node.update();
+	}
+
+	private static Node remove(Node node, int offer) {
+		if (offer < node.offer) {
+			node.left = remove(node.left, offer);
+		} else if (offer > node.offer) {
+			node.right = remove(node.right, offer);
+		} else if (node.count > 1) {
+			node.count--;
+		} else {
+			return merge(node.left, node.right);
+		}
+
+		return node.update();
+	}
+
+	private static Node merge(Node left, Node right) {
+		if (left == null) {
+			return right;
+		} else if (right == null) {
+			return left;
+		} else if (left.priority > right.priority) {
+			left.right = merge(left.right, right);
+			return left.update();
+		} else {
+			right.left = merge(left, right.left);
+			return right.update();
+		}
+	}
+
+	private static Node rotateRight(Node node) {
+		Node left = node.left;
+		node.left = left.right;
+		left.right = node.update();
+		return left;
+	}
+
+	private static Node rotateLeft(Node node) {
+		Node right = node.right;
+		node.right = right.left;
+		right.left = node.update();
+		return right;
+	}
+
+	private static int size(Node node) {
+		return node == null ? 0 : node.size;
+	}
+
+	private static long sum(Node node) {
+		return node == null ? 0 : node.sum;
+	}
+
+	private static final class Node {
+
+		private final int offer;
+
+		private final int priority = ThreadLocalRandom.current().nextInt();
+
+		private int count = 1;
+
+		private int size;
+
+		private long sum;
+
+		private Node left;
+
+		private Node right;
+
+		private Node(int offer) {
+			this.offer = offer;
+		}
+
+		private Node update() {
+			size = OfferOrderStatisticTree.size(left) + count + OfferOrderStatisticTree.size(right);
+			sum = OfferOrderStatisticTree.sum(left) + (long) count * offer + OfferOrderStatisticTree.sum(right);
+			return this;
+		}
+
+	}
+
+}
@@ -0,0 +1,123 @@
+package com.roomoccupancy.api.core.usecase;
+
+/**
+ * Identifies an optimization by its inputs - the free rooms of each category,
+ * the Premium minimum night value, and the fingerprints of the offers. As the optimized occupancy does not
+ * depend on the order of the offers, neither does the key.
+ * 
+ * @author luis
+ *
+ */
+public final class OptimizedRoomOccupancyKey {
+
+	private final int numberOfFreePremiumRooms;
+
+	private final int numberOfFreeEconomyRooms;
+
+	private final int premiumRoomMinimumNightValue;
+
+	private final int numberOfPotentialGuests;
+
+	private final long fingerprint;
+
+	private final long secondFingerprint;
+
+	private OptimizedRoomOccupancyKey(int numberOfFreePremiumRooms, int numberOfFreeEconomyRooms,
+			int premiumRoomMinimumNightValue, int numberOfPotentialGuests, long fingerprint, long secondFingerprint) {
+		this.numberOfFreePremiumRooms = numberOfFreePremiumRooms;
+		this.numberOfFreeEconomyRooms = numberOfFreeEconomyRooms;
+		this.premiumRoomMinimumNightValue = premiumRoomMinimumNightValue;
+		this.numberOfPotentialGuests = numberOfPotentialGuests;
+		this.fingerprint = fingerprint;
+		this.secondFingerprint = secondFingerprint;
+	}
+
+	/**
+	 * Creates the key of the optimization of the offers passed as argument
+	 * 
+	 * @param numberOfFreePremiumRooms
+	 *            Free Premium Rooms
+	 * @param numberOfFreeEconomyRooms
+	 *            Free Economy Rooms
+	 * @param guestOffers
+	 *            Prices that potential guests are willing to pay for a night
+	 * @return New instance of OptimizedRoomOccupancyKey
+	 */
+	public static OptimizedRoomOccupancyKey of(int numberOfFreePremiumRooms, int numberOfFreeEconomyRooms,
+			GuestOffers guestOffers) {
+		return of(numberOfFreePremiumRooms, numberOfFreeEconomyRooms,
+				GetOptimizedRoomOccupancyUseCase.PREMIUM_ROOM_MINIMUN_NIGHT_VALUE, guestOffers);
+	}
+
+	/**
+	 * Same as {@link #of(int, int, GuestOffers)}, with the Premium minimum night
+	 * value of a hotel
+	 */
+	public static OptimizedRoomOccupancyKey of(int numberOfFreePremiumRooms, int numberOfFreeEconomyRooms,
+			int premiumRoomMinimumNightValue, GuestOffers guestOffers) {
+		return new OptimizedRoomOccupancyKey(numberOfFreePremiumRooms, numberOfFreeEconomyRooms,
+				premiumRoomMinimumNightValue, guestOffers.size(), guestOffers.getFingerprint(),
+				guestOffers.getSecondFingerprint());
+	}
+
+	/**
+	 * Creates the key of an optimization from its recorded inputs, as the event
+	 * log replays them
+	 */
+	public static OptimizedRoomOccupancyKey of(int numberOfFreePremiumRooms, int numberOfFreeEconomyRooms,
+			int premiumRoomMinimumNightValue, int numberOfPotentialGuests, long fingerprint, long secondFingerprint) {
+		return new OptimizedRoomOccupancyKey(numberOfFreePremiumRooms, numberOfFreeEconomyRooms,
+				premiumRoomMinimumNightValue, numberOfPotentialGuests, fingerprint, secondFingerprint);
+	}
+
+	public int getNumberOfFreePremiumRooms() {
+		return numberOfFreePremiumRooms;
+	}
+
+	public int getNumberOfFreeEconomyRooms() {
+		return numberOfFreeEconomyRooms;
+	}
+
+	public int getPremiumRoomMinimumNightValue() {
+		return premiumRoomMinimumNightValue;
+	}
+
+	public int getNumberOfPotentialGuests() {
+		return numberOfPotentialGuests;
+	}
+
+	public long getFingerprint() {
+		return fingerprint;
+	}
+
+	public long getSecondFingerprint() {
+		return secondFingerprint;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		} else if (!(obj instanceof OptimizedRoomOccupancyKey)) {
+			return false;
+		}
+
+		OptimizedRoomOccupancyKey other = (OptimizedRoomOccupancyKey) obj;
+
+		return numberOfFreePremiumRooms == other.numberOfFreePremiumRooms
+				&& numberOfFreeEconomyRooms == other.numberOfFreeEconomyRooms
+				&& premiumRoomMinimumNightValue == other.premiumRoomMinimumNightValue
+				&& numberOfPotentialGuests == other.numberOfPotentialGuests && fingerprint == other.fingerprint
+				&& secondFingerprint == other.secondFingerprint;
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = Long.hashCode(fingerprint);
+		hash = 31 * hash + numberOfFreePremiumRooms;
+		hash = 31 * hash + numberOfFreeEconomyRooms;
+		hash = 31 * hash + premiumRoomMinimumNightValue;
+		return 31 * hash + numberOfPotentialGuests;
+	}
+
+}
@@ -0,0 +1,45 @@
+package com.roomoccupancy.api.core.usecase;
+
+/**
+ * One hotel of a portfolio optimization - its free rooms, or only its
+ * identifier when its inventory is kept by the {@link HotelInventoryUseCase},
+ * and the values that its potential guests are willing to pay
+ * 
+ * @author luis
+ *
+ */
+public final class PortfolioHotel {
+
+	private final String hotelId;
+
+	private final Integer freePremiumRooms;
+
+	private final Integer freeEconomyRooms;
+
+	private final GuestOffers potentialGuests;
+
+	public PortfolioHotel(String hotelId, Integer freePremiumRooms, Integer freeEconomyRooms,
+			GuestOffers potentialGuests) {
+		this.hotelId = hotelId;
+		this.freePremiumRooms = freePremiumRooms;
+		this.freeEconomyRooms = freeEconomyRooms;
+		this.potentialGuests = potentialGuests;
+	}
+
+	public String getHotelId() {
+		return hotelId;
+	}
+
+	public Integer getFreePremiumRooms() {
+		return freePremiumRooms;
+	}
+
+	public Integer getFreeEconomyRooms() {
+		return freeEconomyRooms;
+	}
+
+	public GuestOffers getPotentialGuests() {
+		return potentialGuests;
+	}
+
+}
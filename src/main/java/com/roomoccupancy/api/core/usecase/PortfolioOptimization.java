@@ -0,0 +1,201 @@
+package com.roomoccupancy.api.core.usecase;
+
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.roomoccupancy.api.core.entity.OptimizedRoomOccupancyEntity;
+import com.roomoccupancy.api.core.entity.PortfolioHotelResultEntity;
+import com.roomoccupancy.api.core.exception.BusinessException;
+
+/**
+ * Optimization of a portfolio of hotels in progress. Each submitted hotel is
+ * read and optimized as a task of a work-stealing pool, so the reading is
+ * parallel too, and its result is queued as soon as it is done, in the order
+ * the hotels complete. The hotels are submitted, and the results taken, by a
+ * single thread. A hotel can hold a {@link Ticket}, taken by the submitting
+ * thread, so the workers of the pool never wait for their turn.
+ * 
+ * @author luis
+ *
+ */
+public final class PortfolioOptimization {
+
+	static final String ERROR_HOTEL_NOT_OPTIMIZED = "The hotel could not be optimized.";
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(PortfolioOptimization.class);
+
+	private final Function<PortfolioHotel, OptimizedRoomOccupancyEntity> optimizer;
+
+	private final ForkJoinPool forkJoinPool;
+
+	private final BlockingQueue<PortfolioHotelResultEntity> results = new LinkedBlockingQueue<>();
+
+	private int numberOfSubmittedHotels;
+
+	private int numberOfTakenResults;
+
+	private volatile boolean cancelled;
+
+	PortfolioOptimization(Function<PortfolioHotel, OptimizedRoomOccupancyEntity> optimizer,
+			ForkJoinPool forkJoinPool) {
+		this.optimizer = optimizer;
+		this.forkJoinPool = forkJoinPool;
+	}
+
+	/**
+	 * Queues the hotel for optimization
+	 * 
+	 * @param hotelReader
+	 *            Reads the hotel on the pool. A {@link BusinessException} of
+	 *            the reader is reported as the error of the hotel.
+	 */
+	public void submit(Supplier<PortfolioHotel> hotelReader) {
+		submit(hotelReader, Ticket.NONE);
+	}
+
+	/**
+	 * Same as {@link #submit(Supplier)}, for a hotel already admitted
+	 * 
+	 * @param ticket
+	 *            Turn of the hotel, reweighed once it is read, and closed when
+	 *            it is done, skipped or not queued
+	 */
+	public void submit(Supplier<PortfolioHotel> hotelReader, Ticket ticket) {
+		int index = numberOfSubmittedHotels++;
+
+		try {
+			forkJoinPool.execute(() -> {
+				try {
+					if (!cancelled) {
+						results.add(optimize(index, hotelReader, ticket));
+					}
+				} finally {
+					ticket.close();
+				}
+			});
+		} catch (RuntimeException ex) {
+			ticket.close();
+			throw ex;
+		}
+	}
+
+	/**
+	 * Reports an error for a hotel that could not even be submitted, in the
+	 * order of the other results
+	 */
+	public void reject(String error) {
+		results.add(PortfolioHotelResultEntity.ofError(numberOfSubmittedHotels++, null, error));
+	}
+
+	private PortfolioHotelResultEntity optimize(int index, Supplier<PortfolioHotel> hotelReader, Ticket ticket) {
+		String hotelId = null;
+
+		try {
+			PortfolioHotel hotel = hotelReader.get();
+			if (Objects.isNull(hotel)) {
+				throw new BusinessException(ERROR_HOTEL_NOT_OPTIMIZED);
+			}
+
+			hotelId = hotel.getHotelId();
+			ticket.reweigh(Objects.isNull(hotel.getPotentialGuests()) ? 0 : hotel.getPotentialGuests().size());
+
+			return PortfolioHotelResultEntity.ofResult(index, hotelId, optimizer.apply(hotel));
+		} catch (BusinessException ex) {
+			return PortfolioHotelResultEntity.ofError(index, hotelId, ex.getMessage());
+		} catch (RuntimeException ex) {
+			// A task of the pool has no one to rethrow to, and the taker still
+			// needs a result, or it would wait for it forever
+			LOGGER.error("The hotel {} of the portfolio could not be optimized", index, ex);
+			return PortfolioHotelResultEntity.ofError(index, hotelId, ERROR_HOTEL_NOT_OPTIMIZED);
+		}
+	}
+
+	/**
+	 * @return Number of submitted hotels whose results were not taken yet
+	 */
+	public int getNumberOfPendingHotels() {
+		return numberOfSubmittedHotels - numberOfTakenResults;
+	}
+
+	/**
+	 * @return The next completed result, or null if none is completed yet
+	 */
+	public PortfolioHotelResultEntity poll() {
+		PortfolioHotelResultEntity result = results.poll();
+
+		if (Objects.nonNull(result)) {
+			numberOfTakenResults++;
+		}
+
+		return result;
+	}
+
+	/**
+	 * Waits for the next result
+	 * 
+	 * @return The next completed result, or null if every result was taken
+	 */
+	public PortfolioHotelResultEntity take() throws InterruptedException {
+		if (getNumberOfPendingHotels() == 0) {
+			return null;
+		}
+
+		PortfolioHotelResultEntity result = results.take();
+		numberOfTakenResults++;
+
+		return result;
+	}
+
+	/**
+	 * Skips the hotels not started yet, as when the client is gone. No result
+	 * should be taken afterwards.
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	/**
+	 * Turn of a hotel admitted before it is read, as the admission control of
+	 * the API does for the single requests. It is used by one thread at a time.
+	 */
+	public interface Ticket extends AutoCloseable {
+
+		/**
+		 * Turn of a hotel that is not admitted
+		 */
+		Ticket NONE = new Ticket() {
+
+			@Override
+			public void reweigh(int numberOfPotentialGuests) {
+				// Nothing held
+			}
+
+			@Override
+			public void close() {
+				// Nothing held
+			}
+
+		};
+
+		/**
+		 * Gives back the share of the turn the guests of the hotel, once read,
+		 * do not need. It never waits, since it runs on the pool.
+		 * 
+		 * @param numberOfPotentialGuests
+		 *            Size of the guest list of the hotel
+		 */
+		void reweigh(int numberOfPotentialGuests);
+
+		@Override
+		void close();
+
+	}
+
+}
@@ -0,0 +1,128 @@
+package com.roomoccupancy.api.core.usecase;
+
+import java.util.Arrays;
+
+import com.roomoccupancy.api.core.entity.OptimizedRoomOccupancyEntity;
+import com.roomoccupancy.api.core.entity.RoomCategoryOccupancyEntity;
+
+/**
+ * Income of the optimized room occupancy of a guest list for any number of
+ * free rooms. The offers are sorted and split in Premium and Economy once, into
+ * prefix sums of the best offers of each category, so each number of free
+ * rooms is answered in constant time, with the rules of the
+ * {@link OccupancyAllocationPlan}.
+ * 
+ * @author luis
+ *
+ */
+public final class RevenueSurface {
+
+	/**
+	 * Income of the k best Premium offers, at the index k
+	 */
+	private final long[] premiumIncomes;
+
+	/**
+	 * Income of the k best Economy offers, at the index k
+	 */
+	private final long[] economyIncomes;
+
+	private RevenueSurface(long[] premiumIncomes, long[] economyIncomes) {
+		this.premiumIncomes = premiumIncomes;
+		this.economyIncomes = economyIncomes;
+	}
+
+	/**
+	 * Creates the revenue surface of the offers passed as argument. The offers are
+	 * copied, so they can be changed afterwards.
+	 * 
+	 * @param guestOffers
+	 *            Prices that potential guests are willing to pay for a night
+	 * @return New instance of RevenueSurface
+	 */
+	static RevenueSurface of(GuestOffers guestOffers) {
+		int[] offers = Arrays.copyOf(guestOffers.array(), guestOffers.size());
+		Arrays.sort(offers);
+
+		int numberOfPotentialEconomyGuests = countBelow(offers,
+				GetOptimizedRoomOccupancyUseCase.PREMIUM_ROOM_MINIMUN_NIGHT_VALUE);
+
+		return new RevenueSurface(sumFromLargest(offers, numberOfPotentialEconomyGuests, offers.length),
+				sumFromLargest(offers, 0, numberOfPotentialEconomyGuests));
+	}
+
+	/**
+	 * @return Number of offers of the ascending sorted array below the value
+	 */
+	private static int countBelow(int[] sortedOffers, int value) {
+		int from = 0;
+		int to = sortedOffers.length;
+
+		while (from < to) {
+			int middle = (from + to) >>> 1;
+
+			if (sortedOffers[middle] < value) {
+				from = middle + 1;
+			} else {
+				to = middle;
+			}
+		}
+
+		return from;
+	}
+
+	/**
+	 * Prefix sums of the ascending sorted range, from its largest offer down
+	 */
+	private static long[] sumFromLargest(int[] sortedOffers, int from, int to) {
+		long[] incomes = new long[to - from + 1];
+
+		for (int i = 1; i < incomes.length; i++) {
+			incomes[i] = incomes[i - 1] + sortedOffers[to - i];
+		}
+
+		return incomes;
+	}
+
+	public int getNumberOfPotentialGuests() {
+		return premiumIncomes.length + economyIncomes.length - 2;
+	}
+
+	/**
+	 * @return How much money the optimized occupancy of the free rooms generates
+	 */
+	public long getGeneratedIncome(int numberOfFreePremiumRooms, int numberOfFreeEconomyRooms) {
+		OccupancyAllocationPlan allocationPlan = getAllocationPlan(numberOfFreePremiumRooms,
+				numberOfFreeEconomyRooms);
+
+		return premiumIncomes[allocationPlan.getPremiumGuests()] + economyIncomes[allocationPlan
+				.getUpgradedEconomyGuests() + allocationPlan.getEconomyGuests()];
+	}
+
+	/**
+	 * @return Same result of
+	 *         {@link GetOptimizedRoomOccupancyUseCase#getOptimizedRoomOccupancy(Integer, Integer, GuestOffers)}
+	 *         for the free rooms
+	 */
+	public OptimizedRoomOccupancyEntity getOptimizedRoomOccupancy(int numberOfFreePremiumRooms,
+			int numberOfFreeEconomyRooms) {
+
+		OccupancyAllocationPlan allocationPlan = getAllocationPlan(numberOfFreePremiumRooms,
+				numberOfFreeEconomyRooms);
+
+		long upgradedEconomyGuestsIncome = economyIncomes[allocationPlan.getUpgradedEconomyGuests()];
+		long economyGuestsIncome = economyIncomes[allocationPlan.getUpgradedEconomyGuests()
+				+ allocationPlan.getEconomyGuests()] - upgradedEconomyGuestsIncome;
+
+		return new OptimizedRoomOccupancyEntity(
+				new RoomCategoryOccupancyEntity(allocationPlan.getOccupiedPremiumRooms(),
+						(int) (premiumIncomes[allocationPlan.getPremiumGuests()] + upgradedEconomyGuestsIncome)),
+				new RoomCategoryOccupancyEntity(allocationPlan.getEconomyGuests(), (int) economyGuestsIncome));
+	}
+
+	private OccupancyAllocationPlan getAllocationPlan(int numberOfFreePremiumRooms, int numberOfFreeEconomyRooms) {
+		return OccupancyAllocationPlan.of(numberOfFreePremiumRooms, numberOfFreeEconomyRooms,
+				premiumIncomes.length - 1, economyIncomes.length - 1);
+	}
+
+}
@@ -0,0 +1,145 @@
+package com.roomoccupancy.api.core.usecase;
+
+import java.nio.IntBuffer;
+
+import com.roomoccupancy.api.core.entity.OptimizedRoomOccupancyEntity;
+import com.roomoccupancy.api.core.entity.RoomCategoryOccupancyEntity;
+import com.roomoccupancy.api.core.exception.BusinessException;
+
+/**
+ * Optimizes the room occupancy of a stream of offers that may not fit in
+ * memory. Only the offers that can still get a room are kept: the best Premium
+ * offers, one per Premium room, and the best Economy offers, one per room of
+ * any category, as any Premium room may be taken by an upgraded Economy guest.
+ * The result is the same of {@link GetOptimizedRoomOccupancyUseCase}.
+ * 
+ * @author luis
+ *
+ */
+public final class StreamingOccupancyOptimizer {
+
+	private static final String ERROR_INCOME_TOO_BIG = "The income of the streamed offers must fit in an Integer.";
+
+	private final int numberOfFreePremiumRooms;
+
+	private final int numberOfFreeEconomyRooms;
+
+	private final TopOffersHeap premiumOffers;
+
+	private final TopOffersHeap economyOffers;
+
+	private long numberOfPotentialPremiumGuests;
+
+	private long numberOfPotentialEconomyGuests;
+
+	private StreamingOccupancyOptimizer(int numberOfFreePremiumRooms, int numberOfFreeEconomyRooms) {
+		this.numberOfFreePremiumRooms = numberOfFreePremiumRooms;
+		this.numberOfFreeEconomyRooms = numberOfFreeEconomyRooms;
+		this.premiumOffers = new TopOffersHeap(numberOfFreePremiumRooms);
+		this.economyOffers = new TopOffersHeap(
+				(int) Math.min(Integer.MAX_VALUE, (long) numberOfFreePremiumRooms + numberOfFreeEconomyRooms));
+	}
+
+	/**
+	 * Creates an optimizer without offers
+	 * 
+	 * @param numberOfFreePremiumRooms
+	 *            Free Premium Rooms
+	 * @param numberOfFreeEconomyRooms
+	 *            Free Economy Rooms
+	 * @return New instance of StreamingOccupancyOptimizer
+	 * @throws BusinessException
+	 *             if the free rooms are null or negative
+	 */
+	public static StreamingOccupancyOptimizer of(Integer numberOfFreePremiumRooms, Integer numberOfFreeEconomyRooms) {
+		GetOptimizedRoomOccupancyUseCase.validateFreeRoomsParameters(numberOfFreePremiumRooms,
+				numberOfFreeEconomyRooms);
+
+		return new StreamingOccupancyOptimizer(numberOfFreePremiumRooms, numberOfFreeEconomyRooms);
+	}
+
+	/**
+	 * Adds the offer of a potential guest
+	 * 
+	 * @throws BusinessException
+	 *             if the offer is negative
+	 */
+	public void add(int guestOffer) {
+		if (guestOffer < 0) {
+			throw new BusinessException(GuestOffers.ERROR_NULL_OR_NEGATIVE_GUEST_OFFER);
+		}
+
+		if (guestOffer >= GetOptimizedRoomOccupancyUseCase.PREMIUM_ROOM_MINIMUN_NIGHT_VALUE) {
+			numberOfPotentialPremiumGuests++;
+			premiumOffers.add(guestOffer);
+		} else {
+			numberOfPotentialEconomyGuests++;
+			economyOffers.add(guestOffer);
+		}
+	}
+
+	/**
+	 * Adds the remaining offers of the buffer, without changing its position
+	 * 
+	 * @throws BusinessException
+	 *             if any of the offers is negative
+	 */
+	public void addAll(IntBuffer guestOffers) {
+		for (int i = guestOffers.position(), limit = guestOffers.limit(); i < limit; i++) {
+			add(guestOffers.get(i));
+		}
+	}
+
+	public long getNumberOfPotentialGuests() {
+		return numberOfPotentialPremiumGuests + numberOfPotentialEconomyGuests;
+	}
+
+	/**
+	 * @return Optimized occupancy of the offers added so far. More offers can be
+	 *         added afterwards.
+	 * @throws BusinessException
+	 *             if the income of a category does not fit in an Integer
+	 */
+	public OptimizedRoomOccupancyEntity getOptimizedRoomOccupancy() {
+		OccupancyAllocationPlan allocationPlan = OccupancyAllocationPlan.of(numberOfFreePremiumRooms,
+				numberOfFreeEconomyRooms, toPlanCount(numberOfPotentialPremiumGuests),
+				toPlanCount(numberOfPotentialEconomyGuests));
+
+		int[] premium = premiumOffers.toArray();
+		long premiumGuestsIncome = TopOffersSelector.sum(premium, 0, premium.length);
+
+		int[] economy = economyOffers.toArray();
+		int numberOfEconomyGuestsWithRoom = allocationPlan.getUpgradedEconomyGuests()
+				+ allocationPlan.getEconomyGuests();
+
+		TopOffersSelector.selectLargest(economy, 0, economy.length, numberOfEconomyGuestsWithRoom);
+		TopOffersSelector.selectLargest(economy, 0, numberOfEconomyGuestsWithRoom,
+				allocationPlan.getUpgradedEconomyGuests());
+
+		long upgradedEconomyGuestsIncome = TopOffersSelector.sum(economy, 0, allocationPlan.getUpgradedEconomyGuests());
+		long economyGuestsIncome = TopOffersSelector.sum(economy, allocationPlan.getUpgradedEconomyGuests(),
+				numberOfEconomyGuestsWithRoom);
+
+		return new OptimizedRoomOccupancyEntity(
+				new RoomCategoryOccupancyEntity(allocationPlan.getOccupiedPremiumRooms(),
+						toIncome(premiumGuestsIncome + upgradedEconomyGuestsIncome)),
+				new RoomCategoryOccupancyEntity(allocationPlan.getEconomyGuests(), toIncome(economyGuestsIncome)));
+	}
+
+	private static int toIncome(long income) {
+		try {
+			return Math.toIntExact(income);
+		} catch (ArithmeticException ex) {
+			throw new BusinessException(ERROR_INCOME_TOO_BIG);
+		}
+	}
+
+	/**
+	 * Beyond the number of rooms the exact number of guests makes no difference
+	 * to the plan
+	 */
+	private static int toPlanCount(long numberOfGuests) {
+		return (int) Math.min(Integer.MAX_VALUE, numberOfGuests);
+	}
+
+}
@@ -0,0 +1,109 @@
+package com.roomoccupancy.api.core.usecase;
+
+import java.util.Arrays;
+
+/**
+ * Bounded min-heap that keeps only the largest offers added to it, so the best
+ * offers of a stream are known with memory proportional to the number of
+ * rooms, not of guests. The backing array grows on demand up to the capacity.
+ * 
+ * @author luis
+ *
+ */
+final class TopOffersHeap {
+
+	private static final int INITIAL_ARRAY_LENGTH = 16;
+
+	private final int capacity;
+
+	private int[] heap;
+
+	private int size;
+
+	private long sum;
+
+	TopOffersHeap(int capacity) {
+		this.capacity = capacity;
+		this.heap = new int[Math.max(1, Math.min(capacity, INITIAL_ARRAY_LENGTH))];
+	}
+
+	/**
+	 * Adds the offer, if it is among the largest ones
+	 * 
+	 * @return true if the offer was kept
+	 */
+	boolean add(int offer) {
+		if (size < capacity) {
+			if (size == heap.length) {
+				heap = Arrays.copyOf(heap, (int) Math.min(capacity, heap.length * 2L));
+			}
+
+			sum += offer;
+			heap[size] = offer;
+			siftUp(size++);
+			return true;
+		}
+
+		if (capacity > 0 && offer > heap[0]) {
+			sum += offer - heap[0];
+			heap[0] = offer;
+			siftDown(0);
+			return true;
+		}
+
+		return false;
+	}
+
+	int size() {
+		return size;
+	}
+
+	/**
+	 * @return Sum of the kept offers
+	 */
+	long sum() {
+		return sum;
+	}
+
+	/**
+	 * @return Copy of the kept offers, in no particular order
+	 */
+	int[] toArray() {
+		return Arrays.copyOf(heap, size);
+	}
+
+	private void siftUp(int index) {
+		int offer = heap[index];
+
+		while (index > 0) {
+			int parent = (index - 1) >>> 1;
+			if (heap[parent] <= offer) {
+				break;
+			}
+			heap[index] = heap[parent];
+			index = parent;
+		}
+
+		heap[index] = offer;
+	}
+
+	private void siftDown(int index) {
+		int offer = heap[index];
+		int half = size >>> 1;
+
+		while (index < half) {
+			int child = 2 * index + 1;
+			if (child + 1 < size && heap[child + 1] < heap[child]) {
+				child++;
+			}
+			if (offer <= heap[child]) {
+				break;
+			}
+			heap[index] = heap[child];
+			index = child;
+		}
+
+		heap[index] = offer;
+	}
+
+}
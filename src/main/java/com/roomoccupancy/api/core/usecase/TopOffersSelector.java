@@ -0,0 +1,96 @@
+package com.roomoccupancy.api.core.usecase;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * In place partition and selection routines over primitive offer arrays. They
+ * let the allocation logic find the best offers of each category in expected
+ * linear time, instead of fully sorting the potential guests.
+ * 
+ * @author luis
+ *
+ */
+final class TopOffersSelector {
+
+	private TopOffersSelector() {
+	}
+
+	/**
+	 * Moves every offer greater or equal to the threshold to the beginning of the
+	 * range
+	 * 
+	 * @return Index of the first offer lower than the threshold
+	 */
+	static int partitionAtLeast(int[] offers, int from, int to, int threshold) {
+		int left = from;
+		int right = to - 1;
+
+		while (left <= right) {
+			if (offers[left] >= threshold) {
+				left++;
+			} else {
+				swap(offers, left, right--);
+			}
+		}
+
+		return left;
+	}
+
+	/**
+	 * Rearranges the range so its first {@code k} positions hold its {@code k}
+	 * largest offers, in no particular order
+	 */
+	static void selectLargest(int[] offers, int from, int to, int k) {
+		if (k <= 0 || k >= to - from) {
+			return;
+		}
+
+		int target = from + k;
+		int left = from;
+		int right = to - 1;
+
+		while (left < right) {
+			int pivot = offers[left + ThreadLocalRandom.current().nextInt(right - left + 1)];
+
+			// Three-way partition: [greater | equal | lower]
+			int lt = left;
+			int gt = right;
+			int i = left;
+
+			while (i <= gt) {
+				if (offers[i] > pivot) {
+					swap(offers, lt++, i++);
+				} else if (offers[i] < pivot) {
+					swap(offers, i, gt--);
+				} else {
+					i++;
+				}
+			}
+
+			if (target <= lt) {
+				right = lt - 1;
+			} else if (target > gt + 1) {
+				left = gt + 1;
+			} else {
+				return;
+			}
+		}
+	}
+
+	static long sum(int[] offers, int from, int to) {
+		long sum = 0;
+
+		for (int i = from; i < to; i++) {
+			sum += offers[i];
+		}
+
+		return sum;
+	}
+
+	private static void swap(int[] offers, int i, int j) {
+		int offer = offers[i];
+		offers[i] = offers[j];
+		offers[j] = offer;
+	}
+
+}
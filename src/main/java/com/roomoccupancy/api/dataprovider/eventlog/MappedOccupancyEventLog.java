@@ -0,0 +1,774 @@
+package com.roomoccupancy.api.dataprovider.eventlog;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.roomoccupancy.api.core.entity.CategoryOccupancyEntity;
+import com.roomoccupancy.api.core.entity.HotelInventoryEntity;
+import com.roomoccupancy.api.core.entity.HotelInventoryEventEntity;
+import com.roomoccupancy.api.core.entity.OptimizedRoomOccupancyEntity;
+import com.roomoccupancy.api.core.entity.RoomCategoryEntity;
+import com.roomoccupancy.api.core.entity.RoomCategoryOccupancyEntity;
+import com.roomoccupancy.api.core.gateway.OccupancyEventGateway;
+import com.roomoccupancy.api.core.usecase.GuestOffers;
+import com.roomoccupancy.api.core.usecase.OptimizedRoomOccupancyKey;
+
+/**
+ * Append-only event log in memory mapped segment files of the
+ * {@code roomoccupancy.event-log.directory}. An append reserves the space of
+ * its record by compare-and-set on the end of the log, and then only copies
+ * the record into the mapped segment, which is the page cache, so appends
+ * never wait on each other, and survive a crash of the process at once. A
+ * committer thread forces the appended pages to the disk every
+ * {@code commit-interval-millis}, all the complete records of the interval in
+ * a single group commit. With {@code sync} the appends also wait for their
+ * group commit, to survive a crash of the machine.
+ * <p>
+ * Every {@code snapshot-interval-seconds} the inventories are written to a
+ * snapshot, with the position of the log that they include, so the recovery
+ * only replays the records appended after it, and the segments before it,
+ * except the last {@code retained-segments}, are deleted. Each record is
+ * framed by its length and CRC32, and the recovery stops at the first torn
+ * one.
+ * <p>
+ * The length of a record is written last, with a release write, so a record
+ * with a length is complete. An append that fails after its reservation
+ * leaves a padding record in its place, that the commits and the recovery
+ * step over. The release writes need Java 9 or newer.
+ * 
+ * @author luis
+ *
+ */
+@Component
+@ConditionalOnProperty(name = "roomoccupancy.event-log.directory")
+public class MappedOccupancyEventLog implements OccupancyEventGateway {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(MappedOccupancyEventLog.class);
+
+	static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+	static final String SNAPSHOT_FILE_NAME = "snapshot.bin";
+
+	private static final String SEGMENT_FILE_PREFIX = "events-";
+
+	private static final String SEGMENT_FILE_SUFFIX = ".log";
+
+	private static final int SNAPSHOT_MAGIC = 0x524F4F4D;
+
+	private static final int SNAPSHOT_FORMAT = 1;
+
+	/**
+	 * Length and CRC32 of the payload
+	 */
+	private static final int RECORD_HEADER_SIZE = 2 * Integer.BYTES;
+
+	/**
+	 * The records are aligned for the release writes of their lengths
+	 */
+	private static final int RECORD_ALIGNMENT = Integer.BYTES;
+
+	private static final String ERROR_NO_RELEASE_WRITES = "The event log needs Java 9 or newer.";
+
+	private static final byte OPTIMIZATION_RECORD = 1;
+
+	private static final byte INVENTORY_RECORD = 2;
+
+	private static final byte CATEGORY_OPTIMIZATION_RECORD = 3;
+
+	private static final byte PADDING_RECORD = 4;
+
+	private static final int OPTIMIZATION_RECORD_SIZE = 1 + Long.BYTES + 4 * Integer.BYTES + 2 * Long.BYTES
+			+ 4 * Integer.BYTES;
+
+	private final Path directory;
+
+	private final int segmentSize;
+
+	private final long commitIntervalMillis;
+
+	private final long snapshotIntervalMillis;
+
+	private final boolean sync;
+
+	private final int retainedSegments;
+
+	private final Object commitMonitor = new Object();
+
+	private RecoverableState state = RecoverableState.NONE;
+
+	private Thread committer;
+
+	/**
+	 * Position of the log where the next record goes
+	 */
+	private final AtomicLong reservedPosition = new AtomicLong();
+
+	/**
+	 * Mapped segments that are still written, or not forced yet
+	 */
+	private final ConcurrentMap<Long, Segment> segments = new ConcurrentHashMap<>();
+
+	/**
+	 * Size of the reservations whose append failed, by position, for the
+	 * committer to pad them
+	 */
+	private final ConcurrentMap<Long, Integer> abortedRecords = new ConcurrentHashMap<>();
+
+	/**
+	 * Position up to which every reserved record is written. Only the committer
+	 * reads the records to move it.
+	 */
+	private long completePosition;
+
+	private long committedPosition;
+
+	private boolean commitRequested;
+
+	private volatile boolean closed = true;
+
+	@Autowired
+	public MappedOccupancyEventLog(@Value("${roomoccupancy.event-log.directory}") String directory,
+			@Value("${roomoccupancy.event-log.segment-size:" + DEFAULT_SEGMENT_SIZE + "}") int segmentSize,
+			@Value("${roomoccupancy.event-log.commit-interval-millis:10}") long commitIntervalMillis,
+			@Value("${roomoccupancy.event-log.snapshot-interval-seconds:60}") long snapshotIntervalSeconds,
+			@Value("${roomoccupancy.event-log.sync:false}") boolean sync,
+			@Value("${roomoccupancy.event-log.retained-segments:0}") int retainedSegments) {
+		if (!OrderedInts.isAvailable()) {
+			throw new IllegalStateException(ERROR_NO_RELEASE_WRITES);
+		}
+
+		this.directory = Paths.get(directory).toAbsolutePath().normalize();
+		this.segmentSize = segmentSize;
+		this.commitIntervalMillis = commitIntervalMillis;
+		this.snapshotIntervalMillis = TimeUnit.SECONDS.toMillis(snapshotIntervalSeconds);
+		this.sync = sync;
+		this.retainedSegments = retainedSegments;
+	}
+
+	@Override
+	public void appendOptimization(OptimizedRoomOccupancyKey key, OptimizedRoomOccupancyEntity optimizedOccupancy) {
+		ByteBuffer payload = ByteBuffer.allocate(OPTIMIZATION_RECORD_SIZE);
+
+		payload.put(OPTIMIZATION_RECORD).putLong(System.currentTimeMillis());
+		payload.putInt(key.getNumberOfFreePremiumRooms()).putInt(key.getNumberOfFreeEconomyRooms())
+				.putInt(key.getPremiumRoomMinimumNightValue()).putInt(key.getNumberOfPotentialGuests());
+		payload.putLong(key.getFingerprint()).putLong(key.getSecondFingerprint());
+		putOccupancy(payload, optimizedOccupancy.getPremiumOccupancy());
+		putOccupancy(payload, optimizedOccupancy.getEconomyOccupancy());
+
+		append(payload.array());
+	}
+
+	@Override
+	public void appendCategoryOptimization(List<RoomCategoryEntity> roomCategories, GuestOffers guestOffers,
+			List<CategoryOccupancyEntity> categoryOccupancies) {
+		ByteBuffer payload = ByteBuffer.allocate(1 + Long.BYTES + Integer.BYTES + 2 * Long.BYTES + Integer.BYTES
+				+ 4 * Integer.BYTES * roomCategories.size());
+
+		payload.put(CATEGORY_OPTIMIZATION_RECORD).putLong(System.currentTimeMillis());
+		payload.putInt(guestOffers.size()).putLong(guestOffers.getFingerprint())
+				.putLong(guestOffers.getSecondFingerprint());
+		payload.putInt(roomCategories.size());
+		for (int category = 0; category < roomCategories.size(); category++) {
+			payload.putInt(roomCategories.get(category).getMinimumNightValue())
+					.putInt(roomCategories.get(category).getFreeRooms());
+			payload.putInt(categoryOccupancies.get(category).getNumberOfOccupiedRooms())
+					.putInt(categoryOccupancies.get(category).getGeneratedIncome());
+		}
+
+		append(payload.array());
+	}
+
+	@Override
+	public void appendInventory(HotelInventoryEventEntity inventoryEvent) {
+		byte[] hotelId = inventoryEvent.getInventory().getHotelId().getBytes(StandardCharsets.UTF_8);
+		ByteBuffer payload = ByteBuffer.allocate(1 + Long.BYTES + 1 + 3 * Integer.BYTES + Short.BYTES + hotelId.length);
+
+		payload.put(INVENTORY_RECORD);
+		putInventory(payload, inventoryEvent, hotelId);
+
+		append(payload.array());
+	}
+
+	@Override
+	public void recover(RecoverableState state) throws IOException {
+		Files.createDirectories(directory);
+
+		long[] snapshotPosition = readSnapshot(state);
+		List<Long> segmentIndexes = listSegmentIndexes();
+
+		long recoveredPosition = snapshotPosition[0] * segmentSize + snapshotPosition[1];
+
+		for (long index : segmentIndexes) {
+			if (index < snapshotPosition[0]) {
+				continue;
+			}
+
+			boolean lastSegment = index == segmentIndexes.get(segmentIndexes.size() - 1);
+			MappedByteBuffer mappedSegment = map(index);
+
+			recoveredPosition = index * segmentSize + replay(mappedSegment,
+					index == snapshotPosition[0] ? (int) snapshotPosition[1] : 0, state, lastSegment);
+
+			if (lastSegment) {
+				segments.put(index, new Segment(mappedSegment));
+			}
+		}
+
+		reservedPosition.set(recoveredPosition);
+		completePosition = recoveredPosition;
+		synchronized (commitMonitor) {
+			committedPosition = recoveredPosition;
+		}
+
+		this.state = state;
+		closed = false;
+		committer = new Thread(this::runCommitter, "occupancy-event-log-committer");
+		committer.setDaemon(true);
+		committer.start();
+	}
+
+	/**
+	 * Commits the last records and takes a last snapshot
+	 */
+	@PreDestroy
+	public void close() throws IOException {
+		if (closed || Objects.isNull(committer)) {
+			return;
+		}
+
+		stopCommitter();
+
+		commit();
+		takeSnapshot();
+	}
+
+	/**
+	 * Stops the appends and the committer thread
+	 */
+	void stopCommitter() {
+		closed = true;
+
+		synchronized (commitMonitor) {
+			commitMonitor.notifyAll();
+		}
+
+		try {
+			committer.join();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void append(byte[] payload) {
+		if (closed) {
+			throw new IllegalStateException("The event log is not open.");
+		}
+
+		int recordSize = getRecordSize(payload.length);
+		if (recordSize > segmentSize) {
+			throw new IllegalStateException("The event record is bigger than a segment.");
+		}
+
+		CRC32 crc = new CRC32();
+		crc.update(payload, 0, payload.length);
+
+		long recordPosition = reserve(recordSize);
+		try {
+			write(recordPosition, payload, (int) crc.getValue());
+		} catch (RuntimeException ex) {
+			abortedRecords.put(recordPosition, recordSize);
+			throw ex;
+		}
+
+		if (sync) {
+			awaitCommit(recordPosition + recordSize);
+		}
+	}
+
+	/**
+	 * Writes the record into its segment, the length last
+	 */
+	private void write(long recordPosition, byte[] payload, int crc) {
+		Segment recordSegment = getSegment(recordPosition / segmentSize);
+		int offset = (int) (recordPosition % segmentSize);
+
+		ByteBuffer record = recordSegment.buffer.duplicate();
+		record.putInt(offset + Integer.BYTES, crc);
+		record.position(offset + RECORD_HEADER_SIZE);
+		record.put(payload);
+
+		OrderedInts.setRelease(recordSegment.buffer, offset, payload.length);
+	}
+
+	/**
+	 * @return Size of the record of the payload, its header and its alignment
+	 */
+	private static int getRecordSize(int payloadLength) {
+		return (RECORD_HEADER_SIZE + payloadLength + RECORD_ALIGNMENT - 1) & -RECORD_ALIGNMENT;
+	}
+
+	/**
+	 * Moves the end of the log past the record. A record that does not fit in
+	 * the rest of its segment goes to the start of the next one, and the rest is
+	 * left empty.
+	 * 
+	 * @return Position of the record
+	 */
+	private long reserve(int recordSize) {
+		while (true) {
+			long recordPosition = reservedPosition.get();
+			int offset = (int) (recordPosition % segmentSize);
+
+			if (offset + recordSize <= segmentSize) {
+				if (reservedPosition.compareAndSet(recordPosition, recordPosition + recordSize)) {
+					return recordPosition;
+				}
+			} else {
+				long nextSegmentPosition = recordPosition - offset + segmentSize;
+
+				if (reservedPosition.compareAndSet(recordPosition, nextSegmentPosition + recordSize)) {
+					try {
+						getSegment(recordPosition / segmentSize).end = offset;
+					} catch (RuntimeException ex) {
+						abortedRecords.put(recordPosition, segmentSize - offset);
+						abortedRecords.put(nextSegmentPosition, recordSize);
+						throw ex;
+					}
+					return nextSegmentPosition;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Maps the segment on its first record
+	 */
+	private Segment getSegment(long index) {
+		return segments.computeIfAbsent(index, segmentIndex -> {
+			try {
+				return new Segment(map(segmentIndex));
+			} catch (IOException ex) {
+				throw new IllegalStateException(ex);
+			}
+		});
+	}
+
+	private void awaitCommit(long appendedPosition) {
+		synchronized (commitMonitor) {
+			commitRequested = true;
+			commitMonitor.notifyAll();
+
+			while (committedPosition < appendedPosition && !closed) {
+				try {
+					commitMonitor.wait();
+				} catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
+	}
+
+	private void runCommitter() {
+		long nextSnapshot = System.currentTimeMillis() + snapshotIntervalMillis;
+
+		while (!closed) {
+			synchronized (commitMonitor) {
+				if (!commitRequested && !closed) {
+					try {
+						commitMonitor.wait(commitIntervalMillis);
+					} catch (InterruptedException ex) {
+						return;
+					}
+				}
+				commitRequested = false;
+			}
+
+			commit();
+
+			if (System.currentTimeMillis() >= nextSnapshot && !closed) {
+				try {
+					takeSnapshot();
+				} catch (IOException | RuntimeException ex) {
+					LOGGER.warn("The occupancy snapshot could not be written, the next recovery replays more events",
+							ex);
+				}
+				nextSnapshot = System.currentTimeMillis() + snapshotIntervalMillis;
+			}
+		}
+	}
+
+	/**
+	 * Forces every record completed so far, in one group commit
+	 */
+	private void commit() {
+		List<Long> filledSegments = new ArrayList<>();
+		long appendedPosition = findCompletePosition(filledSegments);
+
+		synchronized (commitMonitor) {
+			if (appendedPosition <= committedPosition) {
+				return;
+			}
+		}
+
+		for (Long index : filledSegments) {
+			segments.get(index).buffer.force();
+		}
+
+		Segment currentSegment = segments.get(appendedPosition / segmentSize);
+		if (Objects.nonNull(currentSegment)) {
+			currentSegment.buffer.force();
+		}
+
+		// Nothing is written to the filled segments anymore
+		filledSegments.forEach(segments::remove);
+
+		synchronized (commitMonitor) {
+			committedPosition = appendedPosition;
+			commitMonitor.notifyAll();
+		}
+	}
+
+	/**
+	 * Moves the complete position over the records written since the last
+	 * commit, up to the first one that is still being written. The records
+	 * written after it wait for the next commit. The aborted records are padded
+	 * on the way.
+	 * 
+	 * @param filledSegments
+	 *            Receives the segments moved past
+	 * @return The new complete position
+	 */
+	private long findCompletePosition(List<Long> filledSegments) {
+		long reserved = reservedPosition.get();
+
+		while (completePosition < reserved) {
+			long index = completePosition / segmentSize;
+			int offset = (int) (completePosition % segmentSize);
+			Integer abortedSize = abortedRecords.get(completePosition);
+
+			if (Objects.nonNull(abortedSize)) {
+				if (!pad(completePosition, abortedSize)) {
+					break;
+				}
+				abortedRecords.remove(completePosition);
+				completePosition += abortedSize;
+			} else {
+				Segment currentSegment = segments.get(index);
+
+				if (Objects.isNull(currentSegment)) {
+					break;
+				}
+
+				if (offset == currentSegment.end) {
+					completePosition = (index + 1) * segmentSize;
+				} else {
+					int length = OrderedInts.getAcquire(currentSegment.buffer, offset);
+					if (length == 0) {
+						break;
+					}
+					completePosition += getRecordSize(length);
+				}
+			}
+
+			if (completePosition % segmentSize == 0) {
+				filledSegments.add(index);
+			}
+		}
+
+		return completePosition;
+	}
+
+	/**
+	 * Fills an aborted record with a padding record, that the recovery skips. The
+	 * rest of a segment needs none, since the recovery of a segment stops at its
+	 * first empty record anyway.
+	 * 
+	 * @return Whether the record is padded, false if its segment could not be
+	 *         mapped yet
+	 */
+	private boolean pad(long recordPosition, int recordSize) {
+		if ((recordPosition + recordSize) % segmentSize == 0) {
+			return true;
+		}
+
+		byte[] payload = new byte[recordSize - RECORD_HEADER_SIZE];
+		payload[0] = PADDING_RECORD;
+
+		CRC32 crc = new CRC32();
+		crc.update(payload, 0, payload.length);
+
+		try {
+			write(recordPosition, payload, (int) crc.getValue());
+			return true;
+		} catch (RuntimeException ex) {
+			LOGGER.warn("An aborted event record could not be padded, the commits wait for it", ex);
+			return false;
+		}
+	}
+
+	/**
+	 * Writes the inventories, and the position of the log that they include, to
+	 * a new snapshot that replaces the last one atomically
+	 */
+	void takeSnapshot() throws IOException {
+		long reserved = reservedPosition.get();
+		long snapshotSegmentIndex = reserved / segmentSize;
+		int snapshotPosition = (int) (reserved % segmentSize);
+
+		Collection<HotelInventoryEventEntity> inventories = state.getInventories();
+
+		ByteArrayOutputStream content = new ByteArrayOutputStream(64 + inventories.size() * 48);
+		DataOutputStream output = new DataOutputStream(content);
+		output.writeInt(SNAPSHOT_MAGIC);
+		output.writeInt(SNAPSHOT_FORMAT);
+		output.writeLong(snapshotSegmentIndex);
+		output.writeInt(snapshotPosition);
+		output.writeInt(inventories.size());
+
+		for (HotelInventoryEventEntity inventoryEvent : inventories) {
+			byte[] hotelId = inventoryEvent.getInventory().getHotelId().getBytes(StandardCharsets.UTF_8);
+			ByteBuffer inventory = ByteBuffer.allocate(Long.BYTES + 1 + 3 * Integer.BYTES + Short.BYTES + hotelId.length);
+			putInventory(inventory, inventoryEvent, hotelId);
+			output.write(inventory.array());
+		}
+
+		CRC32 crc = new CRC32();
+		crc.update(content.toByteArray(), 0, content.size());
+		output.writeInt((int) crc.getValue());
+
+		Path temporarySnapshot = directory.resolve(SNAPSHOT_FILE_NAME + ".tmp");
+		try (FileChannel channel = FileChannel.open(temporarySnapshot, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer bytes = ByteBuffer.wrap(content.toByteArray());
+			while (bytes.hasRemaining()) {
+				channel.write(bytes);
+			}
+			channel.force(true);
+		}
+		Files.move(temporarySnapshot, directory.resolve(SNAPSHOT_FILE_NAME), StandardCopyOption.ATOMIC_MOVE,
+				StandardCopyOption.REPLACE_EXISTING);
+
+		state.onSnapshot(inventories);
+
+		deleteSegmentsBefore(snapshotSegmentIndex);
+	}
+
+	/**
+	 * Deletes the segments that the snapshot makes useless to the recovery,
+	 * except the last {@code retainedSegments} of them, kept as an audit trail
+	 * of the optimizations. None is deleted with a negative retention.
+	 */
+	private void deleteSegmentsBefore(long snapshotSegmentIndex) throws IOException {
+		if (retainedSegments < 0) {
+			return;
+		}
+
+		long committedSegmentIndex;
+		synchronized (commitMonitor) {
+			committedSegmentIndex = committedPosition / segmentSize;
+		}
+
+		long firstRetainedIndex = Math.min(snapshotSegmentIndex, committedSegmentIndex) - retainedSegments;
+
+		for (long index : listSegmentIndexes()) {
+			if (index < firstRetainedIndex && !segments.containsKey(index)) {
+				Files.deleteIfExists(directory.resolve(getSegmentFileName(index)));
+			}
+		}
+	}
+
+	/**
+	 * @return The segment and the position in it that the snapshot includes,
+	 *         the start of the log without a valid snapshot
+	 */
+	private long[] readSnapshot(RecoverableState state) throws IOException {
+		Path snapshotFile = directory.resolve(SNAPSHOT_FILE_NAME);
+		if (!Files.isRegularFile(snapshotFile)) {
+			return new long[] { 0, 0 };
+		}
+
+		ByteBuffer snapshot = ByteBuffer.wrap(Files.readAllBytes(snapshotFile));
+
+		CRC32 crc = new CRC32();
+		crc.update(snapshot.array(), 0, Math.max(0, snapshot.limit() - Integer.BYTES));
+		if (snapshot.limit() < 24 + Integer.BYTES || snapshot.getInt(0) != SNAPSHOT_MAGIC
+				|| snapshot.getInt(snapshot.limit() - Integer.BYTES) != (int) crc.getValue()) {
+			throw new IOException("The occupancy snapshot " + snapshotFile + " is corrupt.");
+		}
+
+		snapshot.position(2 * Integer.BYTES);
+		long snapshotSegmentIndex = snapshot.getLong();
+		int snapshotPosition = snapshot.getInt();
+		int numberOfInventories = snapshot.getInt();
+
+		for (int i = 0; i < numberOfInventories; i++) {
+			state.onInventory(getInventory(snapshot));
+		}
+
+		return new long[] { snapshotSegmentIndex, snapshotPosition };
+	}
+
+	/**
+	 * Replays the records of a segment, from the position on
+	 * 
+	 * @return Position after the last valid record
+	 */
+	private int replay(MappedByteBuffer mappedSegment, int from, RecoverableState state, boolean lastSegment) {
+		int replayPosition = from;
+		CRC32 crc = new CRC32();
+
+		while (replayPosition + RECORD_HEADER_SIZE <= segmentSize) {
+			int length = mappedSegment.getInt(replayPosition);
+			if (length == 0) {
+				return replayPosition;
+			}
+
+			if (length < 0 || replayPosition + RECORD_HEADER_SIZE + length > segmentSize) {
+				break;
+			}
+
+			byte[] payload = new byte[length];
+			mappedSegment.position(replayPosition + RECORD_HEADER_SIZE);
+			mappedSegment.get(payload);
+
+			crc.reset();
+			crc.update(payload, 0, length);
+			if (mappedSegment.getInt(replayPosition + Integer.BYTES) != (int) crc.getValue()) {
+				break;
+			}
+
+			dispatch(ByteBuffer.wrap(payload), state);
+			replayPosition += getRecordSize(length);
+		}
+
+		if (lastSegment) {
+			// A torn record, whose bytes must not be taken for the next appends
+			for (int i = replayPosition; i < segmentSize; i++) {
+				mappedSegment.put(i, (byte) 0);
+			}
+		}
+
+		return replayPosition;
+	}
+
+	/**
+	 * The category optimizations are not cached, so their records are only an
+	 * audit trail, skipped by the replay, as the padding records are
+	 */
+	private static void dispatch(ByteBuffer payload, RecoverableState state) {
+		byte type = payload.get();
+
+		if (type == OPTIMIZATION_RECORD) {
+			payload.getLong();
+			OptimizedRoomOccupancyKey key = OptimizedRoomOccupancyKey.of(payload.getInt(), payload.getInt(),
+					payload.getInt(), payload.getInt(), payload.getLong(), payload.getLong());
+			RoomCategoryOccupancyEntity premiumOccupancy = new RoomCategoryOccupancyEntity(payload.getInt(),
+					payload.getInt());
+			RoomCategoryOccupancyEntity economyOccupancy = new RoomCategoryOccupancyEntity(payload.getInt(),
+					payload.getInt());
+
+			state.onOptimization(key, new OptimizedRoomOccupancyEntity(premiumOccupancy, economyOccupancy));
+		} else if (type == INVENTORY_RECORD) {
+			state.onInventory(getInventory(payload));
+		}
+	}
+
+	private static void putOccupancy(ByteBuffer payload, RoomCategoryOccupancyEntity occupancy) {
+		payload.putInt(occupancy.getNumberOfOccupiedRooms()).putInt(occupancy.getGeneratedIncome());
+	}
+
+	private static void putInventory(ByteBuffer payload, HotelInventoryEventEntity inventoryEvent, byte[] hotelId) {
+		HotelInventoryEntity inventory = inventoryEvent.getInventory();
+
+		payload.putLong(inventoryEvent.getVersion()).put((byte) (Boolean.TRUE.equals(inventoryEvent.getDeleted()) ? 1 : 0));
+		payload.putInt(inventory.getFreePremiumRooms()).putInt(inventory.getFreeEconomyRooms())
+				.putInt(inventory.getPremiumMinimumNightValue());
+		payload.putShort((short) hotelId.length).put(hotelId);
+	}
+
+	private static HotelInventoryEventEntity getInventory(ByteBuffer payload) {
+		long version = payload.getLong();
+		boolean deleted = payload.get() == 1;
+		int freePremiumRooms = payload.getInt();
+		int freeEconomyRooms = payload.getInt();
+		int premiumMinimumNightValue = payload.getInt();
+
+		byte[] hotelId = new byte[Short.toUnsignedInt(payload.getShort())];
+		payload.get(hotelId);
+
+		return new HotelInventoryEventEntity(version, deleted, new HotelInventoryEntity(
+				new String(hotelId, StandardCharsets.UTF_8), freePremiumRooms, freeEconomyRooms,
+				premiumMinimumNightValue));
+	}
+
+	private MappedByteBuffer map(long index) throws IOException {
+		try (FileChannel channel = FileChannel.open(directory.resolve(getSegmentFileName(index)),
+				StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			return channel.map(MapMode.READ_WRITE, 0, segmentSize);
+		}
+	}
+
+	private List<Long> listSegmentIndexes() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.map(file -> file.getFileName().toString())
+					.filter(name -> name.startsWith(SEGMENT_FILE_PREFIX) && name.endsWith(SEGMENT_FILE_SUFFIX))
+					.map(name -> Long.valueOf(name.substring(SEGMENT_FILE_PREFIX.length(),
+							name.length() - SEGMENT_FILE_SUFFIX.length())))
+					.sorted().collect(Collectors.toList());
+		}
+	}
+
+	static String getSegmentFileName(long index) {
+		return String.format("%s%020d%s", SEGMENT_FILE_PREFIX, index, SEGMENT_FILE_SUFFIX);
+	}
+
+	private static final class Segment {
+
+		private final MappedByteBuffer buffer;
+
+		/**
+		 * Offset where the records of the segment end, set when a record does not
+		 * fit after it. -1 while unknown.
+		 */
+		private volatile int end = -1;
+
+		private Segment(MappedByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+	}
+
+}
@@ -0,0 +1,82 @@
+package com.roomoccupancy.api.dataprovider.eventlog;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Objects;
+
+/**
+ * Release writes and acquire reads of the big-endian integers of a buffer, by
+ * the byte buffer view var handles, that are available only from Java 9, while
+ * the API is still built for Java 8. The integers must be aligned to their
+ * size.
+ *
+ * @author luis
+ *
+ */
+final class OrderedInts {
+
+	private static final MethodHandle SET_RELEASE;
+
+	private static final MethodHandle GET_ACQUIRE;
+
+	static {
+		MethodHandle setRelease = null;
+		MethodHandle getAcquire = null;
+
+		try {
+			Object varHandle = MethodHandles.class.getMethod("byteBufferViewVarHandle", Class.class, ByteOrder.class)
+					.invoke(null, int[].class, ByteOrder.BIG_ENDIAN);
+			Class<?> accessMode = Class.forName("java.lang.invoke.VarHandle$AccessMode");
+			Method toMethodHandle = Class.forName("java.lang.invoke.VarHandle").getMethod("toMethodHandle",
+					accessMode);
+
+			setRelease = (MethodHandle) toMethodHandle.invoke(varHandle, accessMode.getField("SET_RELEASE").get(null));
+			getAcquire = (MethodHandle) toMethodHandle.invoke(varHandle, accessMode.getField("GET_ACQUIRE").get(null));
+		} catch (ReflectiveOperationException e) {
+			// Absent before Java 9
+		}
+
+		SET_RELEASE = setRelease;
+		GET_ACQUIRE = getAcquire;
+	}
+
+	private OrderedInts() {
+	}
+
+	/**
+	 * @return Whether the running JVM has the var handles
+	 */
+	static boolean isAvailable() {
+		return Objects.nonNull(SET_RELEASE);
+	}
+
+	/**
+	 * Writes the integer after every write before it
+	 */
+	static void setRelease(ByteBuffer buffer, int index, int value) {
+		try {
+			SET_RELEASE.invokeExact(buffer, index, value);
+		} catch (RuntimeException | Error ex) {
+			throw ex;
+		} catch (Throwable ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	/**
+	 * Reads the integer before every read after it
+	 */
+	static int getAcquire(ByteBuffer buffer, int index) {
+		try {
+			return (int) GET_ACQUIRE.invokeExact(buffer, index);
+		} catch (RuntimeException | Error ex) {
+			throw ex;
+		} catch (Throwable ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+}
@@ -0,0 +1,238 @@
+package com.roomoccupancy.api.dataprovider.file;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.function.Consumer;
+
+import com.roomoccupancy.api.core.exception.BusinessException;
+
+/**
+ * Parses CSV offers straight from the bytes of a file, without decoding them
+ * into {@code String}s. The offers are separated by commas or line breaks,
+ * blanks around them and empty fields are ignored, and a first line with a
+ * field that is not a number is a header. A first line of signed or decimal
+ * numbers is not a header, so it fails as any invalid offer. The file may be
+ * fed in consecutive buffers, as an offer, or the byte order mark, may be split
+ * between two of them, and the parsed offers are handed in batches of a reused
+ * array, so the memory is constant.
+ * 
+ * @author luis
+ *
+ */
+final class CsvOffersParser {
+
+	private static final String ERROR_INVALID_CSV_OFFERS = "The offers file must contain only positive Integers separated by commas or line breaks.";
+
+	static final int DEFAULT_BATCH_SIZE = 16 * 1024;
+
+	/**
+	 * A longer first line is not a header, so its bytes are parsed as offers
+	 */
+	static final int MAX_HEADER_LENGTH = 4096;
+
+	/**
+	 * The UTF-8 byte order mark, written by some spreadsheet exports
+	 */
+	private static final byte[] BYTE_ORDER_MARK = { (byte) 0xEF, (byte) 0xBB, (byte) 0xBF };
+
+	private static final int NOT_STARTED = 0;
+
+	private static final int IN_FIRST_LINE = 1;
+
+	private static final int IN_HEADER = 2;
+
+	private static final int IN_OFFERS = 3;
+
+	private final Consumer<IntBuffer> offersConsumer;
+
+	private final int[] batch;
+
+	private final IntBuffer batchBuffer;
+
+	/**
+	 * Bytes of the first line, kept until it is known whether it is a header
+	 */
+	private final ByteBuffer firstLine = ByteBuffer.allocate(MAX_HEADER_LENGTH);
+
+	/**
+	 * Leading bytes of the byte order mark read so far, as it may be split
+	 * between buffers
+	 */
+	private int byteOrderMarkLength;
+
+	private int batchSize;
+
+	private int state = NOT_STARTED;
+
+	private long offer;
+
+	private boolean inOffer;
+
+	private boolean offerEnded;
+
+	CsvOffersParser(Consumer<IntBuffer> offersConsumer) {
+		this(offersConsumer, DEFAULT_BATCH_SIZE);
+	}
+
+	CsvOffersParser(Consumer<IntBuffer> offersConsumer, int batchSize) {
+		this.offersConsumer = offersConsumer;
+		this.batch = new int[batchSize];
+		this.batchBuffer = IntBuffer.wrap(batch);
+	}
+
+	/**
+	 * Parses the remaining bytes of the buffer, without changing its position
+	 */
+	void parse(ByteBuffer bytes) {
+		int i = bytes.position();
+		int limit = bytes.limit();
+
+		if (state == NOT_STARTED) {
+			i = skipByteOrderMark(bytes, i, limit);
+			if (i == limit && byteOrderMarkLength < BYTE_ORDER_MARK.length) {
+				return;
+			}
+			// Part of a byte order mark is not a number, so it starts a header
+			state = byteOrderMarkLength == 0 || byteOrderMarkLength == BYTE_ORDER_MARK.length ? IN_FIRST_LINE
+					: IN_HEADER;
+		}
+
+		if (state == IN_FIRST_LINE) {
+			i = parseFirstLine(bytes, i, limit);
+		}
+
+		if (state == IN_HEADER) {
+			while (i < limit && bytes.get(i) != '\n') {
+				i++;
+			}
+			if (i == limit) {
+				return;
+			}
+			state = IN_OFFERS;
+		}
+
+		for (; i < limit; i++) {
+			parse(bytes.get(i));
+		}
+	}
+
+	/**
+	 * Hands the last offer and batch to the consumer, at the end of the file
+	 */
+	void finish() {
+		if (state == IN_FIRST_LINE) {
+			parseKeptFirstLine();
+		}
+
+		endOffer();
+
+		if (batchSize > 0) {
+			flush();
+		}
+	}
+
+	private void parse(byte character) {
+		if (character >= '0' && character <= '9') {
+			if (offerEnded) {
+				throw new BusinessException(ERROR_INVALID_CSV_OFFERS);
+			}
+
+			offer = offer * 10 + (character - '0');
+			inOffer = true;
+
+			if (offer > Integer.MAX_VALUE) {
+				throw new BusinessException(ERROR_INVALID_CSV_OFFERS);
+			}
+		} else if (character == ',' || character == '\n' || character == '\r') {
+			endOffer();
+		} else if (character == ' ' || character == '\t') {
+			offerEnded = inOffer;
+		} else {
+			throw new BusinessException(ERROR_INVALID_CSV_OFFERS);
+		}
+	}
+
+	private void endOffer() {
+		if (inOffer) {
+			batch[batchSize++] = (int) offer;
+
+			if (batchSize == batch.length) {
+				flush();
+			}
+		}
+
+		offer = 0;
+		inOffer = false;
+		offerEnded = false;
+	}
+
+	private void flush() {
+		batchBuffer.clear().limit(batchSize);
+		offersConsumer.accept(batchBuffer);
+		batchSize = 0;
+	}
+
+	/**
+	 * Keeps the bytes of the first line until a field that is not a number makes
+	 * it a header, or the line ends and its offers are parsed
+	 * 
+	 * @return Index of the first byte not yet parsed
+	 */
+	private int parseFirstLine(ByteBuffer bytes, int from, int limit) {
+		for (int i = from; i < limit; i++) {
+			byte character = bytes.get(i);
+
+			if (!isNumberCharacter(character)) {
+				firstLine.clear();
+				state = IN_HEADER;
+				return i;
+			}
+
+			if (character == '\n' || !firstLine.hasRemaining()) {
+				parseKeptFirstLine();
+				state = IN_OFFERS;
+				return i;
+			}
+
+			firstLine.put(character);
+		}
+
+		return limit;
+	}
+
+	private void parseKeptFirstLine() {
+		for (int i = 0; i < firstLine.position(); i++) {
+			parse(firstLine.get(i));
+		}
+
+		firstLine.clear();
+	}
+
+	/**
+	 * The characters of the separators and of any number, even the invalid
+	 * offers, as the signed and the decimal ones
+	 */
+	private static boolean isNumberCharacter(byte character) {
+		return (character >= '0' && character <= '9') || character == ',' || character == '\n'
+				|| character == '\r' || character == ' ' || character == '\t' || character == '-'
+				|| character == '+' || character == '.';
+	}
+
+	/**
+	 * Skips the bytes that go on with the byte order mark read so far
+	 * 
+	 * @return Index of the first byte that is not part of the byte order mark
+	 */
+	private int skipByteOrderMark(ByteBuffer bytes, int from, int limit) {
+		int i = from;
+
+		while (i < limit && byteOrderMarkLength < BYTE_ORDER_MARK.length
+				&& bytes.get(i) == BYTE_ORDER_MARK[byteOrderMarkLength]) {
+			byteOrderMarkLength++;
+			i++;
+		}
+
+		return i;
+	}
+
+}
@@ -0,0 +1,141 @@
+package com.roomoccupancy.api.dataprovider.file;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.roomoccupancy.api.core.entity.OffersFileFormat;
+import com.roomoccupancy.api.core.exception.BusinessException;
+import com.roomoccupancy.api.core.gateway.GuestOffersFileGateway;
+
+/**
+ * Keeps the offers files in a local directory, and reads them through memory
+ * mapped regions, as a single mapping is limited to 2GB. The binary offers are
+ * read through {@link IntBuffer} views of the regions, so they are never
+ * copied to the heap, and the CSV offers are parsed straight from their bytes.
+ * 
+ * @author luis
+ *
+ */
+@Component
+public class MappedGuestOffersFileGateway implements GuestOffersFileGateway {
+
+	private static final String ERROR_OFFERS_FILE_NOT_FOUND = "The offers file was not found.";
+
+	private static final String ERROR_INVALID_OFFERS_FILE = "The offers file must contain only 32-bit Integers.";
+
+	/**
+	 * Small enough to be mapped by any JVM, and a multiple of the offer size
+	 */
+	static final long DEFAULT_REGION_SIZE = 64L * 1024 * 1024;
+
+	private final Path offersDirectory;
+
+	private final long regionSize;
+
+	@Autowired
+	public MappedGuestOffersFileGateway(
+			@Value("${roomoccupancy.offers-files.directory:${java.io.tmpdir}/roomoccupancy-offers}") String offersDirectory) {
+		this(Paths.get(offersDirectory), DEFAULT_REGION_SIZE);
+	}
+
+	MappedGuestOffersFileGateway(Path offersDirectory, long regionSize) {
+		this.offersDirectory = offersDirectory.toAbsolutePath().normalize();
+		this.regionSize = regionSize;
+	}
+
+	@Override
+	public Path storeOffers(InputStream guestOffers) throws IOException {
+		Files.createDirectories(offersDirectory);
+
+		Path offersFile = Files.createTempFile(offersDirectory, "offers-", ".bin");
+		Files.copy(guestOffers, offersFile, StandardCopyOption.REPLACE_EXISTING);
+
+		return offersFile;
+	}
+
+	@Override
+	public Path findOffersFile(String fileName) {
+		if (Objects.isNull(fileName)) {
+			throw new BusinessException(ERROR_OFFERS_FILE_NOT_FOUND);
+		}
+
+		Path offersFile = offersDirectory.resolve(fileName).normalize();
+
+		if (!offersFile.startsWith(offersDirectory) || !Files.isRegularFile(offersFile)) {
+			throw new BusinessException(ERROR_OFFERS_FILE_NOT_FOUND);
+		}
+
+		return offersFile;
+	}
+
+	@Override
+	public long readOffers(Path offersFile, OffersFileFormat format, Consumer<IntBuffer> offersConsumer)
+			throws IOException {
+
+		try (FileChannel channel = FileChannel.open(offersFile, StandardOpenOption.READ)) {
+			long fileSize = channel.size();
+
+			if (format == OffersFileFormat.CSV) {
+				readCsvOffers(channel, fileSize, offersConsumer);
+			} else {
+				readBinaryOffers(channel, fileSize, offersConsumer);
+			}
+
+			return fileSize;
+		}
+	}
+
+	private void readBinaryOffers(FileChannel channel, long fileSize, Consumer<IntBuffer> offersConsumer)
+			throws IOException {
+
+		if (fileSize % Integer.BYTES != 0) {
+			throw new BusinessException(ERROR_INVALID_OFFERS_FILE);
+		}
+
+		for (long position = 0; position < fileSize; position += regionSize) {
+			offersConsumer.accept(map(channel, position, fileSize).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer());
+		}
+	}
+
+	private void readCsvOffers(FileChannel channel, long fileSize, Consumer<IntBuffer> offersConsumer)
+			throws IOException {
+
+		CsvOffersParser parser = new CsvOffersParser(offersConsumer);
+
+		for (long position = 0; position < fileSize; position += regionSize) {
+			parser.parse(map(channel, position, fileSize));
+		}
+
+		parser.finish();
+	}
+
+	private MappedByteBuffer map(FileChannel channel, long position, long fileSize) throws IOException {
+		return channel.map(MapMode.READ_ONLY, position, Math.min(regionSize, fileSize - position));
+	}
+
+	@Override
+	public void deleteOffers(Path offersFile) {
+		try {
+			Files.deleteIfExists(offersFile);
+		} catch (IOException e) {
+			// A file left behind is removed with the temporary directory
+		}
+	}
+
+}
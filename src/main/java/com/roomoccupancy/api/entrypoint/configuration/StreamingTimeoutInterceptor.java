@@ -0,0 +1,59 @@
+package com.roomoccupancy.api.entrypoint.configuration;
+
+import java.util.concurrent.Callable;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+/**
+ * Gives the streamed responses that last as long as their request body, as
+ * the feed or the portfolio, their own async timeout, instead of the default
+ * one of the API
+ *
+ * @author luis
+ *
+ */
+public class StreamingTimeoutInterceptor implements CallableProcessingInterceptor {
+
+	private static final String STREAMING_ATTRIBUTE = StreamingTimeoutInterceptor.class.getName() + ".STREAMING";
+
+	private final long streamingTimeout;
+
+	/**
+	 * @param streamingTimeout
+	 *            Milliseconds a streamed response may take. Zero or less means it
+	 *            never times out.
+	 */
+	public StreamingTimeoutInterceptor(long streamingTimeout) {
+		this.streamingTimeout = streamingTimeout;
+	}
+
+	/**
+	 * Marks the response of the request as a long-lived stream, before the
+	 * handler returns it
+	 *
+	 * @param request
+	 *            the current request
+	 */
+	public static void markStreaming(HttpServletRequest request) {
+		request.setAttribute(STREAMING_ATTRIBUTE, Boolean.TRUE);
+	}
+
+	/**
+	 * Runs before the async processing starts, while its timeout can still be
+	 * changed. No timeout is the longest one, since the containers do not agree
+	 * on the value that disables it.
+	 */
+	@Override
+	public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+		if (request instanceof AsyncWebRequest
+				&& Boolean.TRUE.equals(request.getAttribute(STREAMING_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST))) {
+			((AsyncWebRequest) request).setTimeout(streamingTimeout > 0 ? streamingTimeout : Long.MAX_VALUE);
+		}
+	}
+
+}
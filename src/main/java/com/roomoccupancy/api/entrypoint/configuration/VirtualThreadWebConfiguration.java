@@ -0,0 +1,57 @@
+package com.roomoccupancy.api.entrypoint.configuration;
+
+import java.util.concurrent.ExecutorService;
+
+import javax.annotation.PreDestroy;
+
+import org.apache.coyote.AbstractProtocol;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+/**
+ * Runs every request, and every streamed response, on its own virtual thread,
+ * when {@code roomoccupancy.web.execution-mode} is {@code virtual}, so the
+ * slow clients never hold one of the few request threads of Tomcat. The CPU
+ * heavy optimizations are still bounded by the optimization pool. The default
+ * {@code platform} mode keeps the pool of Tomcat.
+ * 
+ * @author luis
+ *
+ */
+@Configuration
+@ConditionalOnProperty(name = "roomoccupancy.web.execution-mode", havingValue = "virtual")
+public class VirtualThreadWebConfiguration {
+
+	private static final String ERROR_NO_VIRTUAL_THREADS = "The virtual execution mode needs Java 21 or newer.";
+
+	private final ExecutorService virtualThreadExecutor = VirtualThreads.newVirtualThreadPerTaskExecutor()
+			.orElseThrow(() -> new IllegalStateException(ERROR_NO_VIRTUAL_THREADS));
+
+	@Bean
+	public WebServerFactoryCustomizer<TomcatServletWebServerFactory> virtualThreadTomcatCustomizer() {
+		return factory -> factory.addConnectorCustomizers(connector -> {
+			if (connector.getProtocolHandler() instanceof AbstractProtocol) {
+				((AbstractProtocol<?>) connector.getProtocolHandler()).setExecutor(virtualThreadExecutor);
+			}
+		});
+	}
+
+	/**
+	 * Executor of the streamed responses, picked by the {@link WebConfiguration}
+	 */
+	@Bean
+	public AsyncTaskExecutor virtualThreadTaskExecutor() {
+		return new TaskExecutorAdapter(virtualThreadExecutor);
+	}
+
+	@PreDestroy
+	public void shutdownVirtualThreadExecutor() {
+		virtualThreadExecutor.shutdown();
+	}
+
+}
@@ -0,0 +1,33 @@
+package com.roomoccupancy.api.entrypoint.configuration;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Creates executors of virtual threads, that are available only from Java 21,
+ * while the API is still built for Java 8
+ * 
+ * @author luis
+ *
+ */
+final class VirtualThreads {
+
+	private VirtualThreads() {
+	}
+
+	/**
+	 * @return Executor that starts a virtual thread per task, or empty if the
+	 *         running JVM has no virtual threads
+	 */
+	static Optional<ExecutorService> newVirtualThreadPerTaskExecutor() {
+		try {
+			return Optional.of((ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+					.invoke(null));
+		} catch (ReflectiveOperationException e) {
+			// Absent before Java 19, and only a preview feature in Java 19 and 20
+			return Optional.empty();
+		}
+	}
+
+}
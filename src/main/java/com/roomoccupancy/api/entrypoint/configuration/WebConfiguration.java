@@ -0,0 +1,120 @@
+package com.roomoccupancy.api.entrypoint.configuration;
+
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.roomoccupancy.api.core.metrics.OccupancyOptimizationMetrics;
+import com.roomoccupancy.api.entrypoint.configuration.admission.OptimizationAdmissionControl;
+import com.roomoccupancy.api.entrypoint.configuration.admission.OptimizationAdmissionInterceptor;
+import com.roomoccupancy.api.entrypoint.configuration.converter.OccupancyBinaryHttpMessageConverter;
+import com.roomoccupancy.api.entrypoint.configuration.resolver.PotentialGuestsArgumentResolver;
+
+/**
+ * Spring MVC configuration of the API entrypoints
+ * 
+ * @author luis
+ *
+ */
+@Configuration
+public class WebConfiguration implements WebMvcConfigurer {
+
+	/**
+	 * Milliseconds an async request may take, when it is not a long-lived
+	 * stream
+	 */
+	@Value("${roomoccupancy.web.async.request-timeout:30000}")
+	long asyncRequestTimeout;
+
+	/**
+	 * Milliseconds a long-lived streamed response, as the feed, may take. Zero
+	 * or less means it never times out.
+	 */
+	@Value("${roomoccupancy.web.async.streaming-timeout:0}")
+	long streamingTimeout;
+
+	/**
+	 * Number of responses streamed at the same time
+	 */
+	@Value("${roomoccupancy.web.async.threads:64}")
+	int asyncThreads;
+
+	/**
+	 * Number of responses waiting for a thread
+	 */
+	@Value("${roomoccupancy.web.async.queue-capacity:256}")
+	int asyncQueueCapacity;
+
+	@Autowired(required = false)
+	@Qualifier("virtualThreadTaskExecutor")
+	AsyncTaskExecutor virtualThreadTaskExecutor;
+
+	@Autowired(required = false)
+	OccupancyOptimizationMetrics optimizationMetrics = OccupancyOptimizationMetrics.NOOP;
+
+	@Autowired(required = false)
+	OptimizationAdmissionControl admissionControl = OptimizationAdmissionControl.DISABLED;
+
+	@Override
+	public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+		resolvers.add(new PotentialGuestsArgumentResolver(optimizationMetrics));
+	}
+
+	/**
+	 * The optimizations of a single guest list are admitted before their guests
+	 * are read
+	 */
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(new OptimizationAdmissionInterceptor(admissionControl))
+				.addPathPatterns("/v1/rooms/optimizeOccupancy", "/v1/rooms/optimizeCategoryOccupancy");
+	}
+
+	/**
+	 * The binary converter goes after the JSON one, so JSON is still the answer
+	 * of the requests that accept any type
+	 */
+	@Override
+	public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+		converters.add(new OccupancyBinaryHttpMessageConverter(optimizationMetrics));
+	}
+
+	/**
+	 * The streamed responses run on the bounded async pool, or on virtual
+	 * threads in the virtual execution mode, instead of a new thread each
+	 */
+	@Override
+	public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+		configurer.setTaskExecutor(Objects.nonNull(virtualThreadTaskExecutor) ? virtualThreadTaskExecutor
+				: asyncRequestExecutor());
+		configurer.setDefaultTimeout(asyncRequestTimeout);
+		configurer.registerCallableInterceptors(new StreamingTimeoutInterceptor(streamingTimeout));
+	}
+
+	/**
+	 * Bounded pool of the streamed responses. The responses that do not fit in
+	 * the queue are rejected, instead of piling up in memory.
+	 */
+	@Bean
+	public ThreadPoolTaskExecutor asyncRequestExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(asyncThreads);
+		executor.setMaxPoolSize(asyncThreads);
+		executor.setQueueCapacity(asyncQueueCapacity);
+		executor.setThreadNamePrefix("async-request-");
+		return executor;
+	}
+
+}
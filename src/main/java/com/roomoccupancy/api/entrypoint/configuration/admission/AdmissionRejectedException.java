@@ -0,0 +1,27 @@
+package com.roomoccupancy.api.entrypoint.configuration.admission;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Exception thrown when a request is shed by the
+ * {@link OptimizationAdmissionControl}, before any optimization work is done
+ * 
+ * @author luis
+ *
+ */
+public class AdmissionRejectedException extends RuntimeException {
+
+	private static final long serialVersionUID = 4017353296580123571L;
+
+	private final HttpStatus httpStatus;
+
+	public AdmissionRejectedException(String message, HttpStatus httpStatus) {
+		super(message);
+		this.httpStatus = httpStatus;
+	}
+
+	public HttpStatus getHttpStatus() {
+		return httpStatus;
+	}
+
+}
@@ -0,0 +1,265 @@
+package com.roomoccupancy.api.entrypoint.configuration.admission;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+
+/**
+ * Bounds the optimization work in progress, so a burst of huge guest lists is
+ * shed quickly instead of slowing every request down until they all time out.
+ * Each request weighs one work unit plus one per
+ * {@code roomoccupancy.admission.offers-per-work-unit} offers, and the work
+ * units in use are capped by a fair {@link Semaphore}. A request that does not
+ * fit waits up to {@code roomoccupancy.admission.max-wait-millis}; when
+ * {@code roomoccupancy.admission.max-queue-depth} requests are already
+ * waiting, it is rejected at once.
+ * <p>
+ * A request can also be admitted before it is read, on the size of its text,
+ * and reweighed on its guests once it is parsed, so the requests that are shed
+ * are never parsed.
+ * 
+ * @author luis
+ *
+ */
+@Component
+public class OptimizationAdmissionControl {
+
+	/**
+	 * Admits every request, for entrypoints created outside the Spring context
+	 */
+	public static final OptimizationAdmissionControl DISABLED = new OptimizationAdmissionControl(0, 1, 0, 0,
+			new CompositeMeterRegistry());
+
+	static final String QUEUE_GAUGE = "roomoccupancy.admission.queue";
+
+	static final String WORK_UNITS_GAUGE = "roomoccupancy.admission.work-units";
+
+	static final String SHED_COUNTER = "roomoccupancy.admission.shed";
+
+	/**
+	 * Shortest text of an offer, a digit and its separator, so a text holds at
+	 * most its length over it offers
+	 */
+	static final int MIN_BYTES_PER_OFFER = 2;
+
+	private static final String ERROR_QUEUE_FULL = "There are too many optimizations waiting, try again later.";
+
+	private static final String ERROR_WAIT_TIMEOUT = "The optimization could not start in time, try again later.";
+
+	private final int maxWorkUnits;
+
+	private final int offersPerWorkUnit;
+
+	private final int maxQueueDepth;
+
+	private final long maxWaitInNanos;
+
+	private final Semaphore workUnits;
+
+	private final AtomicInteger queueDepth = new AtomicInteger();
+
+	private final Counter queueFullCounter;
+
+	private final Counter waitTimeoutCounter;
+
+	/**
+	 * @param maxWorkUnits
+	 *            Work units of the requests being optimized at the same time.
+	 *            Zero or less disables the admission control.
+	 * @param offersPerWorkUnit
+	 *            Number of offers that weigh one more work unit
+	 * @param maxQueueDepth
+	 *            Number of requests waiting for work units
+	 * @param maxWaitInMillis
+	 *            How long a request waits for its work units
+	 */
+	@Autowired
+	public OptimizationAdmissionControl(@Value("${roomoccupancy.admission.max-work-units:10000}") int maxWorkUnits,
+			@Value("${roomoccupancy.admission.offers-per-work-unit:1000}") int offersPerWorkUnit,
+			@Value("${roomoccupancy.admission.max-queue-depth:64}") int maxQueueDepth,
+			@Value("${roomoccupancy.admission.max-wait-millis:500}") long maxWaitInMillis,
+			MeterRegistry meterRegistry) {
+		this.maxWorkUnits = maxWorkUnits;
+		this.offersPerWorkUnit = Math.max(1, offersPerWorkUnit);
+		this.maxQueueDepth = maxQueueDepth;
+		this.maxWaitInNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitInMillis);
+		this.workUnits = new Semaphore(Math.max(0, maxWorkUnits), true);
+
+		Gauge.builder(QUEUE_GAUGE, queueDepth, AtomicInteger::get)
+				.description("Requests waiting for optimization work units").register(meterRegistry);
+		Gauge.builder(WORK_UNITS_GAUGE, workUnits, permits -> Math.max(0, maxWorkUnits) - permits.availablePermits())
+				.description("Optimization work units in use").register(meterRegistry);
+
+		this.queueFullCounter = Counter.builder(SHED_COUNTER).tag("reason", "queue-full").register(meterRegistry);
+		this.waitTimeoutCounter = Counter.builder(SHED_COUNTER).tag("reason", "wait-timeout").register(meterRegistry);
+	}
+
+	/**
+	 * Waits for the work units of an optimization
+	 * 
+	 * @param numberOfPotentialGuests
+	 *            Size of the guest list to optimize
+	 * @return The permit of the optimization, to be closed when it is finished
+	 * @throws AdmissionRejectedException
+	 *             with {@link HttpStatus#TOO_MANY_REQUESTS} if too many requests
+	 *             are waiting, or {@link HttpStatus#SERVICE_UNAVAILABLE} if the
+	 *             work units were not released in time
+	 */
+	public Permit admit(int numberOfPotentialGuests) {
+		if (maxWorkUnits <= 0) {
+			return Permit.NONE;
+		}
+
+		int weight = weigh(numberOfPotentialGuests);
+		acquire(weight);
+
+		return new Permit(this, weight);
+	}
+
+	/**
+	 * Waits for the work units of an optimization that is not read yet, weighed
+	 * on the most offers its text can hold. The permit is then
+	 * {@link Permit#reweigh(int) reweighed} on the guests read.
+	 * 
+	 * @param numberOfBytes
+	 *            Length of the text of the request, negative if it is not known
+	 *            before it is read, as for a compressed body
+	 * @return The permit of the optimization, to be closed when it is finished
+	 * @throws AdmissionRejectedException
+	 *             as {@link #admit(int)}
+	 */
+	public Permit admitUnread(long numberOfBytes) {
+		return admit((int) Math.min(Integer.MAX_VALUE, Math.max(0L, numberOfBytes) / MIN_BYTES_PER_OFFER));
+	}
+
+	private void acquire(int weight) {
+		if (tryAcquire(weight, 0L)) {
+			return;
+		}
+
+		if (queueDepth.incrementAndGet() > maxQueueDepth) {
+			queueDepth.decrementAndGet();
+			queueFullCounter.increment();
+			throw new AdmissionRejectedException(ERROR_QUEUE_FULL, HttpStatus.TOO_MANY_REQUESTS);
+		}
+
+		try {
+			if (!tryAcquire(weight, maxWaitInNanos)) {
+				waitTimeoutCounter.increment();
+				throw new AdmissionRejectedException(ERROR_WAIT_TIMEOUT, HttpStatus.SERVICE_UNAVAILABLE);
+			}
+		} finally {
+			queueDepth.decrementAndGet();
+		}
+	}
+
+	/**
+	 * A guest list bigger than the whole capacity still runs, alone
+	 */
+	int weigh(int numberOfPotentialGuests) {
+		return (int) Math.min(maxWorkUnits, 1L + Math.max(0, numberOfPotentialGuests) / offersPerWorkUnit);
+	}
+
+	/**
+	 * Even without waiting, the fair semaphore never lets a request overtake the
+	 * ones already waiting
+	 */
+	private boolean tryAcquire(int weight, long timeoutInNanos) {
+		try {
+			return workUnits.tryAcquire(weight, timeoutInNanos, TimeUnit.NANOSECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	int getQueueDepth() {
+		return queueDepth.get();
+	}
+
+	/**
+	 * Work units held by an admitted optimization. It is used by one thread at a
+	 * time.
+	 */
+	public static final class Permit implements AutoCloseable {
+
+		static final Permit NONE = new Permit(null, 0);
+
+		private final OptimizationAdmissionControl admissionControl;
+
+		private int weight;
+
+		private Permit(OptimizationAdmissionControl admissionControl, int weight) {
+			this.admissionControl = admissionControl;
+			this.weight = weight;
+		}
+
+		/**
+		 * Gives back the work units beyond the weight of the guests, or waits for
+		 * the missing ones, as an admission does
+		 * 
+		 * @param numberOfPotentialGuests
+		 *            Size of the guest list, once it is read
+		 * @throws AdmissionRejectedException
+		 *             if the missing work units are not admitted. The permit keeps
+		 *             its work units until it is closed.
+		 */
+		public void reweigh(int numberOfPotentialGuests) {
+			if (weight == 0) {
+				return;
+			}
+
+			int newWeight = admissionControl.weigh(numberOfPotentialGuests);
+
+			if (newWeight > weight) {
+				admissionControl.acquire(newWeight - weight);
+				weight = newWeight;
+			} else {
+				shrink(numberOfPotentialGuests);
+			}
+		}
+
+		/**
+		 * Gives back the work units beyond the weight of the guests, but never
+		 * waits for more, for the threads that must not block
+		 * 
+		 * @param numberOfPotentialGuests
+		 *            Size of the guest list, once it is read
+		 */
+		public void shrink(int numberOfPotentialGuests) {
+			if (weight == 0) {
+				return;
+			}
+
+			int newWeight = admissionControl.weigh(numberOfPotentialGuests);
+
+			if (newWeight < weight) {
+				admissionControl.workUnits.release(weight - newWeight);
+				weight = newWeight;
+			}
+		}
+
+		/**
+		 * Releases the work units once, however many times it is called
+		 */
+		@Override
+		public void close() {
+			if (weight > 0) {
+				admissionControl.workUnits.release(weight);
+				weight = 0;
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,95 @@
+package com.roomoccupancy.api.entrypoint.configuration.admission;
+
+import java.util.Objects;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.roomoccupancy.api.entrypoint.configuration.admission.OptimizationAdmissionControl.Permit;
+
+/**
+ * Admits the optimization requests before their guests are read, on the
+ * length of their query string, or of their body, so a request that is shed
+ * is never parsed. The entrypoint takes the permit over with
+ * {@link #admit(OptimizationAdmissionControl, int)}, reweighed on the guests
+ * it read. A permit that no entrypoint took, because the request could not be
+ * read, is closed when the request completes.
+ *
+ * @author luis
+ *
+ */
+public class OptimizationAdmissionInterceptor implements HandlerInterceptor {
+
+	private static final String PERMIT_ATTRIBUTE = OptimizationAdmissionInterceptor.class.getName() + ".PERMIT";
+
+	private final OptimizationAdmissionControl admissionControl;
+
+	public OptimizationAdmissionInterceptor(OptimizationAdmissionControl admissionControl) {
+		this.admissionControl = admissionControl;
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		long numberOfBytes;
+		if (HttpMethod.GET.matches(request.getMethod())) {
+			numberOfBytes = Objects.isNull(request.getQueryString()) ? 0 : request.getQueryString().length();
+		} else {
+			numberOfBytes = request.getContentLengthLong();
+		}
+
+		request.setAttribute(PERMIT_ATTRIBUTE, admissionControl.admitUnread(numberOfBytes));
+
+		return true;
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+			Exception ex) {
+		Object permit = request.getAttribute(PERMIT_ATTRIBUTE);
+
+		if (permit instanceof Permit) {
+			request.removeAttribute(PERMIT_ATTRIBUTE);
+			((Permit) permit).close();
+		}
+	}
+
+	/**
+	 * Takes over the permit of the current request, reweighed on its guests.
+	 * A request that was not admitted before it was read, as outside a
+	 * servlet, is admitted now.
+	 *
+	 * @param admissionControl
+	 *            Admits the request that has no permit yet
+	 * @param numberOfPotentialGuests
+	 *            Size of the guest list read
+	 * @return The permit, to be closed by the entrypoint
+	 * @throws AdmissionRejectedException
+	 *             if the guests need more work units than the permit has, and
+	 *             they are not admitted. The permit is closed then.
+	 */
+	public static Permit admit(OptimizationAdmissionControl admissionControl, int numberOfPotentialGuests) {
+		RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+		Object permit = Objects.isNull(requestAttributes) ? null
+				: requestAttributes.getAttribute(PERMIT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+
+		if (!(permit instanceof Permit)) {
+			return admissionControl.admit(numberOfPotentialGuests);
+		}
+		requestAttributes.removeAttribute(PERMIT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+
+		try {
+			((Permit) permit).reweigh(numberOfPotentialGuests);
+		} catch (RuntimeException ex) {
+			((Permit) permit).close();
+			throw ex;
+		}
+
+		return (Permit) permit;
+	}
+
+}
@@ -0,0 +1,137 @@
+package com.roomoccupancy.api.entrypoint.configuration.compression;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+
+import com.roomoccupancy.api.core.exception.BusinessException;
+
+/**
+ * Inflates a compressed request body while it is read. The inflater is only
+ * created on the first read, so the filter never blocks on the body, and a
+ * corrupt or too big body is a {@link BusinessException} of the request.
+ * 
+ * @author luis
+ *
+ */
+class InflatingServletInputStream extends ServletInputStream {
+
+	enum Format {
+		GZIP, DEFLATE
+	}
+
+	private static final String ERROR_INVALID_BODY = "The compressed request body is invalid.";
+
+	private static final String ERROR_BODY_TOO_BIG = "The decompressed request body must have %d bytes or less.";
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private final ServletInputStream compressedBody;
+
+	private final Format format;
+
+	private final long maxInflatedSize;
+
+	private final byte[] singleByte = new byte[1];
+
+	private InputStream inflatedBody;
+
+	private long inflatedSize;
+
+	private boolean finished;
+
+	InflatingServletInputStream(ServletInputStream compressedBody, Format format, long maxInflatedSize) {
+		this.compressedBody = compressedBody;
+		this.format = format;
+		this.maxInflatedSize = maxInflatedSize;
+	}
+
+	@Override
+	public int read() throws IOException {
+		return read(singleByte, 0, 1) < 0 ? -1 : singleByte[0] & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] buffer, int offset, int length) throws IOException {
+		if (finished) {
+			return -1;
+		}
+
+		int read;
+		try {
+			read = getInflatedBody().read(buffer, offset, length);
+		} catch (ZipException | EOFException ex) {
+			throw new BusinessException(ERROR_INVALID_BODY);
+		}
+
+		if (read < 0) {
+			finished = true;
+			inflatedBody.close();
+			return -1;
+		}
+
+		inflatedSize += read;
+		if (inflatedSize > maxInflatedSize) {
+			throw new BusinessException(String.format(ERROR_BODY_TOO_BIG, maxInflatedSize));
+		}
+
+		return read;
+	}
+
+	private InputStream getInflatedBody() throws IOException {
+		if (Objects.isNull(inflatedBody)) {
+			inflatedBody = Format.GZIP == format ? new GZIPInputStream(compressedBody, BUFFER_SIZE)
+					: new InflaterInputStream(compressedBody, new Inflater(), BUFFER_SIZE) {
+
+						@Override
+						public void close() throws IOException {
+							inf.end();
+							super.close();
+						}
+
+					};
+		}
+
+		return inflatedBody;
+	}
+
+	@Override
+	public boolean isFinished() {
+		return finished;
+	}
+
+	@Override
+	public boolean isReady() {
+		return compressedBody.isReady();
+	}
+
+	/**
+	 * The entrypoints read the bodies with blocking reads only, and the
+	 * container may only be asked for a listener in an async request
+	 */
+	@Override
+	public void setReadListener(ReadListener readListener) {
+		throw new IllegalStateException("The inflated request body can only be read with blocking reads.");
+	}
+
+	/**
+	 * Also releases the native memory of the inflater
+	 */
+	@Override
+	public void close() throws IOException {
+		if (Objects.isNull(inflatedBody)) {
+			compressedBody.close();
+		} else {
+			inflatedBody.close();
+		}
+	}
+
+}
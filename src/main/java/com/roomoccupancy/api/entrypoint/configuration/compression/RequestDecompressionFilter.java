@@ -0,0 +1,196 @@
+package com.roomoccupancy.api.entrypoint.configuration.compression;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.roomoccupancy.api.entrypoint.configuration.exception.ErrorResponseEntity;
+
+/**
+ * Accepts request bodies sent with {@code Content-Encoding: gzip} or
+ * {@code deflate}, inflated as a stream while the entrypoints parse them, so
+ * the decompressed body never sits in memory. The inflated bytes are capped by
+ * {@code roomoccupancy.compression.max-inflated-request-size}, against
+ * decompression bombs. Any other encoding is answered with an
+ * {@link HttpStatus#UNSUPPORTED_MEDIA_TYPE} and the accepted ones.
+ * 
+ * @author luis
+ *
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class RequestDecompressionFilter extends OncePerRequestFilter {
+
+	static final String ACCEPTED_ENCODINGS = "gzip, deflate";
+
+	private static final String ERROR_UNSUPPORTED_ENCODING = "The request body can only be encoded as gzip or deflate.";
+
+	private final long maxInflatedRequestSize;
+
+	private final ObjectMapper objectMapper;
+
+	/**
+	 * @param maxInflatedRequestSize
+	 *            Bytes a compressed body may inflate to
+	 */
+	@Autowired
+	public RequestDecompressionFilter(
+			@Value("${roomoccupancy.compression.max-inflated-request-size:1073741824}") long maxInflatedRequestSize,
+			ObjectMapper objectMapper) {
+		this.maxInflatedRequestSize = maxInflatedRequestSize;
+		this.objectMapper = objectMapper;
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		String contentEncoding = request.getHeader(HttpHeaders.CONTENT_ENCODING);
+
+		return Objects.isNull(contentEncoding) || "identity".equalsIgnoreCase(contentEncoding.trim());
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		InflatingServletInputStream.Format format = getFormat(request.getHeader(HttpHeaders.CONTENT_ENCODING));
+
+		if (Objects.isNull(format)) {
+			response.setStatus(HttpStatus.UNSUPPORTED_MEDIA_TYPE.value());
+			response.setHeader(HttpHeaders.ACCEPT_ENCODING, ACCEPTED_ENCODINGS);
+			response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+			objectMapper.writeValue(response.getOutputStream(),
+					ErrorResponseEntity.of(ERROR_UNSUPPORTED_ENCODING, HttpStatus.UNSUPPORTED_MEDIA_TYPE.value()));
+			return;
+		}
+
+		filterChain.doFilter(new DecompressedRequest(request, format), response);
+	}
+
+	/**
+	 * @return The format of the encoding, null if it is not supported
+	 */
+	private static InflatingServletInputStream.Format getFormat(String contentEncoding) {
+		switch (contentEncoding.trim().toLowerCase(Locale.ROOT)) {
+		case "gzip":
+		case "x-gzip":
+			return InflatingServletInputStream.Format.GZIP;
+		case "deflate":
+			return InflatingServletInputStream.Format.DEFLATE;
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * The request as the entrypoints would see it uncompressed: the inflated
+	 * body, as bytes or as characters, of unknown length, and no
+	 * {@code Content-Encoding}
+	 */
+	private final class DecompressedRequest extends HttpServletRequestWrapper {
+
+		private final InflatingServletInputStream.Format format;
+
+		private ServletInputStream inputStream;
+
+		private BufferedReader reader;
+
+		private DecompressedRequest(HttpServletRequest request, InflatingServletInputStream.Format format) {
+			super(request);
+			this.format = format;
+		}
+
+		@Override
+		public ServletInputStream getInputStream() throws IOException {
+			if (Objects.nonNull(reader)) {
+				throw new IllegalStateException("The request body is already read as characters.");
+			}
+
+			return getInflatingInputStream();
+		}
+
+		/**
+		 * Decodes the inflated body with the charset of the request, ISO-8859-1
+		 * when it has none, as the containers do
+		 */
+		@Override
+		public BufferedReader getReader() throws IOException {
+			if (Objects.isNull(reader)) {
+				if (Objects.nonNull(inputStream)) {
+					throw new IllegalStateException("The request body is already read as bytes.");
+				}
+
+				String characterEncoding = getCharacterEncoding();
+				Charset charset = Objects.isNull(characterEncoding) ? StandardCharsets.ISO_8859_1
+						: Charset.forName(characterEncoding);
+				reader = new BufferedReader(new InputStreamReader(getInflatingInputStream(), charset));
+			}
+
+			return reader;
+		}
+
+		private ServletInputStream getInflatingInputStream() throws IOException {
+			if (Objects.isNull(inputStream)) {
+				inputStream = new InflatingServletInputStream(super.getInputStream(), format, maxInflatedRequestSize);
+			}
+
+			return inputStream;
+		}
+
+		@Override
+		public int getContentLength() {
+			return -1;
+		}
+
+		@Override
+		public long getContentLengthLong() {
+			return -1;
+		}
+
+		@Override
+		public String getHeader(String name) {
+			return isRemoved(name) ? null : super.getHeader(name);
+		}
+
+		@Override
+		public Enumeration<String> getHeaders(String name) {
+			return isRemoved(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+		}
+
+		@Override
+		public Enumeration<String> getHeaderNames() {
+			return Collections.enumeration(Collections.list(super.getHeaderNames()).stream()
+					.filter(name -> !isRemoved(name)).collect(Collectors.toList()));
+		}
+
+		private boolean isRemoved(String name) {
+			return HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name)
+					|| HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name);
+		}
+
+	}
+
+}
@@ -0,0 +1,202 @@
+package com.roomoccupancy.api.entrypoint.configuration.converter;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Instant;
+
+import com.roomoccupancy.api.core.entity.OptimizedRoomOccupancyEntity;
+import com.roomoccupancy.api.core.entity.RoomCategoryOccupancyEntity;
+import com.roomoccupancy.api.core.exception.BusinessException;
+import com.roomoccupancy.api.core.usecase.GuestOffers;
+import com.roomoccupancy.api.entrypoint.v1.entity.GetOptimizedRoomOccupancyResponse;
+import com.roomoccupancy.api.entrypoint.v1.entity.OptimizedRoomOccupancyRequest;
+
+/**
+ * Compact binary format of the optimization, for service to service calls.
+ * 
+ * <p>
+ * The request is made of varints, as the ones of Protocol Buffers: the free
+ * Premium and Economy rooms, zigzag encoded, the number of offers, and the
+ * offers, so an offer below 128 takes a single byte. The response has a fixed
+ * layout of 24 big-endian bytes: the request timestamp, in epoch milliseconds,
+ * and the occupied rooms and income of the Premium and then of the Economy
+ * category, as 32-bit Integers.
+ * 
+ * @author luis
+ *
+ */
+public final class OccupancyBinaryCodec {
+
+	public static final String MEDIA_TYPE_VALUE = "application/x-roomoccupancy-binary";
+
+	static final int RESPONSE_LENGTH = Long.BYTES + 4 * Integer.BYTES;
+
+	private static final String ERROR_INVALID_REQUEST_BODY = "The binary request body is invalid.";
+
+	private static final int BUFFER_SIZE = 8192;
+
+	/**
+	 * The offers are still read one by one, so a wrong count cannot reserve
+	 * much memory
+	 */
+	private static final int MAX_INITIAL_CAPACITY = 1 << 20;
+
+	private OccupancyBinaryCodec() {
+	}
+
+	/**
+	 * @throws BusinessException
+	 *             if the body is truncated or a value does not fit in an Integer
+	 * @throws IOException
+	 *             if the body could not be read
+	 */
+	public static OptimizedRoomOccupancyRequest readRequest(InputStream body) throws IOException {
+		VarintReader reader = new VarintReader(body);
+
+		int freePremiumRooms = decodeZigZag(reader.readVarint());
+		int freeEconomyRooms = decodeZigZag(reader.readVarint());
+		int numberOfOffers = reader.readVarint();
+
+		if (numberOfOffers < 0) {
+			throw new BusinessException(ERROR_INVALID_REQUEST_BODY);
+		}
+
+		GuestOffers potentialGuests = new GuestOffers(Math.max(1, Math.min(numberOfOffers, MAX_INITIAL_CAPACITY)));
+		for (int i = 0; i < numberOfOffers; i++) {
+			int offer = reader.readVarint();
+			if (offer < 0) {
+				throw new BusinessException(ERROR_INVALID_REQUEST_BODY);
+			}
+			potentialGuests.add(offer);
+		}
+
+		return new OptimizedRoomOccupancyRequest(freePremiumRooms, freeEconomyRooms, potentialGuests);
+	}
+
+	/**
+	 * Writes a request with the offers of the range
+	 */
+	public static void writeRequest(int freePremiumRooms, int freeEconomyRooms, int[] offers, int from, int to,
+			OutputStream body) throws IOException {
+		byte[] buffer = new byte[BUFFER_SIZE];
+		int position = 0;
+
+		position = writeVarint(encodeZigZag(freePremiumRooms), buffer, position);
+		position = writeVarint(encodeZigZag(freeEconomyRooms), buffer, position);
+		position = writeVarint(to - from, buffer, position);
+
+		for (int i = from; i < to; i++) {
+			if (position > BUFFER_SIZE - 5) {
+				body.write(buffer, 0, position);
+				position = 0;
+			}
+			position = writeVarint(offers[i], buffer, position);
+		}
+
+		body.write(buffer, 0, position);
+	}
+
+	public static void writeResponse(GetOptimizedRoomOccupancyResponse response, OutputStream body)
+			throws IOException {
+		DataOutputStream output = new DataOutputStream(body);
+		OptimizedRoomOccupancyEntity result = response.getResult();
+
+		output.writeLong(response.getRequestTimestamp().toEpochMilli());
+		output.writeInt(result.getPremiumOccupancy().getNumberOfOccupiedRooms());
+		output.writeInt(result.getPremiumOccupancy().getGeneratedIncome());
+		output.writeInt(result.getEconomyOccupancy().getNumberOfOccupiedRooms());
+		output.writeInt(result.getEconomyOccupancy().getGeneratedIncome());
+		output.flush();
+	}
+
+	public static GetOptimizedRoomOccupancyResponse readResponse(InputStream body) throws IOException {
+		DataInputStream input = new DataInputStream(body);
+
+		Instant requestTimestamp = Instant.ofEpochMilli(input.readLong());
+		RoomCategoryOccupancyEntity premiumOccupancy = new RoomCategoryOccupancyEntity(input.readInt(),
+				input.readInt());
+		RoomCategoryOccupancyEntity economyOccupancy = new RoomCategoryOccupancyEntity(input.readInt(),
+				input.readInt());
+
+		return new GetOptimizedRoomOccupancyResponse(requestTimestamp,
+				new OptimizedRoomOccupancyEntity(premiumOccupancy, economyOccupancy));
+	}
+
+	private static int writeVarint(int value, byte[] buffer, int position) {
+		while ((value & ~0x7F) != 0) {
+			buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		buffer[position++] = (byte) value;
+
+		return position;
+	}
+
+	private static int encodeZigZag(int value) {
+		return (value << 1) ^ (value >> 31);
+	}
+
+	private static int decodeZigZag(int value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	/**
+	 * Reads the varints from a buffer of its own, refilled from the body, so
+	 * each byte costs no call to the stream
+	 */
+	private static final class VarintReader {
+
+		private final InputStream body;
+
+		private final byte[] buffer = new byte[BUFFER_SIZE];
+
+		private int position;
+
+		private int limit;
+
+		private VarintReader(InputStream body) {
+			this.body = body;
+		}
+
+		/**
+		 * @return The value, as the 32 bits of an unsigned Integer
+		 */
+		private int readVarint() throws IOException {
+			int value = 0;
+
+			for (int shift = 0; shift < 35; shift += 7) {
+				int read = readByte();
+				value |= (read & 0x7F) << shift;
+
+				if ((read & 0x80) == 0) {
+					if (shift == 28 && (read & 0x70) != 0) {
+						throw new BusinessException(ERROR_INVALID_REQUEST_BODY);
+					}
+					return value;
+				}
+			}
+
+			throw new BusinessException(ERROR_INVALID_REQUEST_BODY);
+		}
+
+		private int readByte() throws IOException {
+			if (position == limit) {
+				limit = body.read(buffer, 0, BUFFER_SIZE);
+				position = 0;
+
+				if (limit <= 0) {
+					limit = 0;
+					throw new BusinessException(ERROR_INVALID_REQUEST_BODY);
+				}
+			}
+
+			return buffer[position++];
+		}
+
+	}
+
+}
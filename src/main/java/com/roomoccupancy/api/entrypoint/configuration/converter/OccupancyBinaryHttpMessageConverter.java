@@ -0,0 +1,73 @@
+package com.roomoccupancy.api.entrypoint.configuration.converter;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.lang.Nullable;
+
+import com.roomoccupancy.api.core.exception.BusinessException;
+import com.roomoccupancy.api.core.metrics.OccupancyOptimizationMetrics;
+import com.roomoccupancy.api.entrypoint.v1.entity.GetOptimizedRoomOccupancyResponse;
+import com.roomoccupancy.api.entrypoint.v1.entity.OptimizedRoomOccupancyRequest;
+
+/**
+ * Reads the optimization requests, and writes their responses, in the
+ * {@link OccupancyBinaryCodec} format, when it is the content type, or the
+ * accepted type, of the request. The malformed bodies never reach the use
+ * case, so they are counted here as rejected optimizations.
+ * 
+ * @author luis
+ *
+ */
+public class OccupancyBinaryHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+	private final OccupancyOptimizationMetrics optimizationMetrics;
+
+	public OccupancyBinaryHttpMessageConverter() {
+		this(OccupancyOptimizationMetrics.NOOP);
+	}
+
+	public OccupancyBinaryHttpMessageConverter(OccupancyOptimizationMetrics optimizationMetrics) {
+		super(MediaType.parseMediaType(OccupancyBinaryCodec.MEDIA_TYPE_VALUE));
+		this.optimizationMetrics = optimizationMetrics;
+	}
+
+	@Override
+	protected boolean supports(Class<?> clazz) {
+		return OptimizedRoomOccupancyRequest.class == clazz || GetOptimizedRoomOccupancyResponse.class == clazz;
+	}
+
+	@Override
+	public boolean canRead(Class<?> clazz, @Nullable MediaType mediaType) {
+		return OptimizedRoomOccupancyRequest.class == clazz && canRead(mediaType);
+	}
+
+	@Override
+	public boolean canWrite(Class<?> clazz, @Nullable MediaType mediaType) {
+		return GetOptimizedRoomOccupancyResponse.class == clazz && canWrite(mediaType);
+	}
+
+	@Override
+	protected Object readInternal(Class<? extends Object> clazz, HttpInputMessage inputMessage) throws IOException {
+		try {
+			return OccupancyBinaryCodec.readRequest(inputMessage.getBody());
+		} catch (BusinessException ex) {
+			optimizationMetrics.recordRejection(ex.getMessage());
+			throw ex;
+		}
+	}
+
+	@Override
+	protected void writeInternal(Object response, HttpOutputMessage outputMessage) throws IOException {
+		OccupancyBinaryCodec.writeResponse((GetOptimizedRoomOccupancyResponse) response, outputMessage.getBody());
+	}
+
+	@Override
+	protected Long getContentLength(Object response, @Nullable MediaType contentType) {
+		return (long) OccupancyBinaryCodec.RESPONSE_LENGTH;
+	}
+
+}
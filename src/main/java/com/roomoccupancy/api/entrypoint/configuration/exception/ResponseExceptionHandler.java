@@ -10,6 +10,7 @@ import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
 import com.roomoccupancy.api.core.exception.BusinessException;
+import com.roomoccupancy.api.entrypoint.configuration.admission.AdmissionRejectedException;
 
 /**
  * Class to handle the exceptions thrown during the requests processing
@@ -20,6 +21,8 @@ import com.roomoccupancy.api.core.exception.BusinessException;
 @ControllerAdvice
 public class ResponseExceptionHandler extends ResponseEntityExceptionHandler {
 
+	private static final String RETRY_AFTER_SECONDS = "1";
+
 	/**
 	 * Handles exceptions of type {@link BusinessException}
 	 * 
@@ -37,6 +40,26 @@ public class ResponseExceptionHandler extends ResponseEntityExceptionHandler {
 				responseStatus);
 	}
 
+	/**
+	 * Handles the requests shed by the admission control, with a
+	 * {@code Retry-After} header
+	 * 
+	 * @param ex
+	 *            the exception
+	 * @param request
+	 *            the current request
+	 * @return a {@code ResponseEntity} instance
+	 */
+	@ExceptionHandler({ AdmissionRejectedException.class })
+	public ResponseEntity<Object> handleAdmissionRejectedException(AdmissionRejectedException ex,
+			WebRequest request) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.set(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+
+		return new ResponseEntity<Object>(ErrorResponseEntity.of(ex.getMessage(), ex.getHttpStatus().value()),
+				headers, ex.getHttpStatus());
+	}
+
 	/**
 	 * Overrides the method
 	 * {@link ResponseEntityExceptionHandler#handleExceptionInternal}, to add an
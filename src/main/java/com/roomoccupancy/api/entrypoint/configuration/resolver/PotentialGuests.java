@@ -0,0 +1,28 @@
+package com.roomoccupancy.api.entrypoint.configuration.resolver;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import com.roomoccupancy.api.core.usecase.GuestOffers;
+
+/**
+ * Binds a request parameter with the guest offers to a {@link GuestOffers}
+ * argument, through the {@link PotentialGuestsArgumentResolver}
+ * 
+ * @author luis
+ *
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface PotentialGuests {
+
+	/**
+	 * @return Name of the request parameter
+	 */
+	String name();
+
+}
@@ -0,0 +1,102 @@
+package com.roomoccupancy.api.entrypoint.configuration.resolver;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.web.bind.MissingServletRequestParameterException;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import com.roomoccupancy.api.core.exception.BusinessException;
+import com.roomoccupancy.api.core.metrics.OccupancyOptimizationMetrics;
+import com.roomoccupancy.api.core.usecase.GuestOffers;
+import com.roomoccupancy.api.entrypoint.v1.parser.PotentialGuestsParser;
+
+/**
+ * Resolves the {@link PotentialGuests} arguments, parsing the offers straight
+ * from the raw query string into a {@link GuestOffers}, instead of converting
+ * each one to a {@code String} and then to an {@code Integer}. The parameters
+ * sent in a form body, which are not part of the query string, are parsed from
+ * their decoded values.
+ * 
+ * <p>
+ * The {@link GuestOffers} is reused by the following requests of the same
+ * thread, so it must not be kept after the request. The rejected offers never
+ * reach the use case, so they are counted here as rejected optimizations.
+ * 
+ * @author luis
+ *
+ */
+public class PotentialGuestsArgumentResolver implements HandlerMethodArgumentResolver {
+
+	/**
+	 * Bigger arrays are not kept between requests, so a single huge request does
+	 * not hold its memory forever
+	 */
+	private static final int MAX_REUSED_CAPACITY = 1 << 20;
+
+	private static final ThreadLocal<GuestOffers> REUSED_GUEST_OFFERS = ThreadLocal.withInitial(GuestOffers::new);
+
+	private final OccupancyOptimizationMetrics optimizationMetrics;
+
+	public PotentialGuestsArgumentResolver() {
+		this(OccupancyOptimizationMetrics.NOOP);
+	}
+
+	public PotentialGuestsArgumentResolver(OccupancyOptimizationMetrics optimizationMetrics) {
+		this.optimizationMetrics = optimizationMetrics;
+	}
+
+	@Override
+	public boolean supportsParameter(MethodParameter parameter) {
+		return parameter.hasParameterAnnotation(PotentialGuests.class)
+				&& GuestOffers.class.equals(parameter.getParameterType());
+	}
+
+	@Override
+	public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+			NativeWebRequest webRequest, WebDataBinderFactory binderFactory) throws Exception {
+
+		String parameterName = parameter.getParameterAnnotation(PotentialGuests.class).name();
+		HttpServletRequest request = webRequest.getNativeRequest(HttpServletRequest.class);
+		GuestOffers guestOffers = getReusedGuestOffers();
+
+		try {
+			String queryString = request.getQueryString();
+			if (queryString != null
+					&& PotentialGuestsParser.parseQueryString(queryString, parameterName, guestOffers)) {
+				return guestOffers;
+			}
+
+			String[] parameterValues = request.getParameterValues(parameterName);
+			if (parameterValues == null) {
+				throw new MissingServletRequestParameterException(parameterName, "int[]");
+			}
+
+			for (String parameterValue : parameterValues) {
+				PotentialGuestsParser.parseValue(parameterValue, guestOffers);
+			}
+
+			return guestOffers;
+		} catch (BusinessException ex) {
+			optimizationMetrics.recordRejection(ex.getMessage());
+			throw ex;
+		}
+	}
+
+	private GuestOffers getReusedGuestOffers() {
+		GuestOffers guestOffers = REUSED_GUEST_OFFERS.get();
+
+		if (guestOffers.capacity() > MAX_REUSED_CAPACITY) {
+			guestOffers = new GuestOffers();
+			REUSED_GUEST_OFFERS.set(guestOffers);
+		} else {
+			guestOffers.clear();
+		}
+
+		return guestOffers;
+	}
+
+}
@@ -0,0 +1,37 @@
+package com.roomoccupancy.api.entrypoint.v1;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.roomoccupancy.api.core.entity.OptimizedCalendarOccupancyEntity;
+import com.roomoccupancy.api.core.usecase.GetOptimizedCalendarOccupancyUseCase;
+import com.roomoccupancy.api.entrypoint.v1.entity.GetOptimizedCalendarOccupancyRequest;
+import com.roomoccupancy.api.entrypoint.v1.entity.GetOptimizedCalendarOccupancyResponse;
+
+/**
+ * Contains the API endpoint to get the Optimized Room Occupancy of a calendar
+ * of nights, for multi-night stays
+ * 
+ * @author luis
+ *
+ */
+@RestController
+public class GetOptimizedCalendarOccupancyEntrypoint {
+
+	@Autowired
+	GetOptimizedCalendarOccupancyUseCase calendarUseCase;
+
+	@PostMapping("/v1/rooms/optimizeOccupancy/calendar")
+	public ResponseEntity<GetOptimizedCalendarOccupancyResponse> getOptimizedCalendarOccupancy(
+			@RequestBody GetOptimizedCalendarOccupancyRequest calendarRequest) {
+
+		OptimizedCalendarOccupancyEntity optimizedOccupancy = calendarUseCase.getOptimizedCalendarOccupancy(
+				calendarRequest.getFirstNight(), calendarRequest.getNights(), calendarRequest.getStays());
+
+		return ResponseEntity.ok(GetOptimizedCalendarOccupancyResponse.of(optimizedOccupancy));
+	}
+
+}
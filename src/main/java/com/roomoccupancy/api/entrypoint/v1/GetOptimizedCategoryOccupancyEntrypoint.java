@@ -0,0 +1,67 @@
+package com.roomoccupancy.api.entrypoint.v1;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.roomoccupancy.api.core.entity.CategoryOccupancyEntity;
+import com.roomoccupancy.api.core.metrics.OccupancyPhaseTimings;
+import com.roomoccupancy.api.core.usecase.GetOptimizedRoomOccupancyUseCase;
+import com.roomoccupancy.api.entrypoint.configuration.admission.OptimizationAdmissionControl;
+import com.roomoccupancy.api.entrypoint.configuration.admission.OptimizationAdmissionControl.Permit;
+import com.roomoccupancy.api.entrypoint.configuration.admission.OptimizationAdmissionInterceptor;
+import com.roomoccupancy.api.entrypoint.v1.entity.GetOptimizedCategoryOccupancyRequest;
+import com.roomoccupancy.api.entrypoint.v1.entity.GetOptimizedCategoryOccupancyResponse;
+import com.roomoccupancy.api.entrypoint.v1.parser.OptimizedRoomOccupancyRequestParser;
+
+/**
+ * Contains the API endpoint to get the Optimized Room Occupancy of any number
+ * of room categories
+ * 
+ * @author luis
+ *
+ */
+@RestController
+public class GetOptimizedCategoryOccupancyEntrypoint {
+
+	@Autowired
+	GetOptimizedRoomOccupancyUseCase occupancyUseCase;
+
+	@Autowired
+	OptimizedRoomOccupancyRequestParser requestParser;
+
+	@Autowired(required = false)
+	OptimizationAdmissionControl admissionControl = OptimizationAdmissionControl.DISABLED;
+
+	/**
+	 * The body is parsed as a stream, as the one of the two-tier optimization,
+	 * so big guest lists are never bound as an {@code Integer[]}
+	 */
+	@PostMapping(path = "/v1/rooms/optimizeCategoryOccupancy", consumes = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<GetOptimizedCategoryOccupancyResponse> getOptimizedCategoryOccupancy(
+			HttpServletRequest request) throws IOException {
+
+		GetOptimizedCategoryOccupancyRequest occupancyRequest = requestParser
+				.parseCategoryRequest(request.getInputStream());
+
+		List<CategoryOccupancyEntity> categoryOccupancies;
+		try (Permit permit = OptimizationAdmissionInterceptor.admit(admissionControl,
+				Objects.isNull(occupancyRequest.getPotentialGuests()) ? 0
+						: occupancyRequest.getPotentialGuests().size())) {
+			categoryOccupancies = occupancyUseCase.getOptimizedCategoryOccupancy(occupancyRequest.getCategories(),
+					occupancyRequest.getPotentialGuests());
+		}
+
+		return ResponseEntity.ok().header(ServerTimingHeader.NAME, ServerTimingHeader.of(OccupancyPhaseTimings.current()))
+				.body(GetOptimizedCategoryOccupancyResponse.of(categoryOccupancies));
+	}
+
+}
@@ -0,0 +1,190 @@
+package com.roomoccupancy.api.entrypoint.v1;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.roomoccupancy.api.core.entity.PortfolioHotelResultEntity;
+import com.roomoccupancy.api.core.usecase.GetOptimizedPortfolioOccupancyUseCase;
+import com.roomoccupancy.api.core.usecase.PortfolioHotel;
+import com.roomoccupancy.api.core.usecase.PortfolioOptimization;
+import com.roomoccupancy.api.entrypoint.configuration.StreamingTimeoutInterceptor;
+import com.roomoccupancy.api.entrypoint.configuration.admission.AdmissionRejectedException;
+import com.roomoccupancy.api.entrypoint.configuration.admission.OptimizationAdmissionControl;
+import com.roomoccupancy.api.entrypoint.configuration.admission.OptimizationAdmissionControl.Permit;
+import com.roomoccupancy.api.entrypoint.v1.parser.PortfolioParser;
+
+/**
+ * Contains the API endpoint to get the Optimized Room Occupancy of every hotel
+ * of a portfolio, in a single request
+ *
+ * @author luis
+ *
+ */
+@RestController
+public class GetOptimizedPortfolioOccupancyEntrypoint {
+
+	private static final int DEFAULT_MAX_PENDING_HOTELS = 256;
+
+	@Autowired
+	GetOptimizedPortfolioOccupancyUseCase portfolioUseCase;
+
+	@Autowired
+	PortfolioParser portfolioParser;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Autowired(required = false)
+	OptimizationAdmissionControl admissionControl = OptimizationAdmissionControl.DISABLED;
+
+	/**
+	 * Hotels read but not answered yet. Past it, the portfolio is not read until
+	 * some results are written, so a fast upload never piles up in memory.
+	 */
+	@Value("${roomoccupancy.portfolio.max-pending-hotels:" + DEFAULT_MAX_PENDING_HOTELS + "}")
+	int maxPendingHotels = DEFAULT_MAX_PENDING_HOTELS;
+
+	/**
+	 * The hotels of the body are submitted as they arrive, and each result is
+	 * written, and flushed, as soon as its hotel is optimized, so the results
+	 * come in the order the hotels complete. A hotel that is not valid, or that
+	 * the {@link OptimizationAdmissionControl} sheds, has its own error, without
+	 * failing the others. The hotels are admitted by the thread that reads
+	 * them, on the length of their lines, before they are handed to the pool.
+	 */
+	@PostMapping(path = "/v1/rooms/optimizeOccupancy/portfolio",
+			consumes = OccupancyFeedEntrypoint.APPLICATION_NDJSON_VALUE,
+			produces = OccupancyFeedEntrypoint.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> getOptimizedPortfolioOccupancy(HttpServletRequest request)
+			throws IOException {
+
+		InputStream portfolio = request.getInputStream();
+		StreamingTimeoutInterceptor.markStreaming(request);
+
+		return ResponseEntity.ok().contentType(MediaType.parseMediaType(OccupancyFeedEntrypoint.APPLICATION_NDJSON_VALUE))
+				.body(outputStream -> writeResults(portfolio, outputStream));
+	}
+
+	private void writeResults(InputStream portfolio, OutputStream outputStream) throws IOException {
+		PortfolioOptimization optimization = portfolioUseCase.startPortfolioOptimization();
+		// The results are flushed in groups, not one by one
+		ObjectWriter resultWriter = objectMapper.writerFor(PortfolioHotelResultEntity.class)
+				.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+		try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8)) {
+			generator.setRootValueSeparator(null);
+
+			portfolioParser.parse(portfolio, new PortfolioParser.Listener() {
+
+				@Override
+				public void onHotel(Supplier<PortfolioHotel> hotelReader, int numberOfBytes) throws IOException {
+					Permit permit;
+					try {
+						permit = admissionControl.admitUnread(numberOfBytes);
+					} catch (AdmissionRejectedException ex) {
+						onInvalidHotel(ex.getMessage());
+						return;
+					}
+
+					optimization.submit(hotelReader, toTicket(permit));
+					writeCompletedResults(generator, resultWriter, optimization);
+				}
+
+				@Override
+				public void onInvalidHotel(String error) throws IOException {
+					optimization.reject(error);
+					writeCompletedResults(generator, resultWriter, optimization);
+				}
+			});
+
+			for (PortfolioHotelResultEntity result = take(optimization); Objects.nonNull(result); result = take(
+					optimization)) {
+				writeResult(generator, resultWriter, result);
+				generator.flush();
+			}
+		} catch (IOException | RuntimeException ex) {
+			optimization.cancel();
+			throw ex;
+		}
+	}
+
+	/**
+	 * Writes the results already completed, and waits for more while too many
+	 * hotels are pending
+	 */
+	private void writeCompletedResults(JsonGenerator generator, ObjectWriter resultWriter,
+			PortfolioOptimization optimization) throws IOException {
+
+		boolean written = false;
+
+		for (PortfolioHotelResultEntity result = optimization.poll(); Objects.nonNull(result); result = optimization
+				.poll()) {
+			writeResult(generator, resultWriter, result);
+			written = true;
+		}
+
+		while (optimization.getNumberOfPendingHotels() >= maxPendingHotels) {
+			writeResult(generator, resultWriter, take(optimization));
+			written = true;
+		}
+
+		if (written) {
+			generator.flush();
+		}
+	}
+
+	private static PortfolioHotelResultEntity take(PortfolioOptimization optimization) throws IOException {
+		try {
+			return optimization.take();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for the portfolio results");
+		}
+	}
+
+	/**
+	 * The line of a hotel bounds its guests, so the permit only shrinks on the
+	 * pool
+	 */
+	private static PortfolioOptimization.Ticket toTicket(Permit permit) {
+		return new PortfolioOptimization.Ticket() {
+
+			@Override
+			public void reweigh(int numberOfPotentialGuests) {
+				permit.shrink(numberOfPotentialGuests);
+			}
+
+			@Override
+			public void close() {
+				permit.close();
+			}
+
+		};
+	}
+
+	private static void writeResult(JsonGenerator generator, ObjectWriter resultWriter,
+			PortfolioHotelResultEntity result) throws IOException {
+		resultWriter.writeValue(generator, result);
+		generator.writeRaw('\n');
+	}
+
+}
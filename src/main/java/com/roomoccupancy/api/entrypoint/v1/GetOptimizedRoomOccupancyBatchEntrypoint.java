@@ -0,0 +1,39 @@
+package com.roomoccupancy.api.entrypoint.v1;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.roomoccupancy.api.core.entity.OccupancyScenarioResultEntity;
+import com.roomoccupancy.api.core.usecase.GetOptimizedRoomOccupancyBatchUseCase;
+import com.roomoccupancy.api.entrypoint.v1.entity.GetOptimizedRoomOccupancyBatchRequest;
+import com.roomoccupancy.api.entrypoint.v1.entity.GetOptimizedRoomOccupancyBatchResponse;
+
+/**
+ * Contains the API endpoint to get the Optimized Room Occupancy of many
+ * scenarios in a single request
+ * 
+ * @author luis
+ *
+ */
+@RestController
+public class GetOptimizedRoomOccupancyBatchEntrypoint {
+
+	@Autowired
+	GetOptimizedRoomOccupancyBatchUseCase batchUseCase;
+
+	@PostMapping("/v1/rooms/optimizeOccupancy/batch")
+	public ResponseEntity<GetOptimizedRoomOccupancyBatchResponse> getOptimizedRoomOccupancies(
+			@RequestBody GetOptimizedRoomOccupancyBatchRequest batchRequest) {
+
+		List<OccupancyScenarioResultEntity> results = batchUseCase
+				.getOptimizedRoomOccupancies(batchRequest.getScenarios());
+
+		return ResponseEntity.ok(GetOptimizedRoomOccupancyBatchResponse.of(results));
+	}
+
+}
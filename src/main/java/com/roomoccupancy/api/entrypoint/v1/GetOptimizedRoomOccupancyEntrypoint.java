@@ -1,14 +1,43 @@
 package com.roomoccupancy.api.entrypoint.v1;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Objects;
+
+import javax.servlet.http.HttpServletRequest;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import com.roomoccupancy.api.core.entity.OptimizedRoomOccupancyEntity;
+import com.roomoccupancy.api.core.exception.BusinessException;
+import com.roomoccupancy.api.core.metrics.OccupancyOptimizationMetrics;
+import com.roomoccupancy.api.core.metrics.OccupancyPhaseTimings;
 import com.roomoccupancy.api.core.usecase.GetOptimizedRoomOccupancyUseCase;
+import com.roomoccupancy.api.core.usecase.GuestOffers;
+import com.roomoccupancy.api.core.usecase.OccupancyAssignment;
+import com.roomoccupancy.api.entrypoint.configuration.StreamingTimeoutInterceptor;
+import com.roomoccupancy.api.entrypoint.configuration.admission.OptimizationAdmissionControl;
+import com.roomoccupancy.api.entrypoint.configuration.admission.OptimizationAdmissionControl.Permit;
+import com.roomoccupancy.api.entrypoint.configuration.admission.OptimizationAdmissionInterceptor;
+import com.roomoccupancy.api.entrypoint.configuration.converter.OccupancyBinaryCodec;
+import com.roomoccupancy.api.entrypoint.configuration.converter.OccupancyBinaryHttpMessageConverter;
+import com.roomoccupancy.api.entrypoint.configuration.resolver.PotentialGuests;
+import com.roomoccupancy.api.entrypoint.configuration.resolver.PotentialGuestsArgumentResolver;
 import com.roomoccupancy.api.entrypoint.v1.entity.GetOptimizedRoomOccupancyResponse;
+import com.roomoccupancy.api.entrypoint.v1.entity.OptimizedRoomOccupancyRequest;
+import com.roomoccupancy.api.entrypoint.v1.parser.OptimizedRoomOccupancyRequestParser;
 
 /**
  * Contains the API endpoint to get the Optimized Room Occupancy
@@ -19,19 +48,166 @@ import com.roomoccupancy.api.entrypoint.v1.entity.GetOptimizedRoomOccupancyRespo
 @RestController
 public class GetOptimizedRoomOccupancyEntrypoint {
 
+	static final String ASSIGNMENTS_DETAIL = "assignments";
+
+	private static final String ERROR_GUEST_IDS_MISMATCH = "There must be one guest identifier per potential guest.";
+
+	/**
+	 * Names of the room categories of the {@link OccupancyAssignment}, by index
+	 */
+	private static final String[] ROOM_CATEGORIES = { "PREMIUM", "ECONOMY" };
+
 	@Autowired
 	GetOptimizedRoomOccupancyUseCase occupancyUseCase;
 
+	@Autowired
+	OptimizedRoomOccupancyRequestParser requestParser;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Autowired(required = false)
+	OptimizationAdmissionControl admissionControl = OptimizationAdmissionControl.DISABLED;
+
+	@Autowired(required = false)
+	OccupancyOptimizationMetrics optimizationMetrics = OccupancyOptimizationMetrics.NOOP;
+
+	/**
+	 * The potential guests are bound by the {@link PotentialGuestsArgumentResolver}
+	 * straight from the query string, without an {@code Integer[]}, and the
+	 * optimization waits for the {@link OptimizationAdmissionControl}, before
+	 * the query string is read, by the {@link OptimizationAdmissionInterceptor}
+	 */
 	@GetMapping("/v1/rooms/optimizeOccupancy")
 	public ResponseEntity<GetOptimizedRoomOccupancyResponse> getOptimizedRoomOccupancy(
 			@RequestParam(name = "freePremiumRooms") Integer numberOfFreePremiumRooms,
 			@RequestParam(name = "freeEconomyRooms") Integer numberOfFreeEconomyRooms,
-			@RequestParam(name = "potentialGuests") Integer[] potencialGuests) {
+			@PotentialGuests(name = "potentialGuests") GuestOffers potencialGuests) {
+
+		OptimizedRoomOccupancyEntity optimizedOccupancy;
+		try (Permit permit = OptimizationAdmissionInterceptor.admit(admissionControl, potencialGuests.size())) {
+			optimizedOccupancy = occupancyUseCase.getOptimizedRoomOccupancy(numberOfFreePremiumRooms,
+					numberOfFreeEconomyRooms, potencialGuests);
+		}
+
+		return ResponseEntity.ok().header(ServerTimingHeader.NAME, ServerTimingHeader.of(OccupancyPhaseTimings.current()))
+				.body(GetOptimizedRoomOccupancyResponse.of(optimizedOccupancy));
+	}
+
+	/**
+	 * Same as {@link #getOptimizedRoomOccupancy(Integer, Integer, GuestOffers)}, with
+	 * the parameters sent as a JSON body, which has no length limit. The body is
+	 * parsed as a stream, so big guest lists are never bound as an
+	 * {@code Integer[]}.
+	 */
+	@PostMapping(path = "/v1/rooms/optimizeOccupancy", consumes = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<GetOptimizedRoomOccupancyResponse> postOptimizedRoomOccupancy(HttpServletRequest request)
+			throws IOException {
+
+		return getOptimizedRoomOccupancy(requestParser.parse(request.getInputStream()));
+	}
 
-		OptimizedRoomOccupancyEntity optimizedOccupancy = occupancyUseCase
-				.getOptimizedRoomOccupancy(numberOfFreePremiumRooms, numberOfFreeEconomyRooms, potencialGuests);
+	/**
+	 * Same as {@link #postOptimizedRoomOccupancy(HttpServletRequest)}, followed
+	 * by the room category of each guest, in the order of the offers, with the
+	 * identifiers of the {@code guestIds} of the body, or the positions of the
+	 * guests without them. The assignment is written straight from the
+	 * {@link OccupancyAssignment}, one guest at a time, so the memory of the
+	 * response does not grow with the number of guests.
+	 */
+	@PostMapping(path = "/v1/rooms/optimizeOccupancy", consumes = MediaType.APPLICATION_JSON_VALUE,
+			params = "detail=" + ASSIGNMENTS_DETAIL)
+	public ResponseEntity<StreamingResponseBody> postOccupancyAssignment(HttpServletRequest request)
+			throws IOException {
+
+		OptimizedRoomOccupancyRequest occupancyRequest = requestParser.parse(request.getInputStream());
+
+		String[] guestIds = occupancyRequest.getGuestIds();
+		if (Objects.nonNull(guestIds) && guestIds.length != getNumberOfPotentialGuests(occupancyRequest)) {
+			optimizationMetrics.recordRejection(ERROR_GUEST_IDS_MISMATCH);
+			throw new BusinessException(ERROR_GUEST_IDS_MISMATCH);
+		}
+
+		OccupancyAssignment assignment;
+		try (Permit permit = OptimizationAdmissionInterceptor.admit(admissionControl,
+				getNumberOfPotentialGuests(occupancyRequest))) {
+			assignment = occupancyUseCase.getOccupancyAssignment(occupancyRequest.getFreePremiumRooms(),
+					occupancyRequest.getFreeEconomyRooms(), occupancyRequest.getPotentialGuests());
+		}
+
+		StreamingTimeoutInterceptor.markStreaming(request);
+		GetOptimizedRoomOccupancyResponse response = GetOptimizedRoomOccupancyResponse
+				.of(new OptimizedRoomOccupancyEntity(assignment.getOccupancies()[0], assignment.getOccupancies()[1]));
+
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
+				.header(ServerTimingHeader.NAME, ServerTimingHeader.of(OccupancyPhaseTimings.current()))
+				.body(outputStream -> writeAssignment(outputStream, response, assignment, guestIds));
+	}
+
+	private void writeAssignment(OutputStream outputStream, GetOptimizedRoomOccupancyResponse response,
+			OccupancyAssignment assignment, String[] guestIds) throws IOException {
+
+		try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8)) {
+			generator.writeStartObject();
+			generator.writeObjectField("requestTimestamp", response.getRequestTimestamp());
+			generator.writeObjectField("result", response.getResult());
+
+			generator.writeArrayFieldStart("assignments");
+			while (assignment.next()) {
+				generator.writeStartObject();
+				if (Objects.isNull(guestIds)) {
+					generator.writeNumberField("guestId", assignment.getGuestIndex());
+				} else {
+					generator.writeStringField("guestId", guestIds[assignment.getGuestIndex()]);
+				}
+				generator.writeNumberField("offer", assignment.getOffer());
+				generator.writeFieldName("roomCategory");
+				if (assignment.getRoomCategory() == OccupancyAssignment.NO_ROOM) {
+					generator.writeNull();
+				} else {
+					generator.writeString(ROOM_CATEGORIES[assignment.getRoomCategory()]);
+				}
+				generator.writeEndObject();
+			}
+			generator.writeEndArray();
+
+			generator.writeEndObject();
+		}
+	}
+
+	/**
+	 * Same as {@link #postOptimizedRoomOccupancy(HttpServletRequest)}, with the
+	 * body in the compact binary format of the {@link OccupancyBinaryCodec},
+	 * read by the {@link OccupancyBinaryHttpMessageConverter}. The response is
+	 * binary too when the {@code Accept} header asks for it.
+	 */
+	@PostMapping(path = "/v1/rooms/optimizeOccupancy", consumes = OccupancyBinaryCodec.MEDIA_TYPE_VALUE)
+	public ResponseEntity<GetOptimizedRoomOccupancyResponse> postBinaryOptimizedRoomOccupancy(
+			@RequestBody OptimizedRoomOccupancyRequest occupancyRequest) {
+
+		return getOptimizedRoomOccupancy(occupancyRequest);
+	}
+
+	private ResponseEntity<GetOptimizedRoomOccupancyResponse> getOptimizedRoomOccupancy(
+			OptimizedRoomOccupancyRequest occupancyRequest) {
+
+		OptimizedRoomOccupancyEntity optimizedOccupancy;
+		try (Permit permit = OptimizationAdmissionInterceptor.admit(admissionControl,
+				getNumberOfPotentialGuests(occupancyRequest))) {
+			optimizedOccupancy = occupancyUseCase.getOptimizedRoomOccupancy(occupancyRequest.getFreePremiumRooms(),
+					occupancyRequest.getFreeEconomyRooms(), occupancyRequest.getPotentialGuests());
+		}
+
+		return ResponseEntity.ok().header(ServerTimingHeader.NAME, ServerTimingHeader.of(OccupancyPhaseTimings.current()))
+				.body(GetOptimizedRoomOccupancyResponse.of(optimizedOccupancy));
+	}
 
-		return ResponseEntity.ok(GetOptimizedRoomOccupancyResponse.of(optimizedOccupancy));
+	/**
+	 * A request without guests is still admitted, to be rejected by the usecase
+	 */
+	private static int getNumberOfPotentialGuests(OptimizedRoomOccupancyRequest occupancyRequest) {
+		return Objects.isNull(occupancyRequest.getPotentialGuests()) ? 0
+				: occupancyRequest.getPotentialGuests().size();
 	}
 
 }
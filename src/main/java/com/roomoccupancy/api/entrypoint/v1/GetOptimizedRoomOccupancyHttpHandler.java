@@ -0,0 +1,196 @@
+package com.roomoccupancy.api.entrypoint.v1;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.roomoccupancy.api.core.entity.OptimizedRoomOccupancyEntity;
+import com.roomoccupancy.api.core.exception.BusinessException;
+import com.roomoccupancy.api.core.metrics.OccupancyPhaseTimings;
+import com.roomoccupancy.api.core.usecase.GetOptimizedRoomOccupancyUseCase;
+import com.roomoccupancy.api.core.usecase.GuestOffers;
+import com.roomoccupancy.api.entrypoint.v1.entity.GetOptimizedRoomOccupancyResponse;
+import com.roomoccupancy.api.entrypoint.v1.entity.OptimizedRoomOccupancyRequest;
+import com.roomoccupancy.api.entrypoint.v1.parser.OptimizedRoomOccupancyRequestParser;
+import com.roomoccupancy.api.entrypoint.v1.parser.PotentialGuestsParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+/**
+ * Serves the same contract of the {@link GetOptimizedRoomOccupancyEntrypoint}
+ * on the JDK {@code HttpServer}, for the launchers without a Spring context.
+ * The business errors are answered as bad requests, with the same body of the
+ * Spring exception handler.
+ *
+ * @author luis
+ *
+ */
+public class GetOptimizedRoomOccupancyHttpHandler implements HttpHandler {
+
+	public static final String PATH = "/v1/rooms/optimizeOccupancy";
+
+	private static final String APPLICATION_JSON_UTF8_VALUE = "application/json;charset=UTF-8";
+
+	private static final String ERROR_REQUIRED_PARAMETER = "Required %s parameter '%s' is not present";
+
+	private static final String ERROR_INVALID_INTEGER_PARAMETER = "Failed to convert value of type 'java.lang.String' to required type 'java.lang.Integer'";
+
+	private static final String ERROR_NOT_FOUND = "Not Found";
+
+	private static final String ERROR_METHOD_NOT_ALLOWED = "Request method '%s' not supported";
+
+	private static final int HTTP_OK = 200;
+
+	private static final int HTTP_BAD_REQUEST = 400;
+
+	private static final int HTTP_NOT_FOUND = 404;
+
+	private static final int HTTP_METHOD_NOT_ALLOWED = 405;
+
+	private static final int HTTP_INTERNAL_SERVER_ERROR = 500;
+
+	private final GetOptimizedRoomOccupancyUseCase occupancyUseCase;
+
+	private final OptimizedRoomOccupancyRequestParser requestParser;
+
+	private final ObjectMapper objectMapper;
+
+	public GetOptimizedRoomOccupancyHttpHandler(GetOptimizedRoomOccupancyUseCase occupancyUseCase,
+			ObjectMapper objectMapper) {
+		this.occupancyUseCase = occupancyUseCase;
+		this.requestParser = new OptimizedRoomOccupancyRequestParser(objectMapper);
+		this.objectMapper = objectMapper;
+	}
+
+	@Override
+	public void handle(HttpExchange exchange) throws IOException {
+		try (InputStream body = exchange.getRequestBody()) {
+			if (!PATH.equals(exchange.getRequestURI().getPath())) {
+				sendError(exchange, HTTP_NOT_FOUND, ERROR_NOT_FOUND);
+			} else if ("GET".equals(exchange.getRequestMethod())) {
+				sendOptimizedRoomOccupancy(exchange, getOptimizedRoomOccupancy(exchange.getRequestURI().getRawQuery()));
+			} else if ("POST".equals(exchange.getRequestMethod())) {
+				sendOptimizedRoomOccupancy(exchange, postOptimizedRoomOccupancy(body));
+			} else {
+				sendError(exchange, HTTP_METHOD_NOT_ALLOWED,
+						String.format(ERROR_METHOD_NOT_ALLOWED, exchange.getRequestMethod()));
+			}
+		} catch (BusinessException ex) {
+			sendError(exchange, HTTP_BAD_REQUEST, ex.getMessage());
+		} catch (RuntimeException ex) {
+			sendError(exchange, HTTP_INTERNAL_SERVER_ERROR, ex.getMessage());
+		} finally {
+			exchange.close();
+		}
+	}
+
+	private OptimizedRoomOccupancyEntity getOptimizedRoomOccupancy(String queryString) {
+		String rawQuery = Objects.toString(queryString, "");
+
+		Integer numberOfFreePremiumRooms = getRequiredInteger(rawQuery, "freePremiumRooms");
+		Integer numberOfFreeEconomyRooms = getRequiredInteger(rawQuery, "freeEconomyRooms");
+
+		GuestOffers potentialGuests = new GuestOffers();
+		if (!PotentialGuestsParser.parseQueryString(rawQuery, "potentialGuests", potentialGuests)) {
+			throw new BusinessException(String.format(ERROR_REQUIRED_PARAMETER, "int[]", "potentialGuests"));
+		}
+
+		return occupancyUseCase.getOptimizedRoomOccupancy(numberOfFreePremiumRooms, numberOfFreeEconomyRooms,
+				potentialGuests);
+	}
+
+	private OptimizedRoomOccupancyEntity postOptimizedRoomOccupancy(InputStream body) {
+		OptimizedRoomOccupancyRequest occupancyRequest;
+		try {
+			occupancyRequest = requestParser.parse(body);
+		} catch (IOException ex) {
+			throw new IllegalStateException(ex);
+		}
+
+		return occupancyUseCase.getOptimizedRoomOccupancy(occupancyRequest.getFreePremiumRooms(),
+				occupancyRequest.getFreeEconomyRooms(), occupancyRequest.getPotentialGuests());
+	}
+
+	/**
+	 * @return Value of the first occurrence of the parameter
+	 * @throws BusinessException
+	 *             if the parameter is absent or not an Integer, as Spring's
+	 *             {@code @RequestParam}
+	 */
+	static Integer getRequiredInteger(String rawQuery, String parameterName) {
+		int pairStart = 0;
+
+		while (pairStart < rawQuery.length()) {
+			int pairEnd = rawQuery.indexOf('&', pairStart);
+			if (pairEnd < 0) {
+				pairEnd = rawQuery.length();
+			}
+
+			int valueStart = pairStart + parameterName.length();
+
+			if (rawQuery.startsWith(parameterName, pairStart) && valueStart < pairEnd
+					&& rawQuery.charAt(valueStart) == '=') {
+				return parseInteger(decode(rawQuery.substring(valueStart + 1, pairEnd)));
+			}
+
+			pairStart = pairEnd + 1;
+		}
+
+		throw new BusinessException(String.format(ERROR_REQUIRED_PARAMETER, "Integer", parameterName));
+	}
+
+	private static Integer parseInteger(String value) {
+		try {
+			return Integer.valueOf(value.trim());
+		} catch (NumberFormatException ex) {
+			throw new BusinessException(ERROR_INVALID_INTEGER_PARAMETER);
+		}
+	}
+
+	private static String decode(String encodedValue) {
+		try {
+			return URLDecoder.decode(encodedValue, StandardCharsets.UTF_8.name());
+		} catch (UnsupportedEncodingException | IllegalArgumentException ex) {
+			throw new BusinessException(ERROR_INVALID_INTEGER_PARAMETER);
+		}
+	}
+
+	private void sendOptimizedRoomOccupancy(HttpExchange exchange, OptimizedRoomOccupancyEntity optimizedOccupancy)
+			throws IOException {
+		exchange.getResponseHeaders().set(ServerTimingHeader.NAME,
+				ServerTimingHeader.of(OccupancyPhaseTimings.current()));
+
+		send(exchange, HTTP_OK, objectMapper.writeValueAsBytes(GetOptimizedRoomOccupancyResponse.of(optimizedOccupancy)));
+	}
+
+	private void sendError(HttpExchange exchange, int httpStatusCode, String error) throws IOException {
+		ByteArrayOutputStream body = new ByteArrayOutputStream(128);
+
+		try (JsonGenerator generator = objectMapper.getFactory().createGenerator(body, JsonEncoding.UTF8)) {
+			generator.writeStartObject();
+			generator.writeStringField("error", error);
+			generator.writeNumberField("httpStatusCode", httpStatusCode);
+			generator.writeEndObject();
+		}
+
+		send(exchange, httpStatusCode, body.toByteArray());
+	}
+
+	private static void send(HttpExchange exchange, int httpStatusCode, byte[] body) throws IOException {
+		exchange.getResponseHeaders().set("Content-Type", APPLICATION_JSON_UTF8_VALUE);
+		exchange.sendResponseHeaders(httpStatusCode, body.length);
+
+		try (OutputStream responseBody = exchange.getResponseBody()) {
+			responseBody.write(body);
+		}
+	}
+
+}
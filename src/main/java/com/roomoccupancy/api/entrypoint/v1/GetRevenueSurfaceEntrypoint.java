@@ -0,0 +1,85 @@
+package com.roomoccupancy.api.entrypoint.v1;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.roomoccupancy.api.core.usecase.GetRevenueSurfaceUseCase;
+import com.roomoccupancy.api.core.usecase.GuestOffers;
+import com.roomoccupancy.api.core.usecase.RevenueSurface;
+import com.roomoccupancy.api.entrypoint.configuration.resolver.PotentialGuests;
+
+/**
+ * Contains the API endpoint to get the income of the Optimized Room Occupancy
+ * for every number of free rooms up to a maximum
+ * 
+ * @author luis
+ *
+ */
+@RestController
+public class GetRevenueSurfaceEntrypoint {
+
+	@Autowired
+	GetRevenueSurfaceUseCase revenueSurfaceUseCase;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	/**
+	 * The surface is validated and built before the response starts, so the
+	 * business errors are still answered as bad requests. The income matrix,
+	 * indexed by the number of free Premium rooms and then of free Economy rooms,
+	 * is written as it is read, without being held in memory.
+	 */
+	@GetMapping("/v1/rooms/revenueSurface")
+	public ResponseEntity<StreamingResponseBody> getRevenueSurface(
+			@RequestParam(name = "maxFreePremiumRooms") Integer maxFreePremiumRooms,
+			@RequestParam(name = "maxFreeEconomyRooms") Integer maxFreeEconomyRooms,
+			@PotentialGuests(name = "potentialGuests") GuestOffers potentialGuests) {
+
+		RevenueSurface revenueSurface = revenueSurfaceUseCase.getRevenueSurface(maxFreePremiumRooms,
+				maxFreeEconomyRooms, potentialGuests);
+
+		Instant requestTimestamp = Instant.now();
+
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON_UTF8)
+				.body(outputStream -> writeRevenueSurface(outputStream, requestTimestamp, revenueSurface,
+						maxFreePremiumRooms, maxFreeEconomyRooms));
+	}
+
+	private void writeRevenueSurface(OutputStream outputStream, Instant requestTimestamp,
+			RevenueSurface revenueSurface, int maxFreePremiumRooms, int maxFreeEconomyRooms) throws IOException {
+
+		try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8)) {
+			generator.writeStartObject();
+			generator.writeObjectField("requestTimestamp", requestTimestamp);
+			generator.writeNumberField("numberOfPotentialGuests", revenueSurface.getNumberOfPotentialGuests());
+			generator.writeNumberField("maxFreePremiumRooms", maxFreePremiumRooms);
+			generator.writeNumberField("maxFreeEconomyRooms", maxFreeEconomyRooms);
+
+			generator.writeArrayFieldStart("generatedIncome");
+			for (int premiumRooms = 0; premiumRooms <= maxFreePremiumRooms; premiumRooms++) {
+				generator.writeStartArray();
+				for (int economyRooms = 0; economyRooms <= maxFreeEconomyRooms; economyRooms++) {
+					generator.writeNumber(revenueSurface.getGeneratedIncome(premiumRooms, economyRooms));
+				}
+				generator.writeEndArray();
+			}
+			generator.writeEndArray();
+
+			generator.writeEndObject();
+		}
+	}
+
+}
@@ -0,0 +1,96 @@
+package com.roomoccupancy.api.entrypoint.v1;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.roomoccupancy.api.core.entity.HotelInventoryEntity;
+import com.roomoccupancy.api.core.entity.OptimizedRoomOccupancyEntity;
+import com.roomoccupancy.api.core.metrics.OccupancyPhaseTimings;
+import com.roomoccupancy.api.core.usecase.GuestOffers;
+import com.roomoccupancy.api.core.usecase.HotelInventoryUseCase;
+import com.roomoccupancy.api.entrypoint.configuration.admission.OptimizationAdmissionControl;
+import com.roomoccupancy.api.entrypoint.configuration.admission.OptimizationAdmissionControl.Permit;
+import com.roomoccupancy.api.entrypoint.configuration.resolver.PotentialGuests;
+import com.roomoccupancy.api.entrypoint.v1.entity.GetOptimizedRoomOccupancyResponse;
+
+/**
+ * Contains the API endpoints of the inventory of the hotels, updated by their
+ * booking events, and the optimization of the offers of a hotel on its current
+ * inventory
+ * 
+ * @author luis
+ *
+ */
+@RestController
+public class HotelInventoryEntrypoint {
+
+	@Autowired
+	HotelInventoryUseCase inventoryUseCase;
+
+	@Autowired(required = false)
+	OptimizationAdmissionControl admissionControl = OptimizationAdmissionControl.DISABLED;
+
+	@PutMapping("/v1/hotels/{hotelId}/inventory")
+	public ResponseEntity<HotelInventoryEntity> putInventory(@PathVariable String hotelId,
+			@RequestParam(name = "freePremiumRooms") Integer numberOfFreePremiumRooms,
+			@RequestParam(name = "freeEconomyRooms") Integer numberOfFreeEconomyRooms,
+			@RequestParam(name = "premiumMinimumNightValue", required = false) Integer premiumMinimumNightValue) {
+
+		return ResponseEntity.ok(inventoryUseCase.putInventory(hotelId, numberOfFreePremiumRooms,
+				numberOfFreeEconomyRooms, premiumMinimumNightValue));
+	}
+
+	@GetMapping("/v1/hotels/{hotelId}/inventory")
+	public ResponseEntity<HotelInventoryEntity> getInventory(@PathVariable String hotelId) {
+		return ResponseEntity.ok(inventoryUseCase.getInventory(hotelId));
+	}
+
+	@DeleteMapping("/v1/hotels/{hotelId}/inventory")
+	public ResponseEntity<Void> deleteInventory(@PathVariable String hotelId) {
+		inventoryUseCase.deleteInventory(hotelId);
+
+		return ResponseEntity.noContent().build();
+	}
+
+	@PostMapping("/v1/hotels/{hotelId}/inventory/bookings")
+	public ResponseEntity<HotelInventoryEntity> bookRooms(@PathVariable String hotelId,
+			@RequestParam(name = "premiumRooms", defaultValue = "0") int premiumRooms,
+			@RequestParam(name = "economyRooms", defaultValue = "0") int economyRooms) {
+
+		return ResponseEntity.ok(inventoryUseCase.bookRooms(hotelId, premiumRooms, economyRooms));
+	}
+
+	@PostMapping("/v1/hotels/{hotelId}/inventory/cancellations")
+	public ResponseEntity<HotelInventoryEntity> releaseRooms(@PathVariable String hotelId,
+			@RequestParam(name = "premiumRooms", defaultValue = "0") int premiumRooms,
+			@RequestParam(name = "economyRooms", defaultValue = "0") int economyRooms) {
+
+		return ResponseEntity.ok(inventoryUseCase.releaseRooms(hotelId, premiumRooms, economyRooms));
+	}
+
+	/**
+	 * Same as
+	 * {@link GetOptimizedRoomOccupancyEntrypoint#getOptimizedRoomOccupancy(Integer, Integer, GuestOffers)},
+	 * with the free rooms and the Premium minimum night value of the hotel
+	 */
+	@GetMapping("/v1/hotels/{hotelId}/rooms/optimizeOccupancy")
+	public ResponseEntity<GetOptimizedRoomOccupancyResponse> getOptimizedRoomOccupancy(@PathVariable String hotelId,
+			@PotentialGuests(name = "potentialGuests") GuestOffers potencialGuests) {
+
+		OptimizedRoomOccupancyEntity optimizedOccupancy;
+		try (Permit permit = admissionControl.admit(potencialGuests.size())) {
+			optimizedOccupancy = inventoryUseCase.getOptimizedRoomOccupancy(hotelId, potencialGuests);
+		}
+
+		return ResponseEntity.ok().header(ServerTimingHeader.NAME, ServerTimingHeader.of(OccupancyPhaseTimings.current()))
+				.body(GetOptimizedRoomOccupancyResponse.of(optimizedOccupancy));
+	}
+
+}
@@ -0,0 +1,163 @@
+package com.roomoccupancy.api.entrypoint.v1;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.roomoccupancy.api.core.entity.OptimizedRoomOccupancyEntity;
+import com.roomoccupancy.api.core.exception.BusinessException;
+import com.roomoccupancy.api.core.usecase.OccupancyFeedAllocator;
+import com.roomoccupancy.api.entrypoint.configuration.StreamingTimeoutInterceptor;
+import com.roomoccupancy.api.entrypoint.configuration.admission.AdmissionRejectedException;
+import com.roomoccupancy.api.entrypoint.v1.parser.GuestOffersFeedParser;
+
+/**
+ * Contains the API endpoint that keeps the Optimized Room Occupancy of a feed
+ * of offers up to date, over a single long-lived request
+ *
+ * @author luis
+ *
+ */
+@RestController
+public class OccupancyFeedEntrypoint {
+
+	static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+	private static final int DEFAULT_MAX_OPEN_FEEDS = 16;
+
+	private static final String ERROR_TOO_MANY_FEEDS = "There are too many open feeds, try again later.";
+
+	@Autowired
+	GuestOffersFeedParser feedParser;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	/**
+	 * Feeds streamed at the same time. Each one holds a thread of the async
+	 * pool, shared with the other streams, for as long as its source lasts, so
+	 * the endless feeds cannot take the whole pool.
+	 */
+	@Value("${roomoccupancy.feed.max-open-feeds:" + DEFAULT_MAX_OPEN_FEEDS + "}")
+	int maxOpenFeeds = DEFAULT_MAX_OPEN_FEEDS;
+
+	private final AtomicInteger openFeeds = new AtomicInteger();
+
+	/**
+	 * The free rooms are validated before the response starts, so their errors
+	 * are still answered as bad requests. Then the offers of the body are read as
+	 * they arrive, and a snapshot of the occupancy is written, and flushed, after
+	 * each line of offers that changed it. An invalid line ends the feed with an
+	 * error line. The feed is a long-lived stream, so it is not cut by the
+	 * default async timeout. Past the open feeds allowed, a new one is answered
+	 * with {@link HttpStatus#SERVICE_UNAVAILABLE}.
+	 */
+	@PostMapping(path = "/v1/rooms/optimizeOccupancy/feed", consumes = APPLICATION_NDJSON_VALUE,
+			produces = APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> feedOptimizedRoomOccupancy(
+			@RequestParam(name = "freePremiumRooms") Integer numberOfFreePremiumRooms,
+			@RequestParam(name = "freeEconomyRooms") Integer numberOfFreeEconomyRooms, HttpServletRequest request)
+			throws IOException {
+
+		OccupancyFeedAllocator allocator = OccupancyFeedAllocator.of(numberOfFreePremiumRooms,
+				numberOfFreeEconomyRooms);
+
+		InputStream feed = request.getInputStream();
+		open(request);
+		StreamingTimeoutInterceptor.markStreaming(request);
+
+		return ResponseEntity.ok().contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+				.body(outputStream -> writeSnapshots(feed, outputStream, allocator));
+	}
+
+	/**
+	 * The feed is closed when its async request completes, however it ends, even
+	 * if it never got a thread of the pool
+	 */
+	private void open(HttpServletRequest request) {
+		if (openFeeds.incrementAndGet() > maxOpenFeeds) {
+			openFeeds.decrementAndGet();
+			throw new AdmissionRejectedException(ERROR_TOO_MANY_FEEDS, HttpStatus.SERVICE_UNAVAILABLE);
+		}
+
+		WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(OccupancyFeedEntrypoint.class,
+				new CallableProcessingInterceptor() {
+
+					@Override
+					public <T> void afterCompletion(NativeWebRequest webRequest, Callable<T> task) {
+						openFeeds.decrementAndGet();
+					}
+				});
+	}
+
+	int getOpenFeeds() {
+		return openFeeds.get();
+	}
+
+	private void writeSnapshots(InputStream feed, OutputStream outputStream, OccupancyFeedAllocator allocator)
+			throws IOException {
+
+		try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8)) {
+			generator.setRootValueSeparator(null);
+			writeSnapshot(generator, allocator);
+
+			try {
+				feedParser.parse(feed, new GuestOffersFeedParser.Listener() {
+
+					private boolean changed;
+
+					@Override
+					public void onOffer(int guestOffer) {
+						changed |= allocator.add(guestOffer);
+					}
+
+					@Override
+					public void onEndOfLine() throws IOException {
+						if (changed) {
+							writeSnapshot(generator, allocator);
+							changed = false;
+						}
+					}
+				});
+			} catch (BusinessException ex) {
+				generator.writeStartObject();
+				generator.writeStringField("error", ex.getMessage());
+				generator.writeEndObject();
+				generator.writeRaw('\n');
+			}
+		}
+	}
+
+	private void writeSnapshot(JsonGenerator generator, OccupancyFeedAllocator allocator) throws IOException {
+		OptimizedRoomOccupancyEntity optimizedOccupancy = allocator.getOptimizedRoomOccupancy();
+
+		generator.writeStartObject();
+		generator.writeNumberField("numberOfPotentialGuests", allocator.getNumberOfPotentialGuests());
+		generator.writeObjectField("premiumOccupancy", optimizedOccupancy.getPremiumOccupancy());
+		generator.writeObjectField("economyOccupancy", optimizedOccupancy.getEconomyOccupancy());
+		generator.writeEndObject();
+		generator.writeRaw('\n');
+		generator.flush();
+	}
+
+}
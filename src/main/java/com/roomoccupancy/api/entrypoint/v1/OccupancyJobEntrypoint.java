@@ -0,0 +1,87 @@
+package com.roomoccupancy.api.entrypoint.v1;
+
+import java.io.IOException;
+import java.net.URI;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.roomoccupancy.api.core.entity.OccupancyJobEntity;
+import com.roomoccupancy.api.core.entity.OffersFileFormat;
+import com.roomoccupancy.api.core.usecase.OccupancyJobUseCase;
+import com.roomoccupancy.api.entrypoint.v1.entity.OccupancyJobRequest;
+import com.roomoccupancy.api.entrypoint.v1.entity.OccupancyJobResponse;
+
+/**
+ * Contains the API endpoints of the occupancy jobs, that optimize offers files
+ * too big for a synchronous request
+ * 
+ * @author luis
+ *
+ */
+@RestController
+public class OccupancyJobEntrypoint {
+
+	private static final String OCCUPANCY_JOBS_URL = "/v1/rooms/optimizeOccupancy/jobs";
+
+	@Autowired
+	OccupancyJobUseCase jobUseCase;
+
+	private static final String TEXT_CSV_VALUE = "text/csv";
+
+	/**
+	 * Submits a job for the offers of the body, a binary file of 32-bit
+	 * little-endian Integers, or a CSV file when the content type is
+	 * {@code text/csv}
+	 */
+	@PostMapping(path = OCCUPANCY_JOBS_URL, consumes = { MediaType.APPLICATION_OCTET_STREAM_VALUE, TEXT_CSV_VALUE })
+	public ResponseEntity<OccupancyJobResponse> submitJob(
+			@RequestParam(name = "freePremiumRooms") Integer numberOfFreePremiumRooms,
+			@RequestParam(name = "freeEconomyRooms") Integer numberOfFreeEconomyRooms, HttpServletRequest request)
+			throws IOException {
+
+		OffersFileFormat format = MediaType.parseMediaType(request.getContentType())
+				.isCompatibleWith(MediaType.parseMediaType(TEXT_CSV_VALUE)) ? OffersFileFormat.CSV
+						: OffersFileFormat.BINARY;
+
+		return getAcceptedResponse(jobUseCase.submitJob(numberOfFreePremiumRooms, numberOfFreeEconomyRooms,
+				request.getInputStream(), format));
+	}
+
+	/**
+	 * Submits a job for an offers file that is already in the offers directory
+	 */
+	@PostMapping(path = OCCUPANCY_JOBS_URL, consumes = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<OccupancyJobResponse> submitJob(@RequestBody OccupancyJobRequest jobRequest) {
+		return getAcceptedResponse(jobUseCase.submitJob(jobRequest.getFreePremiumRooms(),
+				jobRequest.getFreeEconomyRooms(), jobRequest.getOffersFile(), jobRequest.getFormat()));
+	}
+
+	@GetMapping(OCCUPANCY_JOBS_URL + "/{jobId}")
+	public ResponseEntity<OccupancyJobResponse> getJob(@PathVariable String jobId) {
+		return ResponseEntity.ok(OccupancyJobResponse.of(jobUseCase.getJob(jobId)));
+	}
+
+	@DeleteMapping(OCCUPANCY_JOBS_URL + "/{jobId}")
+	public ResponseEntity<Void> deleteJob(@PathVariable String jobId) {
+		jobUseCase.deleteJob(jobId);
+
+		return ResponseEntity.noContent().build();
+	}
+
+	private ResponseEntity<OccupancyJobResponse> getAcceptedResponse(OccupancyJobEntity job) {
+		return ResponseEntity.accepted().location(URI.create(OCCUPANCY_JOBS_URL + "/" + job.getJobId()))
+				.body(OccupancyJobResponse.of(job));
+	}
+
+}
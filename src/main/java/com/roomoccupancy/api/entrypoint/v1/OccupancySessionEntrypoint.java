@@ -0,0 +1,69 @@
+package com.roomoccupancy.api.entrypoint.v1;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.roomoccupancy.api.core.entity.OccupancySessionEntity;
+import com.roomoccupancy.api.core.usecase.OccupancySessionUseCase;
+import com.roomoccupancy.api.entrypoint.v1.entity.OccupancySessionResponse;
+
+/**
+ * Contains the API endpoints of the occupancy sessions, where the potential
+ * guests' offers are added and removed one at a time
+ * 
+ * @author luis
+ *
+ */
+@RestController
+public class OccupancySessionEntrypoint {
+
+	@Autowired
+	OccupancySessionUseCase sessionUseCase;
+
+	@PostMapping("/v1/rooms/occupancySessions")
+	public ResponseEntity<OccupancySessionResponse> createSession(
+			@RequestParam(name = "freePremiumRooms") Integer numberOfFreePremiumRooms,
+			@RequestParam(name = "freeEconomyRooms") Integer numberOfFreeEconomyRooms) {
+
+		OccupancySessionEntity session = sessionUseCase.createSession(numberOfFreePremiumRooms,
+				numberOfFreeEconomyRooms);
+
+		return ResponseEntity.status(HttpStatus.CREATED).body(getResponse(session));
+	}
+
+	@GetMapping("/v1/rooms/occupancySessions/{sessionId}/optimizeOccupancy")
+	public ResponseEntity<OccupancySessionResponse> getOptimizedRoomOccupancy(@PathVariable String sessionId) {
+		return ResponseEntity.ok(getResponse(sessionUseCase.getSession(sessionId)));
+	}
+
+	@PostMapping("/v1/rooms/occupancySessions/{sessionId}/potentialGuests")
+	public ResponseEntity<OccupancySessionResponse> addPotentialGuest(@PathVariable String sessionId,
+			@RequestParam(name = "offer") Integer guestOffer) {
+		return ResponseEntity.ok(getResponse(sessionUseCase.addPotentialGuest(sessionId, guestOffer)));
+	}
+
+	@DeleteMapping("/v1/rooms/occupancySessions/{sessionId}/potentialGuests/{offer}")
+	public ResponseEntity<OccupancySessionResponse> removePotentialGuest(@PathVariable String sessionId,
+			@PathVariable(name = "offer") Integer guestOffer) {
+		return ResponseEntity.ok(getResponse(sessionUseCase.removePotentialGuest(sessionId, guestOffer)));
+	}
+
+	@DeleteMapping("/v1/rooms/occupancySessions/{sessionId}")
+	public ResponseEntity<Void> deleteSession(@PathVariable String sessionId) {
+		sessionUseCase.deleteSession(sessionId);
+
+		return ResponseEntity.noContent().build();
+	}
+
+	private OccupancySessionResponse getResponse(OccupancySessionEntity session) {
+		return OccupancySessionResponse.of(session, sessionUseCase.getOptimizedRoomOccupancy(session.getSessionId()));
+	}
+
+}
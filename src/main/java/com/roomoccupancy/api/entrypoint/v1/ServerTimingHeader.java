@@ -0,0 +1,43 @@
+package com.roomoccupancy.api.entrypoint.v1;
+
+import java.util.Locale;
+
+import com.roomoccupancy.api.core.metrics.OccupancyPhaseTimings;
+import com.roomoccupancy.api.core.metrics.OccupancyPhaseTimings.Phase;
+
+/**
+ * Builds the {@code Server-Timing} response header, with how long each phase
+ * of the optimization took, in milliseconds
+ * 
+ * <pre>
+ * Server-Timing: validation;dur=0.012, ordering;dur=0.004, premium;dur=0.002, economy;dur=0.001
+ * </pre>
+ * 
+ * @author luis
+ *
+ */
+final class ServerTimingHeader {
+
+	static final String NAME = "Server-Timing";
+
+	private static final double NANOS_PER_MILLI = 1_000_000d;
+
+	private ServerTimingHeader() {
+	}
+
+	static String of(OccupancyPhaseTimings timings) {
+		StringBuilder header = new StringBuilder(96);
+
+		for (Phase phase : Phase.values()) {
+			if (header.length() > 0) {
+				header.append(", ");
+			}
+
+			header.append(phase.getMetricName()).append(";dur=").append(String.format(Locale.ROOT, "%.3f",
+					timings.getDurationInNanos(phase) / NANOS_PER_MILLI));
+		}
+
+		return header.toString();
+	}
+
+}
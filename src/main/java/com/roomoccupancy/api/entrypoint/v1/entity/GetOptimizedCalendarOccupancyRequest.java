@@ -0,0 +1,47 @@
+package com.roomoccupancy.api.entrypoint.v1.entity;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.roomoccupancy.api.core.entity.NightInventoryEntity;
+import com.roomoccupancy.api.core.entity.StayOfferEntity;
+import com.roomoccupancy.api.entrypoint.v1.GetOptimizedCalendarOccupancyEntrypoint;
+
+/**
+ * Request body of the
+ * {@link GetOptimizedCalendarOccupancyEntrypoint#getOptimizedCalendarOccupancy(GetOptimizedCalendarOccupancyRequest)}
+ * 
+ * @author luis
+ *
+ */
+public class GetOptimizedCalendarOccupancyRequest {
+
+	private LocalDate firstNight;
+
+	private List<NightInventoryEntity> nights;
+
+	private List<StayOfferEntity> stays;
+
+	public GetOptimizedCalendarOccupancyRequest() {
+	}
+
+	public GetOptimizedCalendarOccupancyRequest(LocalDate firstNight, List<NightInventoryEntity> nights,
+			List<StayOfferEntity> stays) {
+		this.firstNight = firstNight;
+		this.nights = nights;
+		this.stays = stays;
+	}
+
+	public LocalDate getFirstNight() {
+		return firstNight;
+	}
+
+	public List<NightInventoryEntity> getNights() {
+		return nights;
+	}
+
+	public List<StayOfferEntity> getStays() {
+		return stays;
+	}
+
+}
@@ -0,0 +1,49 @@
+package com.roomoccupancy.api.entrypoint.v1.entity;
+
+import java.time.Instant;
+
+import com.roomoccupancy.api.core.entity.OptimizedCalendarOccupancyEntity;
+import com.roomoccupancy.api.entrypoint.v1.GetOptimizedCalendarOccupancyEntrypoint;
+
+/**
+ * Response of the
+ * {@link GetOptimizedCalendarOccupancyEntrypoint#getOptimizedCalendarOccupancy(GetOptimizedCalendarOccupancyRequest)}
+ * 
+ * @author luis
+ *
+ */
+public class GetOptimizedCalendarOccupancyResponse {
+
+	private Instant requestTimestamp;
+
+	private OptimizedCalendarOccupancyEntity result;
+
+	public GetOptimizedCalendarOccupancyResponse() {
+	}
+
+	public GetOptimizedCalendarOccupancyResponse(Instant requestTimestamp, OptimizedCalendarOccupancyEntity result) {
+		this.requestTimestamp = requestTimestamp;
+		this.result = result;
+	}
+
+	/**
+	 * Creates a response with the result passed as argument, and with
+	 * {@link Instant#now()} as request timestamp
+	 * 
+	 * @param result
+	 *            Optimized occupancy of the calendar
+	 * @return New instance of GetOptimizedCalendarOccupancyResponse
+	 */
+	public static GetOptimizedCalendarOccupancyResponse of(OptimizedCalendarOccupancyEntity result) {
+		return new GetOptimizedCalendarOccupancyResponse(Instant.now(), result);
+	}
+
+	public Instant getRequestTimestamp() {
+		return requestTimestamp;
+	}
+
+	public OptimizedCalendarOccupancyEntity getResult() {
+		return result;
+	}
+
+}
@@ -0,0 +1,40 @@
+package com.roomoccupancy.api.entrypoint.v1.entity;
+
+import java.util.List;
+
+import com.roomoccupancy.api.core.entity.RoomCategoryEntity;
+import com.roomoccupancy.api.core.usecase.GuestOffers;
+import com.roomoccupancy.api.entrypoint.v1.GetOptimizedCategoryOccupancyEntrypoint;
+import com.roomoccupancy.api.entrypoint.v1.parser.OptimizedRoomOccupancyRequestParser;
+
+/**
+ * Request body of the
+ * {@link GetOptimizedCategoryOccupancyEntrypoint#getOptimizedCategoryOccupancy(javax.servlet.http.HttpServletRequest)},
+ * read by the {@link OptimizedRoomOccupancyRequestParser}
+ * 
+ * @author luis
+ *
+ */
+public class GetOptimizedCategoryOccupancyRequest {
+
+	private List<RoomCategoryEntity> categories;
+
+	private GuestOffers potentialGuests;
+
+	public GetOptimizedCategoryOccupancyRequest() {
+	}
+
+	public GetOptimizedCategoryOccupancyRequest(List<RoomCategoryEntity> categories, GuestOffers potentialGuests) {
+		this.categories = categories;
+		this.potentialGuests = potentialGuests;
+	}
+
+	public List<RoomCategoryEntity> getCategories() {
+		return categories;
+	}
+
+	public GuestOffers getPotentialGuests() {
+		return potentialGuests;
+	}
+
+}
@@ -0,0 +1,50 @@
+package com.roomoccupancy.api.entrypoint.v1.entity;
+
+import java.time.Instant;
+import java.util.List;
+
+import com.roomoccupancy.api.core.entity.CategoryOccupancyEntity;
+import com.roomoccupancy.api.entrypoint.v1.GetOptimizedCategoryOccupancyEntrypoint;
+
+/**
+ * Response of the
+ * {@link GetOptimizedCategoryOccupancyEntrypoint#getOptimizedCategoryOccupancy(javax.servlet.http.HttpServletRequest)}
+ * 
+ * @author luis
+ *
+ */
+public class GetOptimizedCategoryOccupancyResponse {
+
+	private Instant requestTimestamp;
+
+	private List<CategoryOccupancyEntity> result;
+
+	public GetOptimizedCategoryOccupancyResponse() {
+	}
+
+	public GetOptimizedCategoryOccupancyResponse(Instant requestTimestamp, List<CategoryOccupancyEntity> result) {
+		this.requestTimestamp = requestTimestamp;
+		this.result = result;
+	}
+
+	/**
+	 * Creates a response with the result passed as argument, and with
+	 * {@link Instant#now()} as request timestamp
+	 * 
+	 * @param result
+	 *            Occupancy of each category
+	 * @return New instance of GetOptimizedCategoryOccupancyResponse
+	 */
+	public static GetOptimizedCategoryOccupancyResponse of(List<CategoryOccupancyEntity> result) {
+		return new GetOptimizedCategoryOccupancyResponse(Instant.now(), result);
+	}
+
+	public Instant getRequestTimestamp() {
+		return requestTimestamp;
+	}
+
+	public List<CategoryOccupancyEntity> getResult() {
+		return result;
+	}
+
+}
@@ -0,0 +1,30 @@
+package com.roomoccupancy.api.entrypoint.v1.entity;
+
+import java.util.List;
+
+import com.roomoccupancy.api.core.entity.OccupancyScenarioEntity;
+import com.roomoccupancy.api.entrypoint.v1.GetOptimizedRoomOccupancyBatchEntrypoint;
+
+/**
+ * Request body of the
+ * {@link GetOptimizedRoomOccupancyBatchEntrypoint#getOptimizedRoomOccupancies(GetOptimizedRoomOccupancyBatchRequest)}
+ * 
+ * @author luis
+ *
+ */
+public class GetOptimizedRoomOccupancyBatchRequest {
+
+	private List<OccupancyScenarioEntity> scenarios;
+
+	public GetOptimizedRoomOccupancyBatchRequest() {
+	}
+
+	public GetOptimizedRoomOccupancyBatchRequest(List<OccupancyScenarioEntity> scenarios) {
+		this.scenarios = scenarios;
+	}
+
+	public List<OccupancyScenarioEntity> getScenarios() {
+		return scenarios;
+	}
+
+}
@@ -0,0 +1,51 @@
+package com.roomoccupancy.api.entrypoint.v1.entity;
+
+import java.time.Instant;
+import java.util.List;
+
+import com.roomoccupancy.api.core.entity.OccupancyScenarioResultEntity;
+import com.roomoccupancy.api.entrypoint.v1.GetOptimizedRoomOccupancyBatchEntrypoint;
+
+/**
+ * Response of the
+ * {@link GetOptimizedRoomOccupancyBatchEntrypoint#getOptimizedRoomOccupancies(GetOptimizedRoomOccupancyBatchRequest)}
+ * 
+ * @author luis
+ *
+ */
+public class GetOptimizedRoomOccupancyBatchResponse {
+
+	private Instant requestTimestamp;
+
+	private List<OccupancyScenarioResultEntity> results;
+
+	public GetOptimizedRoomOccupancyBatchResponse() {
+	}
+
+	public GetOptimizedRoomOccupancyBatchResponse(Instant requestTimestamp,
+			List<OccupancyScenarioResultEntity> results) {
+		this.requestTimestamp = requestTimestamp;
+		this.results = results;
+	}
+
+	/**
+	 * Creates a response with the results passed as argument, and with
+	 * {@link Instant#now()} as request timestamp
+	 * 
+	 * @param results
+	 *            Results of the scenarios
+	 * @return New instance of GetOptimizedRoomOccupancyBatchResponse
+	 */
+	public static GetOptimizedRoomOccupancyBatchResponse of(List<OccupancyScenarioResultEntity> results) {
+		return new GetOptimizedRoomOccupancyBatchResponse(Instant.now(), results);
+	}
+
+	public Instant getRequestTimestamp() {
+		return requestTimestamp;
+	}
+
+	public List<OccupancyScenarioResultEntity> getResults() {
+		return results;
+	}
+
+}
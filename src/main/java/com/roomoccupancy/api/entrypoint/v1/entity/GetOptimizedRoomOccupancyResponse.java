@@ -7,7 +7,7 @@ import com.roomoccupancy.api.entrypoint.v1.GetOptimizedRoomOccupancyEntrypoint;
 
 /**
  * Response of the
- * {@link GetOptimizedRoomOccupancyEntrypoint#getOptimizedRoomOccupancy(Integer, Integer, Integer[])}
+ * {@link GetOptimizedRoomOccupancyEntrypoint#getOptimizedRoomOccupancy(Integer, Integer, GuestOffers)}
  * 
  * @author luis
  *
@@ -0,0 +1,50 @@
+package com.roomoccupancy.api.entrypoint.v1.entity;
+
+import com.roomoccupancy.api.core.entity.OffersFileFormat;
+import com.roomoccupancy.api.entrypoint.v1.OccupancyJobEntrypoint;
+
+/**
+ * Request body of the
+ * {@link OccupancyJobEntrypoint#submitJob(OccupancyJobRequest)}
+ * 
+ * @author luis
+ *
+ */
+public class OccupancyJobRequest {
+
+	private Integer freePremiumRooms;
+
+	private Integer freeEconomyRooms;
+
+	private String offersFile;
+
+	private OffersFileFormat format;
+
+	public OccupancyJobRequest() {
+	}
+
+	public OccupancyJobRequest(Integer freePremiumRooms, Integer freeEconomyRooms, String offersFile,
+			OffersFileFormat format) {
+		this.freePremiumRooms = freePremiumRooms;
+		this.freeEconomyRooms = freeEconomyRooms;
+		this.offersFile = offersFile;
+		this.format = format;
+	}
+
+	public Integer getFreePremiumRooms() {
+		return freePremiumRooms;
+	}
+
+	public Integer getFreeEconomyRooms() {
+		return freeEconomyRooms;
+	}
+
+	public String getOffersFile() {
+		return offersFile;
+	}
+
+	public OffersFileFormat getFormat() {
+		return format;
+	}
+
+}
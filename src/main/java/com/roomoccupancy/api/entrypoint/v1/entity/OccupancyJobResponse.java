@@ -0,0 +1,48 @@
+package com.roomoccupancy.api.entrypoint.v1.entity;
+
+import java.time.Instant;
+
+import com.roomoccupancy.api.core.entity.OccupancyJobEntity;
+import com.roomoccupancy.api.entrypoint.v1.OccupancyJobEntrypoint;
+
+/**
+ * Response of the {@link OccupancyJobEntrypoint} endpoints
+ * 
+ * @author luis
+ *
+ */
+public class OccupancyJobResponse {
+
+	private Instant requestTimestamp;
+
+	private OccupancyJobEntity job;
+
+	public OccupancyJobResponse() {
+	}
+
+	public OccupancyJobResponse(Instant requestTimestamp, OccupancyJobEntity job) {
+		this.requestTimestamp = requestTimestamp;
+		this.job = job;
+	}
+
+	/**
+	 * Creates a response with the job passed as argument, and with
+	 * {@link Instant#now()} as request timestamp
+	 * 
+	 * @param job
+	 *            Current state of the job
+	 * @return New instance of OccupancyJobResponse
+	 */
+	public static OccupancyJobResponse of(OccupancyJobEntity job) {
+		return new OccupancyJobResponse(Instant.now(), job);
+	}
+
+	public Instant getRequestTimestamp() {
+		return requestTimestamp;
+	}
+
+	public OccupancyJobEntity getJob() {
+		return job;
+	}
+
+}
@@ -0,0 +1,60 @@
+package com.roomoccupancy.api.entrypoint.v1.entity;
+
+import java.time.Instant;
+
+import com.roomoccupancy.api.core.entity.OccupancySessionEntity;
+import com.roomoccupancy.api.core.entity.OptimizedRoomOccupancyEntity;
+import com.roomoccupancy.api.entrypoint.v1.OccupancySessionEntrypoint;
+
+/**
+ * Response of the {@link OccupancySessionEntrypoint} endpoints - the session,
+ * and its optimized occupancy after the request
+ * 
+ * @author luis
+ *
+ */
+public class OccupancySessionResponse {
+
+	private Instant requestTimestamp;
+
+	private OccupancySessionEntity session;
+
+	private OptimizedRoomOccupancyEntity result;
+
+	public OccupancySessionResponse() {
+	}
+
+	public OccupancySessionResponse(Instant requestTimestamp, OccupancySessionEntity session,
+			OptimizedRoomOccupancyEntity result) {
+		this.requestTimestamp = requestTimestamp;
+		this.session = session;
+		this.result = result;
+	}
+
+	/**
+	 * Creates a response with the session and result passed as argument, and with
+	 * {@link Instant#now()} as request timestamp
+	 * 
+	 * @param session
+	 *            The occupancy session
+	 * @param result
+	 *            Optimized occupancy of the session
+	 * @return New instance of OccupancySessionResponse
+	 */
+	public static OccupancySessionResponse of(OccupancySessionEntity session, OptimizedRoomOccupancyEntity result) {
+		return new OccupancySessionResponse(Instant.now(), session, result);
+	}
+
+	public Instant getRequestTimestamp() {
+		return requestTimestamp;
+	}
+
+	public OccupancySessionEntity getSession() {
+		return session;
+	}
+
+	public OptimizedRoomOccupancyEntity getResult() {
+		return result;
+	}
+
+}
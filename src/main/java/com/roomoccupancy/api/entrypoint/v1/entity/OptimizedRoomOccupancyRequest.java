@@ -0,0 +1,74 @@
+package com.roomoccupancy.api.entrypoint.v1.entity;
+
+import com.roomoccupancy.api.core.usecase.GuestOffers;
+
+/**
+ * Parameters of an Optimized Room Occupancy request sent in the request body
+ * 
+ * @author luis
+ *
+ */
+public class OptimizedRoomOccupancyRequest {
+
+	/**
+	 * Only read by the portfolio optimization, to tell its hotels apart
+	 */
+	private String hotelId;
+
+	private Integer freePremiumRooms;
+
+	private Integer freeEconomyRooms;
+
+	private GuestOffers potentialGuests;
+
+	/**
+	 * Only read by the assignment detail, to tell the guests apart
+	 */
+	private String[] guestIds;
+
+	public OptimizedRoomOccupancyRequest() {
+	}
+
+	public OptimizedRoomOccupancyRequest(Integer freePremiumRooms, Integer freeEconomyRooms,
+			GuestOffers potentialGuests) {
+		this.freePremiumRooms = freePremiumRooms;
+		this.freeEconomyRooms = freeEconomyRooms;
+		this.potentialGuests = potentialGuests;
+	}
+
+	public OptimizedRoomOccupancyRequest(String hotelId, Integer freePremiumRooms, Integer freeEconomyRooms,
+			GuestOffers potentialGuests) {
+		this(freePremiumRooms, freeEconomyRooms, potentialGuests);
+		this.hotelId = hotelId;
+	}
+
+	public OptimizedRoomOccupancyRequest(String hotelId, Integer freePremiumRooms, Integer freeEconomyRooms,
+			GuestOffers potentialGuests, String[] guestIds) {
+		this(hotelId, freePremiumRooms, freeEconomyRooms, potentialGuests);
+		this.guestIds = guestIds;
+	}
+
+	public String getHotelId() {
+		return hotelId;
+	}
+
+	public Integer getFreePremiumRooms() {
+		return freePremiumRooms;
+	}
+
+	public Integer getFreeEconomyRooms() {
+		return freeEconomyRooms;
+	}
+
+	public GuestOffers getPotentialGuests() {
+		return potentialGuests;
+	}
+
+	/**
+	 * @return Identifier of each potential guest, in the order of the offers
+	 */
+	public String[] getGuestIds() {
+		return guestIds;
+	}
+
+}
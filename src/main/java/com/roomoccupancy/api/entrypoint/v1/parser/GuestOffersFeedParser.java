@@ -0,0 +1,93 @@
+package com.roomoccupancy.api.entrypoint.v1.parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.roomoccupancy.api.core.exception.BusinessException;
+import com.roomoccupancy.api.core.usecase.GuestOffers;
+
+/**
+ * Reads a feed of guest offers, as newline delimited JSON, where each line is
+ * a single offer or an array of offers, token by token as the lines arrive.
+ *
+ * <pre>
+ * 120
+ * [40, 70, 99]
+ * </pre>
+ *
+ * @author luis
+ *
+ */
+@Component
+public class GuestOffersFeedParser {
+
+	private static final String ERROR_INVALID_FEED_LINE = "Each line of the feed must be an offer or an array of offers.";
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	/**
+	 * Receives the offers of the feed, line by line
+	 */
+	public interface Listener {
+
+		void onOffer(int guestOffer);
+
+		/**
+		 * Called after all the offers of a line were received
+		 */
+		void onEndOfLine() throws IOException;
+
+	}
+
+	/**
+	 * Parses the feed until its end, which may never come
+	 *
+	 * @param feed
+	 *            Newline delimited JSON feed
+	 * @param listener
+	 *            Receives the offers
+	 * @throws BusinessException
+	 *             if a line is not an offer or an array of offers
+	 * @throws IOException
+	 *             if the feed could not be read
+	 */
+	public void parse(InputStream feed, Listener listener) throws IOException {
+		try (JsonParser parser = objectMapper.getFactory().createParser(feed)) {
+			for (JsonToken token = parser.nextToken(); token != null; token = parser.nextToken()) {
+				readLine(parser, token, listener);
+				listener.onEndOfLine();
+			}
+		} catch (JsonParseException ex) {
+			throw new BusinessException(ERROR_INVALID_FEED_LINE);
+		}
+	}
+
+	private void readLine(JsonParser parser, JsonToken token, Listener listener) throws IOException {
+		if (token == JsonToken.START_ARRAY) {
+			for (token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+				listener.onOffer(readOffer(parser, token));
+			}
+		} else if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+			listener.onOffer(readOffer(parser, token));
+		} else {
+			throw new BusinessException(ERROR_INVALID_FEED_LINE);
+		}
+	}
+
+	private int readOffer(JsonParser parser, JsonToken token) throws IOException {
+		if (token != JsonToken.VALUE_NUMBER_INT || parser.getNumberType() != JsonParser.NumberType.INT) {
+			throw new BusinessException(GuestOffers.ERROR_NULL_OR_NEGATIVE_GUEST_OFFER);
+		}
+
+		return parser.getIntValue();
+	}
+
+}
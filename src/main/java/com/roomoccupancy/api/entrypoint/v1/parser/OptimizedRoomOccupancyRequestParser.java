@@ -0,0 +1,310 @@
+package com.roomoccupancy.api.entrypoint.v1.parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.roomoccupancy.api.core.entity.RoomCategoryEntity;
+import com.roomoccupancy.api.core.exception.BusinessException;
+import com.roomoccupancy.api.core.metrics.OccupancyOptimizationMetrics;
+import com.roomoccupancy.api.core.usecase.GuestOffers;
+import com.roomoccupancy.api.entrypoint.v1.entity.GetOptimizedCategoryOccupancyRequest;
+import com.roomoccupancy.api.entrypoint.v1.entity.OptimizedRoomOccupancyRequest;
+
+/**
+ * Reads an {@link OptimizedRoomOccupancyRequest} from a JSON body token by
+ * token, adding each guest offer straight to a {@link GuestOffers}, so the
+ * offers are never materialized as boxed objects.
+ * 
+ * <pre>
+ * { "freePremiumRooms": 2, "freeEconomyRooms": 1, "potentialGuests": [120, 40, 70, 99] }
+ * </pre>
+ * 
+ * The bodies of the optimizations by room category are read the same way,
+ * with their {@code categories} instead of the free rooms.
+ * 
+ * The rejected bodies never reach the use case, so they are counted here as
+ * rejected optimizations.
+ * 
+ * @author luis
+ *
+ */
+@Component
+public class OptimizedRoomOccupancyRequestParser {
+
+	static final String HOTEL_ID_FIELD = "hotelId";
+
+	static final String FREE_PREMIUM_ROOMS_FIELD = "freePremiumRooms";
+
+	static final String FREE_ECONOMY_ROOMS_FIELD = "freeEconomyRooms";
+
+	static final String POTENTIAL_GUESTS_FIELD = "potentialGuests";
+
+	static final String GUEST_IDS_FIELD = "guestIds";
+
+	static final String CATEGORIES_FIELD = "categories";
+
+	private static final TypeReference<List<RoomCategoryEntity>> CATEGORIES_TYPE = new TypeReference<List<RoomCategoryEntity>>() {
+	};
+
+	/**
+	 * Capacity of the guest identifiers read before the offers
+	 */
+	private static final int DEFAULT_GUEST_IDS_CAPACITY = 16;
+
+	private static final String ERROR_INVALID_REQUEST_BODY = "The request body must be a valid JSON object.";
+
+	private static final String ERROR_INVALID_HOTEL_ID = "The hotel identifier must be a String.";
+
+	private static final String ERROR_INVALID_FREE_ROOMS = "The number of free rooms must be an Integer.";
+
+	private static final String ERROR_INVALID_POTENTIAL_GUESTS_ARRAY = "The potential guests must be an array of Integers.";
+
+	private static final String ERROR_INVALID_GUEST_IDS_ARRAY = "The guest identifiers must be an array of Strings.";
+
+	private static final String ERROR_INVALID_CATEGORIES_ARRAY = "The room categories must be an array of objects.";
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Autowired(required = false)
+	OccupancyOptimizationMetrics optimizationMetrics = OccupancyOptimizationMetrics.NOOP;
+
+	public OptimizedRoomOccupancyRequestParser() {
+	}
+
+	/**
+	 * For launchers without a Spring context
+	 */
+	public OptimizedRoomOccupancyRequestParser(ObjectMapper objectMapper) {
+		this.objectMapper = objectMapper;
+	}
+
+	/**
+	 * Parses the request body
+	 * 
+	 * @param body
+	 *            JSON request body
+	 * @return the parsed request. Fields absent from the body are null.
+	 * @throws BusinessException
+	 *             if the body is not a valid request
+	 * @throws IOException
+	 *             if the body could not be read
+	 */
+	public OptimizedRoomOccupancyRequest parse(InputStream body) throws IOException {
+		try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+			return parse(parser);
+		} catch (JsonParseException ex) {
+			throw reject(new BusinessException(ERROR_INVALID_REQUEST_BODY));
+		} catch (BusinessException ex) {
+			throw reject(ex);
+		}
+	}
+
+	/**
+	 * Parses a request from a slice of a byte array, such as a line of a
+	 * portfolio
+	 * 
+	 * @throws BusinessException
+	 *             if the slice is not a valid request
+	 */
+	public OptimizedRoomOccupancyRequest parse(byte[] body, int offset, int length) {
+		try (JsonParser parser = objectMapper.getFactory().createParser(body, offset, length)) {
+			return parse(parser);
+		} catch (JsonParseException ex) {
+			throw reject(new BusinessException(ERROR_INVALID_REQUEST_BODY));
+		} catch (BusinessException ex) {
+			throw reject(ex);
+		} catch (IOException ex) {
+			// A byte array is never short of bytes
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	/**
+	 * Parses the body of an optimization by room category
+	 * 
+	 * <pre>
+	 * { "categories": [{ "name": "Suite", "minimumNightValue": 400, "freeRooms": 1 }], "potentialGuests": [500, 80] }
+	 * </pre>
+	 * 
+	 * @param body
+	 *            JSON request body
+	 * @return the parsed request. Fields absent from the body are null.
+	 * @throws BusinessException
+	 *             if the body is not a valid request
+	 * @throws IOException
+	 *             if the body could not be read
+	 */
+	public GetOptimizedCategoryOccupancyRequest parseCategoryRequest(InputStream body) throws IOException {
+		try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+			return parseCategoryRequest(parser);
+		} catch (JsonParseException ex) {
+			throw reject(new BusinessException(ERROR_INVALID_REQUEST_BODY));
+		} catch (BusinessException ex) {
+			throw reject(ex);
+		}
+	}
+
+	private BusinessException reject(BusinessException ex) {
+		optimizationMetrics.recordRejection(ex.getMessage());
+		return ex;
+	}
+
+	private OptimizedRoomOccupancyRequest parse(JsonParser parser) throws IOException {
+		if (parser.nextToken() != JsonToken.START_OBJECT) {
+			throw new BusinessException(ERROR_INVALID_REQUEST_BODY);
+		}
+
+		String hotelId = null;
+		Integer freePremiumRooms = null;
+		Integer freeEconomyRooms = null;
+		GuestOffers potentialGuests = null;
+		String[] guestIds = null;
+
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String fieldName = parser.getCurrentName();
+			JsonToken valueToken = parser.nextToken();
+
+			if (HOTEL_ID_FIELD.equals(fieldName)) {
+				hotelId = readNullableString(parser, valueToken);
+			} else if (FREE_PREMIUM_ROOMS_FIELD.equals(fieldName)) {
+				freePremiumRooms = readNullableInteger(parser, valueToken);
+			} else if (FREE_ECONOMY_ROOMS_FIELD.equals(fieldName)) {
+				freeEconomyRooms = readNullableInteger(parser, valueToken);
+			} else if (POTENTIAL_GUESTS_FIELD.equals(fieldName)) {
+				potentialGuests = readPotentialGuests(parser, valueToken);
+			} else if (GUEST_IDS_FIELD.equals(fieldName)) {
+				guestIds = readGuestIds(parser, valueToken,
+						Objects.isNull(potentialGuests) ? DEFAULT_GUEST_IDS_CAPACITY : potentialGuests.size());
+			} else {
+				parser.skipChildren();
+			}
+		}
+
+		return new OptimizedRoomOccupancyRequest(hotelId, freePremiumRooms, freeEconomyRooms, potentialGuests,
+				guestIds);
+	}
+
+	private GetOptimizedCategoryOccupancyRequest parseCategoryRequest(JsonParser parser) throws IOException {
+		if (parser.nextToken() != JsonToken.START_OBJECT) {
+			throw new BusinessException(ERROR_INVALID_REQUEST_BODY);
+		}
+
+		List<RoomCategoryEntity> categories = null;
+		GuestOffers potentialGuests = null;
+
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String fieldName = parser.getCurrentName();
+			JsonToken valueToken = parser.nextToken();
+
+			if (CATEGORIES_FIELD.equals(fieldName)) {
+				categories = readCategories(parser, valueToken);
+			} else if (POTENTIAL_GUESTS_FIELD.equals(fieldName)) {
+				potentialGuests = readPotentialGuests(parser, valueToken);
+			} else {
+				parser.skipChildren();
+			}
+		}
+
+		return new GetOptimizedCategoryOccupancyRequest(categories, potentialGuests);
+	}
+
+	private String readNullableString(JsonParser parser, JsonToken valueToken) throws IOException {
+		if (valueToken == JsonToken.VALUE_NULL) {
+			return null;
+		} else if (valueToken != JsonToken.VALUE_STRING) {
+			throw new BusinessException(ERROR_INVALID_HOTEL_ID);
+		}
+
+		return parser.getText();
+	}
+
+	private Integer readNullableInteger(JsonParser parser, JsonToken valueToken) throws IOException {
+		if (valueToken == JsonToken.VALUE_NULL) {
+			return null;
+		} else if (valueToken != JsonToken.VALUE_NUMBER_INT || parser.getNumberType() != JsonParser.NumberType.INT) {
+			throw new BusinessException(ERROR_INVALID_FREE_ROOMS);
+		}
+
+		return parser.getIntValue();
+	}
+
+	private GuestOffers readPotentialGuests(JsonParser parser, JsonToken valueToken) throws IOException {
+		if (valueToken == JsonToken.VALUE_NULL) {
+			return null;
+		} else if (valueToken != JsonToken.START_ARRAY) {
+			throw new BusinessException(ERROR_INVALID_POTENTIAL_GUESTS_ARRAY);
+		}
+
+		GuestOffers potentialGuests = new GuestOffers();
+
+		for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+			if (token != JsonToken.VALUE_NUMBER_INT || parser.getNumberType() != JsonParser.NumberType.INT) {
+				throw new BusinessException(GuestOffers.ERROR_NULL_OR_NEGATIVE_GUEST_OFFER);
+			}
+
+			potentialGuests.add(parser.getIntValue());
+		}
+
+		return potentialGuests;
+	}
+
+	/**
+	 * The categories are few, at most 32, so they are bound as objects
+	 */
+	private List<RoomCategoryEntity> readCategories(JsonParser parser, JsonToken valueToken) throws IOException {
+		if (valueToken == JsonToken.VALUE_NULL) {
+			return null;
+		} else if (valueToken != JsonToken.START_ARRAY) {
+			throw new BusinessException(ERROR_INVALID_CATEGORIES_ARRAY);
+		}
+
+		try {
+			return parser.readValueAs(CATEGORIES_TYPE);
+		} catch (JsonMappingException ex) {
+			throw new BusinessException(ERROR_INVALID_CATEGORIES_ARRAY);
+		}
+	}
+
+	/**
+	 * The identifiers go straight into the array, sized on the offers already
+	 * read, so a list of one identifier per offer is never copied
+	 */
+	private String[] readGuestIds(JsonParser parser, JsonToken valueToken, int expectedSize) throws IOException {
+		if (valueToken == JsonToken.VALUE_NULL) {
+			return null;
+		} else if (valueToken != JsonToken.START_ARRAY) {
+			throw new BusinessException(ERROR_INVALID_GUEST_IDS_ARRAY);
+		}
+
+		String[] guestIds = new String[Math.max(1, expectedSize)];
+		int size = 0;
+
+		for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+			if (token != JsonToken.VALUE_STRING) {
+				throw new BusinessException(ERROR_INVALID_GUEST_IDS_ARRAY);
+			}
+
+			if (size == guestIds.length) {
+				guestIds = Arrays.copyOf(guestIds, guestIds.length << 1);
+			}
+			guestIds[size++] = parser.getText();
+		}
+
+		return size == guestIds.length ? guestIds : Arrays.copyOf(guestIds, size);
+	}
+
+}
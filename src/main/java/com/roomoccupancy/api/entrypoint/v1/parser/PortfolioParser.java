@@ -0,0 +1,200 @@
+package com.roomoccupancy.api.entrypoint.v1.parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.roomoccupancy.api.core.exception.BusinessException;
+import com.roomoccupancy.api.core.usecase.PortfolioHotel;
+import com.roomoccupancy.api.entrypoint.v1.entity.OptimizedRoomOccupancyRequest;
+
+/**
+ * Reads a portfolio of hotels, as newline delimited JSON, where each line is a
+ * hotel as read by the {@link OptimizedRoomOccupancyRequestParser}, with its
+ * identifier.
+ *
+ * <pre>
+ * { "hotelId": "lisbon", "freePremiumRooms": 2, "freeEconomyRooms": 1, "potentialGuests": [120, 40, 70, 99] }
+ * { "hotelId": "porto", "potentialGuests": [300, 80] }
+ * </pre>
+ *
+ * The lines are only split as they arrive. Each hotel is handed over still
+ * unparsed, with a reader that parses it wherever it is called, so the
+ * parsing runs in parallel with the optimizations instead of before them.
+ *
+ * @author luis
+ *
+ */
+@Component
+public class PortfolioParser {
+
+	static final String ERROR_HOTEL_TOO_LONG = "A hotel of the portfolio must have %d bytes or less.";
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private static final int DEFAULT_MAX_HOTEL_BYTES = 16 * 1024 * 1024;
+
+	@Autowired
+	OptimizedRoomOccupancyRequestParser requestParser;
+
+	/**
+	 * Lines longer than this are skipped, so a single hotel cannot exhaust the
+	 * memory
+	 */
+	@Value("${roomoccupancy.portfolio.max-hotel-bytes:" + DEFAULT_MAX_HOTEL_BYTES + "}")
+	int maxHotelBytes = DEFAULT_MAX_HOTEL_BYTES;
+
+	public PortfolioParser() {
+	}
+
+	/**
+	 * For launchers without a Spring context
+	 */
+	public PortfolioParser(OptimizedRoomOccupancyRequestParser requestParser) {
+		this.requestParser = requestParser;
+	}
+
+	/**
+	 * Receives the hotels of the portfolio, in their order
+	 */
+	public interface Listener {
+
+		/**
+		 * @param hotelReader
+		 *            Parses the hotel, throwing a {@link BusinessException} if it
+		 *            is not valid
+		 * @param numberOfBytes
+		 *            Length of the line of the hotel, to weigh it before it is
+		 *            parsed
+		 */
+		void onHotel(Supplier<PortfolioHotel> hotelReader, int numberOfBytes) throws IOException;
+
+		/**
+		 * Called instead of {@link #onHotel(Supplier, int)} for a line that
+		 * cannot be read
+		 */
+		void onInvalidHotel(String error) throws IOException;
+
+	}
+
+	/**
+	 * Splits the portfolio until its end. Blank lines are skipped.
+	 *
+	 * @param portfolio
+	 *            Newline delimited JSON portfolio
+	 * @param listener
+	 *            Receives the hotels
+	 * @throws IOException
+	 *             if the portfolio could not be read
+	 */
+	public void parse(InputStream portfolio, Listener listener) throws IOException {
+		byte[] buffer = new byte[BUFFER_SIZE];
+		LineBuffer line = new LineBuffer();
+
+		for (int read = portfolio.read(buffer); read >= 0; read = portfolio.read(buffer)) {
+			int lineStart = 0;
+
+			for (int i = 0; i < read; i++) {
+				if (buffer[i] == '\n') {
+					if (line.isEmpty()) {
+						// The whole line is in the buffer, it is copied only once
+						onLine(Arrays.copyOfRange(buffer, lineStart, i), listener);
+					} else {
+						line.append(buffer, lineStart, i);
+						onLine(line, listener);
+					}
+
+					lineStart = i + 1;
+				}
+			}
+
+			line.append(buffer, lineStart, read);
+		}
+
+		onLine(line, listener);
+	}
+
+	private void onLine(LineBuffer line, Listener listener) throws IOException {
+		if (line.tooLong) {
+			listener.onInvalidHotel(String.format(ERROR_HOTEL_TOO_LONG, maxHotelBytes));
+		} else if (line.length > 0) {
+			onLine(Arrays.copyOf(line.bytes, line.length), listener);
+		}
+
+		line.clear();
+	}
+
+	private void onLine(byte[] line, Listener listener) throws IOException {
+		if (line.length > maxHotelBytes) {
+			listener.onInvalidHotel(String.format(ERROR_HOTEL_TOO_LONG, maxHotelBytes));
+		} else if (!isBlank(line)) {
+			listener.onHotel(() -> toHotel(requestParser.parse(line, 0, line.length)), line.length);
+		}
+	}
+
+	private static boolean isBlank(byte[] line) {
+		for (byte character : line) {
+			if (character > ' ') {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	private static PortfolioHotel toHotel(OptimizedRoomOccupancyRequest request) {
+		return new PortfolioHotel(request.getHotelId(), request.getFreePremiumRooms(), request.getFreeEconomyRooms(),
+				request.getPotentialGuests());
+	}
+
+	/**
+	 * A line split across reads, which stops growing past the maximum size of
+	 * a hotel
+	 */
+	private final class LineBuffer {
+
+		private byte[] bytes = new byte[0];
+
+		private int length;
+
+		private boolean tooLong;
+
+		boolean isEmpty() {
+			return length == 0 && !tooLong;
+		}
+
+		void append(byte[] buffer, int from, int to) {
+			int numberOfBytes = to - from;
+
+			if (tooLong || numberOfBytes == 0) {
+				return;
+			}
+
+			if (numberOfBytes > maxHotelBytes - length) {
+				tooLong = true;
+				bytes = new byte[0];
+				length = 0;
+				return;
+			}
+
+			if (length + numberOfBytes > bytes.length) {
+				bytes = Arrays.copyOf(bytes, Math.min(maxHotelBytes, Math.max(length + numberOfBytes, 2 * bytes.length)));
+			}
+
+			System.arraycopy(buffer, from, bytes, length, numberOfBytes);
+			length += numberOfBytes;
+		}
+
+		void clear() {
+			length = 0;
+			tooLong = false;
+		}
+
+	}
+
+}
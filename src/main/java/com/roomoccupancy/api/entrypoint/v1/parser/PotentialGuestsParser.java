@@ -0,0 +1,158 @@
+package com.roomoccupancy.api.entrypoint.v1.parser;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+
+import com.roomoccupancy.api.core.exception.BusinessException;
+import com.roomoccupancy.api.core.usecase.GuestOffers;
+
+/**
+ * Parses the guest offers straight from the characters of a query string or of
+ * a parameter value into a {@link GuestOffers}, validating them in the same
+ * scan, without creating a {@code String} or an {@code Integer} per offer. As
+ * in Spring's conversion to arrays, a value may hold many offers separated by
+ * commas.
+ * 
+ * @author luis
+ *
+ */
+public final class PotentialGuestsParser {
+
+	private PotentialGuestsParser() {
+	}
+
+	/**
+	 * Adds the offers of every occurrence of the parameter in the query string
+	 * 
+	 * @param queryString
+	 *            Raw query string, without the leading {@code ?}
+	 * @param parameterName
+	 *            Name of the offers parameter
+	 * @param guestOffers
+	 *            Where the offers are added
+	 * @return true if the parameter is part of the query string
+	 * @throws BusinessException
+	 *             if an offer is empty, negative or not an Integer
+	 */
+	public static boolean parseQueryString(String queryString, String parameterName, GuestOffers guestOffers) {
+		boolean found = false;
+		int length = queryString.length();
+		int pairStart = 0;
+
+		while (pairStart < length) {
+			int pairEnd = queryString.indexOf('&', pairStart);
+			if (pairEnd < 0) {
+				pairEnd = length;
+			}
+
+			int valueStart = pairStart + parameterName.length();
+
+			if (queryString.startsWith(parameterName, pairStart)
+					&& (valueStart == pairEnd || queryString.charAt(valueStart) == '=')) {
+				found = true;
+				parseEncodedOffers(queryString, Math.min(valueStart + 1, pairEnd), pairEnd, guestOffers);
+			}
+
+			pairStart = pairEnd + 1;
+		}
+
+		return found;
+	}
+
+	/**
+	 * Adds the offers of an already decoded parameter value
+	 * 
+	 * @throws BusinessException
+	 *             if the value is null, or an offer is empty, negative or not an
+	 *             Integer
+	 */
+	public static void parseValue(String value, GuestOffers guestOffers) {
+		if (value == null) {
+			throw new BusinessException(GuestOffers.ERROR_NULL_OR_NEGATIVE_GUEST_OFFER);
+		}
+
+		parseOffers(value, 0, value.length(), guestOffers);
+	}
+
+	private static void parseEncodedOffers(String queryString, int from, int to, GuestOffers guestOffers) {
+		int escape = queryString.indexOf('%', from);
+
+		if (escape < 0 || escape >= to) {
+			parseOffers(queryString, from, to, guestOffers);
+		} else {
+			// Percent-encoded values, as "%2C" commas, are rare enough to be decoded first
+			parseValue(decode(queryString.substring(from, to)), guestOffers);
+		}
+	}
+
+	private static String decode(String encodedValue) {
+		try {
+			return URLDecoder.decode(encodedValue, StandardCharsets.UTF_8.name());
+		} catch (UnsupportedEncodingException | IllegalArgumentException e) {
+			throw new BusinessException(GuestOffers.ERROR_NULL_OR_NEGATIVE_GUEST_OFFER);
+		}
+	}
+
+	private static void parseOffers(String value, int from, int to, GuestOffers guestOffers) {
+		int offerStart = from;
+
+		while (true) {
+			int offerEnd = value.indexOf(',', offerStart);
+			if (offerEnd < 0 || offerEnd > to) {
+				offerEnd = to;
+			}
+
+			guestOffers.add(parseOffer(value, offerStart, offerEnd));
+
+			if (offerEnd == to) {
+				return;
+			}
+			offerStart = offerEnd + 1;
+		}
+	}
+
+	private static int parseOffer(String value, int from, int to) {
+		// Blanks around the offer are ignored, as they are by Spring's conversion
+		while (from < to && isBlank(value.charAt(from))) {
+			from++;
+		}
+		while (to > from && isBlank(value.charAt(to - 1))) {
+			to--;
+		}
+
+		return parseDigits(value, from, to);
+	}
+
+	/**
+	 * In a raw query string, a {@code +} is an encoded blank
+	 */
+	private static boolean isBlank(char character) {
+		return character == ' ' || character == '+';
+	}
+
+	private static int parseDigits(String value, int from, int to) {
+		if (from >= to) {
+			throw new BusinessException(GuestOffers.ERROR_NULL_OR_NEGATIVE_GUEST_OFFER);
+		}
+
+		long offer = 0;
+
+		for (int i = from; i < to; i++) {
+			int digit = value.charAt(i) - '0';
+
+			if (digit < 0 || digit > 9) {
+				throw new BusinessException(GuestOffers.ERROR_NULL_OR_NEGATIVE_GUEST_OFFER);
+			}
+
+			offer = offer * 10 + digit;
+
+			if (offer > Integer.MAX_VALUE) {
+				throw new BusinessException(GuestOffers.ERROR_NULL_OR_NEGATIVE_GUEST_OFFER);
+			}
+		}
+
+		return (int) offer;
+	}
+
+}
@@ -0,0 +1,105 @@
+package com.roomoccupancy.api.core.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.roomoccupancy.api.core.entity.OptimizedRoomOccupancyEntity;
+import com.roomoccupancy.api.core.entity.RoomCategoryOccupancyEntity;
+import com.roomoccupancy.api.core.exception.BusinessException;
+import com.roomoccupancy.api.core.usecase.GuestOffers;
+import com.roomoccupancy.api.core.usecase.OptimizedRoomOccupancyKey;
+
+/**
+ * Unit tests for {@link OptimizationRequestCoalescer}
+ * 
+ * @author luis
+ *
+ */
+public class OptimizationRequestCoalescerTest {
+
+	private static final OptimizedRoomOccupancyEntity OPTIMIZED_OCCUPANCY = new OptimizedRoomOccupancyEntity(
+			new RoomCategoryOccupancyEntity(2, 219), new RoomCategoryOccupancyEntity(1, 70));
+
+	private static final OptimizedRoomOccupancyKey KEY = OptimizedRoomOccupancyKey.of(2, 1, new GuestOffers());
+
+	private OptimizationRequestCoalescer requestCoalescer = new OptimizationRequestCoalescer(4);
+
+	private ExecutorService executor = Executors.newFixedThreadPool(8);
+
+	@Rule
+	public ExpectedException expectedException = ExpectedException.none();
+
+	@After
+	public void shutdownExecutor() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void execute_concurrentIdenticalOptimizations_computedOnce() throws Exception {
+		AtomicInteger numberOfComputations = new AtomicInteger();
+		CountDownLatch leaderStarted = new CountDownLatch(1);
+		CountDownLatch followersWaiting = new CountDownLatch(1);
+
+		Future<OptimizedRoomOccupancyEntity> leader = executor.submit(() -> requestCoalescer.execute(KEY, () -> {
+			numberOfComputations.incrementAndGet();
+			leaderStarted.countDown();
+			await(followersWaiting);
+			return OPTIMIZED_OCCUPANCY;
+		}));
+		Assert.assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+		List<Future<OptimizedRoomOccupancyEntity>> followers = new ArrayList<>();
+		for (int i = 0; i < 7; i++) {
+			followers.add(executor.submit(() -> requestCoalescer.execute(KEY, () -> {
+				numberOfComputations.incrementAndGet();
+				return null;
+			})));
+		}
+		Thread.sleep(100);
+		followersWaiting.countDown();
+
+		Assert.assertSame(OPTIMIZED_OCCUPANCY, leader.get(5, TimeUnit.SECONDS));
+		for (Future<OptimizedRoomOccupancyEntity> follower : followers) {
+			Assert.assertSame(OPTIMIZED_OCCUPANCY, follower.get(5, TimeUnit.SECONDS));
+		}
+		Assert.assertEquals(1, numberOfComputations.get());
+	}
+
+	@Test
+	public void execute_afterInFlightOptimizationFinished_computedAgain() {
+		requestCoalescer.execute(KEY, () -> OPTIMIZED_OCCUPANCY);
+
+		Assert.assertNull(requestCoalescer.execute(KEY, () -> null));
+	}
+
+	@Test
+	public void execute_failedOptimization_exceptionRethrown() {
+		expectedException.expect(BusinessException.class);
+		expectedException.expectMessage("failed");
+
+		requestCoalescer.execute(KEY, () -> {
+			throw new BusinessException("failed");
+		});
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -0,0 +1,90 @@
+package com.roomoccupancy.api.core.cache;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.roomoccupancy.api.core.entity.OptimizedRoomOccupancyEntity;
+import com.roomoccupancy.api.core.entity.RoomCategoryOccupancyEntity;
+import com.roomoccupancy.api.core.usecase.GuestOffers;
+import com.roomoccupancy.api.core.usecase.OptimizedRoomOccupancyKey;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Unit tests for {@link OptimizedRoomOccupancyCache}
+ * 
+ * @author luis
+ *
+ */
+public class OptimizedRoomOccupancyCacheTest {
+
+	private static final OptimizedRoomOccupancyEntity OPTIMIZED_OCCUPANCY = new OptimizedRoomOccupancyEntity(
+			new RoomCategoryOccupancyEntity(2, 219), new RoomCategoryOccupancyEntity(1, 70));
+
+	private OptimizedRoomOccupancyCache occupancyCache = new OptimizedRoomOccupancyCache(100L,
+			new SimpleMeterRegistry());
+
+	@Test
+	public void get_sameOffersInAnotherOrder_cachedOccupancy() {
+		occupancyCache.put(key(2, 1, 120, 40, 70, 99), OPTIMIZED_OCCUPANCY);
+
+		Assert.assertSame(OPTIMIZED_OCCUPANCY, occupancyCache.get(key(2, 1, 99, 70, 40, 120)));
+		Assert.assertEquals(1L, occupancyCache.hitCount());
+	}
+
+	@Test
+	public void get_differentOffersRoomsOrPremiumValue_notCached() {
+		occupancyCache.put(key(2, 1, 120, 40, 70, 99), OPTIMIZED_OCCUPANCY);
+
+		Assert.assertNull(occupancyCache.get(key(2, 1, 120, 40, 70, 98)));
+		Assert.assertNull(occupancyCache.get(key(2, 1, 120, 40, 70, 99, 0)));
+		Assert.assertNull(occupancyCache.get(key(2, 1, 120, 40, 70, 99, 99)));
+		Assert.assertNull(occupancyCache.get(key(1, 2, 120, 40, 70, 99)));
+		Assert.assertNull(occupancyCache
+				.get(OptimizedRoomOccupancyKey.of(2, 1, 50, GuestOffers.of(new Integer[] { 120, 40, 70, 99 }))));
+		Assert.assertEquals(5L, occupancyCache.missCount());
+	}
+
+	@Test
+	public void get_otherOffersWithTheSameKey_notCached() {
+		GuestOffers cachedOffers = offers(120, 40, 70, 99);
+		OptimizedRoomOccupancyKey key = OptimizedRoomOccupancyKey.of(2, 1, cachedOffers);
+		occupancyCache.put(key, cachedOffers, OPTIMIZED_OCCUPANCY);
+
+		Assert.assertSame(OPTIMIZED_OCCUPANCY, occupancyCache.get(key, offers(99, 70, 40, 120)));
+		Assert.assertNull(occupancyCache.get(key, offers(120, 40, 70, 98)));
+	}
+
+	@Test
+	public void get_recoveredOccupancy_adoptedByTheFirstOffersThatHitIt() {
+		OptimizedRoomOccupancyKey key = key(2, 1, 120, 40, 70, 99);
+		occupancyCache.put(key, OPTIMIZED_OCCUPANCY);
+
+		Assert.assertSame(OPTIMIZED_OCCUPANCY, occupancyCache.get(key, offers(120, 40, 70, 99)));
+		Assert.assertSame(OPTIMIZED_OCCUPANCY, occupancyCache.get(key, offers(99, 70, 40, 120)));
+		Assert.assertNull(occupancyCache.get(key, offers(120, 40, 70, 98)));
+	}
+
+	@Test
+	public void get_disabledCache_neverCached() {
+		OptimizedRoomOccupancyCache disabledCache = new OptimizedRoomOccupancyCache(0L, new SimpleMeterRegistry());
+		disabledCache.put(key(2, 1, 120), OPTIMIZED_OCCUPANCY);
+
+		Assert.assertNull(disabledCache.get(key(2, 1, 120)));
+	}
+
+	private OptimizedRoomOccupancyKey key(int numberOfFreePremiumRooms, int numberOfFreeEconomyRooms,
+			int... offers) {
+		return OptimizedRoomOccupancyKey.of(numberOfFreePremiumRooms, numberOfFreeEconomyRooms, offers(offers));
+	}
+
+	private static GuestOffers offers(int... offers) {
+		GuestOffers guestOffers = new GuestOffers();
+		for (int offer : offers) {
+			guestOffers.add(offer);
+		}
+
+		return guestOffers;
+	}
+
+}
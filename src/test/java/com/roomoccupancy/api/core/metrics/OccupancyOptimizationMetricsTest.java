@@ -0,0 +1,73 @@
+package com.roomoccupancy.api.core.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.roomoccupancy.api.core.entity.OffersFileFormat;
+import com.roomoccupancy.api.core.metrics.OccupancyPhaseTimings.Phase;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Unit tests for {@link OccupancyOptimizationMetrics}
+ * 
+ * @author luis
+ *
+ */
+public class OccupancyOptimizationMetricsTest {
+
+	private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private OccupancyOptimizationMetrics optimizationMetrics = new OccupancyOptimizationMetrics(meterRegistry);
+
+	@Test
+	public void recordOptimization_timedPhases_oneTimerRecordPerPhase() {
+		OccupancyPhaseTimings timings = OccupancyPhaseTimings.start();
+		for (Phase phase : Phase.values()) {
+			timings.endPhase(phase);
+		}
+
+		optimizationMetrics.recordOptimization(timings, 42);
+
+		for (Phase phase : Phase.values()) {
+			Assert.assertEquals(1L, meterRegistry.get(OccupancyOptimizationMetrics.PHASE_TIMER)
+					.tag("phase", phase.getMetricName()).timer().count());
+		}
+		Assert.assertEquals(42d,
+				meterRegistry.get(OccupancyOptimizationMetrics.GUESTS_SUMMARY).summary().totalAmount(), 0d);
+	}
+
+	@Test
+	public void recordRejection_sameReasonTwice_countedOnSameCounter() {
+		optimizationMetrics.recordRejection("reason");
+		optimizationMetrics.recordRejection("reason");
+		optimizationMetrics.recordRejection("other reason");
+
+		Assert.assertEquals(2d, meterRegistry.get(OccupancyOptimizationMetrics.REJECTIONS_COUNTER)
+				.tag("reason", "reason").counter().count(), 0d);
+		Assert.assertEquals(1d, meterRegistry.get(OccupancyOptimizationMetrics.REJECTIONS_COUNTER)
+				.tag("reason", "other reason").counter().count(), 0d);
+	}
+
+	@Test
+	public void recordIngestion_csvFile_timeAndBytesRecordedForTheFormat() {
+		optimizationMetrics.recordIngestion(OffersFileFormat.CSV, 1024, 2_000_000);
+
+		Assert.assertEquals(2d, meterRegistry.get(OccupancyOptimizationMetrics.INGESTION_TIMER)
+				.tag("format", "csv").timer().totalTime(TimeUnit.MILLISECONDS), 0d);
+		Assert.assertEquals(1024d, meterRegistry.get(OccupancyOptimizationMetrics.INGESTION_BYTES_SUMMARY)
+				.tag("format", "csv").summary().totalAmount(), 0d);
+		Assert.assertEquals(0L, meterRegistry.get(OccupancyOptimizationMetrics.INGESTION_TIMER)
+				.tag("format", "binary").timer().count());
+	}
+
+	@Test
+	public void start_previousTimings_timingsCleared() {
+		OccupancyPhaseTimings.start().endPhase(Phase.ORDERING);
+
+		Assert.assertEquals(0L, OccupancyPhaseTimings.start().getDurationInNanos(Phase.ORDERING));
+	}
+
+}
@@ -0,0 +1,258 @@
+package com.roomoccupancy.api.core.usecase;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.roomoccupancy.api.core.entity.RoomCategoryOccupancyEntity;
+import com.roomoccupancy.api.core.metrics.OccupancyPhaseTimings;
+
+/**
+ * Unit tests for {@link CategoryAllocationEngine}
+ *
+ * @author luis
+ *
+ */
+public class CategoryAllocationEngineTest {
+
+	/**
+	 * Suite, Deluxe, Superior and Standard
+	 */
+	private static final int[] MINIMUM_NIGHT_VALUES = { 400, 250, 150, 0 };
+
+	private static final int[] FREE_ROOMS = { 1, 2, 2, 3 };
+
+	private static final Integer[] OFFERS = { 160, 500, 80, 300, 450, 200, 50, 170, 100, 180, 90 };
+
+	@Test
+	public void allocate_fourCategories_overflowUpgradedToTheNearestCategoryWithFreeRooms() {
+		for (boolean byHistogram : new boolean[] { false, true }) {
+			RoomCategoryOccupancyEntity[] occupancies = allocate(MINIMUM_NIGHT_VALUES, FREE_ROOMS, OFFERS,
+					byHistogram);
+
+			// The Suite overflow is never downgraded, and the best Superior guest
+			// gets the free Deluxe room
+			assertOccupancy(1, 500, occupancies[0]);
+			assertOccupancy(2, 500, occupancies[1]);
+			assertOccupancy(2, 350, occupancies[2]);
+			assertOccupancy(3, 270, occupancies[3]);
+		}
+	}
+
+	@Test
+	public void allocate_lowestCategoryWithMinimumValue_guestsBelowItGetNoRoom() {
+		for (boolean byHistogram : new boolean[] { false, true }) {
+			RoomCategoryOccupancyEntity[] occupancies = allocate(new int[] { 400, 250, 150, 95 }, FREE_ROOMS,
+					OFFERS, byHistogram);
+
+			assertOccupancy(2, 500, occupancies[1]);
+			assertOccupancy(2, 350, occupancies[2]);
+			assertOccupancy(1, 100, occupancies[3]);
+		}
+	}
+
+	@Test
+	public void allocate_fullCategoryBetween_overflowSkipsItToTheNextFreeRooms() {
+		int[] freeRooms = { 3, 1, 1 };
+		Integer[] offers = { 500, 200, 190, 50, 40, 30 };
+
+		for (boolean byHistogram : new boolean[] { false, true }) {
+			RoomCategoryOccupancyEntity[] occupancies = allocate(new int[] { 400, 150, 0 }, freeRooms, offers,
+					byHistogram);
+
+			// The Superior overflow goes up first, as it is the nearest one, and
+			// then the Standard one, over the full Superior category. The best
+			// guests of each category are the upgraded ones.
+			assertOccupancy(3, 500 + 200 + 50, occupancies[0]);
+			assertOccupancy(1, 190, occupancies[1]);
+			assertOccupancy(1, 40, occupancies[2]);
+		}
+	}
+
+	@Test
+	public void allocate_premiumAndEconomy_sameOccupancyOfTheTwoTierRules() {
+		Random random = new Random(2290);
+
+		for (int i = 0; i < 500; i++) {
+			Integer[] offers = randomOffers(random, random.nextInt(40), 250);
+			int[] freeRooms = { random.nextInt(20), random.nextInt(20) };
+
+			RoomCategoryOccupancyEntity[] expected = allocateByTwoTierRules(freeRooms[0], freeRooms[1], offers);
+
+			for (boolean byHistogram : new boolean[] { false, true }) {
+				RoomCategoryOccupancyEntity[] occupancies = allocate(new int[] { 100, 0 }, freeRooms, offers,
+						byHistogram);
+
+				for (int category = 0; category < 2; category++) {
+					assertOccupancy(expected[category].getNumberOfOccupiedRooms(),
+							expected[category].getGeneratedIncome(), occupancies[category]);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void allocate_randomCategories_selectionAndHistogramAgree() {
+		Random random = new Random(2290);
+
+		for (int i = 0; i < 500; i++) {
+			int numberOfCategories = 1 + random.nextInt(6);
+			int[] minimumNightValues = new int[numberOfCategories];
+			int[] freeRooms = new int[numberOfCategories];
+			for (int category = numberOfCategories - 1, value = random.nextInt(30); category >= 0; category--) {
+				minimumNightValues[category] = value;
+				freeRooms[category] = random.nextInt(8);
+				value += 1 + random.nextInt(60);
+			}
+
+			Integer[] offers = randomOffers(random, random.nextInt(60), 400);
+
+			RoomCategoryOccupancyEntity[] bySelection = allocate(minimumNightValues, freeRooms, offers, false);
+			RoomCategoryOccupancyEntity[] byHistogram = allocate(minimumNightValues, freeRooms, offers, true);
+
+			for (int category = 0; category < numberOfCategories; category++) {
+				assertOccupancy(bySelection[category].getNumberOfOccupiedRooms(),
+						bySelection[category].getGeneratedIncome(), byHistogram[category]);
+				Assert.assertTrue(bySelection[category].getNumberOfOccupiedRooms() <= freeRooms[category]);
+			}
+		}
+	}
+
+	@Test
+	public void partitionByCategory_manyCategories_offersGroupedByCategory() {
+		Random random = new Random(2290);
+		int[] minimumNightValues = { 300, 200, 100, 50 };
+
+		int[] offers = new int[1000];
+		for (int i = 0; i < offers.length; i++) {
+			offers[i] = random.nextInt(400);
+		}
+		int[] sortedOffers = offers.clone();
+		Arrays.sort(sortedOffers);
+
+		int[] categoryStarts = CategoryAllocationEngine.partitionByCategory(offers, offers.length,
+				minimumNightValues);
+
+		Assert.assertEquals(offers.length, categoryStarts[categoryStarts.length - 1]);
+		for (int group = 0; group <= minimumNightValues.length; group++) {
+			int lowerBound = group == minimumNightValues.length ? 0 : minimumNightValues[group];
+			int upperBound = group == 0 ? Integer.MAX_VALUE : minimumNightValues[group - 1];
+
+			for (int i = categoryStarts[group]; i < categoryStarts[group + 1]; i++) {
+				Assert.assertTrue(offers[i] >= lowerBound && offers[i] < upperBound);
+			}
+		}
+
+		int[] partitionedOffers = offers.clone();
+		Arrays.sort(partitionedOffers);
+		Assert.assertArrayEquals(sortedOffers, partitionedOffers);
+	}
+
+	@Test
+	public void assign_fourCategories_eachGuestInTheRoomOfItsSegment() {
+		OccupancyAssignment assignment = CategoryAllocationEngine.assign(MINIMUM_NIGHT_VALUES, FREE_ROOMS,
+				GuestOffers.of(OFFERS), OccupancyPhaseTimings.start());
+
+		// 160, 500, 80, 300, 450, 200, 50, 170, 100, 180, 90 - the best Superior
+		// guest gets the free Deluxe room, and 160 is left without one
+		int noRoom = OccupancyAssignment.NO_ROOM;
+		int[] expectedRoomCategories = { noRoom, 0, 3, 1, noRoom, 1, noRoom, 2, 3, 2, 3 };
+		for (int expectedRoomCategory : expectedRoomCategories) {
+			Assert.assertTrue(assignment.next());
+			Assert.assertEquals(OFFERS[assignment.getGuestIndex()].intValue(), assignment.getOffer());
+			Assert.assertEquals(expectedRoomCategory, assignment.getRoomCategory());
+		}
+		Assert.assertFalse(assignment.next());
+	}
+
+	@Test
+	public void assign_randomOffersWithTies_sameOccupancyOfTheAllocationAndOffersOrderKept() {
+		Random random = new Random(2290);
+
+		for (int i = 0; i < 500; i++) {
+			int numberOfCategories = 1 + random.nextInt(4);
+			int[] minimumNightValues = new int[numberOfCategories];
+			int[] freeRooms = new int[numberOfCategories];
+			for (int category = numberOfCategories - 1, value = random.nextInt(5); category >= 0; category--) {
+				minimumNightValues[category] = value;
+				freeRooms[category] = random.nextInt(8);
+				value += 1 + random.nextInt(6);
+			}
+
+			// Few distinct values, so the segments end in the middle of ties
+			Integer[] offers = randomOffers(random, random.nextInt(60), 30);
+
+			RoomCategoryOccupancyEntity[] expected = allocate(minimumNightValues, freeRooms, offers, false);
+			OccupancyAssignment assignment = CategoryAllocationEngine.assign(minimumNightValues, freeRooms,
+					GuestOffers.of(offers), OccupancyPhaseTimings.start());
+
+			int[] occupiedRooms = new int[numberOfCategories];
+			int[] incomes = new int[numberOfCategories];
+			while (assignment.next()) {
+				Assert.assertEquals(offers[assignment.getGuestIndex()].intValue(), assignment.getOffer());
+
+				if (assignment.getRoomCategory() != OccupancyAssignment.NO_ROOM) {
+					Assert.assertTrue(assignment.getRoomCategory() <= CategoryAllocationEngine
+							.categoryOf(assignment.getOffer(), minimumNightValues));
+					occupiedRooms[assignment.getRoomCategory()]++;
+					incomes[assignment.getRoomCategory()] += assignment.getOffer();
+				}
+			}
+
+			for (int category = 0; category < numberOfCategories; category++) {
+				assertOccupancy(occupiedRooms[category], incomes[category], expected[category]);
+				assertOccupancy(occupiedRooms[category], incomes[category], assignment.getOccupancies()[category]);
+			}
+		}
+	}
+
+	private static RoomCategoryOccupancyEntity[] allocate(int[] minimumNightValues, int[] freeRooms, Integer[] offers,
+			boolean byHistogram) {
+		return CategoryAllocationEngine.allocate(minimumNightValues, freeRooms, GuestOffers.of(offers), byHistogram,
+				OccupancyPhaseTimings.start());
+	}
+
+	/**
+	 * The rules of the {@link OccupancyAllocationPlan}, over sorted offers
+	 */
+	private static RoomCategoryOccupancyEntity[] allocateByTwoTierRules(int freePremiumRooms, int freeEconomyRooms,
+			Integer[] offers) {
+		int[] sortedOffers = Arrays.stream(offers).mapToInt(Integer::intValue).sorted().toArray();
+		int numberOfEconomyGuests = (int) Arrays.stream(sortedOffers).filter(offer -> offer < 100).count();
+		int numberOfPremiumGuests = sortedOffers.length - numberOfEconomyGuests;
+
+		OccupancyAllocationPlan plan = OccupancyAllocationPlan.of(freePremiumRooms, freeEconomyRooms,
+				numberOfPremiumGuests, numberOfEconomyGuests);
+
+		int premiumIncome = sumOfLargest(sortedOffers, sortedOffers.length, plan.getPremiumGuests())
+				+ sumOfLargest(sortedOffers, numberOfEconomyGuests, plan.getUpgradedEconomyGuests());
+		int economyIncome = sumOfLargest(sortedOffers, numberOfEconomyGuests - plan.getUpgradedEconomyGuests(),
+				plan.getEconomyGuests());
+
+		return new RoomCategoryOccupancyEntity[] {
+				new RoomCategoryOccupancyEntity(plan.getOccupiedPremiumRooms(), premiumIncome),
+				new RoomCategoryOccupancyEntity(plan.getEconomyGuests(), economyIncome) };
+	}
+
+	private static int sumOfLargest(int[] sortedOffers, int to, int numberOfOffers) {
+		return Arrays.stream(sortedOffers, to - numberOfOffers, to).sum();
+	}
+
+	private static Integer[] randomOffers(Random random, int numberOfOffers, int maxOffer) {
+		Integer[] offers = new Integer[numberOfOffers];
+		for (int i = 0; i < numberOfOffers; i++) {
+			offers[i] = random.nextInt(maxOffer);
+		}
+
+		return offers;
+	}
+
+	private static void assertOccupancy(int numberOfOccupiedRooms, int generatedIncome,
+			RoomCategoryOccupancyEntity occupancy) {
+		Assert.assertEquals(Integer.valueOf(numberOfOccupiedRooms), occupancy.getNumberOfOccupiedRooms());
+		Assert.assertEquals(Integer.valueOf(generatedIncome), occupancy.getGeneratedIncome());
+	}
+
+}
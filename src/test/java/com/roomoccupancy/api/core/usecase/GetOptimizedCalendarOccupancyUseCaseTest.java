@@ -0,0 +1,194 @@
+package com.roomoccupancy.api.core.usecase;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.hamcrest.Matchers;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.roomoccupancy.api.core.cache.OptimizedRoomOccupancyCache;
+import com.roomoccupancy.api.core.entity.NightInventoryEntity;
+import com.roomoccupancy.api.core.entity.NightOccupancyEntity;
+import com.roomoccupancy.api.core.entity.OptimizedCalendarOccupancyEntity;
+import com.roomoccupancy.api.core.entity.OptimizedRoomOccupancyEntity;
+import com.roomoccupancy.api.core.entity.StayOfferEntity;
+import com.roomoccupancy.api.core.exception.BusinessException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Unit tests for {@link GetOptimizedCalendarOccupancyUseCase}
+ * 
+ * @author luis
+ *
+ */
+public class GetOptimizedCalendarOccupancyUseCaseTest {
+
+	private static final LocalDate FIRST_NIGHT = LocalDate.of(2019, 1, 1);
+
+	private GetOptimizedCalendarOccupancyUseCase calendarUseCase = new GetOptimizedCalendarOccupancyUseCase();
+
+	@Rule
+	public ExpectedException expectedException = ExpectedException.none();
+
+	{
+		calendarUseCase.occupancyUseCase = new GetOptimizedRoomOccupancyUseCase();
+		calendarUseCase.forkJoinPool = new ForkJoinPool(4);
+	}
+
+	@After
+	public void shutdownForkJoinPool() {
+		calendarUseCase.forkJoinPool.shutdown();
+	}
+
+	@Test
+	public void getOptimizedCalendarOccupancy_overlappingStays_eachNightOptimizedWithItsStays() {
+		List<NightInventoryEntity> nights = Arrays.asList(new NightInventoryEntity(1, 1),
+				new NightInventoryEntity(2, 0), new NightInventoryEntity(0, 1));
+
+		List<StayOfferEntity> stays = Arrays.asList(stay(0, 3, 150), stay(0, 2, 80), stay(1, 3, 60),
+				stay(2, 4, 40));
+
+		OptimizedCalendarOccupancyEntity occupancy = calendarUseCase.getOptimizedCalendarOccupancy(FIRST_NIGHT,
+				nights, stays);
+
+		List<NightOccupancyEntity> nightOccupancies = occupancy.getNights();
+		Assert.assertEquals(3, nightOccupancies.size());
+
+		// Night 0: 150 on Premium, 80 on Economy
+		assertNight(nightOccupancies.get(0), 0, 1, 150, 1, 80);
+		// Night 1: 150 and the upgraded 80 on Premium, 60 has no Economy room
+		assertNight(nightOccupancies.get(1), 1, 2, 230, 0, 0);
+		// Night 2: 150 has no Premium room, 60 on Economy
+		assertNight(nightOccupancies.get(2), 2, 0, 0, 1, 60);
+
+		Assert.assertEquals(Long.valueOf(150 + 80 + 230 + 60), occupancy.getGeneratedIncome());
+	}
+
+	@Test
+	public void getOptimizedCalendarOccupancy_nightsOptimized_nightsNotCached() {
+		calendarUseCase.occupancyUseCase.occupancyCache = new OptimizedRoomOccupancyCache(100L,
+				new SimpleMeterRegistry());
+
+		calendarUseCase.getOptimizedCalendarOccupancy(FIRST_NIGHT, Arrays.asList(new NightInventoryEntity(1, 1)),
+				Arrays.asList(stay(0, 1, 150), stay(0, 1, 80)));
+
+		Assert.assertNull(calendarUseCase.occupancyUseCase.occupancyCache
+				.get(OptimizedRoomOccupancyKey.of(1, 1, GuestOffers.of(new Integer[] { 150, 80 }))));
+	}
+
+	@Test
+	public void getOptimizedCalendarOccupancy_randomCalendar_sameResultOfEachSingleNight() {
+		Random random = new Random(2290);
+		int numberOfNights = 60;
+
+		List<NightInventoryEntity> nights = new ArrayList<>();
+		for (int night = 0; night < numberOfNights; night++) {
+			nights.add(new NightInventoryEntity(random.nextInt(20), random.nextInt(20)));
+		}
+
+		List<StayOfferEntity> stays = new ArrayList<>();
+		for (int stay = 0; stay < 2_000; stay++) {
+			// Some stays start before and end after the calendar
+			int checkIn = random.nextInt(numberOfNights + 10) - 5;
+			stays.add(stay(checkIn, checkIn + 1 + random.nextInt(7), random.nextInt(300)));
+		}
+
+		List<NightOccupancyEntity> nightOccupancies = calendarUseCase
+				.getOptimizedCalendarOccupancy(FIRST_NIGHT, nights, stays).getNights();
+
+		GetOptimizedRoomOccupancyUseCase occupancyUseCase = new GetOptimizedRoomOccupancyUseCase();
+
+		for (int night = 0; night < numberOfNights; night++) {
+			LocalDate date = FIRST_NIGHT.plusDays(night);
+			List<Integer> nightOffers = new ArrayList<>();
+
+			for (StayOfferEntity stay : stays) {
+				if (!stay.getCheckIn().isAfter(date) && stay.getCheckOut().isAfter(date)) {
+					nightOffers.add(stay.getNightlyOffer());
+				}
+			}
+
+			OptimizedRoomOccupancyEntity expectedOccupancy = occupancyUseCase.getOptimizedRoomOccupancy(
+					nights.get(night).getFreePremiumRooms(), nights.get(night).getFreeEconomyRooms(),
+					nightOffers.toArray(new Integer[0]));
+
+			NightOccupancyEntity nightOccupancy = nightOccupancies.get(night);
+			Assert.assertEquals(date, nightOccupancy.getNight());
+			Assert.assertEquals(Integer.valueOf(nightOffers.size()), nightOccupancy.getNumberOfPotentialGuests());
+			Assert.assertThat(nightOccupancy.getOccupancy().getPremiumOccupancy(),
+					Matchers.samePropertyValuesAs(expectedOccupancy.getPremiumOccupancy()));
+			Assert.assertThat(nightOccupancy.getOccupancy().getEconomyOccupancy(),
+					Matchers.samePropertyValuesAs(expectedOccupancy.getEconomyOccupancy()));
+		}
+	}
+
+	@Test
+	public void getOptimizedCalendarOccupancy_noStays_emptyNights() {
+		OptimizedCalendarOccupancyEntity occupancy = calendarUseCase.getOptimizedCalendarOccupancy(FIRST_NIGHT,
+				Collections.singletonList(new NightInventoryEntity(3, 3)), Collections.emptyList());
+
+		assertNight(occupancy.getNights().get(0), 0, 0, 0, 0, 0);
+		Assert.assertEquals(Long.valueOf(0), occupancy.getGeneratedIncome());
+	}
+
+	@Test
+	public void getOptimizedCalendarOccupancy_emptyNights_throwBusinessException() {
+		expectBusinessException("The nights of the calendar are required.");
+		calendarUseCase.getOptimizedCalendarOccupancy(FIRST_NIGHT, Collections.emptyList(), Collections.emptyList());
+	}
+
+	@Test
+	public void getOptimizedCalendarOccupancy_negativeFreeRooms_throwBusinessException() {
+		expectBusinessException("The number of free Premium rooms must be zero or greater.");
+		calendarUseCase.getOptimizedCalendarOccupancy(FIRST_NIGHT,
+				Collections.singletonList(new NightInventoryEntity(-1, 3)), Collections.emptyList());
+	}
+
+	@Test
+	public void getOptimizedCalendarOccupancy_checkOutBeforeCheckIn_throwBusinessException() {
+		expectBusinessException(
+				"The check-in and the check-out of a stay are required, and the check-out must be after the check-in.");
+		calendarUseCase.getOptimizedCalendarOccupancy(FIRST_NIGHT,
+				Collections.singletonList(new NightInventoryEntity(1, 1)), Collections.singletonList(stay(2, 2, 100)));
+	}
+
+	@Test
+	public void getOptimizedCalendarOccupancy_negativeNightlyOffer_throwBusinessException() {
+		expectBusinessException("The value that a guest is willing to pay must be a valid positive Integer");
+		calendarUseCase.getOptimizedCalendarOccupancy(FIRST_NIGHT,
+				Collections.singletonList(new NightInventoryEntity(1, 1)), Collections.singletonList(stay(0, 1, -1)));
+	}
+
+	private static StayOfferEntity stay(int checkIn, int checkOut, int nightlyOffer) {
+		return new StayOfferEntity(FIRST_NIGHT.plusDays(checkIn), FIRST_NIGHT.plusDays(checkOut), nightlyOffer);
+	}
+
+	private static void assertNight(NightOccupancyEntity nightOccupancy, int night, int premiumRooms,
+			int premiumIncome, int economyRooms, int economyIncome) {
+		Assert.assertEquals(FIRST_NIGHT.plusDays(night), nightOccupancy.getNight());
+		Assert.assertEquals(Integer.valueOf(premiumRooms),
+				nightOccupancy.getOccupancy().getPremiumOccupancy().getNumberOfOccupiedRooms());
+		Assert.assertEquals(Integer.valueOf(premiumIncome),
+				nightOccupancy.getOccupancy().getPremiumOccupancy().getGeneratedIncome());
+		Assert.assertEquals(Integer.valueOf(economyRooms),
+				nightOccupancy.getOccupancy().getEconomyOccupancy().getNumberOfOccupiedRooms());
+		Assert.assertEquals(Integer.valueOf(economyIncome),
+				nightOccupancy.getOccupancy().getEconomyOccupancy().getGeneratedIncome());
+	}
+
+	private void expectBusinessException(String message) {
+		expectedException.expect(BusinessException.class);
+		expectedException.expectMessage(message);
+	}
+
+}
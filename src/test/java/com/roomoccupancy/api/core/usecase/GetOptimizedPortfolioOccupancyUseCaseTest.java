@@ -0,0 +1,222 @@
+package com.roomoccupancy.api.core.usecase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hamcrest.Matchers;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.roomoccupancy.api.core.entity.OptimizedRoomOccupancyEntity;
+import com.roomoccupancy.api.core.entity.PortfolioHotelResultEntity;
+import com.roomoccupancy.api.core.exception.BusinessException;
+
+/**
+ * Unit tests for {@link GetOptimizedPortfolioOccupancyUseCase}
+ * 
+ * @author luis
+ *
+ */
+public class GetOptimizedPortfolioOccupancyUseCaseTest {
+
+	private static final Integer[] POTENTIAL_GUESTS = { 23, 45, 155, 374, 22, 99, 100, 101, 115, 209 };
+
+	private GetOptimizedPortfolioOccupancyUseCase portfolioUseCase = new GetOptimizedPortfolioOccupancyUseCase();
+
+	{
+		portfolioUseCase.occupancyUseCase = new GetOptimizedRoomOccupancyUseCase();
+		portfolioUseCase.inventoryUseCase = new HotelInventoryUseCase();
+		portfolioUseCase.inventoryUseCase.occupancyUseCase = portfolioUseCase.occupancyUseCase;
+		portfolioUseCase.forkJoinPool = new ForkJoinPool(4);
+	}
+
+	@After
+	public void shutdownForkJoinPool() {
+		portfolioUseCase.forkJoinPool.shutdown();
+	}
+
+	@Test
+	public void startPortfolioOptimization_manyHotels_oneResultPerHotel() throws InterruptedException {
+		PortfolioOptimization optimization = portfolioUseCase.startPortfolioOptimization();
+
+		for (int freeRooms = 0; freeRooms < 100; freeRooms++) {
+			PortfolioHotel hotel = new PortfolioHotel("hotel-" + freeRooms, freeRooms % 10, freeRooms / 10,
+					GuestOffers.of(POTENTIAL_GUESTS));
+			optimization.submit(() -> hotel);
+		}
+
+		List<PortfolioHotelResultEntity> results = takeAll(optimization);
+
+		Assert.assertEquals(100, results.size());
+		for (int i = 0; i < results.size(); i++) {
+			PortfolioHotelResultEntity result = results.get(i);
+			OptimizedRoomOccupancyEntity expectedResult = portfolioUseCase.occupancyUseCase
+					.getOptimizedRoomOccupancy(i % 10, i / 10, POTENTIAL_GUESTS);
+
+			Assert.assertEquals(Integer.valueOf(i), result.getIndex());
+			Assert.assertEquals("hotel-" + i, result.getHotelId());
+			Assert.assertNull(result.getError());
+			Assert.assertThat(result.getResult().getPremiumOccupancy(),
+					Matchers.samePropertyValuesAs(expectedResult.getPremiumOccupancy()));
+			Assert.assertThat(result.getResult().getEconomyOccupancy(),
+					Matchers.samePropertyValuesAs(expectedResult.getEconomyOccupancy()));
+		}
+	}
+
+	@Test
+	public void startPortfolioOptimization_hotelWithoutFreeRooms_optimizedOnItsInventory()
+			throws InterruptedException {
+		portfolioUseCase.inventoryUseCase.putInventory("hotel-1", 3, 3, null);
+
+		PortfolioOptimization optimization = portfolioUseCase.startPortfolioOptimization();
+		optimization.submit(() -> new PortfolioHotel("hotel-1", null, null, GuestOffers.of(POTENTIAL_GUESTS)));
+		optimization.submit(() -> new PortfolioHotel("hotel-2", null, null, GuestOffers.of(POTENTIAL_GUESTS)));
+
+		List<PortfolioHotelResultEntity> results = takeAll(optimization);
+
+		Assert.assertEquals(Integer.valueOf(738), results.get(0).getResult().getPremiumOccupancy().getGeneratedIncome());
+		Assert.assertEquals(HotelInventory.ERROR_HOTEL_NOT_FOUND, results.get(1).getError());
+		Assert.assertEquals("hotel-2", results.get(1).getHotelId());
+	}
+
+	@Test
+	public void startPortfolioOptimization_invalidHotels_errorsReportedPerHotel() throws InterruptedException {
+		PortfolioOptimization optimization = portfolioUseCase.startPortfolioOptimization();
+		optimization.submit(() -> new PortfolioHotel("hotel-1", -1, 3, GuestOffers.of(POTENTIAL_GUESTS)));
+		optimization.submit(() -> {
+			throw new BusinessException("The request body must be a valid JSON object.");
+		});
+		optimization.reject("A hotel of the portfolio must have 10 bytes or less.");
+		optimization.submit(() -> new PortfolioHotel("hotel-4", 3, 3, GuestOffers.of(POTENTIAL_GUESTS)));
+
+		List<PortfolioHotelResultEntity> results = takeAll(optimization);
+
+		Assert.assertEquals("The number of free Premium rooms must be zero or greater.", results.get(0).getError());
+		Assert.assertEquals("hotel-1", results.get(0).getHotelId());
+		Assert.assertEquals("The request body must be a valid JSON object.", results.get(1).getError());
+		Assert.assertNull(results.get(1).getHotelId());
+		Assert.assertEquals("A hotel of the portfolio must have 10 bytes or less.", results.get(2).getError());
+		Assert.assertEquals(Integer.valueOf(738), results.get(3).getResult().getPremiumOccupancy().getGeneratedIncome());
+	}
+
+	@Test
+	public void startPortfolioOptimization_unexpectedError_errorReportedAndOtherHotelsOptimized()
+			throws InterruptedException {
+		PortfolioOptimization optimization = portfolioUseCase.startPortfolioOptimization();
+		optimization.submit(() -> {
+			throw new IllegalStateException("The hotel could not be read.");
+		});
+		optimization.submit(() -> new PortfolioHotel("hotel-2", 3, 3, GuestOffers.of(POTENTIAL_GUESTS)));
+
+		List<PortfolioHotelResultEntity> results = takeAll(optimization);
+
+		Assert.assertEquals(2, results.size());
+		Assert.assertEquals(PortfolioOptimization.ERROR_HOTEL_NOT_OPTIMIZED, results.get(0).getError());
+		Assert.assertEquals(Integer.valueOf(738), results.get(1).getResult().getPremiumOccupancy().getGeneratedIncome());
+	}
+
+	@Test
+	public void startPortfolioOptimization_admittedHotels_ticketsReweighedOnTheGuestsReadAndClosed()
+			throws InterruptedException {
+		List<Integer> weights = Collections.synchronizedList(new ArrayList<>());
+		AtomicInteger closedTickets = new AtomicInteger();
+		PortfolioOptimization.Ticket ticket = new PortfolioOptimization.Ticket() {
+
+			@Override
+			public void reweigh(int numberOfPotentialGuests) {
+				weights.add(numberOfPotentialGuests);
+			}
+
+			@Override
+			public void close() {
+				closedTickets.incrementAndGet();
+			}
+
+		};
+
+		PortfolioOptimization optimization = portfolioUseCase.startPortfolioOptimization();
+		optimization.submit(() -> new PortfolioHotel("hotel-1", 3, 3, GuestOffers.of(POTENTIAL_GUESTS)), ticket);
+		optimization.submit(() -> {
+			throw new BusinessException("The hotel identifier must be a String.");
+		}, ticket);
+		optimization.reject("The API is busy, please retry later.");
+
+		List<PortfolioHotelResultEntity> results = takeAll(optimization);
+
+		Assert.assertEquals(Integer.valueOf(738), results.get(0).getResult().getPremiumOccupancy().getGeneratedIncome());
+		Assert.assertEquals("The hotel identifier must be a String.", results.get(1).getError());
+		Assert.assertEquals("The API is busy, please retry later.", results.get(2).getError());
+		Assert.assertEquals(Collections.singletonList(POTENTIAL_GUESTS.length), weights);
+		Assert.assertEquals(2, closedTickets.get());
+	}
+
+	@Test
+	public void startPortfolioOptimization_poolShutDown_ticketClosed() {
+		AtomicInteger closedTickets = new AtomicInteger();
+		PortfolioOptimization optimization = portfolioUseCase.startPortfolioOptimization();
+		portfolioUseCase.forkJoinPool.shutdown();
+
+		try {
+			optimization.submit(() -> null, new PortfolioOptimization.Ticket() {
+
+				@Override
+				public void reweigh(int numberOfPotentialGuests) {
+					Assert.fail("The hotel should not be read");
+				}
+
+				@Override
+				public void close() {
+					closedTickets.incrementAndGet();
+				}
+
+			});
+			Assert.fail("The hotel should not be queued");
+		} catch (RejectedExecutionException ex) {
+			Assert.assertEquals(1, closedTickets.get());
+		}
+	}
+
+	@Test
+	public void startPortfolioOptimization_slowHotel_fasterHotelsAnsweredFirst() throws InterruptedException {
+		CountDownLatch fastHotelTaken = new CountDownLatch(1);
+
+		PortfolioOptimization optimization = portfolioUseCase.startPortfolioOptimization();
+		optimization.submit(() -> {
+			try {
+				fastHotelTaken.await();
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			return new PortfolioHotel("slow", 3, 3, GuestOffers.of(POTENTIAL_GUESTS));
+		});
+		optimization.submit(() -> new PortfolioHotel("fast", 3, 3, GuestOffers.of(POTENTIAL_GUESTS)));
+
+		Assert.assertEquals("fast", optimization.take().getHotelId());
+		Assert.assertEquals(1, optimization.getNumberOfPendingHotels());
+		fastHotelTaken.countDown();
+
+		Assert.assertEquals("slow", optimization.take().getHotelId());
+		Assert.assertNull(optimization.take());
+	}
+
+	private static List<PortfolioHotelResultEntity> takeAll(PortfolioOptimization optimization)
+			throws InterruptedException {
+		List<PortfolioHotelResultEntity> results = new ArrayList<>();
+
+		for (PortfolioHotelResultEntity result = optimization.take(); result != null; result = optimization.take()) {
+			results.add(result);
+		}
+
+		results.sort(Comparator.comparing(PortfolioHotelResultEntity::getIndex));
+
+		return results;
+	}
+
+}
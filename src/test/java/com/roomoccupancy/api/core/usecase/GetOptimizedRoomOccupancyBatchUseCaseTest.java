@@ -0,0 +1,91 @@
+package com.roomoccupancy.api.core.usecase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.hamcrest.Matchers;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.roomoccupancy.api.core.entity.OccupancyScenarioEntity;
+import com.roomoccupancy.api.core.entity.OccupancyScenarioResultEntity;
+import com.roomoccupancy.api.core.entity.OptimizedRoomOccupancyEntity;
+import com.roomoccupancy.api.core.exception.BusinessException;
+
+/**
+ * Unit tests for {@link GetOptimizedRoomOccupancyBatchUseCase}
+ * 
+ * @author luis
+ *
+ */
+public class GetOptimizedRoomOccupancyBatchUseCaseTest {
+
+	private static final Integer[] POTENTIAL_GUESTS = { 23, 45, 155, 374, 22, 99, 100, 101, 115, 209 };
+
+	private GetOptimizedRoomOccupancyBatchUseCase batchUseCase = new GetOptimizedRoomOccupancyBatchUseCase();
+
+	@Rule
+	public ExpectedException expectedException = ExpectedException.none();
+
+	{
+		batchUseCase.occupancyUseCase = new GetOptimizedRoomOccupancyUseCase();
+		batchUseCase.forkJoinPool = new ForkJoinPool(4);
+	}
+
+	@After
+	public void shutdownForkJoinPool() {
+		batchUseCase.forkJoinPool.shutdown();
+	}
+
+	@Test
+	public void getOptimizedRoomOccupancies_nullScenarios_throwBusinessException() {
+		expectedException.expectMessage("The scenarios are required.");
+		expectedException.expect(BusinessException.class);
+
+		batchUseCase.getOptimizedRoomOccupancies(null);
+	}
+
+	@Test
+	public void getOptimizedRoomOccupancies_manyScenarios_resultsInScenariosOrder() {
+		List<OccupancyScenarioEntity> scenarios = new ArrayList<>();
+
+		for (int freeRooms = 0; freeRooms < 100; freeRooms++) {
+			scenarios.add(new OccupancyScenarioEntity(freeRooms % 10, freeRooms / 10, POTENTIAL_GUESTS));
+		}
+
+		List<OccupancyScenarioResultEntity> results = batchUseCase.getOptimizedRoomOccupancies(scenarios);
+
+		Assert.assertEquals(scenarios.size(), results.size());
+		for (int i = 0; i < scenarios.size(); i++) {
+			OccupancyScenarioEntity scenario = scenarios.get(i);
+			OptimizedRoomOccupancyEntity expectedResult = batchUseCase.occupancyUseCase.getOptimizedRoomOccupancy(
+					scenario.getFreePremiumRooms(), scenario.getFreeEconomyRooms(), scenario.getPotentialGuests());
+
+			Assert.assertNull(results.get(i).getError());
+			Assert.assertThat(results.get(i).getResult().getPremiumOccupancy(),
+					Matchers.samePropertyValuesAs(expectedResult.getPremiumOccupancy()));
+			Assert.assertThat(results.get(i).getResult().getEconomyOccupancy(),
+					Matchers.samePropertyValuesAs(expectedResult.getEconomyOccupancy()));
+		}
+	}
+
+	@Test
+	public void getOptimizedRoomOccupancies_invalidScenarios_errorsReportedPerScenario() {
+		List<OccupancyScenarioEntity> scenarios = Arrays.asList(new OccupancyScenarioEntity(3, 3, POTENTIAL_GUESTS),
+				new OccupancyScenarioEntity(-1, 3, POTENTIAL_GUESTS), null, new OccupancyScenarioEntity(3, 3, null));
+
+		List<OccupancyScenarioResultEntity> results = batchUseCase.getOptimizedRoomOccupancies(scenarios);
+
+		Assert.assertEquals(Integer.valueOf(738), results.get(0).getResult().getPremiumOccupancy().getGeneratedIncome());
+		Assert.assertEquals("The number of free Premium rooms must be zero or greater.", results.get(1).getError());
+		Assert.assertEquals("The scenario is required.", results.get(2).getError());
+		Assert.assertEquals("The potential guests array is required.", results.get(3).getError());
+		Assert.assertNull(results.get(3).getResult());
+	}
+
+}
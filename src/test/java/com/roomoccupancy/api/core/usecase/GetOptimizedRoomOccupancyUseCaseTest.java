@@ -1,12 +1,26 @@
 package com.roomoccupancy.api.core.usecase;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import com.roomoccupancy.api.core.cache.OptimizedRoomOccupancyCache;
+import com.roomoccupancy.api.core.entity.CategoryOccupancyEntity;
+import com.roomoccupancy.api.core.entity.HotelInventoryEventEntity;
 import com.roomoccupancy.api.core.entity.OptimizedRoomOccupancyEntity;
+import com.roomoccupancy.api.core.entity.RoomCategoryEntity;
 import com.roomoccupancy.api.core.exception.BusinessException;
+import com.roomoccupancy.api.core.gateway.OccupancyEventGateway;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 /**
  * Unit tests for {@link GetOptimizedRoomOccupancyUseCase}
@@ -205,6 +219,120 @@ public class GetOptimizedRoomOccupancyUseCaseTest {
 				numberOfFreeEconomyRooms);
 	}
 
+	@Test
+	public void getOptimizedRoomOccupancy_cachedOffersInAnotherOrder_cachedUsage() {
+		occupancyUseCase.occupancyCache = new OptimizedRoomOccupancyCache(100L, new SimpleMeterRegistry());
+		Integer[] reorderedPotentialGuests = POTENTIAL_GUESTS.clone();
+		Collections.reverse(Arrays.asList(reorderedPotentialGuests));
+
+		OptimizedRoomOccupancyEntity roomOccupancy = occupancyUseCase.getOptimizedRoomOccupancy(3, 3,
+				POTENTIAL_GUESTS);
+
+		Assert.assertSame(roomOccupancy, occupancyUseCase.getOptimizedRoomOccupancy(3, 3, reorderedPotentialGuests));
+		Assert.assertNotSame(roomOccupancy, occupancyUseCase.getOptimizedRoomOccupancy(3, 2, POTENTIAL_GUESTS));
+	}
+
+	@Test
+	public void getOptimizedRoomOccupancy_randomPotentialGuests_sameUsageAsSortingAllGuests() {
+		Random random = new Random(2290);
+
+		for (int round = 0; round < 500; round++) {
+			Integer[] potentialGuests = random.ints(random.nextInt(60), 0, 200).boxed().toArray(Integer[]::new);
+			Integer numberOfFreePremiumRooms = random.nextInt(20);
+			Integer numberOfFreeEconomyRooms = random.nextInt(20);
+
+			Integer[] orderedPotentialGuests = potentialGuests.clone();
+			Arrays.sort(orderedPotentialGuests, Collections.reverseOrder());
+
+			int numberOfPotentialPremiumGuests = (int) Arrays.stream(potentialGuests).filter(g -> g >= 100).count();
+			int numberOfPotentialEconomyGuests = potentialGuests.length - numberOfPotentialPremiumGuests;
+			int numberOfEconomyGuests = Math.min(numberOfFreeEconomyRooms, numberOfPotentialEconomyGuests);
+			int numberOfPremiumGuests = Math.min(numberOfFreePremiumRooms, numberOfPotentialPremiumGuests
+					+ numberOfPotentialEconomyGuests - numberOfEconomyGuests);
+			int firstEconomyGuest = Math.max(numberOfPremiumGuests, numberOfPotentialPremiumGuests);
+
+			callOptimizedRoomOccupancyAndAssertResult(numberOfPremiumGuests,
+					sum(orderedPotentialGuests, 0, numberOfPremiumGuests), numberOfEconomyGuests,
+					sum(orderedPotentialGuests, firstEconomyGuest, firstEconomyGuest + numberOfEconomyGuests),
+					numberOfFreePremiumRooms, numberOfFreeEconomyRooms, potentialGuests);
+		}
+	}
+
+	@Test
+	public void getOptimizedRoomOccupancy_boundedOffers_histogramUsageSameAsSelectionUsage() {
+		Random random = new Random(2290);
+		GetOptimizedRoomOccupancyUseCase selectionUseCase = new GetOptimizedRoomOccupancyUseCase();
+		selectionUseCase.histogramMaxOffer = 0;
+
+		for (int round = 0; round < 200; round++) {
+			Integer[] potentialGuests = random.ints(300 + random.nextInt(300), 0, 300).boxed()
+					.toArray(Integer[]::new);
+			Integer numberOfFreePremiumRooms = random.nextInt(200);
+			Integer numberOfFreeEconomyRooms = random.nextInt(200);
+
+			OptimizedRoomOccupancyEntity expectedOccupancy = selectionUseCase
+					.getOptimizedRoomOccupancy(numberOfFreePremiumRooms, numberOfFreeEconomyRooms, potentialGuests);
+
+			callOptimizedRoomOccupancyAndAssertResult(expectedOccupancy.getPremiumOccupancy().getNumberOfOccupiedRooms(),
+					expectedOccupancy.getPremiumOccupancy().getGeneratedIncome(),
+					expectedOccupancy.getEconomyOccupancy().getNumberOfOccupiedRooms(),
+					expectedOccupancy.getEconomyOccupancy().getGeneratedIncome(), numberOfFreePremiumRooms,
+					numberOfFreeEconomyRooms, potentialGuests);
+		}
+	}
+
+	@Test
+	public void getOptimizedRoomOccupancy_offersAboveOffloadThreshold_optimizedOnTheOffloadPool() {
+		ForkJoinPool offloadPool = new ForkJoinPool(1);
+		occupancyUseCase.offloadPool = offloadPool;
+		occupancyUseCase.offloadThreshold = POTENTIAL_GUESTS.length;
+
+		try {
+			callOptimizedRoomOccupancyAndAssertResult(7, 1153, 1, 45, 7, 1);
+
+			Assert.assertEquals(1, offloadPool.getPoolSize());
+		} finally {
+			offloadPool.shutdown();
+		}
+	}
+
+	@Test
+	public void getOptimizedRoomOccupancy_offersBelowOffloadThreshold_optimizedOnTheCallingThread() {
+		ForkJoinPool offloadPool = new ForkJoinPool(1);
+		occupancyUseCase.offloadPool = offloadPool;
+		occupancyUseCase.offloadThreshold = POTENTIAL_GUESTS.length + 1;
+
+		try {
+			callOptimizedRoomOccupancyAndAssertResult(7, 1153, 1, 45, 7, 1);
+
+			Assert.assertEquals(0, offloadPool.getPoolSize());
+		} finally {
+			offloadPool.shutdown();
+		}
+	}
+
+	@Test
+	public void getOptimizedRoomOccupancy_hotelPremiumMinimumNightValue_guestsSplitByTheHotelValue() {
+		for (int histogramMaxOffer : new int[] { 0, 2048 }) {
+			occupancyUseCase.histogramMaxOffer = histogramMaxOffer;
+
+			OptimizedRoomOccupancyEntity roomOccupancy = occupancyUseCase.getOptimizedRoomOccupancy(3, 3, 200,
+					GuestOffers.of(POTENTIAL_GUESTS));
+
+			Assert.assertEquals(Integer.valueOf(3), roomOccupancy.getPremiumOccupancy().getNumberOfOccupiedRooms());
+			Assert.assertEquals(Integer.valueOf(738), roomOccupancy.getPremiumOccupancy().getGeneratedIncome());
+			Assert.assertEquals(Integer.valueOf(3), roomOccupancy.getEconomyOccupancy().getNumberOfOccupiedRooms());
+			Assert.assertEquals(Integer.valueOf(316), roomOccupancy.getEconomyOccupancy().getGeneratedIncome());
+		}
+	}
+
+	@Test
+	public void getOptimizedRoomOccupancy_negativePremiumMinimumNightValue_throwBusinessException() {
+		expectedException.expectMessage("The Premium minimum night value must be zero or greater.");
+		expectedException.expect(BusinessException.class);
+		occupancyUseCase.getOptimizedRoomOccupancy(3, 3, -1, GuestOffers.of(POTENTIAL_GUESTS));
+	}
+
 	private void callOptimizedRoomOccupancyAndAssertResult(Integer expectedPremiumRoomsOccupied,
 			Integer expectedPremiumRoomsIncome, Integer expectedEconomyRoomsOccupied,
 			Integer expectedEconomyRoomsIncome, Integer numberOfFreePremiumRooms, Integer numberOfFreeEconomyRooms) {
@@ -232,6 +360,137 @@ public class GetOptimizedRoomOccupancyUseCaseTest {
 		Assert.assertEquals(expectedPremiumRoomsIncome, roomOccupancy.getPremiumOccupancy().getGeneratedIncome());
 	}
 
+	@Test
+	public void getOccupancyAssignment_premiumAndEconomyRooms_roomOfEachGuestInTheOrderOfTheOffers() {
+		OccupancyAssignment assignment = occupancyUseCase.getOccupancyAssignment(7, 1,
+				GuestOffers.of(POTENTIAL_GUESTS));
+
+		// 23, 45, 155, 374, 22, 99, 100, 101, 115, 209 - the best Economy guest is
+		// upgraded, and the next one gets the Economy room
+		int noRoom = OccupancyAssignment.NO_ROOM;
+		int[] expectedRoomCategories = { noRoom, 1, 0, 0, noRoom, 0, 0, 0, 0, 0 };
+		for (int guest = 0; guest < POTENTIAL_GUESTS.length; guest++) {
+			Assert.assertTrue(assignment.next());
+			Assert.assertEquals(POTENTIAL_GUESTS[guest].intValue(), assignment.getOffer());
+			Assert.assertEquals(expectedRoomCategories[guest], assignment.getRoomCategory());
+		}
+		Assert.assertFalse(assignment.next());
+
+		Assert.assertEquals(Integer.valueOf(1153), assignment.getOccupancies()[0].getGeneratedIncome());
+		Assert.assertEquals(Integer.valueOf(45), assignment.getOccupancies()[1].getGeneratedIncome());
+	}
+
+	@Test
+	public void getOccupancyAssignment_negativeFreePremiumRooms_throwBusinessException() {
+		expectedException.expectMessage("The number of free Premium rooms must be zero or greater.");
+		expectedException.expect(BusinessException.class);
+		occupancyUseCase.getOccupancyAssignment(-1, 1, GuestOffers.of(POTENTIAL_GUESTS));
+	}
+
+	@Test
+	public void getOptimizedCategoryOccupancy_premiumAndEconomyCategories_sameOccupancyOfTheTwoTierOptimization() {
+		List<CategoryOccupancyEntity> categoryOccupancies = occupancyUseCase.getOptimizedCategoryOccupancy(
+				Arrays.asList(new RoomCategoryEntity("Premium", 100, 7), new RoomCategoryEntity("Economy", 0, 1)),
+				POTENTIAL_GUESTS);
+
+		Assert.assertEquals(2, categoryOccupancies.size());
+		Assert.assertEquals("Premium", categoryOccupancies.get(0).getCategory());
+		Assert.assertEquals(Integer.valueOf(7), categoryOccupancies.get(0).getNumberOfOccupiedRooms());
+		Assert.assertEquals(Integer.valueOf(1153), categoryOccupancies.get(0).getGeneratedIncome());
+		Assert.assertEquals("Economy", categoryOccupancies.get(1).getCategory());
+		Assert.assertEquals(Integer.valueOf(1), categoryOccupancies.get(1).getNumberOfOccupiedRooms());
+		Assert.assertEquals(Integer.valueOf(45), categoryOccupancies.get(1).getGeneratedIncome());
+	}
+
+	@Test
+	public void getOptimizedCategoryOccupancy_fourCategories_occupancyOfEachCategory() {
+		List<CategoryOccupancyEntity> categoryOccupancies = occupancyUseCase.getOptimizedCategoryOccupancy(
+				Arrays.asList(new RoomCategoryEntity("Suite", 400, 1), new RoomCategoryEntity("Deluxe", 250, 2),
+						new RoomCategoryEntity("Superior", 150, 2), new RoomCategoryEntity("Standard", 0, 3)),
+				new Integer[] { 160, 500, 80, 300, 450, 200, 50, 170, 100, 180, 90 });
+
+		Assert.assertEquals(Integer.valueOf(500), categoryOccupancies.get(0).getGeneratedIncome());
+		Assert.assertEquals(Integer.valueOf(500), categoryOccupancies.get(1).getGeneratedIncome());
+		Assert.assertEquals(Integer.valueOf(350), categoryOccupancies.get(2).getGeneratedIncome());
+		Assert.assertEquals("Standard", categoryOccupancies.get(3).getCategory());
+		Assert.assertEquals(Integer.valueOf(3), categoryOccupancies.get(3).getNumberOfOccupiedRooms());
+		Assert.assertEquals(Integer.valueOf(270), categoryOccupancies.get(3).getGeneratedIncome());
+	}
+
+	@Test
+	public void getOptimizedCategoryOccupancy_categoriesNotInDecreasingOrder_throwBusinessException() {
+		expectedException.expectMessage("The room categories must be ordered by decreasing minimum night value.");
+		expectedException.expect(BusinessException.class);
+		occupancyUseCase.getOptimizedCategoryOccupancy(
+				Arrays.asList(new RoomCategoryEntity("Economy", 0, 1), new RoomCategoryEntity("Premium", 100, 7)),
+				POTENTIAL_GUESTS);
+	}
+
+	@Test
+	public void getOptimizedCategoryOccupancy_negativeFreeRooms_throwBusinessException() {
+		expectedException.expectMessage("The number of free rooms of a category must be zero or greater.");
+		expectedException.expect(BusinessException.class);
+		occupancyUseCase.getOptimizedCategoryOccupancy(Arrays.asList(new RoomCategoryEntity("Premium", 100, -1)),
+				POTENTIAL_GUESTS);
+	}
+
+	@Test
+	public void getOptimizedCategoryOccupancy_tooManyCategories_throwBusinessException() {
+		RoomCategoryEntity[] roomCategories = new RoomCategoryEntity[33];
+		for (int category = 0; category < roomCategories.length; category++) {
+			roomCategories[category] = new RoomCategoryEntity("Category " + category, 1000 - category, 1);
+		}
+
+		expectedException.expectMessage("There must be 32 room categories or less.");
+		expectedException.expect(BusinessException.class);
+		occupancyUseCase.getOptimizedCategoryOccupancy(Arrays.asList(roomCategories), POTENTIAL_GUESTS);
+	}
+
+	@Test
+	public void getOptimizedCategoryOccupancy_nullCategories_throwBusinessException() {
+		expectedException.expectMessage("The room categories are required.");
+		expectedException.expect(BusinessException.class);
+		occupancyUseCase.getOptimizedCategoryOccupancy(null, POTENTIAL_GUESTS);
+	}
+
+	@Test
+	public void getOptimizedRoomOccupancy_cachedOffers_onlyTheComputedOptimizationLogged() {
+		OptimizationEventRecorder eventRecorder = new OptimizationEventRecorder();
+		occupancyUseCase.eventGateway = eventRecorder;
+		occupancyUseCase.occupancyCache = new OptimizedRoomOccupancyCache(100L, new SimpleMeterRegistry());
+
+		OptimizedRoomOccupancyEntity roomOccupancy = occupancyUseCase.getOptimizedRoomOccupancy(3, 3,
+				POTENTIAL_GUESTS);
+		occupancyUseCase.getOptimizedRoomOccupancy(3, 3, POTENTIAL_GUESTS);
+
+		Assert.assertEquals(Collections.singletonList(roomOccupancy), eventRecorder.optimizations);
+	}
+
+	@Test
+	public void getOccupancyAssignment_premiumAndEconomyRooms_occupancyLogged() {
+		OptimizationEventRecorder eventRecorder = new OptimizationEventRecorder();
+		occupancyUseCase.eventGateway = eventRecorder;
+
+		OccupancyAssignment assignment = occupancyUseCase.getOccupancyAssignment(3, 3,
+				GuestOffers.of(POTENTIAL_GUESTS));
+
+		Assert.assertEquals(1, eventRecorder.optimizations.size());
+		Assert.assertSame(assignment.getOccupancies()[0], eventRecorder.optimizations.get(0).getPremiumOccupancy());
+		Assert.assertSame(assignment.getOccupancies()[1], eventRecorder.optimizations.get(0).getEconomyOccupancy());
+	}
+
+	@Test
+	public void getOptimizedCategoryOccupancy_premiumAndEconomyCategories_occupancyLogged() {
+		OptimizationEventRecorder eventRecorder = new OptimizationEventRecorder();
+		occupancyUseCase.eventGateway = eventRecorder;
+
+		List<CategoryOccupancyEntity> categoryOccupancies = occupancyUseCase.getOptimizedCategoryOccupancy(
+				Arrays.asList(new RoomCategoryEntity("Premium", 100, 3), new RoomCategoryEntity("Economy", 0, 3)),
+				POTENTIAL_GUESTS);
+
+		Assert.assertEquals(Collections.singletonList(categoryOccupancies), eventRecorder.categoryOptimizations);
+	}
+
 	private void callOptimizedRoomOccupancyAndAssertBusinessException(Integer numberOfFreePremiumRooms,
 			Integer numberOfFreeEconomyRooms, Integer[] potencialGuests, String expectedExceptionMessage) {
 
@@ -240,4 +499,38 @@ public class GetOptimizedRoomOccupancyUseCaseTest {
 		occupancyUseCase.getOptimizedRoomOccupancy(numberOfFreePremiumRooms, numberOfFreeEconomyRooms, potencialGuests);
 	}
 
+	private Integer sum(Integer[] guests, int from, int to) {
+		return Arrays.stream(guests, from, to).mapToInt(Integer::intValue).sum();
+	}
+
+	/**
+	 * Keeps the logged optimizations
+	 */
+	private static class OptimizationEventRecorder implements OccupancyEventGateway {
+
+		private final List<OptimizedRoomOccupancyEntity> optimizations = new ArrayList<>();
+
+		private final List<List<CategoryOccupancyEntity>> categoryOptimizations = new ArrayList<>();
+
+		@Override
+		public void appendOptimization(OptimizedRoomOccupancyKey key, OptimizedRoomOccupancyEntity optimizedOccupancy) {
+			optimizations.add(optimizedOccupancy);
+		}
+
+		@Override
+		public void appendCategoryOptimization(List<RoomCategoryEntity> roomCategories, GuestOffers guestOffers,
+				List<CategoryOccupancyEntity> categoryOccupancies) {
+			categoryOptimizations.add(categoryOccupancies);
+		}
+
+		@Override
+		public void appendInventory(HotelInventoryEventEntity inventoryEvent) {
+		}
+
+		@Override
+		public void recover(RecoverableState state) {
+		}
+
+	}
+
 }
@@ -0,0 +1,58 @@
+package com.roomoccupancy.api.core.usecase;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.roomoccupancy.api.core.exception.BusinessException;
+
+/**
+ * Unit tests for {@link GetRevenueSurfaceUseCase}
+ * 
+ * @author luis
+ *
+ */
+public class GetRevenueSurfaceUseCaseTest {
+
+	private GetRevenueSurfaceUseCase revenueSurfaceUseCase = new GetRevenueSurfaceUseCase();
+
+	@Rule
+	public ExpectedException expectedException = ExpectedException.none();
+
+	@Test
+	public void getRevenueSurface_validParameters_surfaceOfTheOffers() {
+		RevenueSurface revenueSurface = revenueSurfaceUseCase.getRevenueSurface(2, 1,
+				GuestOffers.of(new Integer[] { 120, 40, 70, 99 }));
+
+		Assert.assertEquals(4, revenueSurface.getNumberOfPotentialGuests());
+		Assert.assertEquals(289L, revenueSurface.getGeneratedIncome(2, 1));
+	}
+
+	@Test
+	public void getRevenueSurface_tooManyPoints_throwBusinessException() {
+		revenueSurfaceUseCase.maxSurfacePoints = 100;
+
+		expectedException.expect(BusinessException.class);
+		expectedException.expectMessage("The revenue surface must have at most 100 points.");
+
+		revenueSurfaceUseCase.getRevenueSurface(10, 9, new GuestOffers());
+	}
+
+	@Test
+	public void getRevenueSurface_negativeMaxFreeRooms_throwBusinessException() {
+		expectedException.expect(BusinessException.class);
+		expectedException.expectMessage("The number of free Economic rooms must be zero or greater.");
+
+		revenueSurfaceUseCase.getRevenueSurface(10, -1, new GuestOffers());
+	}
+
+	@Test
+	public void getRevenueSurface_nullOffers_throwBusinessException() {
+		expectedException.expect(BusinessException.class);
+		expectedException.expectMessage("The potential guests array is required.");
+
+		revenueSurfaceUseCase.getRevenueSurface(10, 10, null);
+	}
+
+}
@@ -0,0 +1,328 @@
+package com.roomoccupancy.api.core.usecase;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.roomoccupancy.api.core.entity.CategoryOccupancyEntity;
+import com.roomoccupancy.api.core.entity.HotelInventoryEntity;
+import com.roomoccupancy.api.core.entity.HotelInventoryEventEntity;
+import com.roomoccupancy.api.core.entity.OptimizedRoomOccupancyEntity;
+import com.roomoccupancy.api.core.entity.RoomCategoryEntity;
+import com.roomoccupancy.api.core.exception.BusinessException;
+import com.roomoccupancy.api.core.gateway.OccupancyEventGateway;
+
+/**
+ * Unit tests for {@link HotelInventoryUseCase}
+ * 
+ * @author luis
+ *
+ */
+public class HotelInventoryUseCaseTest {
+
+	private HotelInventoryUseCase inventoryUseCase = new HotelInventoryUseCase();
+
+	@Rule
+	public ExpectedException expectedException = ExpectedException.none();
+
+	{
+		inventoryUseCase.occupancyUseCase = new GetOptimizedRoomOccupancyUseCase();
+	}
+
+	@Test
+	public void putInventory_withoutPremiumMinimumNightValue_defaultValue() {
+		HotelInventoryEntity inventory = inventoryUseCase.putInventory("hotel-1", 2, 1, null);
+
+		Assert.assertEquals("hotel-1", inventory.getHotelId());
+		Assert.assertEquals(Integer.valueOf(2), inventory.getFreePremiumRooms());
+		Assert.assertEquals(Integer.valueOf(1), inventory.getFreeEconomyRooms());
+		Assert.assertEquals(Integer.valueOf(100), inventory.getPremiumMinimumNightValue());
+	}
+
+	@Test
+	public void putInventory_existingHotel_inventoryReplaced() {
+		inventoryUseCase.putInventory("hotel-1", 2, 1, null);
+		inventoryUseCase.putInventory("hotel-1", 5, 4, 150);
+
+		HotelInventoryEntity inventory = inventoryUseCase.getInventory("hotel-1");
+		Assert.assertEquals(Integer.valueOf(5), inventory.getFreePremiumRooms());
+		Assert.assertEquals(Integer.valueOf(4), inventory.getFreeEconomyRooms());
+		Assert.assertEquals(Integer.valueOf(150), inventory.getPremiumMinimumNightValue());
+	}
+
+	@Test
+	public void putInventory_negativeFreeEconomyRooms_throwBusinessException() {
+		expectBusinessException("The number of free Economic rooms must be zero or greater.");
+		inventoryUseCase.putInventory("hotel-1", 2, -1, null);
+	}
+
+	@Test
+	public void putInventory_negativePremiumMinimumNightValue_throwBusinessException() {
+		expectBusinessException("The Premium minimum night value must be zero or greater.");
+		inventoryUseCase.putInventory("hotel-1", 2, 1, -1);
+	}
+
+	@Test
+	public void getInventory_unknownHotel_throwBusinessException() {
+		expectBusinessException("The inventory of the hotel was not found.");
+		inventoryUseCase.getInventory("unknown");
+	}
+
+	@Test
+	public void deleteInventory_existingHotel_hotelNotFoundAfterwards() {
+		inventoryUseCase.putInventory("hotel-1", 2, 1, null);
+		inventoryUseCase.deleteInventory("hotel-1");
+
+		expectBusinessException("The inventory of the hotel was not found.");
+		inventoryUseCase.getInventory("hotel-1");
+	}
+
+	@Test
+	public void bookRooms_enoughFreeRooms_roomsTaken() {
+		inventoryUseCase.putInventory("hotel-1", 2, 3, null);
+
+		HotelInventoryEntity inventory = inventoryUseCase.bookRooms("hotel-1", 1, 2);
+
+		Assert.assertEquals(Integer.valueOf(1), inventory.getFreePremiumRooms());
+		Assert.assertEquals(Integer.valueOf(1), inventory.getFreeEconomyRooms());
+	}
+
+	@Test
+	public void bookRooms_notEnoughRoomsOfOneCategory_nothingBooked() {
+		inventoryUseCase.putInventory("hotel-1", 2, 1, null);
+
+		try {
+			inventoryUseCase.bookRooms("hotel-1", 1, 2);
+			Assert.fail();
+		} catch (BusinessException ex) {
+			Assert.assertEquals("The hotel does not have enough free rooms for the booking.", ex.getMessage());
+		}
+
+		HotelInventoryEntity inventory = inventoryUseCase.getInventory("hotel-1");
+		Assert.assertEquals(Integer.valueOf(2), inventory.getFreePremiumRooms());
+		Assert.assertEquals(Integer.valueOf(1), inventory.getFreeEconomyRooms());
+	}
+
+	@Test
+	public void releaseRooms_cancelledBooking_roomsGivenBack() {
+		inventoryUseCase.putInventory("hotel-1", 2, 1, null);
+		inventoryUseCase.bookRooms("hotel-1", 2, 1);
+
+		HotelInventoryEntity inventory = inventoryUseCase.releaseRooms("hotel-1", 1, 1);
+
+		Assert.assertEquals(Integer.valueOf(1), inventory.getFreePremiumRooms());
+		Assert.assertEquals(Integer.valueOf(1), inventory.getFreeEconomyRooms());
+	}
+
+	@Test
+	public void releaseRooms_beyondMaxInteger_throwBusinessException() {
+		inventoryUseCase.putInventory("hotel-1", Integer.MAX_VALUE, 1, null);
+
+		expectBusinessException("The number of free rooms of the hotel is too big.");
+		inventoryUseCase.releaseRooms("hotel-1", 1, 0);
+	}
+
+	@Test
+	public void bookRooms_negativeRooms_throwBusinessException() {
+		inventoryUseCase.putInventory("hotel-1", 2, 1, null);
+
+		expectBusinessException("The number of rooms of a booking must be zero or greater.");
+		inventoryUseCase.bookRooms("hotel-1", -1, 0);
+	}
+
+	@Test
+	public void bookRooms_concurrentBookings_neverOverbooked() throws Exception {
+		int numberOfFreeRooms = 10_000;
+		inventoryUseCase.putInventory("hotel-1", numberOfFreeRooms, numberOfFreeRooms, null);
+
+		AtomicInteger bookings = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<?>> clients = new ArrayList<>();
+			for (int client = 0; client < 4; client++) {
+				clients.add(executor.submit(() -> {
+					for (int i = 0; i < numberOfFreeRooms; i++) {
+						try {
+							inventoryUseCase.bookRooms("hotel-1", 1, 1);
+							bookings.incrementAndGet();
+						} catch (BusinessException ex) {
+							// Sold out
+						}
+					}
+				}));
+			}
+			for (Future<?> client : clients) {
+				client.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		HotelInventoryEntity inventory = inventoryUseCase.getInventory("hotel-1");
+		Assert.assertEquals(numberOfFreeRooms, bookings.get());
+		Assert.assertEquals(Integer.valueOf(0), inventory.getFreePremiumRooms());
+		Assert.assertEquals(Integer.valueOf(0), inventory.getFreeEconomyRooms());
+	}
+
+	@Test
+	public void getOptimizedRoomOccupancy_hotelInventory_optimizedOnItsFreeRoomsAndPremiumValue() {
+		inventoryUseCase.putInventory("hotel-1", 3, 2, 50);
+		inventoryUseCase.bookRooms("hotel-1", 1, 1);
+
+		OptimizedRoomOccupancyEntity roomOccupancy = inventoryUseCase.getOptimizedRoomOccupancy("hotel-1",
+				GuestOffers.of(new Integer[] { 120, 40, 70, 99 }));
+
+		Assert.assertEquals(Integer.valueOf(2), roomOccupancy.getPremiumOccupancy().getNumberOfOccupiedRooms());
+		Assert.assertEquals(Integer.valueOf(219), roomOccupancy.getPremiumOccupancy().getGeneratedIncome());
+		Assert.assertEquals(Integer.valueOf(1), roomOccupancy.getEconomyOccupancy().getNumberOfOccupiedRooms());
+		Assert.assertEquals(Integer.valueOf(40), roomOccupancy.getEconomyOccupancy().getGeneratedIncome());
+	}
+
+	@Test
+	public void putInventory_tooLongHotelId_throwBusinessException() {
+		expectBusinessException("The hotel identifier must have 256 characters or less.");
+		inventoryUseCase.putInventory(String.join("", Collections.nCopies(257, "h")), 2, 1, null);
+	}
+
+	@Test
+	public void bookRooms_eventLog_everyChangeAppendedWithAGreaterVersion() {
+		List<HotelInventoryEventEntity> inventoryEvents = new ArrayList<>();
+		inventoryUseCase.eventGateway = new InventoryEventRecorder(inventoryEvents);
+
+		inventoryUseCase.putInventory("hotel-1", 2, 1, null);
+		inventoryUseCase.bookRooms("hotel-1", 1, 0);
+		inventoryUseCase.deleteInventory("hotel-1");
+
+		Assert.assertEquals(3, inventoryEvents.size());
+		Assert.assertTrue(inventoryEvents.get(0).getVersion() < inventoryEvents.get(1).getVersion());
+		Assert.assertTrue(inventoryEvents.get(1).getVersion() < inventoryEvents.get(2).getVersion());
+		Assert.assertEquals(Integer.valueOf(1), inventoryEvents.get(1).getInventory().getFreePremiumRooms());
+		Assert.assertEquals(Boolean.TRUE, inventoryEvents.get(2).getDeleted());
+	}
+
+	@Test
+	public void restoreInventory_olderChangeReplayedLast_newerChangeKept() {
+		restoreInventory(7L, false, 1, 0);
+		restoreInventory(5L, false, 2, 1);
+
+		HotelInventoryEntity inventory = inventoryUseCase.getInventory("hotel-1");
+		Assert.assertEquals(Integer.valueOf(1), inventory.getFreePremiumRooms());
+		Assert.assertEquals(Integer.valueOf(0), inventory.getFreeEconomyRooms());
+	}
+
+	@Test
+	public void restoreInventory_replayedVersions_nextChangesWithGreaterVersions() {
+		List<HotelInventoryEventEntity> inventoryEvents = new ArrayList<>();
+		inventoryUseCase.eventGateway = new InventoryEventRecorder(inventoryEvents);
+		restoreInventory(41L, false, 2, 1);
+
+		inventoryUseCase.bookRooms("hotel-1", 1, 1);
+
+		Assert.assertEquals(Long.valueOf(42), inventoryEvents.get(0).getVersion());
+	}
+
+	@Test
+	public void restoreInventory_deletionAfterAnOlderChange_hotelNotFound() {
+		restoreInventory(9L, true, 0, 0);
+		restoreInventory(8L, false, 2, 1);
+
+		expectBusinessException("The inventory of the hotel was not found.");
+		inventoryUseCase.getInventory("hotel-1");
+	}
+
+	@Test
+	public void removeDeletedInventories_snapshottedDeletion_deletedInventoryForgotten() {
+		inventoryUseCase.eventGateway = new InventoryEventRecorder(new ArrayList<>());
+		inventoryUseCase.putInventory("hotel-1", 2, 1, null);
+		inventoryUseCase.putInventory("hotel-2", 2, 1, null);
+		inventoryUseCase.deleteInventory("hotel-1");
+
+		Collection<HotelInventoryEventEntity> snapshot = inventoryUseCase.getInventoryEvents();
+		Assert.assertEquals(2, snapshot.size());
+
+		inventoryUseCase.removeDeletedInventories(snapshot);
+
+		Collection<HotelInventoryEventEntity> inventories = inventoryUseCase.getInventoryEvents();
+		Assert.assertEquals(1, inventories.size());
+		Assert.assertEquals("hotel-2", inventories.iterator().next().getInventory().getHotelId());
+	}
+
+	@Test
+	public void putInventory_deletedInventoryNotSnapshotted_inventoryCreatedAgain() {
+		inventoryUseCase.eventGateway = new InventoryEventRecorder(new ArrayList<>());
+		inventoryUseCase.putInventory("hotel-1", 2, 1, null);
+		inventoryUseCase.deleteInventory("hotel-1");
+
+		HotelInventoryEntity inventory = inventoryUseCase.putInventory("hotel-1", 5, 4, null);
+
+		Assert.assertEquals(Integer.valueOf(5), inventory.getFreePremiumRooms());
+		Assert.assertEquals(Integer.valueOf(5), inventoryUseCase.getInventory("hotel-1").getFreePremiumRooms());
+	}
+
+	@Test
+	public void putInventory_deletedInventoryForgotten_createdAgainWithAGreaterVersion() {
+		List<HotelInventoryEventEntity> inventoryEvents = new ArrayList<>();
+		inventoryUseCase.eventGateway = new InventoryEventRecorder(inventoryEvents);
+		inventoryUseCase.putInventory("hotel-1", 2, 1, null);
+		inventoryUseCase.bookRooms("hotel-1", 1, 0);
+		inventoryUseCase.deleteInventory("hotel-1");
+		inventoryUseCase.removeDeletedInventories(inventoryUseCase.getInventoryEvents());
+
+		inventoryUseCase.putInventory("hotel-1", 5, 4, null);
+
+		Assert.assertEquals(4, inventoryEvents.size());
+		Assert.assertTrue(inventoryEvents.get(2).getVersion() < inventoryEvents.get(3).getVersion());
+	}
+
+	private void restoreInventory(Long version, boolean deleted, int freePremiumRooms, int freeEconomyRooms) {
+		inventoryUseCase.restoreInventory(new HotelInventoryEventEntity(version, deleted,
+				new HotelInventoryEntity("hotel-1", freePremiumRooms, freeEconomyRooms, 100)));
+	}
+
+	private void expectBusinessException(String message) {
+		expectedException.expect(BusinessException.class);
+		expectedException.expectMessage(message);
+	}
+
+	/**
+	 * Keeps the appended inventory changes
+	 */
+	private static class InventoryEventRecorder implements OccupancyEventGateway {
+
+		private final List<HotelInventoryEventEntity> inventoryEvents;
+
+		private InventoryEventRecorder(List<HotelInventoryEventEntity> inventoryEvents) {
+			this.inventoryEvents = inventoryEvents;
+		}
+
+		@Override
+		public void appendOptimization(OptimizedRoomOccupancyKey key, OptimizedRoomOccupancyEntity optimizedOccupancy) {
+		}
+
+		@Override
+		public void appendCategoryOptimization(List<RoomCategoryEntity> roomCategories, GuestOffers guestOffers,
+				List<CategoryOccupancyEntity> categoryOccupancies) {
+		}
+
+		@Override
+		public void appendInventory(HotelInventoryEventEntity inventoryEvent) {
+			inventoryEvents.add(inventoryEvent);
+		}
+
+		@Override
+		public void recover(RecoverableState state) {
+		}
+
+	}
+
+}
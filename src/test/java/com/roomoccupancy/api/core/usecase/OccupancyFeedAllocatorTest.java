@@ -0,0 +1,155 @@
+package com.roomoccupancy.api.core.usecase;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.roomoccupancy.api.core.entity.OptimizedRoomOccupancyEntity;
+import com.roomoccupancy.api.core.entity.RoomCategoryOccupancyEntity;
+import com.roomoccupancy.api.core.exception.BusinessException;
+
+/**
+ * Unit tests for {@link OccupancyFeedAllocator}
+ *
+ * @author luis
+ *
+ */
+public class OccupancyFeedAllocatorTest {
+
+	private static final Integer[] POTENTIAL_GUESTS = { 23, 45, 155, 374, 22, 99, 100, 101, 115, 209 };
+
+	@Rule
+	public ExpectedException expectedException = ExpectedException.none();
+
+	@Test
+	public void add_everyNumberOfFreeRooms_sameResultOfTheOptimizationAfterEachOffer() {
+		for (int premiumRooms = 0; premiumRooms <= 12; premiumRooms++) {
+			for (int economyRooms = 0; economyRooms <= 12; economyRooms++) {
+				assertSameResultOfTheOptimizationAfterEachOffer(POTENTIAL_GUESTS, premiumRooms, economyRooms);
+			}
+		}
+	}
+
+	@Test
+	public void add_randomOffers_sameResultOfTheOptimizationAfterEachOffer() {
+		Random random = new Random(2290);
+
+		for (int run = 0; run < 20; run++) {
+			Integer[] potentialGuests = new Integer[random.nextInt(300)];
+			for (int i = 0; i < potentialGuests.length; i++) {
+				potentialGuests[i] = random.nextInt(200);
+			}
+
+			assertSameResultOfTheOptimizationAfterEachOffer(potentialGuests, random.nextInt(40), random.nextInt(40));
+		}
+	}
+
+	@Test
+	public void add_premiumGuestTakingARoomOfAnUpgradedGuest_upgradedGuestMovedOut() {
+		OccupancyFeedAllocator allocator = OccupancyFeedAllocator.of(1, 1);
+		allocator.add(40);
+		allocator.add(70);
+
+		assertOccupancy(allocator, 1, 70, 1, 40);
+
+		Assert.assertTrue(allocator.add(120));
+
+		assertOccupancy(allocator, 1, 120, 1, 70);
+		Assert.assertEquals(3, allocator.getNumberOfPotentialGuests());
+	}
+
+	@Test
+	public void add_offerWithoutRoom_occupancyNotChanged() {
+		OccupancyFeedAllocator allocator = OccupancyFeedAllocator.of(1, 1);
+		allocator.add(120);
+		allocator.add(70);
+
+		Assert.assertFalse(allocator.add(40));
+		Assert.assertFalse(allocator.add(110));
+
+		assertOccupancy(allocator, 1, 120, 1, 70);
+	}
+
+	@Test
+	public void add_negativeOffer_throwBusinessException() {
+		expectedException.expect(BusinessException.class);
+		expectedException.expectMessage("The value that a guest is willing to pay must be a valid positive Integer");
+
+		OccupancyFeedAllocator.of(1, 1).add(-1);
+	}
+
+	@Test
+	public void getOptimizedRoomOccupancy_incomeBeyondInteger_throwBusinessException() {
+		OccupancyFeedAllocator allocator = OccupancyFeedAllocator.of(2, 0);
+		allocator.add(Integer.MAX_VALUE);
+		allocator.add(Integer.MAX_VALUE);
+
+		expectedException.expect(BusinessException.class);
+		expectedException.expectMessage("The income of the occupancy feed must fit in an Integer.");
+
+		allocator.getOptimizedRoomOccupancy();
+	}
+
+	@Test
+	public void of_negativeFreeRooms_throwBusinessException() {
+		expectedException.expect(BusinessException.class);
+		expectedException.expectMessage("The number of free Economic rooms must be zero or greater.");
+
+		OccupancyFeedAllocator.of(1, -1);
+	}
+
+	private static void assertSameResultOfTheOptimizationAfterEachOffer(Integer[] potentialGuests,
+			int premiumRooms, int economyRooms) {
+
+		GetOptimizedRoomOccupancyUseCase occupancyUseCase = new GetOptimizedRoomOccupancyUseCase();
+		OccupancyFeedAllocator allocator = OccupancyFeedAllocator.of(premiumRooms, economyRooms);
+		OptimizedRoomOccupancyEntity previousOccupancy = allocator.getOptimizedRoomOccupancy();
+
+		for (int i = 0; i < potentialGuests.length; i++) {
+			boolean changed = allocator.add(potentialGuests[i]);
+
+			OptimizedRoomOccupancyEntity expectedOccupancy = occupancyUseCase.getOptimizedRoomOccupancy(premiumRooms,
+					economyRooms, Arrays.copyOf(potentialGuests, i + 1));
+			OptimizedRoomOccupancyEntity occupancy = allocator.getOptimizedRoomOccupancy();
+
+			assertSameOccupancy(expectedOccupancy.getPremiumOccupancy(), occupancy.getPremiumOccupancy());
+			assertSameOccupancy(expectedOccupancy.getEconomyOccupancy(), occupancy.getEconomyOccupancy());
+			Assert.assertEquals(changed, !isSameOccupancy(previousOccupancy, occupancy));
+
+			previousOccupancy = occupancy;
+		}
+	}
+
+	private static boolean isSameOccupancy(OptimizedRoomOccupancyEntity occupancy,
+			OptimizedRoomOccupancyEntity otherOccupancy) {
+		return isSameOccupancy(occupancy.getPremiumOccupancy(), otherOccupancy.getPremiumOccupancy())
+				&& isSameOccupancy(occupancy.getEconomyOccupancy(), otherOccupancy.getEconomyOccupancy());
+	}
+
+	private static boolean isSameOccupancy(RoomCategoryOccupancyEntity occupancy,
+			RoomCategoryOccupancyEntity otherOccupancy) {
+		return occupancy.getNumberOfOccupiedRooms().equals(otherOccupancy.getNumberOfOccupiedRooms())
+				&& occupancy.getGeneratedIncome().equals(otherOccupancy.getGeneratedIncome());
+	}
+
+	private static void assertSameOccupancy(RoomCategoryOccupancyEntity expectedOccupancy,
+			RoomCategoryOccupancyEntity occupancy) {
+		Assert.assertEquals(expectedOccupancy.getNumberOfOccupiedRooms(), occupancy.getNumberOfOccupiedRooms());
+		Assert.assertEquals(expectedOccupancy.getGeneratedIncome(), occupancy.getGeneratedIncome());
+	}
+
+	private static void assertOccupancy(OccupancyFeedAllocator allocator, int premiumRooms, int premiumIncome,
+			int economyRooms, int economyIncome) {
+		OptimizedRoomOccupancyEntity occupancy = allocator.getOptimizedRoomOccupancy();
+
+		Assert.assertEquals(Integer.valueOf(premiumRooms), occupancy.getPremiumOccupancy().getNumberOfOccupiedRooms());
+		Assert.assertEquals(Integer.valueOf(premiumIncome), occupancy.getPremiumOccupancy().getGeneratedIncome());
+		Assert.assertEquals(Integer.valueOf(economyRooms), occupancy.getEconomyOccupancy().getNumberOfOccupiedRooms());
+		Assert.assertEquals(Integer.valueOf(economyIncome), occupancy.getEconomyOccupancy().getGeneratedIncome());
+	}
+
+}
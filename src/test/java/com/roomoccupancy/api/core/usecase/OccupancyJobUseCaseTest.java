@@ -0,0 +1,239 @@
+package com.roomoccupancy.api.core.usecase;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.util.StreamUtils;
+
+import com.roomoccupancy.api.core.entity.OccupancyJobEntity;
+import com.roomoccupancy.api.core.entity.OccupancyJobStatus;
+import com.roomoccupancy.api.core.entity.OffersFileFormat;
+import com.roomoccupancy.api.core.exception.BusinessException;
+import com.roomoccupancy.api.core.gateway.GuestOffersFileGateway;
+
+/**
+ * Unit tests for {@link OccupancyJobUseCase}
+ * 
+ * @author luis
+ *
+ */
+public class OccupancyJobUseCaseTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Rule
+	public ExpectedException expectedException = ExpectedException.none();
+
+	private OccupancyJobUseCase jobUseCase = new OccupancyJobUseCase();
+
+	private ExecutorService jobExecutor = Executors.newSingleThreadExecutor();
+
+	private Path offersFile;
+
+	@Before
+	public void setUp() throws IOException {
+		offersFile = temporaryFolder.newFile("offers.bin").toPath();
+		Files.write(offersFile, toLittleEndian(120, 40, 70, 99));
+
+		jobUseCase.offersFileGateway = new SingleFileGateway(offersFile, null);
+		jobUseCase.jobExecutor = jobExecutor;
+	}
+
+	@After
+	public void shutdownJobExecutor() {
+		jobExecutor.shutdownNow();
+	}
+
+	@Test
+	public void submitJob_existingFile_optimizedOccupancyWhenDone() throws InterruptedException {
+		OccupancyJobEntity job = jobUseCase.submitJob(2, 1, "offers.bin", null);
+
+		OccupancyJobEntity finishedJob = waitUntilFinished(job.getJobId());
+
+		Assert.assertEquals(OccupancyJobStatus.DONE, finishedJob.getStatus());
+		Assert.assertEquals(Long.valueOf(4), finishedJob.getNumberOfPotentialGuests());
+		Assert.assertEquals(Integer.valueOf(219), finishedJob.getResult().getPremiumOccupancy().getGeneratedIncome());
+		Assert.assertEquals(Integer.valueOf(70), finishedJob.getResult().getEconomyOccupancy().getGeneratedIncome());
+		Assert.assertEquals(Long.valueOf(16), finishedJob.getNumberOfBytesRead());
+		Assert.assertTrue(Files.exists(offersFile));
+	}
+
+	@Test
+	public void submitJob_uploadedOffers_uploadDeletedWhenDone() throws IOException, InterruptedException {
+		OccupancyJobEntity job = jobUseCase.submitJob(2, 1, new ByteArrayInputStream(toLittleEndian(120, 40)),
+				OffersFileFormat.BINARY);
+
+		Assert.assertEquals(OccupancyJobStatus.DONE, waitUntilFinished(job.getJobId()).getStatus());
+		Assert.assertFalse(Files.exists(offersFile));
+	}
+
+	@Test
+	public void submitJob_negativeOfferInTheFile_failedJob() throws IOException, InterruptedException {
+		Files.write(offersFile, toLittleEndian(120, -40));
+
+		OccupancyJobEntity finishedJob = waitUntilFinished(jobUseCase.submitJob(2, 1, "offers.bin", null).getJobId());
+
+		Assert.assertEquals(OccupancyJobStatus.FAILED, finishedJob.getStatus());
+		Assert.assertEquals("The value that a guest is willing to pay must be a valid positive Integer",
+				finishedJob.getError());
+		Assert.assertNull(finishedJob.getResult());
+	}
+
+	@Test
+	public void submitJob_incomeBeyondInteger_failedJob() throws IOException, InterruptedException {
+		Files.write(offersFile, toLittleEndian(Integer.MAX_VALUE, Integer.MAX_VALUE));
+
+		OccupancyJobEntity finishedJob = waitUntilFinished(jobUseCase.submitJob(2, 1, "offers.bin", null).getJobId());
+
+		Assert.assertEquals(OccupancyJobStatus.FAILED, finishedJob.getStatus());
+		Assert.assertEquals("The income of the streamed offers must fit in an Integer.", finishedJob.getError());
+	}
+
+	@Test
+	public void getJob_jobFinishedBeforeTheRetention_jobKept() throws InterruptedException {
+		jobUseCase.retentionSeconds = 60L;
+		String jobId = jobUseCase.submitJob(2, 1, "offers.bin", null).getJobId();
+		waitUntilFinished(jobId);
+
+		jobUseCase.clock = Clock.offset(Clock.systemUTC(), Duration.ofSeconds(59));
+
+		Assert.assertEquals(OccupancyJobStatus.DONE, jobUseCase.getJob(jobId).getStatus());
+	}
+
+	@Test
+	public void getJob_jobFinishedForTheRetention_throwBusinessException() throws InterruptedException {
+		jobUseCase.retentionSeconds = 60L;
+		String jobId = jobUseCase.submitJob(2, 1, "offers.bin", null).getJobId();
+		waitUntilFinished(jobId);
+
+		jobUseCase.clock = Clock.offset(Clock.systemUTC(), Duration.ofSeconds(60));
+
+		expectedException.expectMessage("The occupancy job was not found.");
+		expectedException.expect(BusinessException.class);
+		jobUseCase.getJob(jobId);
+	}
+
+	@Test
+	public void deleteJob_runningJob_jobCancelledAndForgotten() throws InterruptedException {
+		CountDownLatch readStarted = new CountDownLatch(1);
+		CountDownLatch jobDeleted = new CountDownLatch(1);
+
+		jobUseCase.offersFileGateway = new SingleFileGateway(offersFile, offers -> {
+			readStarted.countDown();
+			try {
+				jobDeleted.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+
+		OccupancyJobEntity job = jobUseCase.submitJob(2, 1, "offers.bin", null);
+		readStarted.await();
+
+		jobUseCase.deleteJob(job.getJobId());
+		jobDeleted.countDown();
+
+		expectedException.expect(BusinessException.class);
+		expectedException.expectMessage("The occupancy job was not found.");
+
+		jobUseCase.getJob(job.getJobId());
+	}
+
+	@Test
+	public void getJob_unknownJob_throwBusinessException() {
+		expectedException.expect(BusinessException.class);
+		expectedException.expectMessage("The occupancy job was not found.");
+
+		jobUseCase.getJob("unknown");
+	}
+
+	private OccupancyJobEntity waitUntilFinished(String jobId) throws InterruptedException {
+		OccupancyJobEntity job = jobUseCase.getJob(jobId);
+
+		while (!job.getStatus().isFinished()) {
+			Thread.sleep(5);
+			job = jobUseCase.getJob(jobId);
+		}
+
+		return job;
+	}
+
+	private static byte[] toLittleEndian(int... guestOffers) {
+		ByteBuffer buffer = ByteBuffer.allocate(guestOffers.length * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		IntBuffer intBuffer = buffer.asIntBuffer();
+		intBuffer.put(guestOffers);
+
+		return buffer.array();
+	}
+
+	/**
+	 * Gateway of a single offers file, read at once from the heap
+	 */
+	private static class SingleFileGateway implements GuestOffersFileGateway {
+
+		private final Path offersFile;
+
+		private final Consumer<IntBuffer> beforeRead;
+
+		SingleFileGateway(Path offersFile, Consumer<IntBuffer> beforeRead) {
+			this.offersFile = offersFile;
+			this.beforeRead = beforeRead;
+		}
+
+		@Override
+		public Path storeOffers(InputStream guestOffers) throws IOException {
+			Files.write(offersFile, StreamUtils.copyToByteArray(guestOffers));
+			return offersFile;
+		}
+
+		@Override
+		public Path findOffersFile(String fileName) {
+			return offersFile;
+		}
+
+		@Override
+		public long readOffers(Path file, OffersFileFormat format, Consumer<IntBuffer> offersConsumer)
+				throws IOException {
+			byte[] bytes = Files.readAllBytes(file);
+			IntBuffer offers = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+
+			if (beforeRead != null) {
+				beforeRead.accept(offers);
+			}
+			offersConsumer.accept(offers);
+
+			return bytes.length;
+		}
+
+		@Override
+		public void deleteOffers(Path file) {
+			try {
+				Files.deleteIfExists(file);
+			} catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,171 @@
+package com.roomoccupancy.api.core.usecase;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.roomoccupancy.api.core.entity.OccupancySessionEntity;
+import com.roomoccupancy.api.core.entity.OptimizedRoomOccupancyEntity;
+import com.roomoccupancy.api.core.exception.BusinessException;
+
+/**
+ * Unit tests for {@link OccupancySessionUseCase}
+ * 
+ * @author luis
+ *
+ */
+public class OccupancySessionUseCaseTest {
+
+	private OccupancySessionUseCase sessionUseCase = new OccupancySessionUseCase();
+
+	private GetOptimizedRoomOccupancyUseCase occupancyUseCase = new GetOptimizedRoomOccupancyUseCase();
+
+	@Rule
+	public ExpectedException expectedException = ExpectedException.none();
+
+	@Test
+	public void createSession_negativeFreePremiumRooms_throwBusinessException() {
+		expectBusinessException("The number of free Premium rooms must be zero or greater.");
+		sessionUseCase.createSession(-1, 1);
+	}
+
+	@Test
+	public void getOptimizedRoomOccupancy_unknownSession_throwBusinessException() {
+		expectBusinessException("The occupancy session was not found.");
+		sessionUseCase.getOptimizedRoomOccupancy("unknown");
+	}
+
+	@Test
+	public void addPotentialGuest_negativeOffer_throwBusinessException() {
+		OccupancySessionEntity session = sessionUseCase.createSession(1, 1);
+
+		expectBusinessException("The value that a guest is willing to pay must be a valid positive Integer");
+		sessionUseCase.addPotentialGuest(session.getSessionId(), -1);
+	}
+
+	@Test
+	public void removePotentialGuest_offerNotInSession_throwBusinessException() {
+		OccupancySessionEntity session = sessionUseCase.createSession(1, 1);
+		sessionUseCase.addPotentialGuest(session.getSessionId(), 120);
+
+		expectBusinessException("The offer is not part of the occupancy session.");
+		sessionUseCase.removePotentialGuest(session.getSessionId(), 121);
+	}
+
+	@Test
+	public void deleteSession_existingSession_sessionNotFoundAfterwards() {
+		OccupancySessionEntity session = sessionUseCase.createSession(1, 1);
+		sessionUseCase.deleteSession(session.getSessionId());
+
+		expectBusinessException("The occupancy session was not found.");
+		sessionUseCase.getSession(session.getSessionId());
+	}
+
+	@Test
+	public void getOptimizedRoomOccupancy_sessionIdleForTheTimeout_throwBusinessException() {
+		sessionUseCase.idleTimeoutSeconds = 60L;
+		String sessionId = sessionUseCase.createSession(1, 1).getSessionId();
+		sessionUseCase.clock = Clock.offset(Clock.systemUTC(), Duration.ofSeconds(60));
+
+		expectBusinessException("The occupancy session was not found.");
+		sessionUseCase.getOptimizedRoomOccupancy(sessionId);
+	}
+
+	@Test
+	public void getOptimizedRoomOccupancy_sessionUsedBeforeTheTimeout_sessionKept() {
+		sessionUseCase.idleTimeoutSeconds = 60L;
+		Clock startClock = Clock.systemUTC();
+		String sessionId = sessionUseCase.createSession(1, 1).getSessionId();
+
+		sessionUseCase.clock = Clock.offset(startClock, Duration.ofSeconds(40));
+		sessionUseCase.addPotentialGuest(sessionId, 120);
+		sessionUseCase.clock = Clock.offset(startClock, Duration.ofSeconds(80));
+
+		Assert.assertEquals(Integer.valueOf(120),
+				sessionUseCase.getOptimizedRoomOccupancy(sessionId).getPremiumOccupancy().getGeneratedIncome());
+	}
+
+	@Test
+	public void createSession_maximumNumberOfSessions_throwBusinessException() {
+		sessionUseCase.maxSessions = 2;
+		sessionUseCase.createSession(1, 1);
+		sessionUseCase.createSession(1, 1);
+
+		expectBusinessException("There are too many open occupancy sessions.");
+		sessionUseCase.createSession(1, 1);
+	}
+
+	@Test
+	public void createSession_maximumNumberOfSessionsWithAnExpiredOne_expiredSessionReplaced() {
+		sessionUseCase.maxSessions = 2;
+		sessionUseCase.idleTimeoutSeconds = 60L;
+		Clock startClock = Clock.systemUTC();
+		String expiredSessionId = sessionUseCase.createSession(1, 1).getSessionId();
+		sessionUseCase.clock = Clock.offset(startClock, Duration.ofSeconds(40));
+		String sessionId = sessionUseCase.createSession(1, 1).getSessionId();
+		sessionUseCase.clock = Clock.offset(startClock, Duration.ofSeconds(70));
+
+		sessionUseCase.createSession(1, 1);
+
+		Assert.assertEquals(sessionId, sessionUseCase.getSession(sessionId).getSessionId());
+		expectBusinessException("The occupancy session was not found.");
+		sessionUseCase.getSession(expiredSessionId);
+	}
+
+	@Test
+	public void getOptimizedRoomOccupancy_incomeBiggerThanAnInteger_throwBusinessException() {
+		String sessionId = sessionUseCase.createSession(2, 0).getSessionId();
+		sessionUseCase.addPotentialGuest(sessionId, Integer.MAX_VALUE);
+		sessionUseCase.addPotentialGuest(sessionId, Integer.MAX_VALUE);
+
+		expectBusinessException("The income of the occupancy session must fit in an Integer.");
+		sessionUseCase.getOptimizedRoomOccupancy(sessionId);
+	}
+
+	@Test
+	public void randomAddsAndRemoves_sameOccupancyAsOptimizingAllOffers() {
+		Random random = new Random(2290);
+
+		for (int round = 0; round < 20; round++) {
+			Integer numberOfFreePremiumRooms = random.nextInt(15);
+			Integer numberOfFreeEconomyRooms = random.nextInt(15);
+			String sessionId = sessionUseCase.createSession(numberOfFreePremiumRooms, numberOfFreeEconomyRooms)
+					.getSessionId();
+			List<Integer> offers = new ArrayList<>();
+
+			for (int operation = 0; operation < 100; operation++) {
+				if (!offers.isEmpty() && random.nextInt(4) == 0) {
+					Integer offer = offers.remove(random.nextInt(offers.size()));
+					sessionUseCase.removePotentialGuest(sessionId, offer);
+				} else {
+					Integer offer = random.nextInt(200);
+					offers.add(offer);
+					sessionUseCase.addPotentialGuest(sessionId, offer);
+				}
+
+				OptimizedRoomOccupancyEntity expectedOccupancy = occupancyUseCase.getOptimizedRoomOccupancy(
+						numberOfFreePremiumRooms, numberOfFreeEconomyRooms, offers.toArray(new Integer[0]));
+				OptimizedRoomOccupancyEntity sessionOccupancy = sessionUseCase.getOptimizedRoomOccupancy(sessionId);
+
+				Assert.assertThat(sessionOccupancy.getPremiumOccupancy(),
+						Matchers.samePropertyValuesAs(expectedOccupancy.getPremiumOccupancy()));
+				Assert.assertThat(sessionOccupancy.getEconomyOccupancy(),
+						Matchers.samePropertyValuesAs(expectedOccupancy.getEconomyOccupancy()));
+			}
+		}
+	}
+
+	private void expectBusinessException(String expectedExceptionMessage) {
+		expectedException.expectMessage(expectedExceptionMessage);
+		expectedException.expect(BusinessException.class);
+	}
+
+}
@@ -0,0 +1,91 @@
+package com.roomoccupancy.api.core.usecase;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.roomoccupancy.api.core.cache.OptimizedRoomOccupancyCache;
+import com.roomoccupancy.api.core.entity.CategoryOccupancyEntity;
+import com.roomoccupancy.api.core.entity.HotelInventoryEntity;
+import com.roomoccupancy.api.core.entity.HotelInventoryEventEntity;
+import com.roomoccupancy.api.core.entity.OptimizedRoomOccupancyEntity;
+import com.roomoccupancy.api.core.entity.RoomCategoryEntity;
+import com.roomoccupancy.api.core.entity.RoomCategoryOccupancyEntity;
+import com.roomoccupancy.api.core.gateway.OccupancyEventGateway;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Unit tests for {@link OccupancyStateRecoveryUseCase}
+ * 
+ * @author luis
+ *
+ */
+public class OccupancyStateRecoveryUseCaseTest {
+
+	private static final OptimizedRoomOccupancyEntity OPTIMIZED_OCCUPANCY = new OptimizedRoomOccupancyEntity(
+			new RoomCategoryOccupancyEntity(2, 219), new RoomCategoryOccupancyEntity(1, 70));
+
+	private static final OptimizedRoomOccupancyKey KEY = OptimizedRoomOccupancyKey.of(2, 1, 100,
+			GuestOffers.of(new Integer[] { 120, 40, 70, 99 }));
+
+	private OccupancyStateRecoveryUseCase recoveryUseCase = new OccupancyStateRecoveryUseCase();
+
+	{
+		recoveryUseCase.inventoryUseCase = new HotelInventoryUseCase();
+		recoveryUseCase.inventoryUseCase.occupancyUseCase = new GetOptimizedRoomOccupancyUseCase();
+		recoveryUseCase.occupancyCache = new OptimizedRoomOccupancyCache(100L, new SimpleMeterRegistry());
+	}
+
+	@Test
+	public void recover_replayedEvents_inventoriesAndCacheRebuilt() throws IOException {
+		recoveryUseCase.eventGateway = new ReplayingEventGateway();
+
+		recoveryUseCase.recover();
+
+		HotelInventoryEntity inventory = recoveryUseCase.inventoryUseCase.getInventory("hotel-1");
+		Assert.assertEquals(Integer.valueOf(1), inventory.getFreePremiumRooms());
+		Assert.assertEquals(Integer.valueOf(150), inventory.getPremiumMinimumNightValue());
+		Assert.assertEquals(1, recoveryUseCase.getInventories().size());
+		Assert.assertSame(OPTIMIZED_OCCUPANCY, recoveryUseCase.occupancyCache.get(KEY));
+	}
+
+	@Test
+	public void recover_noEventLog_nothingRecovered() throws IOException {
+		recoveryUseCase.recover();
+
+		Assert.assertTrue(recoveryUseCase.getInventories().isEmpty());
+		Assert.assertNull(recoveryUseCase.occupancyCache.get(KEY));
+	}
+
+	/**
+	 * Replays an optimization and two changes of an inventory, the newer one
+	 * first
+	 */
+	private static class ReplayingEventGateway implements OccupancyEventGateway {
+
+		@Override
+		public void appendOptimization(OptimizedRoomOccupancyKey key, OptimizedRoomOccupancyEntity optimizedOccupancy) {
+		}
+
+		@Override
+		public void appendCategoryOptimization(List<RoomCategoryEntity> roomCategories, GuestOffers guestOffers,
+				List<CategoryOccupancyEntity> categoryOccupancies) {
+		}
+
+		@Override
+		public void appendInventory(HotelInventoryEventEntity inventoryEvent) {
+		}
+
+		@Override
+		public void recover(RecoverableState state) {
+			state.onOptimization(KEY, OPTIMIZED_OCCUPANCY);
+			state.onInventory(new HotelInventoryEventEntity(2L, false, new HotelInventoryEntity("hotel-1", 1, 0, 150)));
+			state.onInventory(new HotelInventoryEventEntity(1L, false, new HotelInventoryEntity("hotel-1", 2, 1, 150)));
+		}
+
+	}
+
+}
@@ -0,0 +1,59 @@
+package com.roomoccupancy.api.core.usecase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link OfferOrderStatisticTree}
+ * 
+ * @author luis
+ *
+ */
+public class OfferOrderStatisticTreeTest {
+
+	private final Random random = new Random(2290);
+
+	@Test
+	public void randomAddsAndRemoves_sameStatisticsAsSortedList() {
+		OfferOrderStatisticTree tree = new OfferOrderStatisticTree();
+		List<Integer> offers = new ArrayList<>();
+
+		for (int operation = 0; operation < 3000; operation++) {
+			int offer = random.nextInt(200);
+
+			if (random.nextInt(3) == 0) {
+				Assert.assertEquals(offers.remove(Integer.valueOf(offer)), tree.remove(offer));
+			} else {
+				offers.add(offer);
+				tree.add(offer);
+			}
+
+			offers.sort(Collections.reverseOrder());
+
+			int k = random.nextInt(offers.size() + 2);
+			long expectedSum = offers.stream().limit(k).mapToLong(Integer::longValue).sum();
+
+			Assert.assertEquals(offers.size(), tree.size());
+			Assert.assertEquals(expectedSum, tree.sumOfLargest(k));
+			Assert.assertEquals(offers.stream().filter(o -> o >= 100).count(), tree.countAtLeast(100));
+			if (!offers.isEmpty()) {
+				Assert.assertEquals(offers.get(offers.size() - 1).intValue(), tree.min());
+			}
+		}
+	}
+
+	@Test
+	public void remove_absentOffer_false() {
+		OfferOrderStatisticTree tree = new OfferOrderStatisticTree();
+		tree.add(10);
+
+		Assert.assertFalse(tree.remove(11));
+		Assert.assertEquals(1, tree.size());
+	}
+
+}
@@ -0,0 +1,78 @@
+package com.roomoccupancy.api.core.usecase;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.roomoccupancy.api.core.entity.OptimizedRoomOccupancyEntity;
+import com.roomoccupancy.api.core.entity.RoomCategoryOccupancyEntity;
+
+/**
+ * Unit tests for {@link RevenueSurface}
+ * 
+ * @author luis
+ *
+ */
+public class RevenueSurfaceTest {
+
+	private static final Integer[] POTENTIAL_GUESTS = { 23, 45, 155, 374, 22, 99, 100, 101, 115, 209 };
+
+	@Test
+	public void getOptimizedRoomOccupancy_everyNumberOfFreeRooms_sameResultOfTheOptimization() {
+		assertSameResultOfTheOptimization(POTENTIAL_GUESTS, 12, 12);
+	}
+
+	@Test
+	public void getOptimizedRoomOccupancy_randomOffers_sameResultOfTheOptimization() {
+		Random random = new Random(2290);
+		Integer[] potentialGuests = new Integer[500];
+
+		for (int i = 0; i < potentialGuests.length; i++) {
+			potentialGuests[i] = random.nextInt(400);
+		}
+
+		assertSameResultOfTheOptimization(potentialGuests, 60, 60);
+	}
+
+	@Test
+	public void getGeneratedIncome_noOffers_zeroIncome() {
+		RevenueSurface revenueSurface = RevenueSurface.of(new GuestOffers());
+
+		Assert.assertEquals(0, revenueSurface.getNumberOfPotentialGuests());
+		Assert.assertEquals(0L, revenueSurface.getGeneratedIncome(5, 5));
+	}
+
+	private void assertSameResultOfTheOptimization(Integer[] potentialGuests, int maxFreePremiumRooms,
+			int maxFreeEconomyRooms) {
+
+		GetOptimizedRoomOccupancyUseCase occupancyUseCase = new GetOptimizedRoomOccupancyUseCase();
+		RevenueSurface revenueSurface = RevenueSurface.of(GuestOffers.of(potentialGuests));
+
+		Assert.assertEquals(potentialGuests.length, revenueSurface.getNumberOfPotentialGuests());
+
+		for (int premiumRooms = 0; premiumRooms <= maxFreePremiumRooms; premiumRooms++) {
+			for (int economyRooms = 0; economyRooms <= maxFreeEconomyRooms; economyRooms++) {
+				OptimizedRoomOccupancyEntity expectedOccupancy = occupancyUseCase
+						.getOptimizedRoomOccupancy(premiumRooms, economyRooms, potentialGuests);
+
+				OptimizedRoomOccupancyEntity occupancy = revenueSurface.getOptimizedRoomOccupancy(premiumRooms,
+						economyRooms);
+
+				assertSameOccupancy(expectedOccupancy.getPremiumOccupancy(), occupancy.getPremiumOccupancy());
+				assertSameOccupancy(expectedOccupancy.getEconomyOccupancy(), occupancy.getEconomyOccupancy());
+				Assert.assertEquals(
+						(long) expectedOccupancy.getPremiumOccupancy().getGeneratedIncome()
+								+ expectedOccupancy.getEconomyOccupancy().getGeneratedIncome(),
+						revenueSurface.getGeneratedIncome(premiumRooms, economyRooms));
+			}
+		}
+	}
+
+	private static void assertSameOccupancy(RoomCategoryOccupancyEntity expectedOccupancy,
+			RoomCategoryOccupancyEntity occupancy) {
+		Assert.assertEquals(expectedOccupancy.getNumberOfOccupiedRooms(), occupancy.getNumberOfOccupiedRooms());
+		Assert.assertEquals(expectedOccupancy.getGeneratedIncome(), occupancy.getGeneratedIncome());
+	}
+
+}
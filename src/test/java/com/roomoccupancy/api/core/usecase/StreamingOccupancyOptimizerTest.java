@@ -0,0 +1,131 @@
+package com.roomoccupancy.api.core.usecase;
+
+import java.nio.IntBuffer;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.roomoccupancy.api.core.entity.OptimizedRoomOccupancyEntity;
+import com.roomoccupancy.api.core.entity.RoomCategoryOccupancyEntity;
+import com.roomoccupancy.api.core.exception.BusinessException;
+
+/**
+ * Unit tests for {@link StreamingOccupancyOptimizer}
+ * 
+ * @author luis
+ *
+ */
+public class StreamingOccupancyOptimizerTest {
+
+	private static final Integer[] POTENTIAL_GUESTS = { 23, 45, 155, 374, 22, 99, 100, 101, 115, 209 };
+
+	@Rule
+	public ExpectedException expectedException = ExpectedException.none();
+
+	@Test
+	public void getOptimizedRoomOccupancy_everyNumberOfFreeRooms_sameResultOfTheOptimization() {
+		for (int premiumRooms = 0; premiumRooms <= 12; premiumRooms++) {
+			for (int economyRooms = 0; economyRooms <= 12; economyRooms++) {
+				assertSameResultOfTheOptimization(POTENTIAL_GUESTS, premiumRooms, economyRooms);
+			}
+		}
+	}
+
+	@Test
+	public void getOptimizedRoomOccupancy_randomOffers_sameResultOfTheOptimization() {
+		Random random = new Random(2290);
+
+		for (int run = 0; run < 50; run++) {
+			Integer[] potentialGuests = new Integer[random.nextInt(2_000)];
+			for (int i = 0; i < potentialGuests.length; i++) {
+				potentialGuests[i] = random.nextInt(400);
+			}
+
+			assertSameResultOfTheOptimization(potentialGuests, random.nextInt(300), random.nextInt(300));
+		}
+	}
+
+	@Test
+	public void addAll_intBuffer_offersFromPositionToLimit() {
+		StreamingOccupancyOptimizer optimizer = StreamingOccupancyOptimizer.of(2, 1);
+		IntBuffer guestOffers = IntBuffer.wrap(new int[] { 500, 120, 40, 70, 99, 500 });
+		guestOffers.position(1).limit(5);
+
+		optimizer.addAll(guestOffers);
+
+		Assert.assertEquals(4, optimizer.getNumberOfPotentialGuests());
+		Assert.assertEquals(Integer.valueOf(219),
+				optimizer.getOptimizedRoomOccupancy().getPremiumOccupancy().getGeneratedIncome());
+		Assert.assertEquals(1, guestOffers.position());
+	}
+
+	@Test
+	public void getOptimizedRoomOccupancy_moreOffersAfterAResult_resultUpdated() {
+		StreamingOccupancyOptimizer optimizer = StreamingOccupancyOptimizer.of(1, 1);
+		optimizer.add(40);
+		optimizer.add(120);
+
+		Assert.assertEquals(Integer.valueOf(40),
+				optimizer.getOptimizedRoomOccupancy().getEconomyOccupancy().getGeneratedIncome());
+
+		optimizer.add(70);
+
+		Assert.assertEquals(Integer.valueOf(70),
+				optimizer.getOptimizedRoomOccupancy().getEconomyOccupancy().getGeneratedIncome());
+	}
+
+	@Test
+	public void getOptimizedRoomOccupancy_incomeBeyondInteger_throwBusinessException() {
+		StreamingOccupancyOptimizer optimizer = StreamingOccupancyOptimizer.of(2, 0);
+		optimizer.add(Integer.MAX_VALUE);
+		optimizer.add(Integer.MAX_VALUE);
+
+		expectedException.expect(BusinessException.class);
+		expectedException.expectMessage("The income of the streamed offers must fit in an Integer.");
+
+		optimizer.getOptimizedRoomOccupancy();
+	}
+
+	@Test
+	public void add_negativeOffer_throwBusinessException() {
+		expectedException.expect(BusinessException.class);
+		expectedException.expectMessage("The value that a guest is willing to pay must be a valid positive Integer");
+
+		StreamingOccupancyOptimizer.of(1, 1).add(-1);
+	}
+
+	@Test
+	public void of_negativeFreeRooms_throwBusinessException() {
+		expectedException.expect(BusinessException.class);
+		expectedException.expectMessage("The number of free Premium rooms must be zero or greater.");
+
+		StreamingOccupancyOptimizer.of(-1, 1);
+	}
+
+	private static void assertSameResultOfTheOptimization(Integer[] potentialGuests, int premiumRooms,
+			int economyRooms) {
+
+		OptimizedRoomOccupancyEntity expectedOccupancy = new GetOptimizedRoomOccupancyUseCase()
+				.getOptimizedRoomOccupancy(premiumRooms, economyRooms, potentialGuests);
+
+		StreamingOccupancyOptimizer optimizer = StreamingOccupancyOptimizer.of(premiumRooms, economyRooms);
+		for (Integer guestOffer : potentialGuests) {
+			optimizer.add(guestOffer);
+		}
+
+		OptimizedRoomOccupancyEntity occupancy = optimizer.getOptimizedRoomOccupancy();
+
+		assertSameOccupancy(expectedOccupancy.getPremiumOccupancy(), occupancy.getPremiumOccupancy());
+		assertSameOccupancy(expectedOccupancy.getEconomyOccupancy(), occupancy.getEconomyOccupancy());
+	}
+
+	private static void assertSameOccupancy(RoomCategoryOccupancyEntity expectedOccupancy,
+			RoomCategoryOccupancyEntity occupancy) {
+		Assert.assertEquals(expectedOccupancy.getNumberOfOccupiedRooms(), occupancy.getNumberOfOccupiedRooms());
+		Assert.assertEquals(expectedOccupancy.getGeneratedIncome(), occupancy.getGeneratedIncome());
+	}
+
+}
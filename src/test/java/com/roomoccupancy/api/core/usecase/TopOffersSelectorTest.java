@@ -0,0 +1,67 @@
+package com.roomoccupancy.api.core.usecase;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link TopOffersSelector}
+ * 
+ * @author luis
+ *
+ */
+public class TopOffersSelectorTest {
+
+	private final Random random = new Random(2290);
+
+	@Test
+	public void partitionAtLeast_mixedOffers_offersAtLeastThresholdFirst() {
+		int[] offers = { 23, 45, 155, 374, 22, 99, 100, 101, 115, 209 };
+
+		int split = TopOffersSelector.partitionAtLeast(offers, 0, offers.length, 100);
+
+		Assert.assertEquals(6, split);
+		for (int i = 0; i < offers.length; i++) {
+			Assert.assertEquals(i < split, offers[i] >= 100);
+		}
+	}
+
+	@Test
+	public void partitionAtLeast_emptyRange_returnsRangeStart() {
+		int[] offers = {};
+
+		Assert.assertEquals(0, TopOffersSelector.partitionAtLeast(offers, 0, 0, 100));
+	}
+
+	@Test
+	public void selectLargest_randomOffers_sameLargestOffersAsSorting() {
+		for (int round = 0; round < 200; round++) {
+			int[] offers = random.ints(random.nextInt(300), 0, 50).toArray();
+			int k = offers.length == 0 ? 0 : random.nextInt(offers.length + 1);
+
+			int[] sorted = offers.clone();
+			Arrays.sort(sorted);
+
+			TopOffersSelector.selectLargest(offers, 0, offers.length, k);
+
+			int[] selected = Arrays.copyOf(offers, k);
+			Arrays.sort(selected);
+
+			Assert.assertArrayEquals(Arrays.copyOfRange(sorted, sorted.length - k, sorted.length), selected);
+		}
+	}
+
+	@Test
+	public void selectLargest_subRange_offersOutsideRangeUntouched() {
+		int[] offers = { 1000, 5, 9, 7, 3, 1000 };
+
+		TopOffersSelector.selectLargest(offers, 1, 5, 2);
+
+		Assert.assertEquals(1000, offers[0]);
+		Assert.assertEquals(1000, offers[5]);
+		Assert.assertEquals(16, TopOffersSelector.sum(offers, 1, 3));
+	}
+
+}
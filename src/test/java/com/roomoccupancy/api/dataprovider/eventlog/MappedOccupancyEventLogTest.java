@@ -0,0 +1,345 @@
+package com.roomoccupancy.api.dataprovider.eventlog;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.roomoccupancy.api.core.entity.CategoryOccupancyEntity;
+import com.roomoccupancy.api.core.entity.HotelInventoryEntity;
+import com.roomoccupancy.api.core.entity.HotelInventoryEventEntity;
+import com.roomoccupancy.api.core.entity.OptimizedRoomOccupancyEntity;
+import com.roomoccupancy.api.core.entity.RoomCategoryEntity;
+import com.roomoccupancy.api.core.entity.RoomCategoryOccupancyEntity;
+import com.roomoccupancy.api.core.gateway.OccupancyEventGateway.RecoverableState;
+import com.roomoccupancy.api.core.usecase.GuestOffers;
+import com.roomoccupancy.api.core.usecase.OptimizedRoomOccupancyKey;
+
+/**
+ * Unit tests for {@link MappedOccupancyEventLog}
+ * 
+ * @author luis
+ *
+ */
+public class MappedOccupancyEventLogTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private final List<MappedOccupancyEventLog> eventLogs = new ArrayList<>();
+
+	@After
+	public void closeEventLogs() throws Exception {
+		for (MappedOccupancyEventLog eventLog : eventLogs) {
+			eventLog.close();
+		}
+	}
+
+	@Test
+	public void recover_appendedEvents_sameEventsReplayed() throws Exception {
+		MappedOccupancyEventLog eventLog = open(MappedOccupancyEventLog.DEFAULT_SEGMENT_SIZE, false, new RecordedState());
+		eventLog.appendOptimization(OptimizedRoomOccupancyKey.of(2, 1, 100, 4, 11L, 12L), optimizedOccupancy(219, 70));
+		eventLog.appendInventory(inventoryEvent(1L, "hotel-1", 2, 1));
+		eventLog.appendInventory(inventoryEvent(2L, "hôtel-2", 5, 4));
+		crash(eventLog);
+
+		RecordedState state = new RecordedState();
+		open(MappedOccupancyEventLog.DEFAULT_SEGMENT_SIZE, false, state);
+
+		Assert.assertEquals(1, state.optimizations.size());
+		OptimizedRoomOccupancyKey key = state.optimizations.keySet().iterator().next();
+		Assert.assertEquals(OptimizedRoomOccupancyKey.of(2, 1, 100, 4, 11L, 12L), key);
+		Assert.assertEquals(Integer.valueOf(219),
+				state.optimizations.get(key).getPremiumOccupancy().getGeneratedIncome());
+		Assert.assertEquals(Integer.valueOf(70), state.optimizations.get(key).getEconomyOccupancy().getGeneratedIncome());
+
+		Assert.assertEquals(2, state.inventories.size());
+		Assert.assertEquals(Integer.valueOf(5), state.inventories.get("hôtel-2").getInventory().getFreePremiumRooms());
+		Assert.assertEquals(Long.valueOf(2), state.inventories.get("hôtel-2").getVersion());
+	}
+
+	@Test
+	public void recover_categoryOptimization_skippedAndLaterEventsReplayed() throws Exception {
+		MappedOccupancyEventLog eventLog = open(MappedOccupancyEventLog.DEFAULT_SEGMENT_SIZE, false, new RecordedState());
+		eventLog.appendCategoryOptimization(
+				Arrays.asList(new RoomCategoryEntity("Suite", 400, 1), new RoomCategoryEntity("Standard", 0, 2)),
+				GuestOffers.of(new Integer[] { 450, 120, 80 }),
+				Arrays.asList(new CategoryOccupancyEntity("Suite", 1, 450), new CategoryOccupancyEntity("Standard", 2, 200)));
+		eventLog.appendInventory(inventoryEvent(1L, "hotel-1", 2, 1));
+		crash(eventLog);
+
+		RecordedState state = new RecordedState();
+		open(MappedOccupancyEventLog.DEFAULT_SEGMENT_SIZE, false, state);
+
+		Assert.assertTrue(state.optimizations.isEmpty());
+		Assert.assertEquals(1, state.inventoryEvents.size());
+		Assert.assertEquals(Integer.valueOf(2), state.inventories.get("hotel-1").getInventory().getFreePremiumRooms());
+	}
+
+	@Test
+	public void recover_tornLastRecord_validRecordsReplayedAndTornOneOverwritten() throws Exception {
+		MappedOccupancyEventLog eventLog = open(MappedOccupancyEventLog.DEFAULT_SEGMENT_SIZE, false, new RecordedState());
+		eventLog.appendInventory(inventoryEvent(1L, "hotel-1", 2, 1));
+		eventLog.appendInventory(inventoryEvent(2L, "hotel-2", 5, 4));
+		crash(eventLog);
+
+		Path segment = temporaryFolder.getRoot().toPath().resolve(MappedOccupancyEventLog.getSegmentFileName(0));
+		try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+			// The last byte of the second record, which is 8 + 24 + 7 bytes long,
+			// aligned to 40
+			file.seek(40 + 39 - 1);
+			file.write(0x7F);
+		}
+
+		RecordedState state = new RecordedState();
+		eventLog = open(MappedOccupancyEventLog.DEFAULT_SEGMENT_SIZE, false, state);
+		Assert.assertEquals(1, state.inventories.size());
+		Assert.assertTrue(state.inventories.containsKey("hotel-1"));
+
+		eventLog.appendInventory(inventoryEvent(3L, "hotel-3", 1, 1));
+		crash(eventLog);
+
+		state = new RecordedState();
+		open(MappedOccupancyEventLog.DEFAULT_SEGMENT_SIZE, false, state);
+		Assert.assertEquals(2, state.inventories.size());
+		Assert.assertTrue(state.inventories.containsKey("hotel-3"));
+	}
+
+	@Test
+	public void appendInventory_fullSegment_nextSegmentReplayedInOrder() throws Exception {
+		MappedOccupancyEventLog eventLog = open(100, true, new RecordedState());
+		for (long version = 1; version <= 10; version++) {
+			eventLog.appendInventory(inventoryEvent(version, "hotel-1", (int) version, 0));
+		}
+		crash(eventLog);
+
+		Assert.assertTrue(Files.exists(temporaryFolder.getRoot().toPath()
+				.resolve(MappedOccupancyEventLog.getSegmentFileName(4))));
+
+		RecordedState state = new RecordedState();
+		open(100, true, state);
+
+		Assert.assertEquals(10, state.inventoryEvents.size());
+		Assert.assertEquals(Integer.valueOf(10), state.inventories.get("hotel-1").getInventory().getFreePremiumRooms());
+	}
+
+	@Test(timeout = 10000)
+	public void appendInventory_segmentNotMapped_abortedRecordPaddedAndLaterRecordsCommitted() throws Exception {
+		Path directory = temporaryFolder.getRoot().toPath();
+		Path movedDirectory = temporaryFolder.getRoot().toPath().resolveSibling(directory.getFileName() + "-moved");
+
+		MappedOccupancyEventLog eventLog = open(100, true, new RecordedState());
+		eventLog.appendInventory(inventoryEvent(1L, "hotel-1", 1, 0));
+		eventLog.appendInventory(inventoryEvent(2L, "hotel-1", 2, 0));
+
+		// The next segment cannot be created while the directory is gone
+		Files.move(directory, movedDirectory);
+		try {
+			eventLog.appendInventory(inventoryEvent(3L, "hotel-1", 3, 0));
+			Assert.fail();
+		} catch (IllegalStateException ex) {
+			// The aborted record
+		} finally {
+			Files.move(movedDirectory, directory);
+		}
+
+		eventLog.appendInventory(inventoryEvent(4L, "hotel-1", 4, 0));
+		crash(eventLog);
+
+		RecordedState state = new RecordedState();
+		open(100, true, state);
+
+		Assert.assertEquals(3, state.inventoryEvents.size());
+		Assert.assertEquals(Integer.valueOf(4), state.inventories.get("hotel-1").getInventory().getFreePremiumRooms());
+	}
+
+	@Test
+	public void recover_snapshotAndLaterEvents_snapshotThenOnlyLaterEventsReplayed() throws Exception {
+		RecordedState state = new RecordedState();
+		MappedOccupancyEventLog eventLog = open(MappedOccupancyEventLog.DEFAULT_SEGMENT_SIZE, false, state);
+		eventLog.appendInventory(inventoryEvent(1L, "hotel-1", 2, 1));
+		state.onInventory(inventoryEvent(1L, "hotel-1", 2, 1));
+		eventLog.appendInventory(inventoryEvent(2L, "hotel-2", 5, 4));
+		state.onInventory(inventoryEvent(2L, "hotel-2", 5, 4));
+
+		eventLog.takeSnapshot();
+		Assert.assertEquals(1, state.snapshots);
+
+		eventLog.appendInventory(inventoryEvent(3L, "hotel-1", 1, 1));
+		crash(eventLog);
+
+		RecordedState recoveredState = new RecordedState();
+		open(MappedOccupancyEventLog.DEFAULT_SEGMENT_SIZE, false, recoveredState);
+
+		Assert.assertEquals(3, recoveredState.inventoryEvents.size());
+		Assert.assertEquals(Long.valueOf(3), recoveredState.inventoryEvents.get(2).getVersion());
+		Assert.assertEquals(Integer.valueOf(1),
+				recoveredState.inventories.get("hotel-1").getInventory().getFreePremiumRooms());
+	}
+
+	@Test
+	public void close_appendedEvents_lastSnapshotTaken() throws Exception {
+		RecordedState state = new RecordedState();
+		MappedOccupancyEventLog eventLog = open(MappedOccupancyEventLog.DEFAULT_SEGMENT_SIZE, true, state);
+		eventLog.appendInventory(inventoryEvent(1L, "hotel-1", 2, 1));
+		state.onInventory(inventoryEvent(1L, "hotel-1", 2, 1));
+
+		eventLog.close();
+
+		Assert.assertEquals(1, state.snapshots);
+		Assert.assertTrue(Files.exists(temporaryFolder.getRoot().toPath()
+				.resolve(MappedOccupancyEventLog.SNAPSHOT_FILE_NAME)));
+	}
+
+	@Test
+	public void appendInventory_concurrentAppends_everyRecordReplayed() throws Exception {
+		MappedOccupancyEventLog eventLog = open(1000, true, new RecordedState());
+		int appendsPerThread = 200;
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<?>> appends = new ArrayList<>();
+			for (int thread = 0; thread < 4; thread++) {
+				String hotelId = "hotel-" + thread;
+				appends.add(executor.submit(() -> {
+					for (long version = 1; version <= appendsPerThread; version++) {
+						eventLog.appendInventory(inventoryEvent(version, hotelId, (int) version, 0));
+					}
+				}));
+			}
+			for (Future<?> append : appends) {
+				append.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+		crash(eventLog);
+
+		RecordedState state = new RecordedState();
+		open(1000, true, state);
+
+		Assert.assertEquals(4 * appendsPerThread, state.inventoryEvents.size());
+		for (int thread = 0; thread < 4; thread++) {
+			Assert.assertEquals(Integer.valueOf(appendsPerThread),
+					state.inventories.get("hotel-" + thread).getInventory().getFreePremiumRooms());
+		}
+	}
+
+	@Test
+	public void takeSnapshot_segmentsBeforeTheSnapshot_retainedOnesKept() throws Exception {
+		RecordedState state = new RecordedState();
+		MappedOccupancyEventLog eventLog = open(100, true, state, 1);
+		for (long version = 1; version <= 10; version++) {
+			eventLog.appendInventory(inventoryEvent(version, "hotel-1", (int) version, 0));
+			state.onInventory(inventoryEvent(version, "hotel-1", (int) version, 0));
+		}
+
+		eventLog.takeSnapshot();
+
+		Path directory = temporaryFolder.getRoot().toPath();
+		Assert.assertFalse(Files.exists(directory.resolve(MappedOccupancyEventLog.getSegmentFileName(2))));
+		Assert.assertTrue(Files.exists(directory.resolve(MappedOccupancyEventLog.getSegmentFileName(3))));
+		Assert.assertTrue(Files.exists(directory.resolve(MappedOccupancyEventLog.getSegmentFileName(4))));
+
+		eventLog.appendInventory(inventoryEvent(11L, "hotel-1", 11, 0));
+		crash(eventLog);
+
+		RecordedState recoveredState = new RecordedState();
+		open(100, true, recoveredState);
+		Assert.assertEquals(Integer.valueOf(11),
+				recoveredState.inventories.get("hotel-1").getInventory().getFreePremiumRooms());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void appendInventory_closedEventLog_throwIllegalStateException() throws Exception {
+		MappedOccupancyEventLog eventLog = open(MappedOccupancyEventLog.DEFAULT_SEGMENT_SIZE, false, new RecordedState());
+		eventLog.close();
+
+		eventLog.appendInventory(inventoryEvent(1L, "hotel-1", 2, 1));
+	}
+
+	private MappedOccupancyEventLog open(int segmentSize, boolean sync, RecoverableState state) throws IOException {
+		return open(segmentSize, sync, state, 0);
+	}
+
+	private MappedOccupancyEventLog open(int segmentSize, boolean sync, RecoverableState state, int retainedSegments)
+			throws IOException {
+		MappedOccupancyEventLog eventLog = new MappedOccupancyEventLog(temporaryFolder.getRoot().getPath(),
+				segmentSize, 1, 3600, sync, retainedSegments);
+		eventLog.recover(state);
+		eventLogs.add(eventLog);
+
+		return eventLog;
+	}
+
+	/**
+	 * Stops the event log without the last snapshot, as a crash of the process
+	 */
+	private void crash(MappedOccupancyEventLog eventLog) {
+		eventLogs.remove(eventLog);
+		eventLog.stopCommitter();
+	}
+
+	private static HotelInventoryEventEntity inventoryEvent(Long version, String hotelId, int freePremiumRooms,
+			int freeEconomyRooms) {
+		return new HotelInventoryEventEntity(version, false,
+				new HotelInventoryEntity(hotelId, freePremiumRooms, freeEconomyRooms, 100));
+	}
+
+	private static OptimizedRoomOccupancyEntity optimizedOccupancy(int premiumIncome, int economyIncome) {
+		return new OptimizedRoomOccupancyEntity(new RoomCategoryOccupancyEntity(2, premiumIncome),
+				new RoomCategoryOccupancyEntity(1, economyIncome));
+	}
+
+	/**
+	 * Keeps the replayed events, and the last version of each inventory
+	 */
+	private static class RecordedState implements RecoverableState {
+
+		private final Map<OptimizedRoomOccupancyKey, OptimizedRoomOccupancyEntity> optimizations = new LinkedHashMap<>();
+
+		private final Map<String, HotelInventoryEventEntity> inventories = new LinkedHashMap<>();
+
+		private final List<HotelInventoryEventEntity> inventoryEvents = new ArrayList<>();
+
+		private int snapshots;
+
+		@Override
+		public void onOptimization(OptimizedRoomOccupancyKey key, OptimizedRoomOccupancyEntity optimizedOccupancy) {
+			optimizations.put(key, optimizedOccupancy);
+		}
+
+		@Override
+		public void onInventory(HotelInventoryEventEntity inventoryEvent) {
+			inventoryEvents.add(inventoryEvent);
+			inventories.merge(inventoryEvent.getInventory().getHotelId(), inventoryEvent,
+					(current, replayed) -> current.getVersion() < replayed.getVersion() ? replayed : current);
+		}
+
+		@Override
+		public Collection<HotelInventoryEventEntity> getInventories() {
+			return new ArrayList<>(inventories.values());
+		}
+
+		@Override
+		public void onSnapshot(Collection<HotelInventoryEventEntity> inventories) {
+			snapshots++;
+		}
+
+	}
+
+}
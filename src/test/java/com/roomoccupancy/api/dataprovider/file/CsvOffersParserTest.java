@@ -0,0 +1,164 @@
+package com.roomoccupancy.api.dataprovider.file;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.roomoccupancy.api.core.exception.BusinessException;
+
+/**
+ * Unit tests for {@link CsvOffersParser}
+ * 
+ * @author luis
+ *
+ */
+public class CsvOffersParserTest {
+
+	private static final String ERROR_INVALID_CSV_OFFERS = "The offers file must contain only positive Integers separated by commas or line breaks.";
+
+	@Rule
+	public ExpectedException expectedException = ExpectedException.none();
+
+	private List<Integer> guestOffers = new ArrayList<>();
+
+	private List<Integer> batchSizes = new ArrayList<>();
+
+	private CsvOffersParser parser = new CsvOffersParser(offers -> {
+		batchSizes.add(offers.remaining());
+		for (int i = offers.position(); i < offers.limit(); i++) {
+			guestOffers.add(offers.get(i));
+		}
+	}, 2);
+
+	@Test
+	public void parse_offersSplitAcrossBuffers_offersInBatches() {
+		parse("12", "0, 4", "0\n7", "0,,99");
+		parser.finish();
+
+		Assert.assertEquals(Arrays.asList(120, 40, 70, 99), guestOffers);
+		Assert.assertEquals(Arrays.asList(2, 2), batchSizes);
+	}
+
+	@Test
+	public void parse_headerAndByteOrderMark_headerSkipped() {
+		ByteBuffer bytes = ByteBuffer.allocate(32);
+		bytes.put(new byte[] { (byte) 0xEF, (byte) 0xBB, (byte) 0xBF }).put(ascii("guest,off"));
+		bytes.flip();
+
+		parser.parse(bytes);
+		parse("er\r\n120,40\r\n70");
+		parser.finish();
+
+		Assert.assertEquals(Arrays.asList(120, 40, 70), guestOffers);
+	}
+
+	@Test
+	public void parse_byteOrderMarkSplitAcrossBuffers_byteOrderMarkSkipped() {
+		parser.parse(ByteBuffer.wrap(new byte[] { (byte) 0xEF }));
+		parser.parse(ByteBuffer.wrap(new byte[] { (byte) 0xBB }));
+		parser.parse(ByteBuffer.wrap(new byte[] { (byte) 0xBF, '1', '2', '0' }));
+		parse("\n40");
+		parser.finish();
+
+		Assert.assertEquals(Arrays.asList(120, 40), guestOffers);
+	}
+
+	@Test
+	public void parse_partOfByteOrderMark_headerSkipped() {
+		parser.parse(ByteBuffer.wrap(new byte[] { (byte) 0xEF, (byte) 0xBB }));
+		parse("1,2\n120\n40");
+		parser.finish();
+
+		Assert.assertEquals(Arrays.asList(120, 40), guestOffers);
+	}
+
+	@Test
+	public void parse_headerWithNumbers_headerSkipped() {
+		parse("-1,of", "fer 2\n120\n40");
+		parser.finish();
+
+		Assert.assertEquals(Arrays.asList(120, 40), guestOffers);
+	}
+
+	@Test
+	public void parse_firstLineOfOffersSplitAcrossBuffers_offersParsed() {
+		parse(" 1", "20,40,", "70\n99");
+		parser.finish();
+
+		Assert.assertEquals(Arrays.asList(120, 40, 70, 99), guestOffers);
+	}
+
+	@Test
+	public void parse_negativeOfferInTheFirstLine_throwBusinessException() {
+		expectBusinessException();
+		parse("-5,120,130\n");
+	}
+
+	@Test
+	public void parse_signedOfferInTheOnlyLine_throwBusinessException() {
+		parse("+120,130");
+
+		expectBusinessException();
+		parser.finish();
+	}
+
+	@Test
+	public void parse_firstLineLongerThanAHeader_throwBusinessException() {
+		StringBuilder firstLine = new StringBuilder();
+		while (firstLine.length() <= CsvOffersParser.MAX_HEADER_LENGTH) {
+			firstLine.append("120,");
+		}
+
+		expectBusinessException();
+		parse(firstLine.append("offer\n").toString());
+	}
+
+	@Test
+	public void parse_emptyFile_noOffers() {
+		parser.finish();
+
+		Assert.assertTrue(guestOffers.isEmpty());
+		Assert.assertTrue(batchSizes.isEmpty());
+	}
+
+	@Test
+	public void parse_negativeOffer_throwBusinessException() {
+		expectBusinessException();
+		parse("120\n-40\n");
+	}
+
+	@Test
+	public void parse_blankInsideOffer_throwBusinessException() {
+		expectBusinessException();
+		parse("12 0\n");
+	}
+
+	@Test
+	public void parse_overflowingOffer_throwBusinessException() {
+		expectBusinessException();
+		parse("2147483648\n");
+	}
+
+	private void parse(String... buffers) {
+		for (String buffer : buffers) {
+			parser.parse(ByteBuffer.wrap(ascii(buffer)));
+		}
+	}
+
+	private static byte[] ascii(String text) {
+		return text.getBytes(StandardCharsets.US_ASCII);
+	}
+
+	private void expectBusinessException() {
+		expectedException.expect(BusinessException.class);
+		expectedException.expectMessage(ERROR_INVALID_CSV_OFFERS);
+	}
+
+}
@@ -0,0 +1,130 @@
+package com.roomoccupancy.api.dataprovider.file;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import com.roomoccupancy.api.core.entity.OffersFileFormat;
+import com.roomoccupancy.api.core.exception.BusinessException;
+
+/**
+ * Unit tests for {@link MappedGuestOffersFileGateway}
+ * 
+ * @author luis
+ *
+ */
+public class MappedGuestOffersFileGatewayTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Rule
+	public ExpectedException expectedException = ExpectedException.none();
+
+	@Test
+	public void readOffers_storedOffers_sameOffersInOrderAcrossRegions() throws IOException {
+		MappedGuestOffersFileGateway gateway = newGateway(8);
+
+		Path offersFile = gateway.storeOffers(new ByteArrayInputStream(toLittleEndian(120, 40, 70, 99, 7)));
+
+		List<Integer> guestOffers = new ArrayList<>();
+		List<Integer> regionSizes = new ArrayList<>();
+
+		long numberOfBytesRead = gateway.readOffers(offersFile, OffersFileFormat.BINARY, offers -> {
+			regionSizes.add(offers.remaining());
+			for (int i = offers.position(); i < offers.limit(); i++) {
+				guestOffers.add(offers.get(i));
+			}
+		});
+
+		Assert.assertEquals(Arrays.asList(120, 40, 70, 99, 7), guestOffers);
+		Assert.assertEquals(Arrays.asList(2, 2, 1), regionSizes);
+		Assert.assertEquals(20L, numberOfBytesRead);
+	}
+
+	@Test
+	public void readOffers_csvOffersSplitAcrossRegions_sameOffersInOrder() throws IOException {
+		MappedGuestOffersFileGateway gateway = newGateway(8);
+		byte[] csv = "offer\r\n120,40\r\n70\r\n\r\n1234567,99\r\n".getBytes(StandardCharsets.US_ASCII);
+
+		Path offersFile = gateway.storeOffers(new ByteArrayInputStream(csv));
+
+		List<Integer> guestOffers = new ArrayList<>();
+		long numberOfBytesRead = gateway.readOffers(offersFile, OffersFileFormat.CSV, offers -> {
+			for (int i = offers.position(); i < offers.limit(); i++) {
+				guestOffers.add(offers.get(i));
+			}
+		});
+
+		Assert.assertEquals(Arrays.asList(120, 40, 70, 1234567, 99), guestOffers);
+		Assert.assertEquals(csv.length, numberOfBytesRead);
+	}
+
+	@Test
+	public void readOffers_partialOffer_throwBusinessException() throws IOException {
+		MappedGuestOffersFileGateway gateway = newGateway(MappedGuestOffersFileGateway.DEFAULT_REGION_SIZE);
+		Path offersFile = gateway.storeOffers(new ByteArrayInputStream(new byte[] { 1, 0, 0, 0, 1 }));
+
+		expectedException.expect(BusinessException.class);
+		expectedException.expectMessage("The offers file must contain only 32-bit Integers.");
+
+		gateway.readOffers(offersFile, OffersFileFormat.BINARY, offers -> Assert.fail());
+	}
+
+	@Test
+	public void findOffersFile_existingFile_fileFound() throws IOException {
+		Files.write(temporaryFolder.getRoot().toPath().resolve("offers.bin"), toLittleEndian(1));
+
+		Path offersFile = newGateway(8).findOffersFile("offers.bin");
+
+		Assert.assertTrue(Files.isRegularFile(offersFile));
+	}
+
+	@Test
+	public void findOffersFile_fileOutOfTheOffersDirectory_throwBusinessException() throws IOException {
+		Path offersDirectory = temporaryFolder.newFolder("offers").toPath();
+		Files.write(temporaryFolder.getRoot().toPath().resolve("secret.bin"), toLittleEndian(1));
+
+		expectedException.expect(BusinessException.class);
+		expectedException.expectMessage("The offers file was not found.");
+
+		new MappedGuestOffersFileGateway(offersDirectory, 8).findOffersFile("../secret.bin");
+	}
+
+	@Test
+	public void deleteOffers_storedOffers_fileDeleted() throws IOException {
+		MappedGuestOffersFileGateway gateway = newGateway(8);
+		Path offersFile = gateway.storeOffers(new ByteArrayInputStream(toLittleEndian(1)));
+
+		gateway.deleteOffers(offersFile);
+
+		Assert.assertFalse(Files.exists(offersFile));
+	}
+
+	private MappedGuestOffersFileGateway newGateway(long regionSize) {
+		return new MappedGuestOffersFileGateway(temporaryFolder.getRoot().toPath(), regionSize);
+	}
+
+	static byte[] toLittleEndian(int... guestOffers) {
+		ByteBuffer buffer = ByteBuffer.allocate(guestOffers.length * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		IntBuffer intBuffer = buffer.asIntBuffer();
+		intBuffer.put(guestOffers);
+
+		return buffer.array();
+	}
+
+}
@@ -0,0 +1,79 @@
+package com.roomoccupancy.api.entrypoint.configuration;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.jayway.jsonpath.JsonPath;
+
+/**
+ * Component tests of the long-lived streamed responses, over the network,
+ * with a default async timeout much shorter than the streams
+ * 
+ * @author luis
+ *
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT,
+		properties = "roomoccupancy.web.async.request-timeout=" + StreamingTimeoutInterceptorComponentTest.ASYNC_TIMEOUT_MILLIS)
+public class StreamingTimeoutInterceptorComponentTest {
+
+	static final int ASYNC_TIMEOUT_MILLIS = 300;
+
+	@LocalServerPort
+	private int port;
+
+	@Test
+	public void feedOptimizedRoomOccupancy_feedLongerThanAsyncTimeout_everySnapshot()
+			throws IOException, InterruptedException {
+		HttpURLConnection connection = (HttpURLConnection) new URL(
+				"http://localhost:" + port + "/v1/rooms/optimizeOccupancy/feed?freePremiumRooms=2&freeEconomyRooms=1")
+						.openConnection();
+		connection.setRequestMethod("POST");
+		connection.setRequestProperty("Content-Type", "application/x-ndjson");
+		connection.setChunkedStreamingMode(0);
+		connection.setDoOutput(true);
+
+		try (OutputStream body = connection.getOutputStream()) {
+			for (String line : new String[] { "40\n", "[70, 99]\n", "10\n", "120\n" }) {
+				Thread.sleep(ASYNC_TIMEOUT_MILLIS);
+				body.write(line.getBytes(StandardCharsets.UTF_8));
+				body.flush();
+			}
+			Thread.sleep(ASYNC_TIMEOUT_MILLIS);
+		}
+
+		Assert.assertEquals(200, connection.getResponseCode());
+
+		String[] snapshots = read(connection.getInputStream()).split("\n");
+		Assert.assertEquals(4, snapshots.length);
+		Assert.assertEquals(Integer.valueOf(5), JsonPath.read(snapshots[3], "$.numberOfPotentialGuests"));
+		Assert.assertEquals(Integer.valueOf(219),
+				JsonPath.read(snapshots[3], "$.premiumOccupancy.generatedIncome"));
+		Assert.assertEquals(Integer.valueOf(70), JsonPath.read(snapshots[3], "$.economyOccupancy.generatedIncome"));
+	}
+
+	private static String read(InputStream inputStream) throws IOException {
+		try (InputStream input = inputStream) {
+			ByteArrayOutputStream output = new ByteArrayOutputStream();
+			byte[] buffer = new byte[4096];
+			for (int read = input.read(buffer); read >= 0; read = input.read(buffer)) {
+				output.write(buffer, 0, read);
+			}
+			return new String(output.toByteArray(), StandardCharsets.UTF_8);
+		}
+	}
+
+}
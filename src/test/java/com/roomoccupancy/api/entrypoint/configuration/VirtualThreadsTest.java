@@ -0,0 +1,75 @@
+package com.roomoccupancy.api.entrypoint.configuration;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+/**
+ * Unit tests for {@link VirtualThreads} and the
+ * {@link VirtualThreadWebConfiguration}, whose virtual thread tests run only on
+ * a JVM with virtual threads
+ * 
+ * @author luis
+ *
+ */
+public class VirtualThreadsTest {
+
+	private static final boolean VIRTUAL_THREADS_AVAILABLE = Arrays.stream(Thread.class.getMethods())
+			.anyMatch(method -> method.getName().equals("isVirtual"));
+
+	@Rule
+	public ExpectedException expectedException = ExpectedException.none();
+
+	@Test
+	public void newVirtualThreadPerTaskExecutor_jvmWithVirtualThreads_executorOfVirtualThreads() throws Exception {
+		Assume.assumeTrue(VIRTUAL_THREADS_AVAILABLE);
+
+		Optional<ExecutorService> executor = VirtualThreads.newVirtualThreadPerTaskExecutor();
+
+		Assert.assertTrue(executor.isPresent());
+		try {
+			Assert.assertTrue(executor.get().submit(VirtualThreadsTest::isVirtual).get());
+		} finally {
+			executor.get().shutdown();
+		}
+	}
+
+	@Test
+	public void newVirtualThreadPerTaskExecutor_jvmWithoutVirtualThreads_empty() {
+		Assume.assumeFalse(VIRTUAL_THREADS_AVAILABLE);
+
+		Assert.assertFalse(VirtualThreads.newVirtualThreadPerTaskExecutor().isPresent());
+	}
+
+	@Test
+	public void virtualThreadTaskExecutor_jvmWithVirtualThreads_tasksRunOnVirtualThreads() throws Exception {
+		Assume.assumeTrue(VIRTUAL_THREADS_AVAILABLE);
+
+		VirtualThreadWebConfiguration configuration = new VirtualThreadWebConfiguration();
+		try {
+			Assert.assertTrue(configuration.virtualThreadTaskExecutor().submit(VirtualThreadsTest::isVirtual).get());
+		} finally {
+			configuration.shutdownVirtualThreadExecutor();
+		}
+	}
+
+	@Test
+	public void virtualThreadWebConfiguration_jvmWithoutVirtualThreads_throwIllegalStateException() {
+		Assume.assumeFalse(VIRTUAL_THREADS_AVAILABLE);
+
+		expectedException.expectMessage("The virtual execution mode needs Java 21 or newer.");
+		expectedException.expect(IllegalStateException.class);
+		new VirtualThreadWebConfiguration();
+	}
+
+	private static Boolean isVirtual() throws ReflectiveOperationException {
+		return (Boolean) Thread.class.getMethod("isVirtual").invoke(Thread.currentThread());
+	}
+
+}
@@ -0,0 +1,103 @@
+package com.roomoccupancy.api.entrypoint.configuration.admission;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.jayway.jsonpath.JsonPath;
+import com.roomoccupancy.api.entrypoint.configuration.admission.OptimizationAdmissionControl.Permit;
+
+/**
+ * Component tests of the {@link OptimizationAdmissionControl} in front of the
+ * optimization endpoint
+ * 
+ * @author luis
+ *
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = { "roomoccupancy.admission.max-work-units=1",
+		"roomoccupancy.admission.max-queue-depth=0" })
+@AutoConfigureMockMvc
+public class OptimizationAdmissionControlComponentTest {
+
+	private static final String GET_OPTIMIZED_ROOM_OCCUPANCY_URL = "/v1/rooms/optimizeOccupancy?freePremiumRooms=2&freeEconomyRooms=1&potentialGuests=120,40,70,99";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private OptimizationAdmissionControl admissionControl;
+
+	@Test
+	public void getOptimizedRoomOccupancy_workUnitsAvailable_optimized() throws Exception {
+		this.mockMvc.perform(get(GET_OPTIMIZED_ROOM_OCCUPANCY_URL)).andExpect(status().isOk())
+				.andExpect(jsonPath("$.result.premiumOccupancy.generatedIncome").value(219));
+	}
+
+	@Test
+	public void getOptimizedRoomOccupancy_workUnitsInUse_tooManyRequests() throws Exception {
+		try (Permit permit = admissionControl.admit(0)) {
+			this.mockMvc.perform(get(GET_OPTIMIZED_ROOM_OCCUPANCY_URL)).andExpect(status().isTooManyRequests())
+					.andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+					.andExpect(jsonPath("$.error").value("There are too many optimizations waiting, try again later."))
+					.andExpect(jsonPath("$.httpStatusCode").value(HttpStatus.TOO_MANY_REQUESTS.value()));
+		}
+	}
+
+	@Test
+	public void postOptimizedRoomOccupancy_workUnitsInUse_shedBeforeTheBodyIsRead() throws Exception {
+		try (Permit permit = admissionControl.admit(0)) {
+			this.mockMvc
+					.perform(post("/v1/rooms/optimizeOccupancy").contentType(MediaType.APPLICATION_JSON)
+							.content("{ not json"))
+					.andExpect(status().isTooManyRequests()).andExpect(
+							jsonPath("$.error").value("There are too many optimizations waiting, try again later."));
+		}
+	}
+
+	@Test
+	public void getOptimizedPortfolioOccupancy_workUnitsInUse_hotelShedBeforeItIsRead() throws Exception {
+		String response;
+		try (Permit permit = admissionControl.admit(0)) {
+			MvcResult asyncResult = this.mockMvc
+					.perform(post("/v1/rooms/optimizeOccupancy/portfolio")
+							.contentType("application/x-ndjson")
+							.content("{\"hotelId\":\"lisbon\",\"potentialGuests\":[120,40]}\n"))
+					.andExpect(request().asyncStarted()).andReturn();
+
+			response = this.mockMvc.perform(asyncDispatch(asyncResult)).andExpect(status().isOk()).andReturn()
+					.getResponse().getContentAsString();
+		}
+
+		Assert.assertEquals("There are too many optimizations waiting, try again later.",
+				JsonPath.read(response, "$.error"));
+		Assert.assertNull(JsonPath.read(response, "$.hotelId"));
+	}
+
+	@Test
+	public void postOptimizedRoomOccupancy_malformedBody_permitReleased() throws Exception {
+		this.mockMvc.perform(
+				post("/v1/rooms/optimizeOccupancy").contentType(MediaType.APPLICATION_JSON).content("{ not json"))
+				.andExpect(status().isBadRequest());
+
+		this.mockMvc.perform(get(GET_OPTIMIZED_ROOM_OCCUPANCY_URL)).andExpect(status().isOk());
+	}
+
+}
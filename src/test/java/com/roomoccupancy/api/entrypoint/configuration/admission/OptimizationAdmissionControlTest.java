@@ -0,0 +1,183 @@
+package com.roomoccupancy.api.entrypoint.configuration.admission;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+
+import com.roomoccupancy.api.entrypoint.configuration.admission.OptimizationAdmissionControl.Permit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Unit tests for {@link OptimizationAdmissionControl}
+ * 
+ * @author luis
+ *
+ */
+public class OptimizationAdmissionControlTest {
+
+	private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private ExecutorService executor = Executors.newCachedThreadPool();
+
+	@After
+	public void shutdownExecutor() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void weigh_guestLists_oneWorkUnitPlusOnePerOffersPerWorkUnitUpToTheCapacity() {
+		OptimizationAdmissionControl admissionControl = new OptimizationAdmissionControl(10, 1000, 1, 0,
+				meterRegistry);
+
+		Assert.assertEquals(1, admissionControl.weigh(0));
+		Assert.assertEquals(1, admissionControl.weigh(999));
+		Assert.assertEquals(2, admissionControl.weigh(1000));
+		Assert.assertEquals(10, admissionControl.weigh(50_000));
+	}
+
+	@Test
+	public void admit_workUnitsAvailable_workUnitsHeldUntilThePermitIsClosed() {
+		OptimizationAdmissionControl admissionControl = new OptimizationAdmissionControl(10, 1000, 1, 0,
+				meterRegistry);
+
+		try (Permit permit = admissionControl.admit(3500)) {
+			Assert.assertEquals(4d, meterRegistry.get(OptimizationAdmissionControl.WORK_UNITS_GAUGE).gauge().value(),
+					0d);
+		}
+
+		Assert.assertEquals(0d, meterRegistry.get(OptimizationAdmissionControl.WORK_UNITS_GAUGE).gauge().value(), 0d);
+	}
+
+	@Test
+	public void admit_queueFull_tooManyRequests() {
+		OptimizationAdmissionControl admissionControl = new OptimizationAdmissionControl(1, 1000, 0, 1000,
+				meterRegistry);
+
+		try (Permit permit = admissionControl.admit(10)) {
+			admissionControl.admit(10);
+			Assert.fail("The request should be shed");
+		} catch (AdmissionRejectedException ex) {
+			Assert.assertEquals(HttpStatus.TOO_MANY_REQUESTS, ex.getHttpStatus());
+			Assert.assertEquals("There are too many optimizations waiting, try again later.", ex.getMessage());
+		}
+
+		Assert.assertEquals(1d, meterRegistry.get(OptimizationAdmissionControl.SHED_COUNTER)
+				.tag("reason", "queue-full").counter().count(), 0d);
+	}
+
+	@Test
+	public void admit_workUnitsNotReleasedInTime_serviceUnavailable() {
+		OptimizationAdmissionControl admissionControl = new OptimizationAdmissionControl(1, 1000, 1, 10,
+				meterRegistry);
+
+		try (Permit permit = admissionControl.admit(10)) {
+			admissionControl.admit(10);
+			Assert.fail("The request should be shed");
+		} catch (AdmissionRejectedException ex) {
+			Assert.assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ex.getHttpStatus());
+		}
+
+		Assert.assertEquals(1d, meterRegistry.get(OptimizationAdmissionControl.SHED_COUNTER)
+				.tag("reason", "wait-timeout").counter().count(), 0d);
+		Assert.assertEquals(0, admissionControl.getQueueDepth());
+	}
+
+	@Test
+	public void admit_workUnitsReleasedWhileWaiting_admitted() throws Exception {
+		OptimizationAdmissionControl admissionControl = new OptimizationAdmissionControl(1, 1000, 1, 10_000,
+				meterRegistry);
+		CountDownLatch waiting = new CountDownLatch(1);
+
+		Future<Boolean> admitted;
+		try (Permit permit = admissionControl.admit(10)) {
+			admitted = executor.submit(() -> {
+				waiting.countDown();
+				try (Permit waitingPermit = admissionControl.admit(10)) {
+					return true;
+				}
+			});
+
+			waiting.await();
+			while (admissionControl.getQueueDepth() == 0 && !admitted.isDone()) {
+				Thread.yield();
+			}
+			Assert.assertEquals(1d, meterRegistry.get(OptimizationAdmissionControl.QUEUE_GAUGE).gauge().value(), 0d);
+		}
+
+		Assert.assertTrue(admitted.get(10, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void admitUnread_bodyLength_weighedOnMostOffersThenReweighedOnTheGuestsRead() {
+		OptimizationAdmissionControl admissionControl = new OptimizationAdmissionControl(10, 1000, 1, 0,
+				meterRegistry);
+
+		try (Permit permit = admissionControl.admitUnread(8000)) {
+			Assert.assertEquals(5d, meterRegistry.get(OptimizationAdmissionControl.WORK_UNITS_GAUGE).gauge().value(),
+					0d);
+
+			permit.reweigh(1200);
+			Assert.assertEquals(2d, meterRegistry.get(OptimizationAdmissionControl.WORK_UNITS_GAUGE).gauge().value(),
+					0d);
+		}
+
+		Assert.assertEquals(0d, meterRegistry.get(OptimizationAdmissionControl.WORK_UNITS_GAUGE).gauge().value(), 0d);
+	}
+
+	@Test
+	public void admitUnread_lengthNotKnown_oneWorkUnit() {
+		OptimizationAdmissionControl admissionControl = new OptimizationAdmissionControl(10, 1000, 1, 0,
+				meterRegistry);
+
+		try (Permit permit = admissionControl.admitUnread(-1)) {
+			Assert.assertEquals(1d, meterRegistry.get(OptimizationAdmissionControl.WORK_UNITS_GAUGE).gauge().value(),
+					0d);
+		}
+	}
+
+	@Test
+	public void reweigh_missingWorkUnitsInUse_rejectedAndPermitKept() {
+		OptimizationAdmissionControl admissionControl = new OptimizationAdmissionControl(2, 1000, 0, 0,
+				meterRegistry);
+
+		try (Permit permit = admissionControl.admitUnread(0); Permit otherPermit = admissionControl.admit(0)) {
+			permit.reweigh(5000);
+			Assert.fail("The missing work units should be rejected");
+		} catch (AdmissionRejectedException ex) {
+			Assert.assertEquals(HttpStatus.TOO_MANY_REQUESTS, ex.getHttpStatus());
+		}
+
+		Assert.assertEquals(0d, meterRegistry.get(OptimizationAdmissionControl.WORK_UNITS_GAUGE).gauge().value(), 0d);
+	}
+
+	@Test
+	public void close_closedTwice_workUnitsReleasedOnce() {
+		OptimizationAdmissionControl admissionControl = new OptimizationAdmissionControl(2, 1000, 0, 0,
+				meterRegistry);
+
+		try (Permit permit = admissionControl.admit(0)) {
+			Permit closedPermit = admissionControl.admit(0);
+			closedPermit.close();
+			closedPermit.close();
+
+			Assert.assertEquals(1d, meterRegistry.get(OptimizationAdmissionControl.WORK_UNITS_GAUGE).gauge().value(),
+					0d);
+		}
+	}
+
+	@Test
+	public void admit_disabled_everyRequestAdmitted() {
+		for (int i = 0; i < 100; i++) {
+			OptimizationAdmissionControl.DISABLED.admit(Integer.MAX_VALUE);
+		}
+	}
+
+}
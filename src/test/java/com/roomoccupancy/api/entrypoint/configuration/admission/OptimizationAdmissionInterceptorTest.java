@@ -0,0 +1,88 @@
+package com.roomoccupancy.api.entrypoint.configuration.admission;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.roomoccupancy.api.entrypoint.configuration.admission.OptimizationAdmissionControl.Permit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Unit tests for {@link OptimizationAdmissionInterceptor}
+ * 
+ * @author luis
+ *
+ */
+public class OptimizationAdmissionInterceptorTest {
+
+	private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private OptimizationAdmissionControl admissionControl = new OptimizationAdmissionControl(10, 1000, 0, 0,
+			meterRegistry);
+
+	private OptimizationAdmissionInterceptor interceptor = new OptimizationAdmissionInterceptor(admissionControl);
+
+	private MockHttpServletRequest request = new MockHttpServletRequest("POST", "/v1/rooms/optimizeOccupancy");
+
+	private MockHttpServletResponse response = new MockHttpServletResponse();
+
+	@After
+	public void resetRequestAttributes() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Test
+	public void admit_admittedOnTheBodyLength_permitReweighedOnTheGuestsRead() {
+		request.setContent(new byte[6000]);
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+		Assert.assertTrue(interceptor.preHandle(request, response, null));
+		Assert.assertEquals(4d, getWorkUnitsInUse(), 0d);
+
+		try (Permit permit = OptimizationAdmissionInterceptor.admit(admissionControl, 10)) {
+			Assert.assertEquals(1d, getWorkUnitsInUse(), 0d);
+
+			interceptor.afterCompletion(request, response, null, null);
+			Assert.assertEquals(1d, getWorkUnitsInUse(), 0d);
+		}
+
+		Assert.assertEquals(0d, getWorkUnitsInUse(), 0d);
+	}
+
+	@Test
+	public void admit_getRequest_admittedOnTheQueryStringLength() {
+		request.setMethod("GET");
+		request.setQueryString("potentialGuests=" + String.join(",", new String[2000]).replace("null", "1"));
+
+		interceptor.preHandle(request, response, null);
+
+		Assert.assertEquals(3d, getWorkUnitsInUse(), 0d);
+	}
+
+	@Test
+	public void afterCompletion_permitNotTaken_permitClosed() {
+		request.setContent(new byte[6000]);
+
+		interceptor.preHandle(request, response, null);
+		interceptor.afterCompletion(request, response, null, new IllegalArgumentException());
+
+		Assert.assertEquals(0d, getWorkUnitsInUse(), 0d);
+	}
+
+	@Test
+	public void admit_notAdmittedBefore_admittedOnTheGuestsRead() {
+		try (Permit permit = OptimizationAdmissionInterceptor.admit(admissionControl, 2500)) {
+			Assert.assertEquals(3d, getWorkUnitsInUse(), 0d);
+		}
+	}
+
+	private double getWorkUnitsInUse() {
+		return meterRegistry.get(OptimizationAdmissionControl.WORK_UNITS_GAUGE).gauge().value();
+	}
+
+}
@@ -0,0 +1,123 @@
+package com.roomoccupancy.api.entrypoint.configuration.compression;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.jayway.jsonpath.JsonPath;
+
+/**
+ * Component tests of the compressed request bodies, and of the compressed
+ * responses, over the network
+ * 
+ * @author luis
+ *
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+public class RequestDecompressionFilterComponentTest {
+
+	@LocalServerPort
+	private int port;
+
+	@Test
+	public void postOptimizedRoomOccupancy_gzipBody_optimizedOccupancy() throws IOException {
+		HttpURLConnection connection = post("/v1/rooms/optimizeOccupancy",
+				"{\"freePremiumRooms\":2,\"freeEconomyRooms\":1,\"potentialGuests\":[120,40,70,99]}");
+
+		Assert.assertEquals(200, connection.getResponseCode());
+
+		String response = read(connection.getInputStream());
+		Assert.assertEquals(Integer.valueOf(219), JsonPath.read(response, "$.result.premiumOccupancy.generatedIncome"));
+		Assert.assertEquals(Integer.valueOf(70), JsonPath.read(response, "$.result.economyOccupancy.generatedIncome"));
+	}
+
+	@Test
+	public void postOptimizedRoomOccupancy_corruptGzipBody_badRequest() throws IOException {
+		HttpURLConnection connection = open("/v1/rooms/optimizeOccupancy");
+		connection.setRequestMethod("POST");
+		connection.setRequestProperty("Content-Type", "application/json");
+		connection.setRequestProperty("Content-Encoding", "gzip");
+		connection.setDoOutput(true);
+
+		try (OutputStream body = connection.getOutputStream()) {
+			body.write("{\"freePremiumRooms\":2}".getBytes(StandardCharsets.UTF_8));
+		}
+
+		Assert.assertEquals(400, connection.getResponseCode());
+		Assert.assertEquals("The compressed request body is invalid.",
+				JsonPath.read(read(connection.getErrorStream()), "$.error"));
+	}
+
+	@Test
+	public void getOptimizedRoomOccupancies_bigResponse_gzipResponse() throws IOException {
+		StringBuilder requestBody = new StringBuilder("{\"scenarios\":[");
+		for (int i = 0; i < 50; i++) {
+			requestBody.append(i == 0 ? "" : ",")
+					.append("{\"freePremiumRooms\":2,\"freeEconomyRooms\":1,\"potentialGuests\":[120,40,70,99]}");
+		}
+		requestBody.append("]}");
+
+		HttpURLConnection connection = open("/v1/rooms/optimizeOccupancy/batch");
+		connection.setRequestMethod("POST");
+		connection.setRequestProperty("Content-Type", "application/json");
+		connection.setRequestProperty("Accept-Encoding", "gzip");
+		connection.setDoOutput(true);
+
+		try (OutputStream body = connection.getOutputStream()) {
+			body.write(requestBody.toString().getBytes(StandardCharsets.UTF_8));
+		}
+
+		Assert.assertEquals(200, connection.getResponseCode());
+		Assert.assertEquals("gzip", connection.getContentEncoding());
+
+		String response = read(new GZIPInputStream(connection.getInputStream()));
+		Assert.assertEquals(Integer.valueOf(219), JsonPath.read(response, "$.results[49].result.premiumOccupancy.generatedIncome"));
+	}
+
+	private HttpURLConnection post(String path, String body) throws IOException {
+		HttpURLConnection connection = open(path);
+		connection.setRequestMethod("POST");
+		connection.setRequestProperty("Content-Type", "application/json");
+		connection.setRequestProperty("Content-Encoding", "gzip");
+		connection.setDoOutput(true);
+
+		try (OutputStream output = new GZIPOutputStream(connection.getOutputStream())) {
+			output.write(body.getBytes(StandardCharsets.UTF_8));
+		}
+
+		return connection;
+	}
+
+	private HttpURLConnection open(String path) throws IOException {
+		return (HttpURLConnection) new URL("http://localhost:" + port + path).openConnection();
+	}
+
+	private static String read(InputStream inputStream) throws IOException {
+		ByteArrayOutputStream content = new ByteArrayOutputStream();
+
+		try (InputStream input = inputStream) {
+			byte[] buffer = new byte[1024];
+			for (int read = input.read(buffer); read >= 0; read = input.read(buffer)) {
+				content.write(buffer, 0, read);
+			}
+		}
+
+		return new String(content.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+}
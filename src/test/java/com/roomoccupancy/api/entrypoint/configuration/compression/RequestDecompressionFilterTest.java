@@ -0,0 +1,192 @@
+package com.roomoccupancy.api.entrypoint.configuration.compression;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.roomoccupancy.api.core.exception.BusinessException;
+
+/**
+ * Unit tests for {@link RequestDecompressionFilter}
+ * 
+ * @author luis
+ *
+ */
+public class RequestDecompressionFilterTest {
+
+	private static final String BODY = "{\"freePremiumRooms\":2,\"freeEconomyRooms\":1,\"potentialGuests\":[120,40,70,99]}";
+
+	@Rule
+	public ExpectedException expectedException = ExpectedException.none();
+
+	private RequestDecompressionFilter filter = new RequestDecompressionFilter(1024, new ObjectMapper());
+
+	@Test
+	public void doFilter_gzipBody_inflatedBodyWithoutEncoding() throws Exception {
+		HttpServletRequest request = filter(compressedRequest("gzip", gzip(BODY.getBytes(StandardCharsets.UTF_8))));
+
+		Assert.assertEquals(BODY, read(request.getInputStream()));
+		Assert.assertNull(request.getHeader("Content-Encoding"));
+		Assert.assertFalse(request.getHeaders("Content-Encoding").hasMoreElements());
+		Assert.assertEquals(-1, request.getContentLength());
+		Assert.assertTrue(request.getInputStream().isFinished());
+	}
+
+	@Test
+	public void doFilter_deflateBody_inflatedBody() throws Exception {
+		HttpServletRequest request = filter(
+				compressedRequest("Deflate", deflate(BODY.getBytes(StandardCharsets.UTF_8))));
+
+		Assert.assertEquals(BODY, read(request.getInputStream()));
+	}
+
+	@Test
+	public void doFilter_gzipBodyReadAsCharacters_inflatedBodyDecodedWithItsCharset() throws Exception {
+		String body = "{\"hotelId\":\"Hôtel Zürich\"}";
+		MockHttpServletRequest compressedRequest = compressedRequest("gzip",
+				gzip(body.getBytes(StandardCharsets.UTF_8)));
+		compressedRequest.setCharacterEncoding("UTF-8");
+		HttpServletRequest request = filter(compressedRequest);
+
+		Assert.assertEquals(body, request.getReader().lines().collect(Collectors.joining()));
+		Assert.assertSame(request.getReader(), request.getReader());
+	}
+
+	@Test
+	public void doFilter_gzipBodyReadByteByByte_inflatedBody() throws Exception {
+		HttpServletRequest request = filter(compressedRequest("gzip", gzip(BODY.getBytes(StandardCharsets.UTF_8))));
+		ByteArrayOutputStream content = new ByteArrayOutputStream();
+
+		for (int read = request.getInputStream().read(); read >= 0; read = request.getInputStream().read()) {
+			content.write(read);
+		}
+
+		Assert.assertEquals(BODY, new String(content.toByteArray(), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void doFilter_readListenerSet_illegalStateException() throws Exception {
+		HttpServletRequest request = filter(compressedRequest("gzip", gzip(BODY.getBytes(StandardCharsets.UTF_8))));
+
+		expectedException.expect(IllegalStateException.class);
+
+		request.getInputStream().setReadListener(null);
+	}
+
+	@Test
+	public void doFilter_noEncoding_sameRequest() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/v1/rooms/optimizeOccupancy");
+		request.setContent(BODY.getBytes(StandardCharsets.UTF_8));
+
+		Assert.assertSame(request, filter(request));
+	}
+
+	@Test
+	public void doFilter_unsupportedEncoding_unsupportedMediaType() throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		MockFilterChain filterChain = new MockFilterChain();
+
+		filter.doFilter(compressedRequest("zstd", new byte[] { 1 }), response, filterChain);
+
+		Assert.assertNull(filterChain.getRequest());
+		Assert.assertEquals(415, response.getStatus());
+		Assert.assertEquals("gzip, deflate", response.getHeader("Accept-Encoding"));
+		Assert.assertEquals(
+				"{\"error\":\"The request body can only be encoded as gzip or deflate.\",\"httpStatusCode\":415}",
+				response.getContentAsString());
+	}
+
+	@Test
+	public void doFilter_corruptBody_businessException() throws Exception {
+		HttpServletRequest request = filter(compressedRequest("gzip", BODY.getBytes(StandardCharsets.UTF_8)));
+
+		expectedException.expect(BusinessException.class);
+		expectedException.expectMessage("The compressed request body is invalid.");
+
+		read(request.getInputStream());
+	}
+
+	@Test
+	public void doFilter_truncatedBody_businessException() throws Exception {
+		byte[] body = gzip(BODY.getBytes(StandardCharsets.UTF_8));
+		HttpServletRequest request = filter(compressedRequest("gzip", Arrays.copyOf(body, body.length - 10)));
+
+		expectedException.expect(BusinessException.class);
+		expectedException.expectMessage("The compressed request body is invalid.");
+
+		read(request.getInputStream());
+	}
+
+	@Test
+	public void doFilter_bodyInflatedBeyondMax_businessException() throws Exception {
+		HttpServletRequest request = filter(compressedRequest("gzip", gzip(new byte[1025])));
+
+		expectedException.expect(BusinessException.class);
+		expectedException.expectMessage("The decompressed request body must have 1024 bytes or less.");
+
+		read(request.getInputStream());
+	}
+
+	private HttpServletRequest filter(MockHttpServletRequest request) throws IOException, ServletException {
+		MockFilterChain filterChain = new MockFilterChain();
+		filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+		return (HttpServletRequest) filterChain.getRequest();
+	}
+
+	private static MockHttpServletRequest compressedRequest(String contentEncoding, byte[] body) {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/v1/rooms/optimizeOccupancy");
+		request.addHeader("Content-Encoding", contentEncoding);
+		request.setContent(body);
+
+		return request;
+	}
+
+	private static byte[] gzip(byte[] body) throws IOException {
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		try (OutputStream output = new GZIPOutputStream(compressed)) {
+			output.write(body);
+		}
+
+		return compressed.toByteArray();
+	}
+
+	private static byte[] deflate(byte[] body) throws IOException {
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		try (OutputStream output = new DeflaterOutputStream(compressed)) {
+			output.write(body);
+		}
+
+		return compressed.toByteArray();
+	}
+
+	private static String read(InputStream input) throws IOException {
+		ByteArrayOutputStream content = new ByteArrayOutputStream();
+
+		byte[] buffer = new byte[64];
+		for (int read = input.read(buffer); read >= 0; read = input.read(buffer)) {
+			content.write(buffer, 0, read);
+		}
+
+		return new String(content.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+}
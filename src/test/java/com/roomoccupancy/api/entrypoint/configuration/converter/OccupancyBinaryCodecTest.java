@@ -0,0 +1,136 @@
+package com.roomoccupancy.api.entrypoint.configuration.converter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.roomoccupancy.api.core.entity.OptimizedRoomOccupancyEntity;
+import com.roomoccupancy.api.core.entity.RoomCategoryOccupancyEntity;
+import com.roomoccupancy.api.core.exception.BusinessException;
+import com.roomoccupancy.api.core.usecase.GuestOffers;
+import com.roomoccupancy.api.entrypoint.v1.entity.GetOptimizedRoomOccupancyResponse;
+import com.roomoccupancy.api.entrypoint.v1.entity.OptimizedRoomOccupancyRequest;
+
+/**
+ * Unit tests for {@link OccupancyBinaryCodec}
+ * 
+ * @author luis
+ *
+ */
+public class OccupancyBinaryCodecTest {
+
+	@Rule
+	public ExpectedException expectedException = ExpectedException.none();
+
+	@Test
+	public void readRequest_writtenRequest_sameRequest() throws IOException {
+		int[] offers = { 120, 40, 70, 99, 0, 127, 128, 16_384, Integer.MAX_VALUE };
+
+		OptimizedRoomOccupancyRequest request = readRequest(writeRequest(2, 1, offers));
+
+		Assert.assertEquals(Integer.valueOf(2), request.getFreePremiumRooms());
+		Assert.assertEquals(Integer.valueOf(1), request.getFreeEconomyRooms());
+		Assert.assertEquals(offers.length, request.getPotentialGuests().size());
+		Assert.assertEquals(GuestOffers.of(box(offers)).getFingerprint(),
+				request.getPotentialGuests().getFingerprint());
+	}
+
+	@Test
+	public void writeRequest_smallOffers_oneBytePerOffer() throws IOException {
+		byte[] body = writeRequest(2, 1, new int[] { 120, 40, 70, 99 });
+
+		Assert.assertArrayEquals(new byte[] { 4, 2, 4, 120, 40, 70, 99 }, body);
+	}
+
+	@Test
+	public void readRequest_negativeFreeRooms_negativeValueKept() throws IOException {
+		OptimizedRoomOccupancyRequest request = readRequest(writeRequest(-2, Integer.MIN_VALUE, new int[] { 1 }));
+
+		Assert.assertEquals(Integer.valueOf(-2), request.getFreePremiumRooms());
+		Assert.assertEquals(Integer.valueOf(Integer.MIN_VALUE), request.getFreeEconomyRooms());
+	}
+
+	@Test
+	public void readRequest_manyOffers_allOffersRead() throws IOException {
+		int[] offers = new int[100_000];
+		for (int i = 0; i < offers.length; i++) {
+			offers[i] = i * 7919;
+		}
+
+		OptimizedRoomOccupancyRequest request = readRequest(writeRequest(10, 10, offers));
+
+		Assert.assertEquals(GuestOffers.of(box(offers)).getFingerprint(),
+				request.getPotentialGuests().getFingerprint());
+	}
+
+	@Test
+	public void readRequest_truncatedBody_businessException() throws IOException {
+		byte[] body = writeRequest(2, 1, new int[] { 120, 40, 70, 99 });
+
+		expectedException.expect(BusinessException.class);
+		expectedException.expectMessage("The binary request body is invalid.");
+
+		readRequest(Arrays.copyOf(body, body.length - 1));
+	}
+
+	@Test
+	public void readRequest_offerAboveMaxInteger_businessException() throws IOException {
+		expectedException.expect(BusinessException.class);
+		expectedException.expectMessage("The binary request body is invalid.");
+
+		readRequest(new byte[] { 4, 2, 1, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F });
+	}
+
+	@Test
+	public void readRequest_varintLongerThanFiveBytes_businessException() throws IOException {
+		expectedException.expect(BusinessException.class);
+		expectedException.expectMessage("The binary request body is invalid.");
+
+		readRequest(new byte[] { 4, 2, 1, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 1 });
+	}
+
+	@Test
+	public void readResponse_writtenResponse_sameResponse() throws IOException {
+		Instant requestTimestamp = Instant.ofEpochMilli(1_540_000_000_123L);
+		GetOptimizedRoomOccupancyResponse response = new GetOptimizedRoomOccupancyResponse(requestTimestamp,
+				new OptimizedRoomOccupancyEntity(new RoomCategoryOccupancyEntity(2, 219),
+						new RoomCategoryOccupancyEntity(1, 70)));
+
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		OccupancyBinaryCodec.writeResponse(response, body);
+
+		Assert.assertEquals(OccupancyBinaryCodec.RESPONSE_LENGTH, body.size());
+
+		GetOptimizedRoomOccupancyResponse readResponse = OccupancyBinaryCodec
+				.readResponse(new ByteArrayInputStream(body.toByteArray()));
+
+		Assert.assertEquals(requestTimestamp, readResponse.getRequestTimestamp());
+		Assert.assertEquals(Integer.valueOf(2), readResponse.getResult().getPremiumOccupancy().getNumberOfOccupiedRooms());
+		Assert.assertEquals(Integer.valueOf(219), readResponse.getResult().getPremiumOccupancy().getGeneratedIncome());
+		Assert.assertEquals(Integer.valueOf(1), readResponse.getResult().getEconomyOccupancy().getNumberOfOccupiedRooms());
+		Assert.assertEquals(Integer.valueOf(70), readResponse.getResult().getEconomyOccupancy().getGeneratedIncome());
+	}
+
+	private static byte[] writeRequest(int freePremiumRooms, int freeEconomyRooms, int[] offers) throws IOException {
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		OccupancyBinaryCodec.writeRequest(freePremiumRooms, freeEconomyRooms, offers, 0, offers.length, body);
+
+		return body.toByteArray();
+	}
+
+	private static OptimizedRoomOccupancyRequest readRequest(byte[] body) throws IOException {
+		return OccupancyBinaryCodec.readRequest(new ByteArrayInputStream(body));
+	}
+
+	private static Integer[] box(int[] offers) {
+		return Arrays.stream(offers).boxed().toArray(Integer[]::new);
+	}
+
+}
@@ -0,0 +1,62 @@
+package com.roomoccupancy.api.entrypoint.v1;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Component tests of the {@link GetOptimizedCalendarOccupancyEntrypoint}
+ * 
+ * @author luis
+ *
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class GetOptimizedCalendarOccupancyEntrypointComponentTest {
+
+	private static final String GET_OPTIMIZED_CALENDAR_OCCUPANCY_URL = "/v1/rooms/optimizeOccupancy/calendar";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	public void getOptimizedCalendarOccupancy_validCalendar_resultPerNight() throws Exception {
+		String requestBody = "{\"firstNight\":\"2019-01-01\","
+				+ "\"nights\":[{\"freePremiumRooms\":1,\"freeEconomyRooms\":1},{\"freePremiumRooms\":2,\"freeEconomyRooms\":0}],"
+				+ "\"stays\":[{\"checkIn\":\"2019-01-01\",\"checkOut\":\"2019-01-03\",\"nightlyOffer\":150},"
+				+ "{\"checkIn\":\"2019-01-01\",\"checkOut\":\"2019-01-03\",\"nightlyOffer\":80}]}";
+
+		this.mockMvc
+				.perform(post(GET_OPTIMIZED_CALENDAR_OCCUPANCY_URL).contentType(MediaType.APPLICATION_JSON)
+						.content(requestBody))
+				.andExpect(status().isOk()).andExpect(jsonPath("$.requestTimestamp").isNotEmpty())
+				.andExpect(jsonPath("$.result.nights[0].night").value("2019-01-01"))
+				.andExpect(jsonPath("$.result.nights[0].occupancy.premiumOccupancy.generatedIncome").value(150))
+				.andExpect(jsonPath("$.result.nights[0].occupancy.economyOccupancy.generatedIncome").value(80))
+				.andExpect(jsonPath("$.result.nights[1].night").value("2019-01-02"))
+				.andExpect(jsonPath("$.result.nights[1].occupancy.premiumOccupancy.generatedIncome").value(230))
+				.andExpect(jsonPath("$.result.generatedIncome").value(460));
+	}
+
+	@Test
+	public void getOptimizedCalendarOccupancy_nullFirstNight_badRequest() throws Exception {
+		this.mockMvc
+				.perform(post(GET_OPTIMIZED_CALENDAR_OCCUPANCY_URL).contentType(MediaType.APPLICATION_JSON)
+						.content("{\"nights\":[{\"freePremiumRooms\":1,\"freeEconomyRooms\":1}],\"stays\":[]}"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.error").value("The first night of the calendar is required."))
+				.andExpect(jsonPath("$.httpStatusCode").value(HttpStatus.BAD_REQUEST.value()));
+	}
+
+}
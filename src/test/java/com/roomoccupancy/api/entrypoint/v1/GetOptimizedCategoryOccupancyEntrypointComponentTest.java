@@ -0,0 +1,94 @@
+package com.roomoccupancy.api.entrypoint.v1;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Component tests of the {@link GetOptimizedCategoryOccupancyEntrypoint}
+ * 
+ * @author luis
+ *
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class GetOptimizedCategoryOccupancyEntrypointComponentTest {
+
+	private static final String GET_OPTIMIZED_CATEGORY_OCCUPANCY_URL = "/v1/rooms/optimizeCategoryOccupancy";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	public void getOptimizedCategoryOccupancy_fourCategories_occupancyOfEachCategoryInOrder() throws Exception {
+		String requestBody = "{\"categories\":[" + "{\"name\":\"Suite\",\"minimumNightValue\":400,\"freeRooms\":1},"
+				+ "{\"name\":\"Deluxe\",\"minimumNightValue\":250,\"freeRooms\":2},"
+				+ "{\"name\":\"Superior\",\"minimumNightValue\":150,\"freeRooms\":2},"
+				+ "{\"name\":\"Standard\",\"minimumNightValue\":0,\"freeRooms\":3}],"
+				+ "\"potentialGuests\":[160,500,80,300,450,200,50,170,100,180,90]}";
+
+		this.mockMvc
+				.perform(post(GET_OPTIMIZED_CATEGORY_OCCUPANCY_URL).contentType(MediaType.APPLICATION_JSON)
+						.content(requestBody))
+				.andExpect(status().isOk()).andExpect(jsonPath("$.requestTimestamp").isNotEmpty())
+				.andExpect(header().exists(ServerTimingHeader.NAME))
+				.andExpect(jsonPath("$.result[0].category").value("Suite"))
+				.andExpect(jsonPath("$.result[0].generatedIncome").value(500))
+				.andExpect(jsonPath("$.result[1].category").value("Deluxe"))
+				.andExpect(jsonPath("$.result[1].numberOfOccupiedRooms").value(2))
+				.andExpect(jsonPath("$.result[1].generatedIncome").value(500))
+				.andExpect(jsonPath("$.result[2].generatedIncome").value(350))
+				.andExpect(jsonPath("$.result[3].category").value("Standard"))
+				.andExpect(jsonPath("$.result[3].numberOfOccupiedRooms").value(3))
+				.andExpect(jsonPath("$.result[3].generatedIncome").value(270));
+	}
+
+	@Test
+	public void getOptimizedCategoryOccupancy_categoryWithoutName_badRequest() throws Exception {
+		String requestBody = "{\"categories\":[{\"minimumNightValue\":100,\"freeRooms\":1}],\"potentialGuests\":[120]}";
+
+		this.mockMvc
+				.perform(post(GET_OPTIMIZED_CATEGORY_OCCUPANCY_URL).contentType(MediaType.APPLICATION_JSON)
+						.content(requestBody))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.error").value("The name of a room category is required."))
+				.andExpect(jsonPath("$.httpStatusCode").value(HttpStatus.BAD_REQUEST.value()));
+	}
+
+	@Test
+	public void getOptimizedCategoryOccupancy_malformedBody_badRequest() throws Exception {
+		String requestBody = "{\"categories\":[{\"name\":\"Suite\",\"minimumNightValue\":100,\"freeRooms\":1}],"
+				+ "\"potentialGuests\":[120,";
+
+		this.mockMvc
+				.perform(post(GET_OPTIMIZED_CATEGORY_OCCUPANCY_URL).contentType(MediaType.APPLICATION_JSON)
+						.content(requestBody))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.error").value("The request body must be a valid JSON object."))
+				.andExpect(jsonPath("$.httpStatusCode").value(HttpStatus.BAD_REQUEST.value()));
+	}
+
+	@Test
+	public void getOptimizedCategoryOccupancy_withoutPotentialGuests_badRequest() throws Exception {
+		String requestBody = "{\"categories\":[{\"name\":\"Suite\",\"minimumNightValue\":100,\"freeRooms\":1}]}";
+
+		this.mockMvc
+				.perform(post(GET_OPTIMIZED_CATEGORY_OCCUPANCY_URL).contentType(MediaType.APPLICATION_JSON)
+						.content(requestBody))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.error").value("The potential guests array is required."));
+	}
+
+}
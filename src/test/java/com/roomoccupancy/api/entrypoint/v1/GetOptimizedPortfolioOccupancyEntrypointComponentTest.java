@@ -0,0 +1,87 @@
+package com.roomoccupancy.api.entrypoint.v1;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.jayway.jsonpath.JsonPath;
+
+/**
+ * Component tests of the {@link GetOptimizedPortfolioOccupancyEntrypoint}
+ *
+ * @author luis
+ *
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class GetOptimizedPortfolioOccupancyEntrypointComponentTest {
+
+	private static final String GET_OPTIMIZED_PORTFOLIO_OCCUPANCY_URL = "/v1/rooms/optimizeOccupancy/portfolio";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	public void getOptimizedPortfolioOccupancy_hotels_oneResultLinePerHotel() throws Exception {
+		this.mockMvc.perform(put("/v1/hotels/portfolio-a/inventory").param("freePremiumRooms", "1")
+				.param("freeEconomyRooms", "1")).andExpect(status().isOk());
+
+		String[] results = performPortfolio(
+				"{\"hotelId\":\"lisbon\",\"freePremiumRooms\":2,\"freeEconomyRooms\":1,\"potentialGuests\":[120,40,70,99]}\n"
+						+ "{\"hotelId\":\"portfolio-a\",\"potentialGuests\":[120,40,70,99]}\n"
+						+ "{\"hotelId\":\"porto\",\"freePremiumRooms\":-1,\"freeEconomyRooms\":1,\"potentialGuests\":[120]}\n"
+						+ "{\"hotelId\":\n");
+
+		Assert.assertEquals(4, results.length);
+
+		Assert.assertEquals("lisbon", JsonPath.read(results[0], "$.hotelId"));
+		Assert.assertEquals(Integer.valueOf(2), JsonPath.read(results[0], "$.result.premiumOccupancy.numberOfOccupiedRooms"));
+		Assert.assertEquals(Integer.valueOf(219), JsonPath.read(results[0], "$.result.premiumOccupancy.generatedIncome"));
+		Assert.assertEquals(Integer.valueOf(70), JsonPath.read(results[0], "$.result.economyOccupancy.generatedIncome"));
+
+		Assert.assertEquals("portfolio-a", JsonPath.read(results[1], "$.hotelId"));
+		Assert.assertEquals(Integer.valueOf(120), JsonPath.read(results[1], "$.result.premiumOccupancy.generatedIncome"));
+		Assert.assertEquals(Integer.valueOf(99), JsonPath.read(results[1], "$.result.economyOccupancy.generatedIncome"));
+
+		Assert.assertEquals("porto", JsonPath.read(results[2], "$.hotelId"));
+		Assert.assertEquals("The number of free Premium rooms must be zero or greater.",
+				JsonPath.read(results[2], "$.error"));
+
+		Assert.assertEquals("The request body must be a valid JSON object.", JsonPath.read(results[3], "$.error"));
+	}
+
+	private String[] performPortfolio(String portfolio) throws Exception {
+		MvcResult asyncResult = this.mockMvc
+				.perform(post(GET_OPTIMIZED_PORTFOLIO_OCCUPANCY_URL)
+						.contentType(OccupancyFeedEntrypoint.APPLICATION_NDJSON_VALUE).content(portfolio))
+				.andExpect(request().asyncStarted()).andReturn();
+
+		String response = this.mockMvc.perform(asyncDispatch(asyncResult)).andExpect(status().isOk())
+				.andExpect(content().contentType(OccupancyFeedEntrypoint.APPLICATION_NDJSON_VALUE)).andReturn()
+				.getResponse().getContentAsString();
+
+		// The results come in the order the hotels complete
+		String[] results = response.split("\n");
+		Arrays.sort(results, Comparator.comparing(result -> JsonPath.<Integer>read(result, "$.index")));
+
+		return results;
+	}
+
+}
@@ -0,0 +1,58 @@
+package com.roomoccupancy.api.entrypoint.v1;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Component tests of the {@link GetOptimizedRoomOccupancyBatchEntrypoint}
+ * 
+ * @author luis
+ *
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class GetOptimizedRoomOccupancyBatchEntrypointComponentTest {
+
+	private static final String GET_OPTIMIZED_ROOM_OCCUPANCY_BATCH_URL = "/v1/rooms/optimizeOccupancy/batch";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	public void getOptimizedRoomOccupancies_validAndInvalidScenarios_resultsAndErrorsInOrder() throws Exception {
+		String requestBody = "{\"scenarios\":["
+				+ "{\"freePremiumRooms\":2,\"freeEconomyRooms\":1,\"potentialGuests\":[120,40,70,99]},"
+				+ "{\"freePremiumRooms\":2,\"freeEconomyRooms\":-1,\"potentialGuests\":[120,40,70,99]}]}";
+
+		this.mockMvc
+				.perform(post(GET_OPTIMIZED_ROOM_OCCUPANCY_BATCH_URL).contentType(MediaType.APPLICATION_JSON)
+						.content(requestBody))
+				.andExpect(status().isOk()).andExpect(jsonPath("$.requestTimestamp").isNotEmpty())
+				.andExpect(jsonPath("$.results[0].result.premiumOccupancy.generatedIncome").value(219))
+				.andExpect(jsonPath("$.results[0].result.economyOccupancy.generatedIncome").value(70))
+				.andExpect(jsonPath("$.results[1].error")
+						.value("The number of free Economic rooms must be zero or greater."));
+	}
+
+	@Test
+	public void getOptimizedRoomOccupancies_nullScenarios_badRequest() throws Exception {
+		this.mockMvc
+				.perform(post(GET_OPTIMIZED_ROOM_OCCUPANCY_BATCH_URL).contentType(MediaType.APPLICATION_JSON)
+						.content("{}"))
+				.andExpect(status().isBadRequest()).andExpect(jsonPath("$.error").value("The scenarios are required."))
+				.andExpect(jsonPath("$.httpStatusCode").value(HttpStatus.BAD_REQUEST.value()));
+	}
+
+}
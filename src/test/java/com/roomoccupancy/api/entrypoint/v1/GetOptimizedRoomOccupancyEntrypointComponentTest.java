@@ -1,12 +1,21 @@
 package com.roomoccupancy.api.entrypoint.v1;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.time.Instant;
+import java.util.Arrays;
 
+import org.hamcrest.Matchers;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -14,8 +23,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
@@ -23,8 +34,11 @@ import org.springframework.util.MultiValueMap;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.roomoccupancy.api.core.entity.OptimizedRoomOccupancyEntity;
 import com.roomoccupancy.api.core.entity.RoomCategoryOccupancyEntity;
+import com.roomoccupancy.api.entrypoint.configuration.converter.OccupancyBinaryCodec;
 import com.roomoccupancy.api.entrypoint.v1.entity.GetOptimizedRoomOccupancyResponse;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 /**
  * Component tests of the {@link GetOptimizedRoomOccupancyEntrypoint}
  * 
@@ -50,6 +64,9 @@ public class GetOptimizedRoomOccupancyEntrypointComponentTest {
 	@Autowired
 	ObjectMapper objectMapper;
 
+	@Autowired
+	MeterRegistry meterRegistry;
+
 	@Test
 	public void getOptimizedRoomOccupancy_validParameters_successResponse() throws Exception {
 		RoomCategoryOccupancyEntity expectedPremiumOccupancy = new RoomCategoryOccupancyEntity(2, 219);
@@ -97,6 +114,60 @@ public class GetOptimizedRoomOccupancyEntrypointComponentTest {
 
 	}
 
+	@Test
+	public void getOptimizedRoomOccupancy_validParameters_serverTimingHeaderWithEveryPhase() throws Exception {
+		this.mockMvc
+				.perform(get(GET_OPTIMIZED_ROOM_OCCUPANCY_URL).param(FREE_PREMIUM_ROOMS_PARAMETER_KEY, "2")
+						.param(FREE_ECONOMY_ROOMS_PARAMETER_KEY, "1").param(POTENTIAL_GUESTS_PARAMETER_KEY, "120", "40"))
+				.andExpect(status().isOk())
+				.andExpect(header().string("Server-Timing", Matchers.stringContainsInOrder(
+						Arrays.asList("validation;dur=", "ordering;dur=", "premium;dur=", "economy;dur="))));
+	}
+
+	@Test
+	public void getOptimizedRoomOccupancy_rawQueryString_offersBoundFromQueryString() throws Exception {
+		this.mockMvc
+				.perform(get(GET_OPTIMIZED_ROOM_OCCUPANCY_URL
+						+ "?freePremiumRooms=2&freeEconomyRooms=1&potentialGuests=120,40&potentialGuests=70&potentialGuests=99"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.result.premiumOccupancy.numberOfOccupiedRooms").value(2))
+				.andExpect(jsonPath("$.result.premiumOccupancy.generatedIncome").value(219))
+				.andExpect(jsonPath("$.result.economyOccupancy.numberOfOccupiedRooms").value(1))
+				.andExpect(jsonPath("$.result.economyOccupancy.generatedIncome").value(70));
+	}
+
+	@Test
+	public void getOptimizedRoomOccupancy_invalidOfferInQueryString_badRequest() throws Exception {
+		this.mockMvc
+				.perform(get(GET_OPTIMIZED_ROOM_OCCUPANCY_URL
+						+ "?freePremiumRooms=2&freeEconomyRooms=1&potentialGuests=120,-40"))
+				.andExpect(status().isBadRequest()).andExpect(jsonPath("$.error")
+						.value("The value that a guest is willing to pay must be a valid positive Integer"));
+	}
+
+	@Test
+	public void getOptimizedRoomOccupancy_invalidOfferInQueryString_rejectionCounted() throws Exception {
+		double rejections = countRejections("The value that a guest is willing to pay must be a valid positive Integer");
+
+		this.mockMvc
+				.perform(get(GET_OPTIMIZED_ROOM_OCCUPANCY_URL
+						+ "?freePremiumRooms=2&freeEconomyRooms=1&potentialGuests=120,-40"))
+				.andExpect(status().isBadRequest());
+
+		Assert.assertEquals(rejections + 1,
+				countRejections("The value that a guest is willing to pay must be a valid positive Integer"), 0d);
+	}
+
+	@Test
+	public void getOptimizedRoomOccupancy_absentPotentialGuestsParameter_badRequest() throws Exception {
+		MultiValueMap<String, String> requestParameters = new LinkedMultiValueMap<>();
+
+		requestParameters.add(FREE_ECONOMY_ROOMS_PARAMETER_KEY, "1");
+		requestParameters.add(FREE_PREMIUM_ROOMS_PARAMETER_KEY, "2");
+
+		assertBadRequest(requestParameters);
+	}
+
 	@Test
 	public void getOptimizedRoomOccupancy_nullFreePremiumRoomsParameter_badRequest() throws Exception {
 		Integer freeEconomyRooms = 1;
@@ -144,10 +215,178 @@ public class GetOptimizedRoomOccupancyEntrypointComponentTest {
 		assertBadRequest(requestParameters);
 	}
 
+	@Test
+	public void postOptimizedRoomOccupancy_validBody_successResponse() throws Exception {
+		String requestBody = "{\"freePremiumRooms\":2,\"freeEconomyRooms\":1,\"potentialGuests\":[120,40,70,99]}";
+
+		this.mockMvc
+				.perform(post(GET_OPTIMIZED_ROOM_OCCUPANCY_URL).contentType(MediaType.APPLICATION_JSON)
+						.content(requestBody))
+				.andExpect(status().isOk()).andExpect(jsonPath("$.requestTimestamp").isNotEmpty())
+				.andExpect(jsonPath("$.result.premiumOccupancy.numberOfOccupiedRooms").value(2))
+				.andExpect(jsonPath("$.result.premiumOccupancy.generatedIncome").value(219))
+				.andExpect(jsonPath("$.result.economyOccupancy.numberOfOccupiedRooms").value(1))
+				.andExpect(jsonPath("$.result.economyOccupancy.generatedIncome").value(70));
+	}
+
+	@Test
+	public void postOptimizedRoomOccupancy_nullPotentialGuests_badRequest() throws Exception {
+		String requestBody = "{\"freePremiumRooms\":2,\"freeEconomyRooms\":1}";
+
+		this.mockMvc
+				.perform(post(GET_OPTIMIZED_ROOM_OCCUPANCY_URL).contentType(MediaType.APPLICATION_JSON)
+						.content(requestBody))
+				.andDo(print()).andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.error").value("The potential guests array is required."))
+				.andExpect(jsonPath("$.httpStatusCode").value(HttpStatus.BAD_REQUEST.value()));
+	}
+
+	@Test
+	public void postOccupancyAssignment_guestIds_roomCategoryOfEachGuest() throws Exception {
+		String requestBody = "{\"freePremiumRooms\":2,\"freeEconomyRooms\":1,\"potentialGuests\":[120,40,70,99],"
+				+ "\"guestIds\":[\"ana\",\"bruno\",\"carla\",\"duarte\"]}";
+
+		MvcResult asyncResult = this.mockMvc
+				.perform(post(GET_OPTIMIZED_ROOM_OCCUPANCY_URL).param("detail", "assignments")
+						.contentType(MediaType.APPLICATION_JSON).content(requestBody))
+				.andExpect(request().asyncStarted()).andReturn();
+
+		this.mockMvc.perform(asyncDispatch(asyncResult)).andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+				.andExpect(jsonPath("$.requestTimestamp").isNotEmpty())
+				.andExpect(jsonPath("$.result.premiumOccupancy.generatedIncome").value(219))
+				.andExpect(jsonPath("$.result.economyOccupancy.generatedIncome").value(70))
+				.andExpect(jsonPath("$.assignments[*].guestId").value(Matchers.contains("ana", "bruno", "carla", "duarte")))
+				.andExpect(jsonPath("$.assignments[*].offer").value(Matchers.contains(120, 40, 70, 99)))
+				.andExpect(jsonPath("$.assignments[0].roomCategory").value("PREMIUM"))
+				.andExpect(jsonPath("$.assignments[1].roomCategory").value(Matchers.nullValue()))
+				.andExpect(jsonPath("$.assignments[2].roomCategory").value("ECONOMY"))
+				.andExpect(jsonPath("$.assignments[3].roomCategory").value("PREMIUM"));
+	}
+
+	@Test
+	public void postOccupancyAssignment_withoutGuestIds_positionsOfTheGuests() throws Exception {
+		String requestBody = "{\"freePremiumRooms\":2,\"freeEconomyRooms\":1,\"potentialGuests\":[120,40]}";
+
+		MvcResult asyncResult = this.mockMvc
+				.perform(post(GET_OPTIMIZED_ROOM_OCCUPANCY_URL).param("detail", "assignments")
+						.contentType(MediaType.APPLICATION_JSON).content(requestBody))
+				.andExpect(request().asyncStarted()).andReturn();
+
+		this.mockMvc.perform(asyncDispatch(asyncResult)).andExpect(status().isOk())
+				.andExpect(jsonPath("$.assignments[*].guestId").value(Matchers.contains(0, 1)))
+				.andExpect(jsonPath("$.assignments[1].roomCategory").value("ECONOMY"));
+	}
+
+	@Test
+	public void postOccupancyAssignment_fewerGuestIdsThanGuests_badRequest() throws Exception {
+		String requestBody = "{\"freePremiumRooms\":2,\"freeEconomyRooms\":1,\"potentialGuests\":[120,40],"
+				+ "\"guestIds\":[\"ana\"]}";
+
+		this.mockMvc
+				.perform(post(GET_OPTIMIZED_ROOM_OCCUPANCY_URL).param("detail", "assignments")
+						.contentType(MediaType.APPLICATION_JSON).content(requestBody))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.error").value("There must be one guest identifier per potential guest."))
+				.andExpect(jsonPath("$.httpStatusCode").value(HttpStatus.BAD_REQUEST.value()));
+	}
+
+	@Test
+	public void postOccupancyAssignment_fewerGuestIdsThanGuests_rejectionCounted() throws Exception {
+		double rejections = countRejections("There must be one guest identifier per potential guest.");
+		String requestBody = "{\"freePremiumRooms\":2,\"freeEconomyRooms\":1,\"potentialGuests\":[120,40],"
+				+ "\"guestIds\":[\"ana\"]}";
+
+		this.mockMvc
+				.perform(post(GET_OPTIMIZED_ROOM_OCCUPANCY_URL).param("detail", "assignments")
+						.contentType(MediaType.APPLICATION_JSON).content(requestBody))
+				.andExpect(status().isBadRequest());
+
+		Assert.assertEquals(rejections + 1, countRejections("There must be one guest identifier per potential guest."),
+				0d);
+	}
+
+	@Test
+	public void postBinaryOptimizedRoomOccupancy_validBody_binaryResponse() throws Exception {
+		ByteArrayOutputStream requestBody = new ByteArrayOutputStream();
+		OccupancyBinaryCodec.writeRequest(2, 1, new int[] { 120, 40, 70, 99 }, 0, 4, requestBody);
+
+		MediaType binary = MediaType.parseMediaType(OccupancyBinaryCodec.MEDIA_TYPE_VALUE);
+		byte[] responseBody = this.mockMvc
+				.perform(post(GET_OPTIMIZED_ROOM_OCCUPANCY_URL).contentType(binary).accept(binary)
+						.content(requestBody.toByteArray()))
+				.andExpect(status().isOk()).andExpect(content().contentType(binary))
+				.andExpect(header().string(ServerTimingHeader.NAME, Matchers.startsWith("validation;dur=")))
+				.andReturn().getResponse().getContentAsByteArray();
+
+		GetOptimizedRoomOccupancyResponse response = OccupancyBinaryCodec
+				.readResponse(new ByteArrayInputStream(responseBody));
+
+		Assert.assertEquals(24, responseBody.length);
+		Assert.assertNotNull(response.getRequestTimestamp());
+		Assert.assertEquals(Integer.valueOf(2), response.getResult().getPremiumOccupancy().getNumberOfOccupiedRooms());
+		Assert.assertEquals(Integer.valueOf(219), response.getResult().getPremiumOccupancy().getGeneratedIncome());
+		Assert.assertEquals(Integer.valueOf(1), response.getResult().getEconomyOccupancy().getNumberOfOccupiedRooms());
+		Assert.assertEquals(Integer.valueOf(70), response.getResult().getEconomyOccupancy().getGeneratedIncome());
+	}
+
+	@Test
+	public void postBinaryOptimizedRoomOccupancy_anyAcceptedType_jsonResponse() throws Exception {
+		ByteArrayOutputStream requestBody = new ByteArrayOutputStream();
+		OccupancyBinaryCodec.writeRequest(2, 1, new int[] { 120, 40, 70, 99 }, 0, 4, requestBody);
+
+		this.mockMvc
+				.perform(post(GET_OPTIMIZED_ROOM_OCCUPANCY_URL)
+						.contentType(OccupancyBinaryCodec.MEDIA_TYPE_VALUE).content(requestBody.toByteArray()))
+				.andExpect(status().isOk()).andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+				.andExpect(jsonPath("$.result.premiumOccupancy.generatedIncome").value(219))
+				.andExpect(jsonPath("$.result.economyOccupancy.generatedIncome").value(70));
+	}
+
+	@Test
+	public void postBinaryOptimizedRoomOccupancy_negativeFreeRooms_badRequest() throws Exception {
+		ByteArrayOutputStream requestBody = new ByteArrayOutputStream();
+		OccupancyBinaryCodec.writeRequest(-2, 1, new int[] { 120 }, 0, 1, requestBody);
+
+		this.mockMvc
+				.perform(post(GET_OPTIMIZED_ROOM_OCCUPANCY_URL)
+						.contentType(OccupancyBinaryCodec.MEDIA_TYPE_VALUE).content(requestBody.toByteArray()))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.error").value("The number of free Premium rooms must be zero or greater."))
+				.andExpect(jsonPath("$.httpStatusCode").value(HttpStatus.BAD_REQUEST.value()));
+	}
+
+	@Test
+	public void postBinaryOptimizedRoomOccupancy_truncatedBody_badRequest() throws Exception {
+		this.mockMvc
+				.perform(post(GET_OPTIMIZED_ROOM_OCCUPANCY_URL)
+						.contentType(OccupancyBinaryCodec.MEDIA_TYPE_VALUE).content(new byte[] { 4, 2, 4, 120 }))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.error").value("The binary request body is invalid."))
+				.andExpect(jsonPath("$.httpStatusCode").value(HttpStatus.BAD_REQUEST.value()));
+	}
+
+	@Test
+	public void postBinaryOptimizedRoomOccupancy_truncatedBody_rejectionCounted() throws Exception {
+		double rejections = countRejections("The binary request body is invalid.");
+
+		this.mockMvc
+				.perform(post(GET_OPTIMIZED_ROOM_OCCUPANCY_URL)
+						.contentType(OccupancyBinaryCodec.MEDIA_TYPE_VALUE).content(new byte[] { 4, 2, 4, 120 }))
+				.andExpect(status().isBadRequest());
+
+		Assert.assertEquals(rejections + 1, countRejections("The binary request body is invalid."), 0d);
+	}
+
 	private void assertBadRequest(MultiValueMap<String, String> requestParameters) throws Exception {
 		this.mockMvc.perform(get(GET_OPTIMIZED_ROOM_OCCUPANCY_URL).params(requestParameters)).andDo(print())
 				.andExpect(status().isBadRequest()).andExpect(jsonPath("$.error").isNotEmpty())
 				.andExpect(jsonPath("$.httpStatusCode").value(HttpStatus.BAD_REQUEST.value()));
 	}
 
+	private double countRejections(String reason) {
+		return meterRegistry.find("roomoccupancy.optimization.rejections").tag("reason", reason).counters().stream()
+				.mapToDouble(counter -> counter.count()).sum();
+	}
+
 }
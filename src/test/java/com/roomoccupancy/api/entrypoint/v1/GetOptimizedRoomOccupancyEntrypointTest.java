@@ -14,6 +14,7 @@ import org.springframework.http.ResponseEntity;
 import com.roomoccupancy.api.core.entity.OptimizedRoomOccupancyEntity;
 import com.roomoccupancy.api.core.entity.RoomCategoryOccupancyEntity;
 import com.roomoccupancy.api.core.usecase.GetOptimizedRoomOccupancyUseCase;
+import com.roomoccupancy.api.core.usecase.GuestOffers;
 import com.roomoccupancy.api.entrypoint.v1.entity.GetOptimizedRoomOccupancyResponse;
 
 /**
@@ -35,7 +36,7 @@ public class GetOptimizedRoomOccupancyEntrypointTest {
 	public void getOptimizedRoomOccupancy_callWithNotNullArguments_useCaseCalledWithSameArguments() {
 		Integer numberOfFreePremiumRooms = 8752;
 		Integer numberOfFreeEconomyRooms = 432;
-		Integer[] potencialGuests = { 132, 543, 981, 1 };
+		GuestOffers potencialGuests = GuestOffers.of(new Integer[] { 132, 543, 981, 1 });
 
 		RoomCategoryOccupancyEntity premiumOccupancy = new RoomCategoryOccupancyEntity(11, 1234);
 		RoomCategoryOccupancyEntity economyOccupancy = new RoomCategoryOccupancyEntity(4, 712);
@@ -0,0 +1,134 @@
+package com.roomoccupancy.api.entrypoint.v1;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.jayway.jsonpath.JsonPath;
+import com.roomoccupancy.api.LightRoomOccupancyApplication;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Component tests of the {@link GetOptimizedRoomOccupancyHttpHandler}, served
+ * by the {@link LightRoomOccupancyApplication}
+ *
+ * @author luis
+ *
+ */
+public class GetOptimizedRoomOccupancyHttpHandlerComponentTest {
+
+	private ExecutorService executor;
+
+	private HttpServer server;
+
+	@Before
+	public void startServer() throws IOException {
+		executor = Executors.newSingleThreadExecutor();
+		server = LightRoomOccupancyApplication.start(0, executor);
+	}
+
+	@After
+	public void stopServer() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void getOptimizedRoomOccupancy_validParameters_sameResponseOfTheSpringEntrypoint() throws IOException {
+		HttpURLConnection connection = open(
+				"/v1/rooms/optimizeOccupancy?freePremiumRooms=2&freeEconomyRooms=1&potentialGuests=120&potentialGuests=40,70&potentialGuests=99");
+
+		Assert.assertEquals(200, connection.getResponseCode());
+		Assert.assertEquals("application/json;charset=UTF-8", connection.getContentType());
+		Assert.assertTrue(connection.getHeaderField(ServerTimingHeader.NAME).startsWith("validation;dur="));
+
+		String response = read(connection.getInputStream());
+		Assert.assertTrue(JsonPath.<String>read(response, "$.requestTimestamp").endsWith("Z"));
+		Assert.assertEquals(Integer.valueOf(2), JsonPath.read(response, "$.result.premiumOccupancy.numberOfOccupiedRooms"));
+		Assert.assertEquals(Integer.valueOf(219), JsonPath.read(response, "$.result.premiumOccupancy.generatedIncome"));
+		Assert.assertEquals(Integer.valueOf(1), JsonPath.read(response, "$.result.economyOccupancy.numberOfOccupiedRooms"));
+		Assert.assertEquals(Integer.valueOf(70), JsonPath.read(response, "$.result.economyOccupancy.generatedIncome"));
+	}
+
+	@Test
+	public void postOptimizedRoomOccupancy_validBody_optimizedOccupancy() throws IOException {
+		HttpURLConnection connection = open("/v1/rooms/optimizeOccupancy");
+		connection.setRequestMethod("POST");
+		connection.setRequestProperty("Content-Type", "application/json");
+		connection.setDoOutput(true);
+
+		try (OutputStream body = connection.getOutputStream()) {
+			body.write("{\"freePremiumRooms\": 2, \"freeEconomyRooms\": 1, \"potentialGuests\": [120, 40, 70, 99]}"
+					.getBytes(StandardCharsets.UTF_8));
+		}
+
+		Assert.assertEquals(200, connection.getResponseCode());
+
+		String response = read(connection.getInputStream());
+		Assert.assertEquals(Integer.valueOf(219), JsonPath.read(response, "$.result.premiumOccupancy.generatedIncome"));
+		Assert.assertEquals(Integer.valueOf(70), JsonPath.read(response, "$.result.economyOccupancy.generatedIncome"));
+	}
+
+	@Test
+	public void getOptimizedRoomOccupancy_negativeFreeRooms_badRequest() throws IOException {
+		assertBadRequest("/v1/rooms/optimizeOccupancy?freePremiumRooms=-2&freeEconomyRooms=1&potentialGuests=120",
+				"The number of free Premium rooms must be zero or greater.");
+	}
+
+	@Test
+	public void getOptimizedRoomOccupancy_absentFreeRooms_badRequest() throws IOException {
+		assertBadRequest("/v1/rooms/optimizeOccupancy?freePremiumRooms=2&potentialGuests=120",
+				"Required Integer parameter 'freeEconomyRooms' is not present");
+	}
+
+	@Test
+	public void getOptimizedRoomOccupancy_invalidOffer_badRequest() throws IOException {
+		assertBadRequest("/v1/rooms/optimizeOccupancy?freePremiumRooms=2&freeEconomyRooms=1&potentialGuests=12a",
+				"The value that a guest is willing to pay must be a valid positive Integer");
+	}
+
+	@Test
+	public void getOptimizedRoomOccupancy_unknownPath_notFound() throws IOException {
+		Assert.assertEquals(404, open("/v1/rooms/optimizeOccupancy/unknown").getResponseCode());
+	}
+
+	private void assertBadRequest(String path, String error) throws IOException {
+		HttpURLConnection connection = open(path);
+
+		Assert.assertEquals(400, connection.getResponseCode());
+
+		String response = read(connection.getErrorStream());
+		Assert.assertEquals(error, JsonPath.read(response, "$.error"));
+		Assert.assertEquals(Integer.valueOf(400), JsonPath.read(response, "$.httpStatusCode"));
+	}
+
+	private HttpURLConnection open(String path) throws IOException {
+		return (HttpURLConnection) new URL("http://localhost:" + server.getAddress().getPort() + path)
+				.openConnection();
+	}
+
+	private static String read(InputStream inputStream) throws IOException {
+		ByteArrayOutputStream content = new ByteArrayOutputStream();
+
+		try (InputStream input = inputStream) {
+			byte[] buffer = new byte[1024];
+			for (int read = input.read(buffer); read >= 0; read = input.read(buffer)) {
+				content.write(buffer, 0, read);
+			}
+		}
+
+		return new String(content.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+}
@@ -0,0 +1,61 @@
+package com.roomoccupancy.api.entrypoint.v1;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+/**
+ * Component tests of the {@link GetRevenueSurfaceEntrypoint}
+ * 
+ * @author luis
+ *
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class GetRevenueSurfaceEntrypointComponentTest {
+
+	private static final String GET_REVENUE_SURFACE_URL = "/v1/rooms/revenueSurface";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	public void getRevenueSurface_validParameters_incomeOfEveryNumberOfFreeRooms() throws Exception {
+		MvcResult asyncResult = this.mockMvc
+				.perform(get(GET_REVENUE_SURFACE_URL + "?maxFreePremiumRooms=2&maxFreeEconomyRooms=1&potentialGuests=120,40,70,99"))
+				.andExpect(request().asyncStarted()).andReturn();
+
+		this.mockMvc.perform(asyncDispatch(asyncResult)).andExpect(status().isOk())
+				.andExpect(jsonPath("$.requestTimestamp").isNotEmpty())
+				.andExpect(jsonPath("$.numberOfPotentialGuests").value(4))
+				.andExpect(jsonPath("$.generatedIncome.length()").value(3))
+				.andExpect(jsonPath("$.generatedIncome[0][0]").value(0))
+				.andExpect(jsonPath("$.generatedIncome[0][1]").value(99))
+				.andExpect(jsonPath("$.generatedIncome[1][0]").value(120))
+				.andExpect(jsonPath("$.generatedIncome[2][0]").value(219))
+				.andExpect(jsonPath("$.generatedIncome[2][1]").value(289));
+	}
+
+	@Test
+	public void getRevenueSurface_negativeMaxFreeRooms_badRequest() throws Exception {
+		this.mockMvc
+				.perform(get(GET_REVENUE_SURFACE_URL + "?maxFreePremiumRooms=-2&maxFreeEconomyRooms=1&potentialGuests=120"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.error").value("The number of free Premium rooms must be zero or greater."))
+				.andExpect(jsonPath("$.httpStatusCode").value(HttpStatus.BAD_REQUEST.value()));
+	}
+
+}
@@ -0,0 +1,91 @@
+package com.roomoccupancy.api.entrypoint.v1;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Component tests of the {@link HotelInventoryEntrypoint}
+ * 
+ * @author luis
+ *
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class HotelInventoryEntrypointComponentTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	public void getOptimizedRoomOccupancy_inventoryAfterBookings_optimizedOnTheFreeRooms() throws Exception {
+		this.mockMvc
+				.perform(put("/v1/hotels/hotel-a/inventory").param("freePremiumRooms", "3")
+						.param("freeEconomyRooms", "2"))
+				.andExpect(status().isOk()).andExpect(jsonPath("$.hotelId").value("hotel-a"))
+				.andExpect(jsonPath("$.premiumMinimumNightValue").value(100));
+
+		this.mockMvc.perform(post("/v1/hotels/hotel-a/inventory/bookings").param("premiumRooms", "1")
+				.param("economyRooms", "1")).andExpect(status().isOk())
+				.andExpect(jsonPath("$.freePremiumRooms").value(2)).andExpect(jsonPath("$.freeEconomyRooms").value(1));
+
+		this.mockMvc
+				.perform(get("/v1/hotels/hotel-a/rooms/optimizeOccupancy").param("potentialGuests", "120", "40",
+						"70", "99"))
+				.andExpect(status().isOk()).andExpect(jsonPath("$.requestTimestamp").isNotEmpty())
+				.andExpect(jsonPath("$.result.premiumOccupancy.numberOfOccupiedRooms").value(2))
+				.andExpect(jsonPath("$.result.premiumOccupancy.generatedIncome").value(219))
+				.andExpect(jsonPath("$.result.economyOccupancy.numberOfOccupiedRooms").value(1))
+				.andExpect(jsonPath("$.result.economyOccupancy.generatedIncome").value(70));
+
+		this.mockMvc.perform(post("/v1/hotels/hotel-a/inventory/cancellations").param("economyRooms", "1"))
+				.andExpect(status().isOk()).andExpect(jsonPath("$.freeEconomyRooms").value(2));
+
+		this.mockMvc.perform(delete("/v1/hotels/hotel-a/inventory")).andExpect(status().isNoContent());
+	}
+
+	@Test
+	public void putInventory_premiumMinimumNightValue_usedByTheOptimization() throws Exception {
+		this.mockMvc.perform(put("/v1/hotels/hotel-b/inventory").param("freePremiumRooms", "2")
+				.param("freeEconomyRooms", "1").param("premiumMinimumNightValue", "50")).andExpect(status().isOk());
+
+		this.mockMvc
+				.perform(get("/v1/hotels/hotel-b/rooms/optimizeOccupancy").param("potentialGuests", "120", "40",
+						"70", "99"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.result.premiumOccupancy.generatedIncome").value(219))
+				.andExpect(jsonPath("$.result.economyOccupancy.generatedIncome").value(40));
+	}
+
+	@Test
+	public void bookRooms_notEnoughFreeRooms_badRequest() throws Exception {
+		this.mockMvc.perform(put("/v1/hotels/hotel-c/inventory").param("freePremiumRooms", "1")
+				.param("freeEconomyRooms", "0")).andExpect(status().isOk());
+
+		this.mockMvc.perform(post("/v1/hotels/hotel-c/inventory/bookings").param("premiumRooms", "2"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.error").value("The hotel does not have enough free rooms for the booking."))
+				.andExpect(jsonPath("$.httpStatusCode").value(HttpStatus.BAD_REQUEST.value()));
+	}
+
+	@Test
+	public void getOptimizedRoomOccupancy_unknownHotel_badRequest() throws Exception {
+		this.mockMvc.perform(get("/v1/hotels/unknown/rooms/optimizeOccupancy").param("potentialGuests", "120"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.error").value("The inventory of the hotel was not found."));
+	}
+
+}
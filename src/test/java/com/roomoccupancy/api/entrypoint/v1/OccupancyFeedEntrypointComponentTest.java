@@ -0,0 +1,125 @@
+package com.roomoccupancy.api.entrypoint.v1;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.jayway.jsonpath.JsonPath;
+
+/**
+ * Component tests of the {@link OccupancyFeedEntrypoint}
+ *
+ * @author luis
+ *
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class OccupancyFeedEntrypointComponentTest {
+
+	private static final String FEED_OPTIMIZED_ROOM_OCCUPANCY_URL = "/v1/rooms/optimizeOccupancy/feed";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private OccupancyFeedEntrypoint feedEntrypoint;
+
+	@Test
+	public void feedOptimizedRoomOccupancy_linesOfOffers_snapshotAfterEachChange() throws Exception {
+		String[] snapshots = performFeed("?freePremiumRooms=2&freeEconomyRooms=1", "40\n[70, 99]\n10\n120\n");
+
+		Assert.assertEquals(4, snapshots.length);
+		assertSnapshot(snapshots[0], 0, 0, 0, 0, 0);
+		assertSnapshot(snapshots[1], 1, 0, 0, 1, 40);
+		assertSnapshot(snapshots[2], 3, 2, 169, 1, 40);
+		assertSnapshot(snapshots[3], 5, 2, 219, 1, 70);
+	}
+
+	@Test
+	public void feedOptimizedRoomOccupancy_invalidLine_feedEndedWithError() throws Exception {
+		String[] snapshots = performFeed("?freePremiumRooms=2&freeEconomyRooms=1", "120\n-40\n70\n");
+
+		Assert.assertEquals(3, snapshots.length);
+		assertSnapshot(snapshots[1], 1, 1, 120, 0, 0);
+		Assert.assertEquals("The value that a guest is willing to pay must be a valid positive Integer",
+				JsonPath.read(snapshots[2], "$.error"));
+	}
+
+	@Test
+	public void feedOptimizedRoomOccupancy_negativeFreeRooms_badRequest() throws Exception {
+		this.mockMvc
+				.perform(post(FEED_OPTIMIZED_ROOM_OCCUPANCY_URL + "?freePremiumRooms=-2&freeEconomyRooms=1")
+						.contentType(OccupancyFeedEntrypoint.APPLICATION_NDJSON_VALUE).content("120\n"))
+				.andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.error").value("The number of free Premium rooms must be zero or greater."))
+				.andExpect(jsonPath("$.httpStatusCode").value(HttpStatus.BAD_REQUEST.value()));
+	}
+
+	@Test
+	public void feedOptimizedRoomOccupancy_tooManyOpenFeeds_serviceUnavailable() throws Exception {
+		int maxOpenFeeds = feedEntrypoint.maxOpenFeeds;
+		feedEntrypoint.maxOpenFeeds = 0;
+
+		try {
+			this.mockMvc
+					.perform(post(FEED_OPTIMIZED_ROOM_OCCUPANCY_URL + "?freePremiumRooms=2&freeEconomyRooms=1")
+							.contentType(OccupancyFeedEntrypoint.APPLICATION_NDJSON_VALUE).content("120\n"))
+					.andExpect(status().isServiceUnavailable())
+					.andExpect(jsonPath("$.error").value("There are too many open feeds, try again later."));
+		} finally {
+			feedEntrypoint.maxOpenFeeds = maxOpenFeeds;
+		}
+
+		Assert.assertEquals(0, feedEntrypoint.getOpenFeeds());
+	}
+
+	@Test
+	public void feedOptimizedRoomOccupancy_feedCompleted_feedClosed() throws Exception {
+		performFeed("?freePremiumRooms=2&freeEconomyRooms=1", "40\n");
+
+		Assert.assertEquals(0, feedEntrypoint.getOpenFeeds());
+	}
+
+	private String[] performFeed(String queryString, String feed) throws Exception {
+		MvcResult asyncResult = this.mockMvc
+				.perform(post(FEED_OPTIMIZED_ROOM_OCCUPANCY_URL + queryString)
+						.contentType(OccupancyFeedEntrypoint.APPLICATION_NDJSON_VALUE).content(feed))
+				.andExpect(request().asyncStarted()).andReturn();
+
+		String response = this.mockMvc.perform(asyncDispatch(asyncResult)).andExpect(status().isOk())
+				.andExpect(content().contentType(OccupancyFeedEntrypoint.APPLICATION_NDJSON_VALUE)).andReturn()
+				.getResponse().getContentAsString();
+
+		return response.split("\n");
+	}
+
+	private static void assertSnapshot(String snapshot, int numberOfPotentialGuests, int premiumRooms,
+			int premiumIncome, int economyRooms, int economyIncome) {
+		Assert.assertEquals(Integer.valueOf(numberOfPotentialGuests),
+				JsonPath.read(snapshot, "$.numberOfPotentialGuests"));
+		Assert.assertEquals(Integer.valueOf(premiumRooms),
+				JsonPath.read(snapshot, "$.premiumOccupancy.numberOfOccupiedRooms"));
+		Assert.assertEquals(Integer.valueOf(premiumIncome),
+				JsonPath.read(snapshot, "$.premiumOccupancy.generatedIncome"));
+		Assert.assertEquals(Integer.valueOf(economyRooms),
+				JsonPath.read(snapshot, "$.economyOccupancy.numberOfOccupiedRooms"));
+		Assert.assertEquals(Integer.valueOf(economyIncome),
+				JsonPath.read(snapshot, "$.economyOccupancy.generatedIncome"));
+	}
+
+}
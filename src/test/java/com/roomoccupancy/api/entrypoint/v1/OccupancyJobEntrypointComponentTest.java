@@ -0,0 +1,114 @@
+package com.roomoccupancy.api.entrypoint.v1;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.hamcrest.Matchers;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Component tests of the {@link OccupancyJobEntrypoint}
+ * 
+ * @author luis
+ *
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class OccupancyJobEntrypointComponentTest {
+
+	private static final String OCCUPANCY_JOBS_URL = "/v1/rooms/optimizeOccupancy/jobs";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Test
+	public void submitJob_uploadedOffers_acceptedAndDoneAfterPolling() throws Exception {
+		ByteBuffer guestOffers = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+		guestOffers.putInt(120).putInt(40).putInt(70).putInt(99);
+
+		String response = this.mockMvc
+				.perform(post(OCCUPANCY_JOBS_URL).param("freePremiumRooms", "2").param("freeEconomyRooms", "1")
+						.contentType(MediaType.APPLICATION_OCTET_STREAM).content(guestOffers.array()))
+				.andExpect(status().isAccepted()).andExpect(header().string("Location",
+						Matchers.startsWith(OCCUPANCY_JOBS_URL + "/")))
+				.andReturn().getResponse().getContentAsString();
+
+		String jobId = objectMapper.readTree(response).path("job").path("jobId").asText();
+		JsonNode job = waitUntilFinished(jobId);
+
+		Assert.assertEquals("DONE", job.path("status").asText());
+		Assert.assertEquals(4, job.path("numberOfPotentialGuests").asLong());
+		Assert.assertEquals(219, job.path("result").path("premiumOccupancy").path("generatedIncome").asInt());
+		Assert.assertEquals(70, job.path("result").path("economyOccupancy").path("generatedIncome").asInt());
+
+		this.mockMvc.perform(delete(OCCUPANCY_JOBS_URL + "/" + jobId)).andExpect(status().isNoContent());
+	}
+
+	@Test
+	public void submitJob_uploadedCsvOffers_doneWithReadThroughput() throws Exception {
+		String response = this.mockMvc
+				.perform(post(OCCUPANCY_JOBS_URL).param("freePremiumRooms", "2").param("freeEconomyRooms", "1")
+						.contentType("text/csv").content("offer\n120\n40\n70\n99\n"))
+				.andExpect(status().isAccepted()).andReturn().getResponse().getContentAsString();
+
+		JsonNode job = waitUntilFinished(objectMapper.readTree(response).path("job").path("jobId").asText());
+
+		Assert.assertEquals("DONE", job.path("status").asText());
+		Assert.assertEquals(219, job.path("result").path("premiumOccupancy").path("generatedIncome").asInt());
+		Assert.assertEquals(19, job.path("numberOfBytesRead").asLong());
+		Assert.assertTrue(job.path("bytesReadPerSecond").asLong() > 0);
+	}
+
+	@Test
+	public void submitJob_fileOutOfTheOffersDirectory_badRequest() throws Exception {
+		this.mockMvc
+				.perform(post(OCCUPANCY_JOBS_URL).contentType(MediaType.APPLICATION_JSON).content(
+						"{\"freePremiumRooms\":2,\"freeEconomyRooms\":1,\"offersFile\":\"../../etc/passwd\"}"))
+				.andExpect(status().isBadRequest()).andExpect(jsonPath("$.error").value("The offers file was not found."))
+				.andExpect(jsonPath("$.httpStatusCode").value(HttpStatus.BAD_REQUEST.value()));
+	}
+
+	@Test
+	public void getJob_unknownJob_badRequest() throws Exception {
+		this.mockMvc.perform(get(OCCUPANCY_JOBS_URL + "/unknown")).andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.error").value("The occupancy job was not found."));
+	}
+
+	private JsonNode waitUntilFinished(String jobId) throws Exception {
+		while (true) {
+			JsonNode job = objectMapper.readTree(this.mockMvc.perform(get(OCCUPANCY_JOBS_URL + "/" + jobId))
+					.andExpect(status().isOk()).andReturn().getResponse().getContentAsString()).path("job");
+
+			String status = job.path("status").asText();
+			if (!"QUEUED".equals(status) && !"RUNNING".equals(status)) {
+				return job;
+			}
+
+			Thread.sleep(5);
+		}
+	}
+
+}
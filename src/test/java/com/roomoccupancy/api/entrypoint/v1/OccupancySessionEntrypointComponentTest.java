@@ -0,0 +1,69 @@
+package com.roomoccupancy.api.entrypoint.v1;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.roomoccupancy.api.entrypoint.v1.entity.OccupancySessionResponse;
+
+/**
+ * Component tests of the {@link OccupancySessionEntrypoint}
+ * 
+ * @author luis
+ *
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureMockMvc
+public class OccupancySessionEntrypointComponentTest {
+
+	private static final String OCCUPANCY_SESSIONS_URL = "/v1/rooms/occupancySessions";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Test
+	public void sessionLifecycle_addAndRemoveOffers_optimizedOccupancyKeptUpToDate() throws Exception {
+		String createResponse = this.mockMvc
+				.perform(post(OCCUPANCY_SESSIONS_URL).param("freePremiumRooms", "2").param("freeEconomyRooms", "1"))
+				.andExpect(status().isCreated()).andReturn().getResponse().getContentAsString();
+
+		String sessionId = objectMapper.readValue(createResponse, OccupancySessionResponse.class).getSession()
+				.getSessionId();
+		String sessionUrl = OCCUPANCY_SESSIONS_URL + "/" + sessionId;
+
+		for (String offer : new String[] { "120", "40", "70", "99", "15" }) {
+			this.mockMvc.perform(post(sessionUrl + "/potentialGuests").param("offer", offer))
+					.andExpect(status().isOk());
+		}
+
+		this.mockMvc.perform(delete(sessionUrl + "/potentialGuests/15")).andExpect(status().isOk())
+				.andExpect(jsonPath("$.session.numberOfPotentialGuests").value(4));
+
+		this.mockMvc.perform(get(sessionUrl + "/optimizeOccupancy")).andExpect(status().isOk())
+				.andExpect(jsonPath("$.result.premiumOccupancy.numberOfOccupiedRooms").value(2))
+				.andExpect(jsonPath("$.result.premiumOccupancy.generatedIncome").value(219))
+				.andExpect(jsonPath("$.result.economyOccupancy.numberOfOccupiedRooms").value(1))
+				.andExpect(jsonPath("$.result.economyOccupancy.generatedIncome").value(70));
+
+		this.mockMvc.perform(delete(sessionUrl)).andExpect(status().isNoContent());
+
+		this.mockMvc.perform(get(sessionUrl + "/optimizeOccupancy")).andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.error").value("The occupancy session was not found."));
+	}
+
+}
@@ -0,0 +1,206 @@
+package com.roomoccupancy.api.entrypoint.v1.parser;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.roomoccupancy.api.core.exception.BusinessException;
+import com.roomoccupancy.api.core.metrics.OccupancyOptimizationMetrics;
+import com.roomoccupancy.api.entrypoint.v1.entity.GetOptimizedCategoryOccupancyRequest;
+import com.roomoccupancy.api.entrypoint.v1.entity.OptimizedRoomOccupancyRequest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Unit tests for {@link OptimizedRoomOccupancyRequestParser}
+ * 
+ * @author luis
+ *
+ */
+public class OptimizedRoomOccupancyRequestParserTest {
+
+	private OptimizedRoomOccupancyRequestParser requestParser = new OptimizedRoomOccupancyRequestParser();
+
+	@Rule
+	public ExpectedException expectedException = ExpectedException.none();
+
+	{
+		requestParser.objectMapper = new ObjectMapper();
+	}
+
+	@Test
+	public void parse_validBody_allFieldsRead() throws IOException {
+		OptimizedRoomOccupancyRequest request = parse(
+				"{\"potentialGuests\":[120,40,70,99],\"unknown\":{\"a\":[1]},\"freePremiumRooms\":2,\"freeEconomyRooms\":1}");
+
+		Assert.assertEquals(Integer.valueOf(2), request.getFreePremiumRooms());
+		Assert.assertEquals(Integer.valueOf(1), request.getFreeEconomyRooms());
+		Assert.assertEquals(4, request.getPotentialGuests().size());
+	}
+
+	@Test
+	public void parse_absentFields_nullFields() throws IOException {
+		OptimizedRoomOccupancyRequest request = parse("{}");
+
+		Assert.assertNull(request.getFreePremiumRooms());
+		Assert.assertNull(request.getFreeEconomyRooms());
+		Assert.assertNull(request.getPotentialGuests());
+	}
+
+	@Test
+	public void parse_nullGuestOffer_throwBusinessException() throws IOException {
+		expectBusinessException("The value that a guest is willing to pay must be a valid positive Integer");
+		parse("{\"potentialGuests\":[120,null]}");
+	}
+
+	@Test
+	public void parse_negativeGuestOffer_throwBusinessException() throws IOException {
+		expectBusinessException("The value that a guest is willing to pay must be a valid positive Integer");
+		parse("{\"potentialGuests\":[120,-1]}");
+	}
+
+	@Test
+	public void parse_decimalFreeRooms_throwBusinessException() throws IOException {
+		expectBusinessException("The number of free rooms must be an Integer.");
+		parse("{\"freePremiumRooms\":1.5}");
+	}
+
+	@Test
+	public void parse_malformedBody_throwBusinessException() throws IOException {
+		expectBusinessException("The request body must be a valid JSON object.");
+		parse("{\"potentialGuests\":[120,");
+	}
+
+	@Test
+	public void parse_sliceWithHotelId_onlyTheSliceRead() {
+		byte[] body = "[{\"hotelId\":\"lisbon\",\"freePremiumRooms\":2,\"potentialGuests\":[120]}]"
+				.getBytes(StandardCharsets.UTF_8);
+
+		OptimizedRoomOccupancyRequest request = requestParser.parse(body, 1, body.length - 2);
+
+		Assert.assertEquals("lisbon", request.getHotelId());
+		Assert.assertEquals(Integer.valueOf(2), request.getFreePremiumRooms());
+		Assert.assertEquals(1, request.getPotentialGuests().size());
+	}
+
+	@Test
+	public void parse_guestIds_guestIdsInOrder() throws IOException {
+		OptimizedRoomOccupancyRequest request = parse("{\"potentialGuests\":[120,40],\"guestIds\":[\"ana\",\"bruno\"]}");
+
+		Assert.assertArrayEquals(new String[] { "ana", "bruno" }, request.getGuestIds());
+	}
+
+	@Test
+	public void parse_guestIdsBeforeTheOffers_everyGuestIdInOrder() throws IOException {
+		String[] guestIds = new String[40];
+		for (int i = 0; i < guestIds.length; i++) {
+			guestIds[i] = "guest-" + i;
+		}
+
+		OptimizedRoomOccupancyRequest request = parse(
+				"{\"guestIds\":[\"" + String.join("\",\"", guestIds) + "\"],\"potentialGuests\":[120]}");
+
+		Assert.assertArrayEquals(guestIds, request.getGuestIds());
+	}
+
+	@Test
+	public void parse_emptyGuestIds_emptyArray() throws IOException {
+		OptimizedRoomOccupancyRequest request = parse("{\"potentialGuests\":[120,40],\"guestIds\":[]}");
+
+		Assert.assertEquals(0, request.getGuestIds().length);
+	}
+
+	@Test
+	public void parse_numericGuestId_throwBusinessException() throws IOException {
+		expectBusinessException("The guest identifiers must be an array of Strings.");
+		parse("{\"guestIds\":[\"ana\",7]}");
+	}
+
+	@Test
+	public void parse_numericHotelId_throwBusinessException() throws IOException {
+		expectBusinessException("The hotel identifier must be a String.");
+		parse("{\"hotelId\":7}");
+	}
+
+	@Test
+	public void parseCategoryRequest_validBody_allFieldsRead() throws IOException {
+		GetOptimizedCategoryOccupancyRequest request = parseCategoryRequest("{\"potentialGuests\":[500,80],"
+				+ "\"freePremiumRooms\":2,\"categories\":[{\"name\":\"Suite\",\"minimumNightValue\":400,\"freeRooms\":1},"
+				+ "{\"name\":\"Standard\",\"minimumNightValue\":0,\"freeRooms\":3}]}");
+
+		Assert.assertEquals(2, request.getCategories().size());
+		Assert.assertEquals("Suite", request.getCategories().get(0).getName());
+		Assert.assertEquals(Integer.valueOf(400), request.getCategories().get(0).getMinimumNightValue());
+		Assert.assertEquals(Integer.valueOf(3), request.getCategories().get(1).getFreeRooms());
+		Assert.assertEquals(2, request.getPotentialGuests().size());
+	}
+
+	@Test
+	public void parseCategoryRequest_absentFields_nullFields() throws IOException {
+		GetOptimizedCategoryOccupancyRequest request = parseCategoryRequest("{}");
+
+		Assert.assertNull(request.getCategories());
+		Assert.assertNull(request.getPotentialGuests());
+	}
+
+	@Test
+	public void parseCategoryRequest_categoriesNotAnArray_throwBusinessException() throws IOException {
+		expectBusinessException("The room categories must be an array of objects.");
+		parseCategoryRequest("{\"categories\":{\"name\":\"Suite\"}}");
+	}
+
+	@Test
+	public void parseCategoryRequest_categoryNotAnObject_throwBusinessException() throws IOException {
+		expectBusinessException("The room categories must be an array of objects.");
+		parseCategoryRequest("{\"categories\":[\"Suite\"]}");
+	}
+
+	@Test
+	public void parseCategoryRequest_nullGuestOffer_throwBusinessException() throws IOException {
+		expectBusinessException("The value that a guest is willing to pay must be a valid positive Integer");
+		parseCategoryRequest("{\"potentialGuests\":[120,null]}");
+	}
+
+	@Test
+	public void parse_invalidBodies_rejectionsCountedByReason() throws IOException {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		requestParser.optimizationMetrics = new OccupancyOptimizationMetrics(meterRegistry);
+
+		for (String body : new String[] { "[1]", "{\"potentialGuests\":[-1]}", "{\"freePremiumRooms\":\"two\"" }) {
+			try {
+				parse(body);
+				Assert.fail(body);
+			} catch (BusinessException ex) {
+				// Counted below
+			}
+		}
+
+		Assert.assertEquals(1d, meterRegistry.get("roomoccupancy.optimization.rejections")
+				.tag("reason", "The request body must be a valid JSON object.").counter().count(), 0d);
+		Assert.assertEquals(1d, meterRegistry.get("roomoccupancy.optimization.rejections")
+				.tag("reason", "The value that a guest is willing to pay must be a valid positive Integer").counter()
+				.count(), 0d);
+		Assert.assertEquals(1d, meterRegistry.get("roomoccupancy.optimization.rejections")
+				.tag("reason", "The number of free rooms must be an Integer.").counter().count(), 0d);
+	}
+
+	private OptimizedRoomOccupancyRequest parse(String body) throws IOException {
+		return requestParser.parse(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	private GetOptimizedCategoryOccupancyRequest parseCategoryRequest(String body) throws IOException {
+		return requestParser.parseCategoryRequest(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	private void expectBusinessException(String expectedExceptionMessage) {
+		expectedException.expectMessage(expectedExceptionMessage);
+		expectedException.expect(BusinessException.class);
+	}
+
+}
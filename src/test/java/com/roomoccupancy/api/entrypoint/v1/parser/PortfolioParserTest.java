@@ -0,0 +1,131 @@
+package com.roomoccupancy.api.entrypoint.v1.parser;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.roomoccupancy.api.core.exception.BusinessException;
+import com.roomoccupancy.api.core.usecase.PortfolioHotel;
+
+/**
+ * Unit tests for {@link PortfolioParser}
+ *
+ * @author luis
+ *
+ */
+public class PortfolioParserTest {
+
+	private PortfolioParser portfolioParser = new PortfolioParser();
+
+	private List<Supplier<PortfolioHotel>> hotelReaders = new ArrayList<>();
+
+	private List<Integer> lineLengths = new ArrayList<>();
+
+	private List<String> errors = new ArrayList<>();
+
+	@Rule
+	public ExpectedException expectedException = ExpectedException.none();
+
+	{
+		portfolioParser.requestParser = new OptimizedRoomOccupancyRequestParser(new ObjectMapper());
+	}
+
+	@Test
+	public void parse_linesOfHotels_oneReaderPerHotel() throws IOException {
+		parse("{\"hotelId\":\"lisbon\",\"freePremiumRooms\":2,\"freeEconomyRooms\":1,\"potentialGuests\":[120,40]}\n"
+				+ "\n  \r\n{\"hotelId\":\"porto\",\"potentialGuests\":[300]}", false);
+
+		Assert.assertEquals(2, hotelReaders.size());
+
+		PortfolioHotel lisbon = hotelReaders.get(0).get();
+		Assert.assertEquals("lisbon", lisbon.getHotelId());
+		Assert.assertEquals(Integer.valueOf(2), lisbon.getFreePremiumRooms());
+		Assert.assertEquals(Integer.valueOf(1), lisbon.getFreeEconomyRooms());
+		Assert.assertEquals(2, lisbon.getPotentialGuests().size());
+
+		PortfolioHotel porto = hotelReaders.get(1).get();
+		Assert.assertEquals("porto", porto.getHotelId());
+		Assert.assertNull(porto.getFreePremiumRooms());
+		Assert.assertEquals(1, porto.getPotentialGuests().size());
+	}
+
+	@Test
+	public void parse_bytesArrivingOneByOne_sameHotels() throws IOException {
+		parse("{\"hotelId\":\"lisbon\",\"potentialGuests\":[120,40]}\n{\"hotelId\":\"porto\",\"potentialGuests\":[300]}\n",
+				true);
+
+		Assert.assertEquals(2, hotelReaders.size());
+		Assert.assertEquals("lisbon", hotelReaders.get(0).get().getHotelId());
+		Assert.assertEquals("porto", hotelReaders.get(1).get().getHotelId());
+		Assert.assertEquals(Arrays.asList(47, 43), lineLengths);
+	}
+
+	@Test
+	public void parse_hotelTooLong_skippedUntilTheNextLine() throws IOException {
+		portfolioParser.maxHotelBytes = 50;
+
+		parse("{\"hotelId\":\"lisbon\",\"potentialGuests\":[120,40,70,99,120,40,70,99]}\n"
+				+ "{\"hotelId\":\"porto\",\"potentialGuests\":[300]}\n", true);
+
+		Assert.assertEquals(1, errors.size());
+		Assert.assertEquals("A hotel of the portfolio must have 50 bytes or less.", errors.get(0));
+		Assert.assertEquals(1, hotelReaders.size());
+		Assert.assertEquals("porto", hotelReaders.get(0).get().getHotelId());
+	}
+
+	@Test
+	public void parse_invalidHotel_readerThrowsBusinessException() throws IOException {
+		parse("{\"hotelId\":7}\n", false);
+
+		expectedException.expectMessage("The hotel identifier must be a String.");
+		expectedException.expect(BusinessException.class);
+
+		hotelReaders.get(0).get();
+	}
+
+	private void parse(String portfolio, boolean oneByteAtATime) throws IOException {
+		InputStream input = new ByteArrayInputStream(portfolio.getBytes(StandardCharsets.UTF_8));
+
+		if (oneByteAtATime) {
+			InputStream bytes = input;
+			input = new InputStream() {
+
+				@Override
+				public int read() throws IOException {
+					return bytes.read();
+				}
+
+				@Override
+				public int read(byte[] buffer, int offset, int length) throws IOException {
+					return bytes.read(buffer, offset, Math.min(length, 1));
+				}
+			};
+		}
+
+		portfolioParser.parse(input, new PortfolioParser.Listener() {
+
+			@Override
+			public void onHotel(Supplier<PortfolioHotel> hotelReader, int numberOfBytes) {
+				hotelReaders.add(hotelReader);
+				lineLengths.add(numberOfBytes);
+			}
+
+			@Override
+			public void onInvalidHotel(String error) {
+				errors.add(error);
+			}
+		});
+	}
+
+}
@@ -0,0 +1,106 @@
+package com.roomoccupancy.api.entrypoint.v1.parser;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import com.roomoccupancy.api.core.exception.BusinessException;
+import com.roomoccupancy.api.core.usecase.GuestOffers;
+
+/**
+ * Unit tests for {@link PotentialGuestsParser}
+ * 
+ * @author luis
+ *
+ */
+public class PotentialGuestsParserTest {
+
+	private static final String POTENTIAL_GUESTS = "potentialGuests";
+
+	private static final String ERROR_INVALID_GUEST_OFFER = "The value that a guest is willing to pay must be a valid positive Integer";
+
+	@Rule
+	public ExpectedException expectedException = ExpectedException.none();
+
+	@Test
+	public void parseQueryString_repeatedAndCommaSeparatedOffers_allOffersAdded() {
+		GuestOffers guestOffers = new GuestOffers();
+
+		boolean found = PotentialGuestsParser.parseQueryString(
+				"freePremiumRooms=2&potentialGuests=120&potentialGuestsX=7&potentialGuests=40,70&freeEconomyRooms=1&potentialGuests=99",
+				POTENTIAL_GUESTS, guestOffers);
+
+		Assert.assertTrue(found);
+		assertSameOffers(guestOffers, 120, 40, 70, 99);
+	}
+
+	@Test
+	public void parseQueryString_encodedOffers_offersDecoded() {
+		GuestOffers guestOffers = new GuestOffers();
+
+		PotentialGuestsParser.parseQueryString("potentialGuests=120%2C40&potentialGuests=+70", POTENTIAL_GUESTS,
+				guestOffers);
+
+		assertSameOffers(guestOffers, 120, 40, 70);
+	}
+
+	@Test
+	public void parseQueryString_absentParameter_notFound() {
+		GuestOffers guestOffers = new GuestOffers();
+
+		Assert.assertFalse(
+				PotentialGuestsParser.parseQueryString("freePremiumRooms=2&freeEconomyRooms=1", POTENTIAL_GUESTS, guestOffers));
+		Assert.assertEquals(0, guestOffers.size());
+	}
+
+	@Test
+	public void parseQueryString_emptyOffer_throwBusinessException() {
+		expectBusinessException();
+		PotentialGuestsParser.parseQueryString("potentialGuests=120,,40", POTENTIAL_GUESTS, new GuestOffers());
+	}
+
+	@Test
+	public void parseQueryString_parameterWithoutValue_throwBusinessException() {
+		expectBusinessException();
+		PotentialGuestsParser.parseQueryString("potentialGuests&freePremiumRooms=2", POTENTIAL_GUESTS, new GuestOffers());
+	}
+
+	@Test
+	public void parseValue_negativeOffer_throwBusinessException() {
+		expectBusinessException();
+		PotentialGuestsParser.parseValue("-120", new GuestOffers());
+	}
+
+	@Test
+	public void parseValue_notAnInteger_throwBusinessException() {
+		expectBusinessException();
+		PotentialGuestsParser.parseValue("12a", new GuestOffers());
+	}
+
+	@Test
+	public void parseValue_overflowingOffer_throwBusinessException() {
+		expectBusinessException();
+		PotentialGuestsParser.parseValue("2147483648", new GuestOffers());
+	}
+
+	@Test
+	public void parseValue_nullValue_throwBusinessException() {
+		expectBusinessException();
+		PotentialGuestsParser.parseValue(null, new GuestOffers());
+	}
+
+	private void assertSameOffers(GuestOffers guestOffers, Integer... expectedOffers) {
+		GuestOffers expectedGuestOffers = GuestOffers.of(expectedOffers);
+
+		Assert.assertEquals(expectedGuestOffers.size(), guestOffers.size());
+		Assert.assertEquals(expectedGuestOffers.getFingerprint(), guestOffers.getFingerprint());
+		Assert.assertEquals(expectedGuestOffers.getSecondFingerprint(), guestOffers.getSecondFingerprint());
+	}
+
+	private void expectBusinessException() {
+		expectedException.expect(BusinessException.class);
+		expectedException.expectMessage(ERROR_INVALID_GUEST_OFFER);
+	}
+
+}